@@ -0,0 +1,64 @@
+package com.age.b2b.config;
+
+import com.age.b2b.support.MetricsSource;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Hibernate 2차 캐시 / 자연 키 캐시 적중률 (hibernate.generate_statistics=true 일 때 집계)
+@Component
+@RequiredArgsConstructor
+public class HibernateCacheMetrics implements MetricsSource {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public String getMetricsName() {
+        return "hibernateCache";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        map.put("secondLevelHits", statistics.getSecondLevelCacheHitCount());
+        map.put("secondLevelMisses", statistics.getSecondLevelCacheMissCount());
+        map.put("secondLevelPuts", statistics.getSecondLevelCachePutCount());
+        map.put("secondLevelHitRatio", ratio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()));
+        map.put("naturalIdHits", statistics.getNaturalIdCacheHitCount());
+        map.put("naturalIdMisses", statistics.getNaturalIdCacheMissCount());
+        map.put("naturalIdHitRatio", ratio(statistics.getNaturalIdCacheHitCount(), statistics.getNaturalIdCacheMissCount()));
+        map.put("entityLoads", statistics.getEntityLoadCount());
+        map.put("statements", statistics.getPrepareStatementCount());
+
+        // 캐시 영역별 (product, client, productNaturalId, clientNaturalId)
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            if (region == null) continue;
+
+            Map<String, Object> regionMap = new LinkedHashMap<>();
+            regionMap.put("hits", region.getHitCount());
+            regionMap.put("misses", region.getMissCount());
+            regionMap.put("puts", region.getPutCount());
+            regionMap.put("hitRatio", ratio(region.getHitCount(), region.getMissCount()));
+            regionMap.put("elementsInMemory", region.getElementCountInMemory());
+            regions.put(regionName, regionMap);
+        }
+        map.put("regions", regions);
+        return map;
+    }
+
+    private double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : Math.round(hits * 1000.0 / total) / 10.0;
+    }
+}
@@ -0,0 +1,45 @@
+package com.age.b2b.config;
+
+import com.age.b2b.service.rollup.DailyRollupRecorder;
+import com.age.b2b.service.search.SearchIndexer;
+import com.age.b2b.service.stock.AtpLedger;
+import com.age.b2b.service.stock.InventoryLogWriter;
+import com.age.b2b.service.stock.StockReservationService;
+import org.hibernate.Interceptor;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Iterator;
+
+@Configuration
+public class HibernateConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sessionInterceptorCustomizer(ObjectProvider<InventoryLogWriter> inventoryLogWriter,
+                                                                      ObjectProvider<DailyRollupRecorder> dailyRollupRecorder,
+                                                                      ObjectProvider<SearchIndexer> searchIndexer,
+                                                                      ObjectProvider<AtpLedger> atpLedger,
+                                                                      ObjectProvider<StockReservationService> stockReservationService) {
+        Interceptor interceptor = new Interceptor() {
+            // flush 직후, 트랜잭션에 쌓인 재고 이력 / 검색 색인을 배치 저장 (flush 후 조회 시에도 보이도록)
+            @Override
+            public void postFlush(Iterator<Object> entities) {
+                inventoryLogWriter.getObject().flush();
+                searchIndexer.getObject().flush();
+            }
+
+            // 커밋 직전 마지막 flush 이후, 같은 커넥션에서 대시보드 집계 / 남은 검색 색인 / 출고 대기 수량 / 재고 예약 확정·해제 반영
+            @Override
+            public void beforeTransactionCompletion(Transaction tx) {
+                dailyRollupRecorder.getObject().apply();
+                atpLedger.getObject().collect();
+                stockReservationService.getObject().collect();
+                searchIndexer.getObject().flush();
+            }
+        };
+        return properties -> properties.put("hibernate.session_factory.interceptor", interceptor);
+    }
+}
@@ -0,0 +1,50 @@
+package com.age.b2b.config;
+
+import com.age.b2b.domain.common.IdGenerators;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * IDENTITY → 테이블 ID 생성기 전환용 초기화
+ * - 기동 시 id_generators 의 값을 (기존 최대 ID + 구간 크기) 이상으로 맞춰, 기존 AUTO_INCREMENT 로 만든 행과 ID 가 겹치지 않게 함
+ * - GREATEST 로만 올리므로 여러 번 실행하거나 여러 서버가 동시에 기동해도 안전 (이미 발급 중인 구간을 되돌리지 않음)
+ * - 기존 컬럼의 AUTO_INCREMENT 속성은 그대로 두어도 됨 (ID 를 직접 넣으므로 사용되지 않음)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdGeneratorInitializer {
+
+    // pkColumnValue, 테이블, ID 컬럼 (엔티티의 @TableGenerator 와 일치)
+    private static final List<String[]> TARGETS = List.of(
+            new String[]{"orders", "orders", "order_id"},
+            new String[]{"order_items", "order_items", "order_item_id"},
+            new String[]{"product_lots", "product_lots", "lot_id"},
+            new String[]{"cart_items", "cart_items", "cart_item_id"}
+    );
+
+    private static final String SEED_SQL =
+            "INSERT INTO " + IdGenerators.TABLE + " (" + IdGenerators.PK_COLUMN + ", " + IdGenerators.VALUE_COLUMN + ") VALUES (?, ?) " +
+            "ON DUPLICATE KEY UPDATE " + IdGenerators.VALUE_COLUMN + " = GREATEST(" + IdGenerators.VALUE_COLUMN + ", ?)";
+
+    // 스키마 생성(ddl-auto) 이 끝난 뒤 실행되도록 EntityManagerFactory 에 의존
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void seed() {
+        for (String[] target : TARGETS) {
+            Long maxId = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(" + target[2] + "), 0) FROM " + target[1], Long.class);
+            long seed = maxId + IdGenerators.ALLOCATION_SIZE;
+            jdbcTemplate.update(SEED_SQL, target[0], seed, seed);
+            log.info("ID 생성기 초기화 - {}: 기존 최대 ID {}", target[0], maxId);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.age.b2b.controller;
 
 import com.age.b2b.domain.Client;
+import com.age.b2b.dto.CursorPageDto;
 import com.age.b2b.dto.OrderDto;
 import com.age.b2b.service.ClientService;
 import com.age.b2b.service.OrderService;
@@ -76,6 +77,19 @@ public class AdminController {
         return ResponseEntity.ok(orderService.getAdminOrderList(pageable, startDate, endDate, keyword));
     }
 
+    // 1-1. 전체 발주 목록 커서 조회 (깊은 페이지도 일정한 비용, withCount=true 일 때만 전체 건수 포함)
+    @GetMapping("/orders/cursor")
+    public ResponseEntity<CursorPageDto<OrderDto.AdminOrderListResponse>> getAdminOrderListByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = "false") boolean withCount
+    ) {
+        return ResponseEntity.ok(orderService.getAdminOrderListByCursor(cursor, size, startDate, endDate, keyword, withCount));
+    }
+
     // 2. 발주 취소 (삭제 대신 상태 변경)
     @PostMapping("/orders/cancel")
     public ResponseEntity<String> cancelOrders(@RequestBody Map<String, List<Long>> body) {
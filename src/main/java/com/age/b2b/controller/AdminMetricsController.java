@@ -0,0 +1,41 @@
+package com.age.b2b.controller;
+
+import com.age.b2b.support.MetricsSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/metrics")
+@RequiredArgsConstructor
+public class AdminMetricsController {
+
+    private final List<MetricsSource> metricsSources;
+
+    // 전체 지표 조회
+    @GetMapping
+    public ResponseEntity<Map<String, Map<String, Object>>> getAllMetrics() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (MetricsSource source : metricsSources) {
+            result.put(source.getMetricsName(), source.getMetrics());
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    // 지표 그룹별 조회
+    @GetMapping("/{name}")
+    public ResponseEntity<Map<String, Object>> getMetrics(@PathVariable String name) {
+        return metricsSources.stream()
+                .filter(source -> source.getMetricsName().equals(name))
+                .findFirst()
+                .map(source -> ResponseEntity.ok(source.getMetrics()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
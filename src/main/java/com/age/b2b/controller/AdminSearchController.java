@@ -0,0 +1,21 @@
+package com.age.b2b.controller;
+
+import com.age.b2b.service.search.SearchIndexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/search")
+public class AdminSearchController {
+
+    private final SearchIndexService searchIndexService;
+
+    // 검색 색인 재구성 (데이터 보정용)
+    @PostMapping("/rebuild")
+    public ResponseEntity<String> rebuildIndex() {
+        searchIndexService.rebuild();
+        return ResponseEntity.ok("검색 색인이 재구성되었습니다.");
+    }
+}
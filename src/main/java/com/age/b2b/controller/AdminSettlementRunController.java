@@ -0,0 +1,35 @@
+package com.age.b2b.controller;
+
+import com.age.b2b.dto.SettlementRunStatusDto;
+import com.age.b2b.service.SettlementService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/settlements/runs")
+@RequiredArgsConstructor
+public class AdminSettlementRunController {
+
+    private final SettlementService settlementService;
+
+    // [월별 정산 시작] 백그라운드 실행 후 진행 상황 즉시 반환 (미완료 실행이 있으면 이어서 실행)
+    @PostMapping
+    public ResponseEntity<SettlementRunStatusDto> startSettlement(@RequestParam int year, @RequestParam int month) {
+        return ResponseEntity.ok(settlementService.startMonthlySettlement(year, month));
+    }
+
+    // [정산 진행 상황] 파티션별 체크포인트/건수
+    @GetMapping("/{runId}")
+    public ResponseEntity<SettlementRunStatusDto> getRun(@PathVariable Long runId) {
+        return ResponseEntity.ok(settlementService.getRunStatus(runId));
+    }
+
+    // [정산 실행 이력] 정산월(YYYY-MM)별 최신순
+    @GetMapping
+    public ResponseEntity<List<SettlementRunStatusDto>> getRuns(@RequestParam String month) {
+        return ResponseEntity.ok(settlementService.getRuns(month));
+    }
+}
@@ -1,5 +1,7 @@
 package com.age.b2b.controller;
 
+import com.age.b2b.dto.BulkShipmentRequestDto;
+import com.age.b2b.dto.BulkShipmentResultDto;
 import com.age.b2b.dto.OrderDetailForShipmentDto;
 import com.age.b2b.dto.ShipmentCreateDto;
 import com.age.b2b.dto.ShipmentListResponseDto;
@@ -32,6 +34,12 @@ public class AdminShipmentController {
         return ResponseEntity.ok(shipmentId);
     }
 
+    // [일괄 출고 등록] 주문별 성공/실패 결과 반환
+    @PostMapping("/shipments/bulk")
+    public ResponseEntity<BulkShipmentResultDto> createShipments(@RequestBody BulkShipmentRequestDto dto) {
+        return ResponseEntity.ok(shipmentService.createShipments(dto.getOrderIds()));
+    }
+
     // 출고 목록 조회
     @GetMapping("/shipments/list")
     public ResponseEntity<Page<ShipmentListResponseDto>> getShipmentList(
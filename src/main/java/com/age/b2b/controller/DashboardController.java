@@ -2,7 +2,9 @@ package com.age.b2b.controller;
 
 import com.age.b2b.dto.dashboard.DashboardRes;
 import com.age.b2b.service.DashboardService;
+import com.age.b2b.service.rollup.DashboardRollupService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -11,10 +13,18 @@ import org.springframework.web.bind.annotation.*;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DashboardRollupService dashboardRollupService;
 
     // 대시보드 한 번에 내려주기(추천)
     @GetMapping
     public DashboardRes dashboard() {
         return dashboardService.getDashboard();
     }
+
+    // 일자별 집계 재구성 (데이터 보정용)
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<String> rebuildRollup() {
+        dashboardRollupService.rebuild();
+        return ResponseEntity.ok("대시보드 집계가 재구성되었습니다.");
+    }
 }
@@ -2,16 +2,23 @@ package com.age.b2b.controller;
 
 import com.age.b2b.domain.ProductLot;
 import com.age.b2b.dto.InboundRequestDto;
+import com.age.b2b.dto.InventoryLogRecordDto;
 import com.age.b2b.dto.StockAdjustmentDto;
+import com.age.b2b.dto.StockQualityRefreshResultDto;
 import com.age.b2b.service.InventoryService;
+import com.age.b2b.service.stock.InventoryLogQueryService;
+import com.age.b2b.service.stock.StockQualityRefresher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -21,6 +28,8 @@ import java.util.List;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final StockQualityRefresher stockQualityRefresher;
+    private final InventoryLogQueryService inventoryLogQueryService;
 
     /**
      * 입고 등록 (POST)
@@ -52,6 +61,14 @@ public class InventoryController {
         return ResponseEntity.ok(list);
     }
 
+    /**
+     * 특정 상품 가용 재고 수량 (GET)
+     */
+    @GetMapping("/product/{productId}/available")
+    public ResponseEntity<Integer> getAvailableQuantity(@PathVariable Long productId) {
+        return ResponseEntity.ok(inventoryService.getAvailableQuantity(productId));
+    }
+
     // 상세 조회
     @GetMapping("/detail/{id}")
     public ResponseEntity<ProductLot> getStockDetail(@PathVariable Long id) {
@@ -85,4 +102,26 @@ public class InventoryController {
         inventoryService.deleteStocks(ids);
         return ResponseEntity.ok("선택한 재고가 정상적으로 삭제되었습니다.");
     }
+
+    /**
+     * 재고 상태(유통기한 등급) 수동 갱신 (야간 작업 누락 보정용, 기본: 오늘 기준 1일)
+     */
+    @PostMapping("/quality/refresh")
+    public ResponseEntity<StockQualityRefreshResultDto> refreshStockQuality(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "1") int catchUpDays) {
+        return ResponseEntity.ok(stockQualityRefresher.refresh(date == null ? LocalDate.now() : date, catchUpDays));
+    }
+
+    /**
+     * 재고 이력 기간 조회 (보관된 월 포함, 오래된 순)
+     */
+    @GetMapping("/logs")
+    public ResponseEntity<List<InventoryLogRecordDto>> getInventoryLogs(
+            @RequestParam(required = false) Long lotId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(inventoryLogQueryService.findLogs(lotId, from, to, limit));
+    }
 }
\ No newline at end of file
@@ -34,13 +34,13 @@ public class PartnerController {
     private final OrderService orderService;
     private final ClientService clientService;  // ClientService 객체를 컨트롤러에 주입
 
-    // 1. 상품 목록 조회
+    // 1. 상품 목록 조회 (주문 가능 수량 포함)
     @GetMapping("/product/list")
     public ResponseEntity<Page<ProductResponseDto>> getPartnerProductList(
             @RequestParam(required = false) String keyword,
             @RequestParam(defaultValue = "0") int page
     ) {
-        Page<ProductResponseDto> list = productService.getProductList(keyword, null, page);
+        Page<ProductResponseDto> list = productService.getPartnerProductList(keyword, page);
         return ResponseEntity.ok(list);
     }
 
@@ -58,6 +58,15 @@ public class PartnerController {
         return ResponseEntity.ok("장바구니에 담았습니다.");
     }
 
+    // 2-1. 장바구니 일괄 담기 (상품코드 붙여넣기, 수량 지정) - 줄별 결과 반환
+    @PostMapping("/cart/bulk")
+    public ResponseEntity<CartBulkAddResultDto> bulkAddToCart(
+            @AuthenticationPrincipal PrincipalDetails principal,
+            @RequestBody CartBulkAddRequestDto request
+    ) {
+        return ResponseEntity.ok(cartService.addItemsToCart(principal.getClient(), request.getItems()));
+    }
+
     // 3. 장바구니 조회
     @GetMapping("/cart")
     public ResponseEntity<CartDto> getCartList(@AuthenticationPrincipal PrincipalDetails principal) {
@@ -123,6 +132,21 @@ public class PartnerController {
                 principal.getClient(), pageable, startDate, endDate, keyword));
     }
 
+    // 4-1. 발주 목록 커서 조회 (깊은 페이지도 일정한 비용, withCount=true 일 때만 전체 건수 포함)
+    @GetMapping("/order/list/cursor")
+    public ResponseEntity<CursorPageDto<OrderDto.PartnerOrderListResponse>> getOrderListByCursor(
+            @AuthenticationPrincipal PrincipalDetails principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = "false") boolean withCount
+    ) {
+        return ResponseEntity.ok(orderService.getPartnerOrderListByCursor(
+                principal.getClient(), cursor, size, startDate, endDate, keyword, withCount));
+    }
+
     // 5. 발주 상세 품목 조회
     @GetMapping("/order/{orderId}/items")
     public ResponseEntity<List<OrderDto.OrderItemDetail>> getOrderItems(
@@ -0,0 +1,44 @@
+package com.age.b2b.domain;
+
+import com.age.b2b.domain.common.StockQuality;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// 소진된 Lot 보관 테이블 (ProductLotArchiver 가 product_lots 에서 옮김, 반품/출고 삭제 복구 시 다시 되돌림)
+// 컬럼은 product_lots 와 같고 Lot ID 도 그대로 유지
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "product_lots_archive",
+        indexes = @Index(name = "idx_lot_archive_product_expiry", columnList = "product_id, expiry_date, lot_id"))
+public class ArchivedProductLot {
+
+    @Id
+    @Column(name = "lot_id")
+    private Long id;                // 원래 Lot ID
+
+    @Column(name = "product_id")
+    private Long productId;
+
+    private String lotNumber;
+    private int quantity;
+
+    private LocalDate expiryDate;
+    private LocalDate inboundDate;
+
+    @Enumerated(EnumType.STRING)
+    private StockQuality stockQuality;
+
+    private String warehouseLocation;
+
+    private long version;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime depletedAt;
+    private LocalDateTime archivedAt;   // 보관 테이블로 옮긴 시각
+}
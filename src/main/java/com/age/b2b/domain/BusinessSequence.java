@@ -0,0 +1,21 @@
+package com.age.b2b.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// 업무 번호(발주번호, Lot번호, 출고번호, 상품코드) 채번 테이블 - 서버는 여기서 번호 구간을 통째로 받아 메모리에서 발급
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "business_sequences")
+public class BusinessSequence {
+
+    @Id
+    @Column(name = "sequence_name", length = 50)
+    private String sequenceName;    // 예: order:20251224
+
+    @Column(name = "next_value", nullable = false)
+    private long nextValue;         // 아직 아무 서버에도 할당되지 않은 첫 번호
+}
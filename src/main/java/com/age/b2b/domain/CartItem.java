@@ -1,5 +1,6 @@
 package com.age.b2b.domain;
 
+import com.age.b2b.domain.common.IdGenerators;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -11,7 +12,9 @@ import lombok.Setter;
 @Table(name = "cart_items")
 public class CartItem {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.TABLE, generator = "cart_items_id")
+    @TableGenerator(name = "cart_items_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "cart_items", allocationSize = IdGenerators.ALLOCATION_SIZE)
     @Column(name = "cart_item_id")
     private Long id;
 
@@ -6,6 +6,10 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 
@@ -15,6 +19,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "clients")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "client")
+@NaturalIdCache(region = "clientNaturalId")
 public class Client {
 
     @Id
@@ -40,8 +47,9 @@ public class Client {
     @Column(length = 100, unique = true, nullable = false)
     private String email;
 
+    @NaturalId
     @Column(length = 50, unique = true, nullable = false) // length 조정 (16 -> 50)
-    private String username;
+    private String username; // 로그인 아이디 (2차 캐시 조회 키)
 
     @Column(nullable = false)
     private String password;
@@ -0,0 +1,39 @@
+package com.age.b2b.domain;
+
+import com.age.b2b.domain.common.OrderStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDate;
+
+// 발주일자별/고객사별/주문상태별 주문 집계 (대시보드 조회용, 주문 상태 변경 시 증분 반영)
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "daily_order_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_order_rollup", columnNames = {"order_date", "client_id", "status"}),
+        indexes = @Index(name = "idx_daily_order_rollup_status", columnList = "status, order_date"))
+public class DailyOrderRollup {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rollup_id")
+    private Long id;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDate orderDate; // 발주일자
+
+    // 고객사 ID (고객사 없는 주문은 0) - 집계 키이므로 연관관계 없이 값으로 보관
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private OrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;  // 주문 건수
+
+    @Column(name = "order_amount", nullable = false)
+    private long orderAmount; // 주문상품 금액 합계 (수량 x 단가)
+}
@@ -0,0 +1,33 @@
+package com.age.b2b.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDate;
+
+// 일자별/고객사별 정산 매출 집계 (대시보드 조회용, 정산 생성 시 증분 반영)
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "daily_sales_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_sales_rollup", columnNames = {"sales_date", "client_id"}))
+public class DailySalesRollup {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rollup_id")
+    private Long id;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate; // 정산 생성일
+
+    // 고객사 ID (고객사 없는 정산은 0) - 집계 키이므로 연관관계 없이 값으로 보관
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Column(name = "sales_amount", nullable = false)
+    private long salesAmount;    // 정산 금액 합계
+
+    @Column(name = "settlement_count", nullable = false)
+    private long settlementCount; // 정산 건수
+}
@@ -10,7 +10,11 @@ import java.time.LocalDateTime;
 @Entity
 @Getter @Setter
 @NoArgsConstructor
-@Table(name = "inventory_logs")
+@Table(name = "inventory_logs",
+        indexes = {
+                @Index(name = "idx_inventory_log_lot", columnList = "lot_id, created_at"),
+                @Index(name = "idx_inventory_log_created", columnList = "created_at")
+        })
 public class InventoryLog {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,8 +22,9 @@ public class InventoryLog {
     private Long id;
 
     // [LAZY] 어떤 Lot의 재고가 변했는지 연결
+    // 소진된 Lot 은 보관 테이블(product_lots_archive)로 옮겨질 수 있고, 월별 파티션 테이블은 FK 를 가질 수 없으므로 FK 제약은 두지 않음
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "lot_id")
+    @JoinColumn(name = "lot_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private ProductLot productLot;
 
     // 변동 수량 (입고는 양수, 출고/폐기는 음수로 저장하거나, 로직에 따라 관리)
@@ -0,0 +1,31 @@
+package com.age.b2b.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+// 월 단위로 파일(gzip NDJSON)로 옮긴 재고 이력 (InventoryLogArchiver 가 기록, 이력 조회 시 이 목록으로 읽을 파일을 찾음)
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "inventory_log_archives",
+        uniqueConstraints = @UniqueConstraint(name = "uk_inventory_log_archive_month", columnNames = "archive_month"))
+public class InventoryLogArchive {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "inventory_log_archive_id")
+    private Long id;
+
+    @Column(name = "archive_month", nullable = false, length = 7)
+    private String archiveMonth;    // 이력 월 (YYYY-MM)
+
+    @Column(nullable = false, length = 500)
+    private String filePath;        // 보관 파일 경로
+
+    private long rowCount;          // 파일에 담긴 이력 건수
+    private long fileSize;          // 압축 후 파일 크기 (byte)
+
+    private LocalDateTime archivedAt;
+}
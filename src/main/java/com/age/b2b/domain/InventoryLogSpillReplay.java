@@ -0,0 +1,26 @@
+package com.age.b2b.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// 재저장한 재고 이력 보관 파일 표시 - 이력 INSERT 와 같은 트랜잭션에 기록, 파일 삭제가 실패해도 다시 저장하지 않음
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "inventory_log_spill_replays")
+public class InventoryLogSpillReplay {
+
+    @Id
+    @Column(name = "file_name", length = 100)
+    private String fileName;            // 보관 파일 이름 (예: inventory-logs-1735689600000-1.ndjson)
+
+    @Column(name = "entry_count")
+    private int entryCount;             // 저장한 이력 건수
+
+    @Column(name = "replayed_at")
+    private LocalDateTime replayedAt;   // 재저장 일시
+}
@@ -1,7 +1,12 @@
 package com.age.b2b.domain;
 
+import com.age.b2b.domain.common.IdGenerators;
 import com.age.b2b.domain.common.OrderStatus;
+import com.age.b2b.service.rollup.OrderRollupListener;
+import com.age.b2b.service.search.SearchIndexListener;
+import com.age.b2b.service.stock.AtpOrderListener;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -12,10 +17,19 @@ import java.util.List;
 @Entity
 @Getter @Setter
 @NoArgsConstructor
-@Table(name = "orders")
+@Table(name = "orders",
+        indexes = {
+                @Index(name = "idx_orders_client_status_created", columnList = "client_id, status, created_at"),
+                // 주문 목록 키셋 페이지네이션 (createdAt, id 역순)
+                @Index(name = "idx_orders_created_id", columnList = "created_at, order_id"),
+                @Index(name = "idx_orders_client_created_id", columnList = "client_id, created_at, order_id")
+        })
+@EntityListeners({AtpOrderListener.class, OrderRollupListener.class, SearchIndexListener.class})
 public class Order {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.TABLE, generator = "orders_id")
+    @TableGenerator(name = "orders_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "orders", allocationSize = IdGenerators.ALLOCATION_SIZE)
     @Column(name = "order_id")
     private Long id;
 
@@ -30,6 +44,11 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderStatus status; // 발주상태 (출고전, 배송완료 등)
 
+    // DB에 마지막으로 반영된 상태 (상태 변경 집계용, 저장 안 함)
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private OrderStatus statusSnapshot;
+
     @Column(name= "total_amount", nullable = false)
     private int totalAmount; // 총 금액
 
@@ -66,6 +85,11 @@ public class Order {
         this.updatedAt = LocalDateTime.now();
     }
 
+    // 현재 상태를 DB 반영 상태로 기록 (엔티티 리스너에서 호출)
+    public void markStatusSnapshot() {
+        this.statusSnapshot = this.status;
+    }
+
     // 연관관계 편의 메서드
     public void addOrderItem(OrderItem item) {
         this.orderItems.add(item);
@@ -0,0 +1,51 @@
+package com.age.b2b.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+// 커밋 후 처리할 후속 작업 (원본 변경과 같은 트랜잭션에 저장 -> OutboxDispatcher 가 비동기로 처리)
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "outbox_events",
+        indexes = @Index(name = "idx_outbox_status_next", columnList = "status, next_attempt_at, outbox_event_id"))
+public class OutboxEvent {
+
+    // 상태
+    public static final String PENDING = "PENDING";     // 처리 대기 (재시도 포함)
+    public static final String DONE = "DONE";           // 처리 완료
+    public static final String FAILED = "FAILED";       // 최대 시도 횟수 초과
+
+    // 이벤트 종류
+    public static final String CART_CLEANUP = "CART_CLEANUP";           // 결제된 주문 상품을 장바구니에서 삭제
+    public static final String ORDER_PAID_MAIL = "ORDER_PAID_MAIL";     // 결제 완료 안내 메일
+    public static final String DASHBOARD_REFRESH = "DASHBOARD_REFRESH"; // 대시보드 스냅샷 갱신
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "outbox_event_id")
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String eventType;
+
+    private Long aggregateId;       // 대상 ID (예: 주문 ID)
+
+    @Column(length = 1000)
+    private String payload;         // 추가 데이터 (선택)
+
+    @Column(nullable = false, length = 20)
+    private String status;          // PENDING, DONE, FAILED
+
+    private int attempts;           // 처리 시도 횟수
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;    // 이 시각 이후 처리 (재시도 대기 / 처리 중 임대 만료)
+
+    private String lastError;       // 마지막 실패 사유
+
+    private LocalDateTime createdAt;
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,50 @@
+package com.age.b2b.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+// 결제 승인 요청 이력 (paymentKey 당 1건 - 같은 키로 다시 요청하면 이 행으로 중복 승인을 막음)
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "payments",
+        uniqueConstraints = @UniqueConstraint(name = "uk_payments_payment_key", columnNames = "payment_key"),
+        indexes = {
+                @Index(name = "idx_payments_order", columnList = "order_id"),
+                @Index(name = "idx_payments_status", columnList = "status")
+        })
+public class Payment {
+
+    public static final String REQUESTED = "REQUESTED"; // 결제사 승인 요청 중
+    public static final String APPROVED = "APPROVED";   // 승인 완료
+    public static final String FAILED = "FAILED";       // 승인 실패 (같은 paymentKey 로 재시도 가능)
+    public static final String UNKNOWN = "UNKNOWN";     // 결제사 응답 없음 (승인됐을 수 있음 -> 같은 paymentKey 로 다시 확인)
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "payment_id")
+    private Long id;
+
+    @Column(name = "payment_key", nullable = false, length = 200)
+    private String paymentKey;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    private Order order;
+
+    private int amount;
+
+    @Column(nullable = false, length = 20)
+    private String status;          // REQUESTED, APPROVED, FAILED, UNKNOWN
+
+    private String method;          // 결제수단 (결제사 응답)
+    private String errorCode;       // 실패 / 결과 불확실 코드 (결제사 코드 또는 TIMEOUT / NETWORK_ERROR)
+    private String errorMessage;    // 실패 사유
+
+    private int attempts;           // 승인 요청 횟수
+
+    private LocalDateTime requestedAt;  // 마지막 승인 요청 시각
+    private LocalDateTime approvedAt;
+}
@@ -1,10 +1,15 @@
 package com.age.b2b.domain;
 
 import com.age.b2b.domain.common.ProductStatus;
+import com.age.b2b.service.search.SearchIndexListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -13,14 +18,19 @@ import java.time.LocalDateTime;
 @Getter @Setter
 @NoArgsConstructor
 @Table(name = "products")
+@EntityListeners(SearchIndexListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
+@NaturalIdCache(region = "productNaturalId")
 public class Product {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "product_id")
     private Long id;
 
+    @NaturalId
     @Column(nullable = false, unique = true)
-    private String productCode; // 상품코드
+    private String productCode; // 상품코드 (2차 캐시 조회 키)
 
     @Column(nullable = false)
     private String name; // 상품명
@@ -1,6 +1,8 @@
 package com.age.b2b.domain;
 
+import com.age.b2b.domain.common.IdGenerators;
 import com.age.b2b.domain.common.StockQuality;
+import com.age.b2b.service.search.SearchIndexListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -11,10 +13,20 @@ import java.time.LocalDateTime;
 @Entity
 @Getter @Setter
 @NoArgsConstructor
-@Table(name = "product_lots")
+@Table(name = "product_lots",
+        indexes = {
+                @Index(name = "idx_lot_product_expiry", columnList = "product_id, expiry_date, lot_id"),
+                @Index(name = "idx_lot_expiry_quality", columnList = "expiry_date, stock_quality"),
+                @Index(name = "idx_lot_depleted", columnList = "depleted_at"),
+                // 일자별 Lot 번호 시작값 조회 (BusinessNumberService)
+                @Index(name = "idx_lot_number", columnList = "lot_number")
+        })
+@EntityListeners(SearchIndexListener.class)
 public class ProductLot {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.TABLE, generator = "product_lots_id")
+    @TableGenerator(name = "product_lots_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "product_lots", allocationSize = IdGenerators.ALLOCATION_SIZE)
     @Column(name = "lot_id")
     private Long id;
 
@@ -35,21 +47,38 @@ public class ProductLot {
 
     private String warehouseLocation;
 
+    // 낙관적 락 버전 (JDBC 차감 경로도 함께 증가시킴)
+    @Version
+    private long version;
+
     // --- 시간 설정 ---
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+    // 수량이 0 이 된 시각 (수량이 다시 생기면 null, 상태 갱신 등 다른 변경으로는 바뀌지 않음 -> 소진 Lot 보관 기준)
+    @Column(name = "depleted_at")
+    private LocalDateTime depletedAt;
 
     @PrePersist
     public void prePersist() {
         LocalDateTime now = LocalDateTime.now();
         this.createdAt = now;
         this.updatedAt = now;
+        markDepleted(now);
     }
 
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
+        markDepleted(this.updatedAt);
+    }
+
+    private void markDepleted(LocalDateTime now) {
+        if (quantity > 0) {
+            this.depletedAt = null;
+        } else if (this.depletedAt == null) {
+            this.depletedAt = now;
+        }
     }
 }
\ No newline at end of file
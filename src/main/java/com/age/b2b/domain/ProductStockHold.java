@@ -0,0 +1,27 @@
+package com.age.b2b.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// 상품별 약속 수량 (재고 예약 HELD + 출고 대기 PREPARING 주문 수량) - 모든 서버가 공유하는 예약 판정 행
+// StockReservationService 가 조건부 UPDATE (약속 수량 + 주문 수량 <= 현재고) 로만 늘리므로 서버가 여러 대여도 초과 예약되지 않음
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "product_stock_holds")
+public class ProductStockHold {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;             // 상품 ID (FK 없음, 처음 예약할 때 생성)
+
+    @Column(name = "reserved_quantity", nullable = false)
+    private int reservedQuantity;       // 예약 + 출고 대기 수량
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,25 @@
+package com.age.b2b.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// 집계 재구성 / 증분 반영 직렬화용 잠금 행 - 증분 반영은 공유 잠금, 재구성은 배타 잠금을 커밋까지 잡음
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "rollup_fences")
+public class RollupFence {
+
+    public static final String DASHBOARD = "dashboard";
+
+    @Id
+    @Column(name = "fence_name", length = 50)
+    private String fenceName;           // 예: dashboard
+
+    @Column(name = "rebuilt_at")
+    private LocalDateTime rebuiltAt;    // 마지막 재구성 일시
+}
@@ -0,0 +1,40 @@
+package com.age.b2b.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// 검색용 n-gram 역색인 (문서 종류 + 토큰 -> 문서 ID), 원본 저장/수정/삭제 시 함께 갱신
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "search_tokens",
+        indexes = {
+                @Index(name = "idx_search_token_lookup", columnList = "doc_type, token, doc_id, weight"),
+                @Index(name = "idx_search_token_doc", columnList = "doc_type, doc_id")
+        })
+public class SearchToken {
+
+    // 문서 종류
+    public static final String PRODUCT = "PRODUCT";   // 상품명, 상품코드
+    public static final String LOT = "LOT";           // Lot 번호
+    public static final String ORDER = "ORDER";       // 발주번호
+    public static final String SHIPMENT = "SHIPMENT"; // 출고번호
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "search_token_id")
+    private Long id;
+
+    @Column(name = "doc_type", nullable = false, length = 20)
+    private String docType;
+
+    @Column(nullable = false, length = 8)
+    private String token;       // 1글자 / 2글자 n-gram (소문자, 공백 제거)
+
+    @Column(name = "doc_id", nullable = false)
+    private Long docId;         // 원본 PK
+
+    @Column(nullable = false)
+    private int weight;         // 순위 가중치 (필드 가중치 x 등장 횟수)
+}
@@ -1,5 +1,6 @@
 package com.age.b2b.domain;
 
+import com.age.b2b.service.rollup.SettlementRollupListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -9,7 +10,9 @@ import java.time.LocalDateTime;
 @Entity
 @Getter @Setter
 @NoArgsConstructor
-@Table(name = "settlements")
+@Table(name = "settlements",
+        uniqueConstraints = @UniqueConstraint(name = "uk_settlement_client_month", columnNames = {"client_id", "settlement_month"}))
+@EntityListeners(SettlementRollupListener.class)
 public class Settlement {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,6 +30,7 @@ public class Settlement {
     @JoinColumn(name = "client_id")
     private Client client;
 
+    @Column(name = "settlement_month")
     private String settlementMonth; // 정산기준월 (YYYY-MM)
     private Long totalAmount;       // 정산 금액 합계
     private String status;          // 정산상태 (정산완료, 미정산)
@@ -0,0 +1,42 @@
+package com.age.b2b.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+// 정산 실행의 고객사 ID 구간 (fromClientId, toClientId] - 청크 단위 체크포인트 보관
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "settlement_partitions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_settlement_partition", columnNames = {"run_id", "partition_no"}))
+public class SettlementPartition {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "partition_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "run_id", nullable = false)
+    private SettlementRun run;
+
+    @Column(name = "partition_no", nullable = false)
+    private int partitionNo;
+
+    private long fromClientId;      // 구간 시작 (미포함)
+    private long toClientId;        // 구간 끝 (포함)
+    private long lastClientId;      // 마지막으로 완료된 청크의 고객사 ID (체크포인트)
+
+    @Column(nullable = false, length = 20)
+    private String status;          // PENDING, RUNNING, COMPLETED, FAILED
+
+    private int completedChunks;    // 완료된 청크 수
+    private int createdCount;       // 생성된 정산 건수
+    private long totalAmount;       // 생성된 정산 금액 합계
+
+    private String errorMessage;    // 실패 사유
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,39 @@
+package com.age.b2b.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+// 월별 정산 실행 이력 (고객사 ID 구간별 파티션으로 나눠서 병렬 처리, 파티션마다 체크포인트 보관)
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "settlement_runs",
+        indexes = @Index(name = "idx_settlement_run_month", columnList = "settlement_month, status"))
+public class SettlementRun {
+
+    // 실행/파티션 공통 상태
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "run_id")
+    private Long id;
+
+    @Column(name = "settlement_month", nullable = false, length = 7)
+    private String settlementMonth; // 정산기준월 (YYYY-MM)
+
+    @Column(nullable = false, length = 20)
+    private String status;          // 실행상태 (RUNNING, COMPLETED, FAILED)
+
+    private int partitionCount;     // 파티션 수
+
+    private String errorMessage;    // 실패 사유 (실패한 파티션 요약)
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -1,5 +1,6 @@
 package com.age.b2b.domain;
 
+import com.age.b2b.service.search.SearchIndexListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 @Getter @Setter
 @NoArgsConstructor
 @Table(name = "shipments")
+@EntityListeners(SearchIndexListener.class)
 public class Shipment {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,36 @@
+package com.age.b2b.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDate;
+
+// 출고 시 실제로 차감된 Lot 내역 (출고 1건 : Lot 할당 N건)
+// - Lot 번호/유통기한은 출고 시점 값을 그대로 보관 (Lot 삭제/수정과 무관하게 출고 이력 유지)
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "shipment_lots",
+        indexes = @Index(name = "idx_shipment_lots_shipment", columnList = "shipment_id, product_id"))
+public class ShipmentLot {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "shipment_lot_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "shipment_id", nullable = false)
+    private Shipment shipment;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "lot_id", nullable = false)
+    private Long lotId;
+
+    private String lotNumber;       // 출고 시점 Lot 번호
+    private LocalDate expiryDate;   // 출고 시점 유통기한
+
+    private int quantity;           // 이 Lot에서 차감한 수량
+}
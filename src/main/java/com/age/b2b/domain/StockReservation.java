@@ -0,0 +1,47 @@
+package com.age.b2b.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+// 결제 대기 주문의 상품별 재고 예약 (주문 생성 시 JDBC 로 일괄 저장 -> 결제 승인 시 확정, 취소/만료 시 해제)
+// 예약 가능 여부는 product_stock_holds 공유 행에서 판정 (AtpLedger 는 조회 캐시), Lot 배정은 출고 시점에 FEFO 로 처리
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "stock_reservations",
+        indexes = {
+                @Index(name = "idx_reservation_order", columnList = "order_id"),
+                @Index(name = "idx_reservation_status_expires", columnList = "status, expires_at"),
+                @Index(name = "idx_reservation_product_status", columnList = "product_id, status")
+        })
+public class StockReservation {
+
+    // 상태
+    public static final String HELD = "HELD";               // 예약 중 (결제 대기)
+    public static final String CONFIRMED = "CONFIRMED";     // 결제 승인으로 확정 (이후 출고 대기 수량으로 차감)
+    public static final String RELEASED = "RELEASED";       // 취소 / 만료로 해제
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "reservation_id")
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;           // 주문 ID (주문 삭제와 무관하게 남도록 FK 없음)
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    private int quantity;
+
+    @Column(nullable = false, length = 20)
+    private String status;          // HELD, CONFIRMED, RELEASED
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;    // 이 시각까지 결제되지 않으면 해제
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,18 @@
+package com.age.b2b.domain.common;
+
+/**
+ * 테이블 기반 ID 생성기 공통 설정 (id_generators 테이블, pooled 옵티마이저)
+ * - IDENTITY 와 달리 INSERT 전에 ID 가 정해지므로 Hibernate 가 INSERT 를 JDBC 배치로 묶을 수 있음
+ * - 한 번에 ALLOCATION_SIZE 개씩 구간을 받아 메모리에서 발급 (구간당 조회/갱신 1회)
+ * - JDBC 로 직접 INSERT 하는 테이블(inventory_logs, shipments, settlements 등)은 AUTO_INCREMENT 에 의존하므로 IDENTITY 유지
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generators";
+    public static final String PK_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {
+    }
+}
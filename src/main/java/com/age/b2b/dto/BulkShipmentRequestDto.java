@@ -0,0 +1,11 @@
+package com.age.b2b.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter @Setter
+public class BulkShipmentRequestDto {
+    private List<Long> orderIds; // 출고할 주문 ID 목록
+}
@@ -0,0 +1,31 @@
+package com.age.b2b.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkShipmentResultDto {
+    private int requestedCount;  // 요청 건수
+    private int successCount;    // 출고 성공 건수
+    private int failureCount;    // 출고 실패 건수
+    private List<Item> results;  // 주문별 처리 결과
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Item {
+        private Long orderId;
+        private boolean success;
+        private Long shipmentId;       // 성공 시 출고 PK
+        private String shipmentNumber; // 성공 시 출고 번호
+        private String message;        // 실패 사유
+    }
+}
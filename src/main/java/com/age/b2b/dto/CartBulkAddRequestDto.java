@@ -0,0 +1,17 @@
+package com.age.b2b.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter @Setter
+public class CartBulkAddRequestDto {
+    private List<Line> items; // 담을 상품코드/수량 목록 (붙여넣기 순서 유지)
+
+    @Getter @Setter
+    public static class Line {
+        private String productCode;
+        private Integer quantity; // 생략 시 1개
+    }
+}
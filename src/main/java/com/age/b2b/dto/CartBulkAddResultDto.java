@@ -0,0 +1,35 @@
+package com.age.b2b.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartBulkAddResultDto {
+    public static final String ADDED = "ADDED";             // 장바구니에 새로 추가
+    public static final String INCREMENTED = "INCREMENTED"; // 이미 담긴 상품 수량 증가
+    public static final String UNKNOWN = "UNKNOWN";         // 존재하지 않는 상품코드
+
+    private int requestedCount;   // 요청 줄 수
+    private int addedCount;       // 새로 추가된 줄 수
+    private int incrementedCount; // 수량이 늘어난 줄 수
+    private int unknownCount;     // 상품코드를 찾지 못한 줄 수
+    private List<Item> results;   // 요청 순서대로 줄별 처리 결과
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Item {
+        private String productCode;
+        private String result;     // ADDED, INCREMENTED, UNKNOWN
+        private int quantity;      // 요청 수량
+        private int cartCount;     // 처리 후 장바구니 수량 (UNKNOWN 이면 0)
+    }
+}
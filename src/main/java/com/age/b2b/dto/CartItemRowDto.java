@@ -0,0 +1,30 @@
+package com.age.b2b.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// 장바구니 조회 행 (장바구니 + 항목 + 상품 가격) - 고객사 장바구니 전체를 한 번의 쿼리로 조회
+@Getter
+@NoArgsConstructor
+public class CartItemRowDto {
+
+    private Long cartId;
+    private Long itemId;       // 빈 장바구니면 null
+    private Long productId;
+    private String productCode;
+    private String productName;
+    private int supplyPrice;
+    private int count;
+
+    // JPQL new 연산자용 생성자
+    public CartItemRowDto(Long cartId, Long itemId, Long productId, String productCode, String productName,
+                          Integer supplyPrice, Integer count) {
+        this.cartId = cartId;
+        this.itemId = itemId;
+        this.productId = productId;
+        this.productCode = productCode;
+        this.productName = productName;
+        this.supplyPrice = supplyPrice == null ? 0 : supplyPrice;
+        this.count = count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,20 @@
+package com.age.b2b.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDto<T> {
+    private List<T> content;     // 현재 페이지 목록
+    private int size;            // 요청한 페이지 크기
+    private boolean hasNext;     // 다음 페이지 존재 여부
+    private String nextCursor;   // 다음 페이지 요청 시 전달할 커서 (마지막 페이지면 null)
+    private Long totalElements;  // 전체 건수 (withCount=false 면 COUNT 쿼리 생략 -> null)
+}
@@ -0,0 +1,25 @@
+package com.age.b2b.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// 재고 이력 1건 (운영 테이블 / 보관 파일 공통 형식, 보관 파일에는 한 줄에 1건씩 JSON 으로 저장)
+@Getter @Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryLogRecordDto {
+    private Long logId;
+    private Long lotId;
+    private int changeQuantity;
+    private int currentQuantity;
+    private String reason;          // AdjustmentReason 이름
+    private String note;
+    private LocalDateTime createdAt;
+    private boolean archived;       // 보관 파일에서 읽은 이력인지 여부
+}
@@ -0,0 +1,53 @@
+package com.age.b2b.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// 주문 목록 행 요약 (주문별 품목 수 / 총 수량 / 고객사명 / 대표 상품) - 목록 페이지 단위로 한 번에 조회
+@Getter
+@NoArgsConstructor
+public class OrderListSummaryDto {
+
+    private Long orderId;
+    private String clientName;       // 고객사명
+    private long itemCount;          // 품목 수
+    private long totalQuantity;      // 총 수량
+
+    // 대표 상품 (주문의 첫 번째 품목)
+    private String repProductCode;
+    private String repProductName;
+    private int repSupplyPrice;      // 상품 현재 공급가
+    private int repItemPrice;        // 주문 시점 공급가
+
+    // JPQL new 연산자용 생성자 (주문별 집계)
+    public OrderListSummaryDto(Long orderId, String clientName, Long itemCount, Long totalQuantity) {
+        this.orderId = orderId;
+        this.clientName = clientName;
+        this.itemCount = itemCount == null ? 0 : itemCount;
+        this.totalQuantity = totalQuantity == null ? 0 : totalQuantity;
+    }
+
+    // JPQL new 연산자용 생성자 (대표 상품)
+    public OrderListSummaryDto(Long orderId, String repProductCode, String repProductName, int repSupplyPrice, int repItemPrice) {
+        this.orderId = orderId;
+        this.repProductCode = repProductCode;
+        this.repProductName = repProductName;
+        this.repSupplyPrice = repSupplyPrice;
+        this.repItemPrice = repItemPrice;
+    }
+
+    // 대표 상품 정보 병합
+    public OrderListSummaryDto withRepItem(OrderListSummaryDto repItem) {
+        if (repItem != null) {
+            this.repProductCode = repItem.repProductCode;
+            this.repProductName = repItem.repProductName;
+            this.repSupplyPrice = repItem.repSupplyPrice;
+            this.repItemPrice = repItem.repItemPrice;
+        }
+        return this;
+    }
+
+    public boolean hasRepItem() {
+        return repProductCode != null || repProductName != null;
+    }
+}
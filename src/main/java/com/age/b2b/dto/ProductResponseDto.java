@@ -28,8 +28,14 @@ public class ProductResponseDto {
 
     private LocalDate expiryDate;
 
+    private Integer availableQuantity; // 주문 가능 수량 (현재고 - 출고 대기 주문, 파트너 목록에서만 채움)
+
     // Entity -> DTO 변환 메서드 (편의성)
     public static ProductResponseDto from(Product product) {
+        return from(product, null);
+    }
+
+    public static ProductResponseDto from(Product product, Integer availableQuantity) {
         return ProductResponseDto.builder()
                 .id(product.getId())
                 .productId(product.getId())
@@ -42,6 +48,7 @@ public class ProductResponseDto {
                 .description(product.getDescription())
                 .origin(product.getOrigin())
                 .expiryDate(product.getExpiryDate())
+                .availableQuantity(availableQuantity)
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.age.b2b.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SettlementRunStatusDto {
+    private Long runId;
+    private String settlementMonth;     // 정산기준월 (YYYY-MM)
+    private String status;              // RUNNING, COMPLETED, FAILED
+    private boolean active;             // 현재 이 서버에서 실행 중인지 여부
+    private int partitionCount;         // 전체 파티션 수
+    private int completedPartitions;    // 완료된 파티션 수
+    private int failedPartitions;       // 실패한 파티션 수
+    private int createdCount;           // 생성된 정산 건수 (전체 파티션 합계)
+    private long totalAmount;           // 생성된 정산 금액 합계
+    private String errorMessage;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private List<Partition> partitions; // 파티션별 진행 상황
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Partition {
+        private int partitionNo;
+        private long fromClientId;      // 구간 시작 (미포함)
+        private long toClientId;        // 구간 끝 (포함)
+        private long lastClientId;      // 체크포인트
+        private String status;
+        private int completedChunks;
+        private int createdCount;
+        private long totalAmount;
+        private String errorMessage;
+        private LocalDateTime updatedAt;
+    }
+}
@@ -0,0 +1,53 @@
+package com.age.b2b.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// 출고 목록 행 (출고 + 주문 + 대표 상품 + 대표 상품의 출고 Lot) - 목록 페이지를 한 번의 쿼리로 조회
+@Getter
+@NoArgsConstructor
+public class ShipmentListRowDto {
+
+    private Long shipmentId;
+    private String shipmentNumber;
+    private LocalDateTime shippedDate;
+    private String orderNumber;
+    private LocalDateTime orderDate;
+    private String address;
+
+    // 대표 상품 (주문의 첫 번째 품목)
+    private String productCode;
+    private String productName;
+    private String origin;
+
+    private long itemCount;          // 품목 수
+    private long totalQuantity;      // 총 수량
+
+    // 대표 상품에서 실제로 차감된 첫 번째 Lot (Lot 할당 내역이 없는 과거 출고는 null)
+    private String lotNumber;
+    private LocalDate expiryDate;
+
+    // JPQL new 연산자용 생성자
+    public ShipmentListRowDto(Long shipmentId, String shipmentNumber, LocalDateTime shippedDate,
+                              String orderNumber, LocalDateTime orderDate, String address,
+                              String productCode, String productName, String origin,
+                              Long itemCount, Long totalQuantity,
+                              String lotNumber, LocalDate expiryDate) {
+        this.shipmentId = shipmentId;
+        this.shipmentNumber = shipmentNumber;
+        this.shippedDate = shippedDate;
+        this.orderNumber = orderNumber;
+        this.orderDate = orderDate;
+        this.address = address;
+        this.productCode = productCode;
+        this.productName = productName;
+        this.origin = origin;
+        this.itemCount = itemCount == null ? 0 : itemCount;
+        this.totalQuantity = totalQuantity == null ? 0 : totalQuantity;
+        this.lotNumber = lotNumber;
+        this.expiryDate = expiryDate;
+    }
+}
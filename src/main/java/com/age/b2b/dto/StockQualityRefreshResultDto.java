@@ -0,0 +1,23 @@
+package com.age.b2b.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockQualityRefreshResultDto {
+    private LocalDate baseDate;                 // 기준일 (유통기한 경과일 계산 기준)
+    private int catchUpDays;                    // 기준일 포함 며칠 동안 경계를 넘은 Lot 까지 반영했는지
+    private Map<String, Integer> transitions;   // 전이별 변경 건수 (ex. "NORMAL->MANAGED": 12)
+    private int updatedCount;                   // 변경된 Lot 합계
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,14 @@
+package com.age.b2b.repository;
+
+import com.age.b2b.domain.ArchivedProductLot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedProductLotRepository extends JpaRepository<ArchivedProductLot, Long> {
+
+    // 상품의 보관된 Lot 목록 (유통기한순)
+    List<ArchivedProductLot> findByProductIdOrderByExpiryDateAscIdAsc(Long productId);
+}
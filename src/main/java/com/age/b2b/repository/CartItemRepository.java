@@ -2,9 +2,26 @@ package com.age.b2b.repository;
 
 import com.age.b2b.domain.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     void deleteByProductId(Long id);
+
+    // 장바구니 주문용 항목 (현재 상품 가격 포함 한 번에 조회, 다른 거래처 장바구니 항목은 제외)
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.product " +
+            "WHERE ci.id IN :cartItemIds AND ci.cart.client.clientId = :clientId ORDER BY ci.id ASC")
+    List<CartItem> findAllWithProductByIdIn(@Param("cartItemIds") Collection<Long> cartItemIds,
+                                            @Param("clientId") Long clientId);
+
+    // 주문한 상품의 주문 고객사 장바구니 항목 ID (결제 시점에 정리 대상을 고정)
+    @Query("SELECT ci.id FROM CartItem ci, OrderItem oi " +
+            "WHERE oi.order.id = :orderId AND ci.product = oi.product AND ci.cart.client = oi.order.client " +
+            "ORDER BY ci.id ASC")
+    List<Long> findIdsOrderedIn(@Param("orderId") Long orderId);
 }
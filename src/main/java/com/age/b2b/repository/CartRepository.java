@@ -2,12 +2,22 @@ package com.age.b2b.repository;
 
 import com.age.b2b.domain.Cart;
 import com.age.b2b.domain.Client;
+import com.age.b2b.dto.CartItemRowDto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByClient(Client client);
+
+    // 장바구니 화면용 행 (상품 가격 포함, 빈 장바구니는 항목 null 인 1행, 장바구니가 없으면 0행)
+    @Query("SELECT new com.age.b2b.dto.CartItemRowDto(c.id, ci.id, p.id, p.productCode, p.name, p.supplyPrice, ci.count) " +
+            "FROM Cart c LEFT JOIN c.cartItems ci LEFT JOIN ci.product p " +
+            "WHERE c.client.clientId = :clientId ORDER BY ci.id ASC")
+    List<CartItemRowDto> findItemRows(@Param("clientId") Long clientId);
 }
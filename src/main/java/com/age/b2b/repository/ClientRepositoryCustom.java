@@ -0,0 +1,11 @@
+package com.age.b2b.repository;
+
+import com.age.b2b.domain.Client;
+
+import java.util.Optional;
+
+public interface ClientRepositoryCustom {
+
+    // 아이디로 조회 (로그인/인증 요청마다 호출 - 자연 키 캐시 -> 엔티티 캐시 순으로 조회)
+    Optional<Client> findByUsername(String username);
+}
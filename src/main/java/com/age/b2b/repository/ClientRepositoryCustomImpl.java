@@ -0,0 +1,24 @@
+package com.age.b2b.repository;
+
+import com.age.b2b.domain.Client;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Transactional(readOnly = true)
+public class ClientRepositoryCustomImpl implements ClientRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Client> findByUsername(String username) {
+        if (username == null) return Optional.empty();
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Client.class)
+                .loadOptional(username);
+    }
+}
@@ -1,94 +1,74 @@
 package com.age.b2b.repository;
 
-import com.age.b2b.domain.Order;
+import com.age.b2b.domain.DailyOrderRollup;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
+// 대시보드 조회 - 원본(settlements, orders) 대신 일자별 집계 테이블을 조회 (조회 비용 = 일수)
 @Repository
-public interface DashboardRepository extends JpaRepository<Order, Long> {
+public interface DashboardRepository extends JpaRepository<DailyOrderRollup, Long> {
 
-    // ===== 1) 오늘 매출 (o.created_at 사용) =====
+    // ===== 1) 기간 매출 합계 (정산 기준, [from, to)) =====
     @Query(value = """
-SELECT COALESCE(SUM(s.total_amount), 0)
-FROM settlements s
-WHERE s.created_at >= DATE(CONVERT_TZ(NOW(), '+00:00', '+09:00'))
-  AND s.created_at <  DATE_ADD(DATE(CONVERT_TZ(NOW(), '+00:00', '+09:00')), INTERVAL 1 DAY)
-""", nativeQuery = true)
-    Long todaySettlementSales();
-
-
-    // ===== 2) 전일 매출 (o.created_at 사용) =====
-    @Query(value = """
-SELECT COALESCE(SUM(s.total_amount), 0)
-FROM settlements s
-WHERE s.created_at >= DATE_SUB(DATE(CONVERT_TZ(NOW(), '+00:00', '+09:00')), INTERVAL 1 DAY)
-  AND s.created_at <  DATE(CONVERT_TZ(NOW(), '+00:00', '+09:00'))
-""", nativeQuery = true)
-    Long yesterdaySettlementSales();
-
-
-    // ===== 3) 이번달 매출(정산 기준) =====
-    @Query(value = """
-        SELECT COALESCE(SUM(s.total_amount), 0)
-        FROM settlements s
-        WHERE s.created_at >= DATE_FORMAT(CURDATE(), '%Y-%m-01')
-          AND s.created_at < DATE_ADD(DATE_FORMAT(CURDATE(), '%Y-%m-01'), INTERVAL 1 MONTH)
+        SELECT COALESCE(SUM(r.sales_amount), 0)
+        FROM daily_sales_rollups r
+        WHERE r.sales_date >= :from
+          AND r.sales_date < :to
         """, nativeQuery = true)
-    Long monthSales();
+    Long salesBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
 
-    // ===== 4) 일별 매출 (o.created_at 사용) =====
+    // ===== 2) 일별 매출 =====
     @Query(value = """
-    SELECT 
-        DATE_FORMAT(s.created_at, '%m/%d') AS date_label,
-        COALESCE(SUM(s.total_amount), 0) AS sales
-    FROM settlements s
-    WHERE s.created_at >= DATE_SUB(CURDATE(), INTERVAL 6 DAY) -- 오늘 포함 최근 5일
-    GROUP BY DATE_FORMAT(s.created_at, '%m/%d'), DATE(s.created_at)
-    ORDER BY DATE(s.created_at) ASC
-    """, nativeQuery = true)
-    List<Object[]> dailySalesRaw();
+        SELECT r.sales_date, COALESCE(SUM(r.sales_amount), 0) AS sales
+        FROM daily_sales_rollups r
+        WHERE r.sales_date >= :from
+        GROUP BY r.sales_date
+        ORDER BY r.sales_date ASC
+        """, nativeQuery = true)
+    List<Object[]> dailySalesRaw(@Param("from") LocalDate from);
 
-    // ===== 5) 발주 현황 카드 =====
+    // ===== 3) 발주 현황 카드 =====
     @Query(value = """
         SELECT
-            COALESCE(SUM(CASE WHEN o.status = 'PREPARING' THEN 1 ELSE 0 END), 0) AS request_cnt,
-            COALESCE(SUM(CASE WHEN o.status = 'SHIPPED' THEN 1 ELSE 0 END), 0) AS out_cnt,
-            COALESCE(SUM(CASE WHEN o.status = 'SHIPPED' THEN 1 ELSE 0 END), 0) AS delivery_cnt,
-            COALESCE(SUM(CASE WHEN o.status = 'DELIVERED' THEN 1 ELSE 0 END), 0) AS complete_cnt
-        FROM orders o
+            COALESCE(SUM(CASE WHEN r.status = 'PREPARING' THEN r.order_count ELSE 0 END), 0) AS request_cnt,
+            COALESCE(SUM(CASE WHEN r.status = 'SHIPPED' THEN r.order_count ELSE 0 END), 0) AS out_cnt,
+            COALESCE(SUM(CASE WHEN r.status = 'SHIPPED' THEN r.order_count ELSE 0 END), 0) AS delivery_cnt,
+            COALESCE(SUM(CASE WHEN r.status = 'DELIVERED' THEN r.order_count ELSE 0 END), 0) AS complete_cnt
+        FROM daily_order_rollups r
+        WHERE r.status IN ('PREPARING', 'SHIPPED', 'DELIVERED')
         """, nativeQuery = true)
     Object[] orderStatusCountsRaw();
 
-    // ===== 6) 고객사 매출 (o.created_at 사용) =====
+    // ===== 4) 고객사 매출 (배송완료 주문, 발주일 기준 [from, to)) =====
     @Query(value = """
         SELECT
             c.business_name AS client_name,
-            COALESCE(SUM(oi.count * oi.price), 0) AS sales
-        FROM orders o
-        JOIN order_items oi ON o.order_id = oi.order_id
-        JOIN clients c ON o.client_id = c.client_id
-        WHERE o.status = 'DELIVERED'
-          AND o.created_at >= DATE_FORMAT(CURDATE(), '%Y-%m-01')
-          AND o.created_at < DATE_ADD(DATE_FORMAT(CURDATE(), '%Y-%m-01'), INTERVAL 1 MONTH)
+            COALESCE(SUM(r.order_amount), 0) AS sales
+        FROM daily_order_rollups r
+        JOIN clients c ON r.client_id = c.client_id
+        WHERE r.status = 'DELIVERED'
+          AND r.order_date >= :from
+          AND r.order_date < :to
         GROUP BY c.business_name
+        HAVING SUM(r.order_count) > 0
         ORDER BY sales DESC
         """, nativeQuery = true)
-    List<Object[]> clientSalesRaw();
-
-    // ===== 7) 발주내역   =====
-    // DashboardRepository.java
-
+    List<Object[]> clientSalesRaw(@Param("from") LocalDate from, @Param("to") LocalDate to);
 
+    // ===== 5) 발주내역 (출고전 주문 고객사별 건수) =====
     @Query(value = """
-    SELECT c.business_name, COUNT(o.order_id) -- c.name 대신 c.business_name 사용
-    FROM orders o
-    JOIN clients c ON o.client_id = c.client_id
-    WHERE o.status = 'PREPARING'
-    GROUP BY c.business_name
-    LIMIT 3
-    """, nativeQuery = true)
+        SELECT c.business_name, SUM(r.order_count)
+        FROM daily_order_rollups r
+        JOIN clients c ON r.client_id = c.client_id
+        WHERE r.status = 'PREPARING'
+        GROUP BY c.business_name
+        HAVING SUM(r.order_count) > 0
+        LIMIT 3
+        """, nativeQuery = true)
     List<Object[]> findPreparingOrderSummary();
-}
\ No newline at end of file
+}
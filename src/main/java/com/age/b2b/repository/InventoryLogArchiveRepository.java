@@ -0,0 +1,20 @@
+package com.age.b2b.repository;
+
+import com.age.b2b.domain.InventoryLogArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InventoryLogArchiveRepository extends JpaRepository<InventoryLogArchive, Long> {
+
+    Optional<InventoryLogArchive> findByArchiveMonth(String archiveMonth);
+
+    // 기간에 걸친 보관 월 목록 (YYYY-MM 문자열 순서 = 시간 순서)
+    List<InventoryLogArchive> findByArchiveMonthBetweenOrderByArchiveMonthAsc(String fromMonth, String toMonth);
+
+    // 가장 최근에 보관한 월
+    Optional<InventoryLogArchive> findTopByOrderByArchiveMonthDesc();
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,6 +17,11 @@ public interface InventoryLogRepository extends JpaRepository<InventoryLog, Long
     @Query("DELETE FROM InventoryLog l WHERE l.productLot.id = :lotId")
     void deleteByProductLotId(@Param("lotId") Long lotId);
 
+    // 여러 Lot 의 로그 한 번에 삭제
+    @Modifying
+    @Query("DELETE FROM InventoryLog l WHERE l.productLot.id IN :lotIds")
+    void deleteByProductLotIds(@Param("lotIds") Collection<Long> lotIds);
+
     // 특정 Lot의 로그가 있는지 확인용
     List<InventoryLog> findByProductLotId(Long lotId);
 }
\ No newline at end of file
@@ -3,25 +3,52 @@ package com.age.b2b.repository;
 import com.age.b2b.domain.Client;
 import com.age.b2b.domain.Order;
 import com.age.b2b.domain.common.OrderStatus;
+import com.age.b2b.dto.OrderListSummaryDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    // 키셋 커서 조건 (createdAt, id) < (커서) - OR 없는 createdAt 상한이 인덱스 범위가 되고, 같은 시각은 id 로 구분
+    String SEEK_AFTER =
+            "AND o.createdAt <= :cursorCreatedAt " +
+            "AND (o.createdAt < :cursorCreatedAt OR o.id < :cursorId) ";
+
     // [고객사] 내 주문 조회
     List<Order> findByClient_ClientIdOrderByCreatedAtDesc(Long clientId);
 
     // 주문번호로 조회 (결제 검증 시 사용)
     Optional<Order> findByOrderNumber(String orderNumber);
 
+    // 주문번호로 조회 + 행 잠금 (같은 주문의 결제 승인 요청 직렬화)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.orderNumber = :orderNumber")
+    Optional<Order> findByOrderNumberForUpdate(@Param("orderNumber") String orderNumber);
+
+    // [본사] 일괄 출고 대상 주문 + 주문상품 + 상품 한 번에 조회
+    @Query("SELECT DISTINCT o FROM Order o " +
+            "LEFT JOIN FETCH o.orderItems oi " +
+            "LEFT JOIN FETCH oi.product " +
+            "WHERE o.id IN :orderIds")
+    List<Order> findAllWithItemsByIdIn(@Param("orderIds") List<Long> orderIds);
+
+    // 출고 대상 주문 선점 (ID 순으로 행 잠금 -> 같은 주문을 동시에 출고하면 나중 요청은 앞 요청 커밋 후 상태를 다시 봄)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :orderIds ORDER BY o.id")
+    List<Order> findAllByIdInForUpdate(@Param("orderIds") Collection<Long> orderIds);
+
     // [본사] 전체 주문 목록 조회 (최신순)
     List<Order> findAllByOrderByCreatedAtDesc();
 
@@ -64,6 +91,117 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             Pageable pageable
     );
 
+    // [고객사] 내 주문 목록 키셋 조회 - 첫 페이지 (createdAt, id 역순, pageable 은 조회 건수 제한용)
+    @Query("SELECT o FROM Order o " +
+            "WHERE o.client.clientId = :clientId " +
+            "AND o.status <> 'PENDING' " +
+            "AND (:startDate IS NULL OR o.createdAt >= :startDate) " +
+            "AND (:endDate IS NULL OR o.createdAt <= :endDate) " +
+            "AND (:keyword IS NULL OR o.orderNumber LIKE %:keyword%) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> seekClientOrders(
+            @Param("clientId") Long clientId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("keyword") String keyword,
+            Pageable pageable
+    );
+
+    // [고객사] 내 주문 목록 키셋 조회 - 커서 이후 (createdAt, id) < (커서) 범위만 읽음
+    // 앞의 createdAt <= 커서 조건으로 (client_id, created_at, order_id) 인덱스를 범위 탐색 (MySQL 은 행 생성자 부등호로는 범위 탐색 안 함)
+    @Query("SELECT o FROM Order o " +
+            "WHERE o.client.clientId = :clientId " +
+            "AND o.status <> 'PENDING' " +
+            "AND (:startDate IS NULL OR o.createdAt >= :startDate) " +
+            "AND (:endDate IS NULL OR o.createdAt <= :endDate) " +
+            "AND (:keyword IS NULL OR o.orderNumber LIKE %:keyword%) " +
+            SEEK_AFTER +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> seekClientOrdersAfter(
+            @Param("clientId") Long clientId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("keyword") String keyword,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+
+    @Query("SELECT COUNT(o) FROM Order o " +
+            "WHERE o.client.clientId = :clientId " +
+            "AND o.status <> 'PENDING' " +
+            "AND (:startDate IS NULL OR o.createdAt >= :startDate) " +
+            "AND (:endDate IS NULL OR o.createdAt <= :endDate) " +
+            "AND (:keyword IS NULL OR o.orderNumber LIKE %:keyword%)")
+    long countClientOrders(
+            @Param("clientId") Long clientId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("keyword") String keyword
+    );
+
+    // [본사] 전체 주문 목록 키셋 조회 - 첫 페이지
+    @Query("SELECT o FROM Order o " +
+            "JOIN o.client c " +
+            "WHERE o.status <> 'PENDING' " +
+            "AND (:startDate IS NULL OR o.createdAt >= :startDate) " +
+            "AND (:endDate IS NULL OR o.createdAt <= :endDate) " +
+            "AND (:keyword IS NULL OR c.businessName LIKE %:keyword% OR o.orderNumber LIKE %:keyword%) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> seekAdminOrders(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("keyword") String keyword,
+            Pageable pageable
+    );
+
+    // [본사] 전체 주문 목록 키셋 조회 - 커서 이후 ((created_at, order_id) 인덱스 범위 탐색)
+    @Query("SELECT o FROM Order o " +
+            "JOIN o.client c " +
+            "WHERE o.status <> 'PENDING' " +
+            "AND (:startDate IS NULL OR o.createdAt >= :startDate) " +
+            "AND (:endDate IS NULL OR o.createdAt <= :endDate) " +
+            "AND (:keyword IS NULL OR c.businessName LIKE %:keyword% OR o.orderNumber LIKE %:keyword%) " +
+            SEEK_AFTER +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> seekAdminOrdersAfter(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("keyword") String keyword,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+
+    @Query("SELECT COUNT(o) FROM Order o " +
+            "JOIN o.client c " +
+            "WHERE o.status <> 'PENDING' " +
+            "AND (:startDate IS NULL OR o.createdAt >= :startDate) " +
+            "AND (:endDate IS NULL OR o.createdAt <= :endDate) " +
+            "AND (:keyword IS NULL OR c.businessName LIKE %:keyword% OR o.orderNumber LIKE %:keyword%)")
+    long countAdminOrders(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("keyword") String keyword
+    );
+
+    // [목록] 페이지에 포함된 주문들의 품목 수 / 총 수량 / 고객사명 (주문별 1행)
+    @Query("SELECT new com.age.b2b.dto.OrderListSummaryDto(o.id, c.businessName, COUNT(oi.id), SUM(oi.count)) " +
+            "FROM Order o " +
+            "LEFT JOIN o.client c " +
+            "LEFT JOIN o.orderItems oi " +
+            "WHERE o.id IN :orderIds " +
+            "GROUP BY o.id, c.businessName")
+    List<OrderListSummaryDto> findListSummaries(@Param("orderIds") Collection<Long> orderIds);
+
+    // [목록] 페이지에 포함된 주문들의 대표 상품 (주문별 첫 번째 품목)
+    @Query("SELECT new com.age.b2b.dto.OrderListSummaryDto(oi.order.id, p.productCode, p.name, p.supplyPrice, oi.price) " +
+            "FROM OrderItem oi " +
+            "JOIN oi.product p " +
+            "WHERE oi.id IN (" +
+            "    SELECT MIN(oi2.id) FROM OrderItem oi2 WHERE oi2.order.id IN :orderIds GROUP BY oi2.order.id)")
+    List<OrderListSummaryDto> findListRepItems(@Param("orderIds") Collection<Long> orderIds);
+
     Page<Order> findByStatus(OrderStatus orderStatus, Pageable pageable);
 
     // 반품 목록 검색 쿼리
@@ -80,4 +218,17 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             @Param("keyword") String keyword,
             Pageable pageable
     );
+
+    // 반품/취소 목록 색인 검색 (발주번호 또는 주문 상품의 상품명/코드 n-gram 토큰을 모두 포함)
+    @Query("SELECT o FROM Order o " +
+            "WHERE o.status IN :statuses " +
+            "AND (o.id IN (" + SearchTokenRepository.MATCH_ORDERS + ") " +
+            "    OR EXISTS (SELECT 1 FROM OrderItem oi WHERE oi.order = o " +
+            "        AND oi.product.id IN (" + SearchTokenRepository.MATCH_PRODUCTS + ")))")
+    Page<Order> findByStatusInAndTokens(
+            @Param("statuses") List<OrderStatus> statuses,
+            @Param("tokens") Collection<String> tokens,
+            @Param("tokenCount") long tokenCount,
+            Pageable pageable
+    );
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.age.b2b.repository;
+
+import com.age.b2b.domain.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // 대상의 이벤트 목록 (등록순)
+    List<OutboxEvent> findByAggregateIdOrderByIdAsc(Long aggregateId);
+}
@@ -0,0 +1,32 @@
+package com.age.b2b.repository;
+
+import com.age.b2b.domain.Payment;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentRepository extends JpaRepository<Payment, Long> {
+
+    Optional<Payment> findByPaymentKey(String paymentKey);
+
+    // 같은 paymentKey 동시 요청 직렬화 (행 잠금)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.paymentKey = :paymentKey")
+    Optional<Payment> findByPaymentKeyForUpdate(@Param("paymentKey") String paymentKey);
+
+    // 주문의 승인 완료 결제 존재 여부 (다른 paymentKey 로 중복 결제 방지)
+    boolean existsByOrder_IdAndStatus(Long orderId, String status);
+
+    // 주문의 상태별 결제 (다른 paymentKey 로 승인 요청 중인 결제 확인)
+    List<Payment> findByOrder_IdAndStatus(Long orderId, String status);
+
+    // 결과 확인이 필요한 결제 (오래된 순)
+    List<Payment> findTop100ByStatusOrderByIdAsc(String status);
+}
@@ -8,14 +8,21 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductLotRepository extends JpaRepository<ProductLot, Long> {
 
-    // 특정 상품의 모든 Lot 조회 (유통기한 임박순 정렬)
-    List<ProductLot> findByProductIdOrderByExpiryDateAsc(Long productId);
+    // 특정 상품의 남은 수량이 있는 출고 가능 Lot 조회 (폐기대상 제외, 유통기한 임박순, idx_lot_product_expiry 범위 조회)
+    @Query("SELECT pl FROM ProductLot pl WHERE pl.product.id = :productId AND pl.quantity > 0 " +
+            "AND (pl.stockQuality IS NULL OR pl.stockQuality <> com.age.b2b.domain.common.StockQuality.DISPOSAL) " +
+            "ORDER BY pl.expiryDate ASC, pl.id ASC")
+    List<ProductLot> findActiveLots(@Param("productId") Long productId);
+
+    // 특정 상품의 유통기한이 가장 늦은 Lot 1건 (반품/취소 복구 대상, 인덱스 역순 조회로 1행만 읽음)
+    Optional<ProductLot> findFirstByProductIdOrderByExpiryDateDescIdDesc(Long productId);
 
     // Lot 번호로 조회 (중복 방지 등)
     Optional<ProductLot> findByLotNumber(String lotNumber);
@@ -23,6 +30,10 @@ public interface ProductLotRepository extends JpaRepository<ProductLot, Long> {
     // product id로 조회
     List<ProductLot> findByProductId(Long productId);
 
+    // Lot id 목록에 해당하는 상품 id (재고 원장 무효화용)
+    @Query("SELECT DISTINCT pl.product.id FROM ProductLot pl WHERE pl.id IN :lotIds")
+    List<Long> findProductIdsByLotIds(@Param("lotIds") List<Long> lotIds);
+
     // 전체 입고 목록 조회 (최신 입고일 순)
     // Fetch Join을 사용하여 N+1 문제 방지 (Product 정보 같이 가져옴)
     @Query("SELECT pl FROM ProductLot pl JOIN FETCH pl.product")
@@ -44,4 +55,18 @@ public interface ProductLotRepository extends JpaRepository<ProductLot, Long> {
             @Param("keyword") String keyword,
             Pageable pageable
     );
+
+    // 재고 현황 / 입고 목록 색인 검색 (Lot번호 또는 상품명/코드의 n-gram 토큰을 모두 포함)
+    @Query(value = "SELECT pl FROM ProductLot pl " +
+            "JOIN FETCH pl.product p " +
+            "WHERE pl.id IN (" + SearchTokenRepository.MATCH_LOTS + ") " +
+            "   OR p.id IN (" + SearchTokenRepository.MATCH_PRODUCTS + ")",
+            countQuery = "SELECT COUNT(pl) FROM ProductLot pl " +
+                    "WHERE pl.id IN (" + SearchTokenRepository.MATCH_LOTS + ") " +
+                    "   OR pl.product.id IN (" + SearchTokenRepository.MATCH_PRODUCTS + ")")
+    Page<ProductLot> searchStockByTokens(
+            @Param("tokens") Collection<String> tokens,
+            @Param("tokenCount") long tokenCount,
+            Pageable pageable
+    );
 }
\ No newline at end of file
@@ -11,11 +11,10 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     // 상품 코드 중복 체크용 (있으면 true 반환)
     boolean existsByProductCode(String productCode);
 
-    Optional<Product> findByProductCode(String productCode);
     Optional<Product> findFirstByOrderByCreatedAtDesc();
     // 1. 전체 조회 (정렬은 Pageable에서 처리)
     Page<Product> findAll(Pageable pageable);
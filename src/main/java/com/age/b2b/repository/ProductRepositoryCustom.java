@@ -0,0 +1,16 @@
+package com.age.b2b.repository;
+
+import com.age.b2b.domain.Product;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProductRepositoryCustom {
+
+    // 상품코드로 조회 (자연 키 캐시 -> 엔티티 캐시 순으로 조회, 둘 다 없을 때만 DB 조회)
+    Optional<Product> findByProductCode(String productCode);
+
+    // 상품코드 여러 개 일괄 조회 (캐시에 없는 코드만 IN 쿼리 한 번으로 조회, 없는 코드는 결과에서 빠짐)
+    List<Product> findAllByProductCodes(Collection<String> productCodes);
+}
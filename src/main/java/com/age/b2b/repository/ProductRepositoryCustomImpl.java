@@ -0,0 +1,39 @@
+package com.age.b2b.repository;
+
+import com.age.b2b.domain.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@Transactional(readOnly = true)
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Product> findByProductCode(String productCode) {
+        if (productCode == null) return Optional.empty();
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Product.class)
+                .loadOptional(productCode);
+    }
+
+    @Override
+    public List<Product> findAllByProductCodes(Collection<String> productCodes) {
+        if (productCodes == null || productCodes.isEmpty()) return List.of();
+        List<Product> products = entityManager.unwrap(Session.class)
+                .byMultipleNaturalId(Product.class)
+                .withBatchSize(productCodes.size())
+                .enableOrderedReturn(false)
+                .multiLoad(new ArrayList<>(productCodes));
+        return products.stream().filter(Objects::nonNull).toList();
+    }
+}
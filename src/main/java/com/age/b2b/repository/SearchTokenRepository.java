@@ -0,0 +1,41 @@
+package com.age.b2b.repository;
+
+import com.age.b2b.domain.SearchToken;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface SearchTokenRepository extends JpaRepository<SearchToken, Long> {
+
+    // 검색어 토큰(:tokens)을 모두 포함하는 문서 ID 서브쿼리 (문서 종류별, 다른 리포지토리 쿼리에서 재사용)
+    String MATCH_PRODUCTS = "SELECT tp.docId FROM SearchToken tp WHERE tp.docType = 'PRODUCT' AND tp.token IN :tokens " +
+            "GROUP BY tp.docId HAVING COUNT(DISTINCT tp.token) = :tokenCount";
+    String MATCH_LOTS = "SELECT tl.docId FROM SearchToken tl WHERE tl.docType = 'LOT' AND tl.token IN :tokens " +
+            "GROUP BY tl.docId HAVING COUNT(DISTINCT tl.token) = :tokenCount";
+    String MATCH_ORDERS = "SELECT tor.docId FROM SearchToken tor WHERE tor.docType = 'ORDER' AND tor.token IN :tokens " +
+            "GROUP BY tor.docId HAVING COUNT(DISTINCT tor.token) = :tokenCount";
+    String MATCH_SHIPMENTS = "SELECT ts.docId FROM SearchToken ts WHERE ts.docType = 'SHIPMENT' AND ts.token IN :tokens " +
+            "GROUP BY ts.docId HAVING COUNT(DISTINCT ts.token) = :tokenCount";
+
+    // 문서 ID 순위 조회 (가중치 합 내림차순 -> 최신순)
+    @Query(value = "SELECT t.docId FROM SearchToken t " +
+            "WHERE t.docType = :docType AND t.token IN :tokens " +
+            "GROUP BY t.docId HAVING COUNT(DISTINCT t.token) = :tokenCount " +
+            "ORDER BY SUM(t.weight) DESC, t.docId DESC",
+            countQuery = "SELECT COUNT(DISTINCT t.docId) FROM SearchToken t " +
+                    "WHERE t.docType = :docType AND t.docId IN (" +
+                    "    SELECT t2.docId FROM SearchToken t2 WHERE t2.docType = :docType AND t2.token IN :tokens " +
+                    "    GROUP BY t2.docId HAVING COUNT(DISTINCT t2.token) = :tokenCount)")
+    Page<Long> searchRanked(
+            @Param("docType") String docType,
+            @Param("tokens") Collection<String> tokens,
+            @Param("tokenCount") long tokenCount,
+            Pageable pageable
+    );
+}
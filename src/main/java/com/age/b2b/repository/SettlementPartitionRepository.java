@@ -0,0 +1,14 @@
+package com.age.b2b.repository;
+
+import com.age.b2b.domain.SettlementPartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SettlementPartitionRepository extends JpaRepository<SettlementPartition, Long> {
+
+    // 실행의 파티션 목록 (파티션 번호순)
+    List<SettlementPartition> findByRun_IdOrderByPartitionNoAsc(Long runId);
+}
@@ -0,0 +1,18 @@
+package com.age.b2b.repository;
+
+import com.age.b2b.domain.SettlementRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SettlementRunRepository extends JpaRepository<SettlementRun, Long> {
+
+    // 재시작 대상 (미완료) 실행 조회
+    Optional<SettlementRun> findFirstBySettlementMonthAndStatusInOrderByIdDesc(String settlementMonth, List<String> statuses);
+
+    // 정산월 실행 이력 (최신순)
+    List<SettlementRun> findBySettlementMonthOrderByIdDesc(String settlementMonth);
+}
@@ -0,0 +1,22 @@
+package com.age.b2b.repository;
+
+import com.age.b2b.domain.ShipmentLot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ShipmentLotRepository extends JpaRepository<ShipmentLot, Long> {
+
+    // 출고의 Lot 할당 내역 (할당 순서)
+    List<ShipmentLot> findByShipment_IdOrderByIdAsc(Long shipmentId);
+
+    // 출고의 Lot 할당 내역 삭제 (출고 삭제 시)
+    @Modifying
+    @Query("DELETE FROM ShipmentLot sl WHERE sl.shipment.id = :shipmentId")
+    void deleteByShipmentId(@Param("shipmentId") Long shipmentId);
+}
@@ -1,6 +1,7 @@
 package com.age.b2b.repository;
 
 import com.age.b2b.domain.Shipment;
+import com.age.b2b.dto.ShipmentListRowDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,16 +9,46 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+
 @Repository
 public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
 
-    // 검색 기능 (출고번호, 주문번호, 상품명 매칭)
-    @Query("SELECT s FROM Shipment s " +
-            "JOIN FETCH s.order o " +
-            "JOIN FETCH o.client c " +
-            "WHERE (:keyword IS NULL OR :keyword = '' " +
-            "   OR s.shipmentNumber LIKE %:keyword% " +
-            "   OR o.orderNumber LIKE %:keyword% " +
-            "   OR EXISTS (SELECT i FROM OrderItem i WHERE i.order = o AND i.product.name LIKE %:keyword%))")
-    Page<Shipment> searchShipments(@Param("keyword") String keyword, Pageable pageable);
-}
\ No newline at end of file
+    // [목록] 출고 + 주문 + 대표 상품(첫 번째 품목) + 대표 상품의 첫 번째 출고 Lot 을 한 행으로 조회
+    String LIST_ROW_SELECT = "SELECT new com.age.b2b.dto.ShipmentListRowDto(" +
+            "s.id, s.shipmentNumber, s.shippedDate, o.orderNumber, o.createdAt, o.deliveryInfo.address, " +
+            "p.productCode, p.name, p.origin, " +
+            "(SELECT COUNT(i2.id) FROM OrderItem i2 WHERE i2.order = o), " +
+            "(SELECT SUM(i3.count) FROM OrderItem i3 WHERE i3.order = o), " +
+            "sl.lotNumber, sl.expiryDate) " +
+            "FROM Shipment s " +
+            "JOIN s.order o " +
+            "LEFT JOIN OrderItem oi ON oi.order = o " +
+            "    AND oi.id = (SELECT MIN(i1.id) FROM OrderItem i1 WHERE i1.order = o) " +
+            "LEFT JOIN oi.product p " +
+            "LEFT JOIN ShipmentLot sl ON sl.shipment = s " +
+            "    AND sl.id = (SELECT MIN(l1.id) FROM ShipmentLot l1 WHERE l1.shipment = s AND l1.productId = p.id) ";
+
+    // 출고 목록 (최신순)
+    @Query(value = LIST_ROW_SELECT + "ORDER BY s.id DESC",
+            countQuery = "SELECT COUNT(s) FROM Shipment s")
+    Page<ShipmentListRowDto> findListRows(Pageable pageable);
+
+    // 출고 목록 색인 검색 (출고번호, 주문번호, 주문 상품의 상품명/코드 n-gram 토큰을 모두 포함)
+    @Query(value = LIST_ROW_SELECT +
+            "WHERE s.id IN (" + SearchTokenRepository.MATCH_SHIPMENTS + ") " +
+            "   OR o.id IN (" + SearchTokenRepository.MATCH_ORDERS + ") " +
+            "   OR EXISTS (SELECT 1 FROM OrderItem i WHERE i.order = o " +
+            "       AND i.product.id IN (" + SearchTokenRepository.MATCH_PRODUCTS + ")) " +
+            "ORDER BY s.id DESC",
+            countQuery = "SELECT COUNT(s) FROM Shipment s " +
+                    "WHERE s.id IN (" + SearchTokenRepository.MATCH_SHIPMENTS + ") " +
+                    "   OR s.order.id IN (" + SearchTokenRepository.MATCH_ORDERS + ") " +
+                    "   OR EXISTS (SELECT 1 FROM OrderItem i WHERE i.order = s.order " +
+                    "       AND i.product.id IN (" + SearchTokenRepository.MATCH_PRODUCTS + "))")
+    Page<ShipmentListRowDto> findListRowsByTokens(
+            @Param("tokens") Collection<String> tokens,
+            @Param("tokenCount") long tokenCount,
+            Pageable pageable
+    );
+}
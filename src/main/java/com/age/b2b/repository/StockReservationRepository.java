@@ -0,0 +1,14 @@
+package com.age.b2b.repository;
+
+import com.age.b2b.domain.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    // 주문의 예약 목록 (저장순)
+    List<StockReservation> findByOrderIdOrderByIdAsc(Long orderId);
+}
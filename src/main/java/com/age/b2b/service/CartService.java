@@ -4,18 +4,25 @@ import com.age.b2b.domain.Cart;
 import com.age.b2b.domain.CartItem;
 import com.age.b2b.domain.Client;
 import com.age.b2b.domain.Product;
+import com.age.b2b.dto.CartBulkAddRequestDto;
+import com.age.b2b.dto.CartBulkAddResultDto;
 import com.age.b2b.dto.CartDto;
 import com.age.b2b.repository.CartItemRepository;
 import com.age.b2b.repository.CartRepository;
 import com.age.b2b.repository.ProductRepository;
+import com.age.b2b.service.cart.CartView;
+import com.age.b2b.service.cart.CartViewCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -25,62 +32,144 @@ public class CartService {
     private final CartRepository cartRepository;
     private final ProductRepository productRepository;
     private final CartItemRepository cartItemRepository;
+    private final CartViewCache cartViewCache;
 
-    // 장바구니 담기
+    @Value("${cart.bulk-add.max-lines:1000}")
+    private int maxBulkLines;
+
+    // 장바구니 담기 (상품코드마다 1개씩, 없는 상품코드가 있으면 전체 실패)
     public void addProductsToCart(Client client, List<String> productCodes) {
-        // 1. 고객사의 장바구니 찾기 (없으면 생성)
+        List<CartBulkAddRequestDto.Line> lines = new ArrayList<>();
+        for (String code : productCodes) {
+            CartBulkAddRequestDto.Line line = new CartBulkAddRequestDto.Line();
+            line.setProductCode(code);
+            lines.add(line);
+        }
+
+        CartBulkAddResultDto result = addItemsToCart(client, lines);
+        for (CartBulkAddResultDto.Item item : result.getResults()) {
+            if (CartBulkAddResultDto.UNKNOWN.equals(item.getResult())) {
+                throw new IllegalArgumentException("상품을 찾을 수 없습니다: " + item.getProductCode());
+            }
+        }
+    }
+
+    /**
+     * 장바구니 일괄 담기 (상품코드 붙여넣기)
+     * - 상품코드 전체를 한 번에 조회하고, 기존 장바구니 항목은 상품 ID 기준 Map 으로 병합 (줄 수와 무관하게 조회 횟수 고정)
+     * - 없는 상품코드는 건너뛰고 줄별 결과(추가 / 수량 증가 / 없는 코드)로 돌려줌
+     * - 같은 상품코드가 여러 줄이면 수량을 합산
+     */
+    public CartBulkAddResultDto addItemsToCart(Client client, List<CartBulkAddRequestDto.Line> lines) {
+        if (lines == null || lines.isEmpty()) throw new IllegalArgumentException("담을 상품이 없습니다.");
+        if (lines.size() > maxBulkLines) {
+            throw new IllegalArgumentException("한 번에 담을 수 있는 상품은 최대 " + maxBulkLines + "개입니다.");
+        }
+
+        // 1. 요청 정리 (코드 앞뒤 공백 제거, 수량 검증)
+        List<String> codes = new ArrayList<>(lines.size());
+        List<Integer> quantities = new ArrayList<>(lines.size());
+        for (CartBulkAddRequestDto.Line line : lines) {
+            int quantity = line.getQuantity() == null ? 1 : line.getQuantity();
+            if (quantity <= 0) throw new IllegalArgumentException("수량은 1개 이상이어야 합니다.");
+            codes.add(line.getProductCode() == null ? "" : line.getProductCode().trim());
+            quantities.add(quantity);
+        }
+
+        // 2. 상품코드 일괄 조회
+        Map<String, Product> productsByCode = new HashMap<>();
+        Set<String> distinctCodes = new LinkedHashSet<>(codes);
+        distinctCodes.remove("");
+        for (Product product : productRepository.findAllByProductCodes(distinctCodes)) {
+            productsByCode.put(product.getProductCode(), product);
+        }
+
+        // 3. 고객사의 장바구니 찾기 (없으면 생성) 후 기존 항목을 상품 ID 기준으로 색인
         Cart cart = cartRepository.findByClient(client)
                 .orElseGet(() -> {
                     Cart newCart = new Cart();
                     newCart.setClient(client);
                     return cartRepository.save(newCart);
                 });
+        cartViewCache.invalidate(client.getClientId());
+        Map<Long, CartItem> itemsByProductId = new HashMap<>();
+        for (CartItem item : cart.getCartItems()) {
+            itemsByProductId.put(item.getProduct().getId(), item);
+        }
 
-        // 2. 상품 리스트 반복 처리
-        for (String code : productCodes) {
-            Product product = productRepository.findByProductCode(code)
-                    .orElseThrow(() -> new IllegalArgumentException("상품을 찾을 수 없습니다: " + code));
-
-            // 이미 장바구니에 있는 상품인지 확인
-            Optional<CartItem> existingItem = cart.getCartItems().stream()
-                    .filter(item -> item.getProduct().getId().equals(product.getId()))
-                    .findFirst();
-
-            if (existingItem.isPresent()) {
-                // 이미 있으면 수량 +1
-                CartItem item = existingItem.get();
-                item.setCount(item.getCount() + 1);
+        // 4. 줄별 병합
+        List<CartBulkAddResultDto.Item> results = new ArrayList<>(lines.size());
+        int added = 0;
+        int incremented = 0;
+        int unknown = 0;
+        for (int i = 0; i < codes.size(); i++) {
+            String code = codes.get(i);
+            int quantity = quantities.get(i);
+            Product product = productsByCode.get(code);
+
+            String result;
+            int cartCount;
+            if (product == null) {
+                result = CartBulkAddResultDto.UNKNOWN;
+                cartCount = 0;
+                unknown++;
             } else {
-                // 없으면 새로 추가
-                CartItem newItem = new CartItem();
-                newItem.setCart(cart);
-                newItem.setProduct(product);
-                newItem.setCount(1);
-                cart.getCartItems().add(newItem);
+                CartItem item = itemsByProductId.get(product.getId());
+                if (item != null) {
+                    // 이미 있으면 수량 증가
+                    item.setCount(item.getCount() + quantity);
+                    result = CartBulkAddResultDto.INCREMENTED;
+                    incremented++;
+                } else {
+                    // 없으면 새로 추가
+                    item = new CartItem();
+                    item.setCart(cart);
+                    item.setProduct(product);
+                    item.setCount(quantity);
+                    cart.getCartItems().add(item);
+                    itemsByProductId.put(product.getId(), item);
+                    result = CartBulkAddResultDto.ADDED;
+                    added++;
+                }
+                cartCount = item.getCount();
             }
+
+            results.add(CartBulkAddResultDto.Item.builder()
+                    .productCode(code)
+                    .result(result)
+                    .quantity(quantity)
+                    .cartCount(cartCount)
+                    .build());
         }
+
+        return CartBulkAddResultDto.builder()
+                .requestedCount(lines.size())
+                .addedCount(added)
+                .incrementedCount(incremented)
+                .unknownCount(unknown)
+                .results(results)
+                .build();
     }
+
+    // 장바구니 조회 (고객사별 가격 스냅샷 캐시 사용, 상품을 항목마다 읽지 않음)
     @Transactional(readOnly = true)
     public CartDto getCartList(Client client) {
-        Cart cart = cartRepository.findByClient(client).orElse(null);
+        CartView view = cartViewCache.get(client.getClientId());
 
-        if (cart == null) {
-            return CartDto.builder().cartId(null).totalCount(0).items(new ArrayList<>()).build();
+        List<CartDto.CartItemDto> itemDtos = new ArrayList<>(view.size());
+        for (int i = 0; i < view.size(); i++) {
+            itemDtos.add(CartDto.CartItemDto.builder()
+                    .itemId(view.itemId(i))
+                    .prodCode(view.productCode(i))
+                    .prodName(view.productName(i))
+                    .price(view.supplyPrice(i))
+                    .count(view.count(i))
+                    .totalPrice(view.supplyPrice(i) * view.count(i))
+                    .build());
         }
 
-        List<CartDto.CartItemDto> itemDtos = cart.getCartItems().stream()
-                .map(item -> CartDto.CartItemDto.builder()
-                        .itemId(item.getId())
-                        .prodCode(item.getProduct().getProductCode())
-                        .prodName(item.getProduct().getName())
-                        .price(item.getProduct().getSupplyPrice())
-                        .count(item.getCount())
-                        .totalPrice(item.getProduct().getSupplyPrice() * item.getCount())
-                        .build())
-                .collect(Collectors.toList());
-
         return CartDto.builder()
-                .cartId(cart.getId())
+                .cartId(view.getCartId())
                 .totalCount(itemDtos.size())
                 .items(itemDtos)
                 .build();
@@ -93,10 +182,14 @@ public class CartService {
         CartItem item = cartItemRepository.findById(itemId)
                 .orElseThrow(() -> new IllegalArgumentException("장바구니 아이템이 없습니다."));
         item.setCount(count);
+        cartViewCache.invalidate(item.getCart().getClient().getClientId());
     }
 
     // 장바구니 아이템 삭제
     public void deleteItem(Long itemId) {
-        cartItemRepository.deleteById(itemId);
+        cartItemRepository.findById(itemId).ifPresent(item -> {
+            cartViewCache.invalidate(item.getCart().getClient().getClientId());
+            cartItemRepository.delete(item);
+        });
     }
 }
\ No newline at end of file
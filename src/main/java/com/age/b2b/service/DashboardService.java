@@ -2,8 +2,17 @@ package com.age.b2b.service;
 
 import com.age.b2b.dto.dashboard.*;
 import com.age.b2b.repository.DashboardRepository;
+import com.age.b2b.support.MetricsSource;
+import com.age.b2b.support.QueryFanOut;
+import com.age.b2b.support.SnapshotCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -11,35 +20,158 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
-public class DashboardService {
+public class DashboardService implements MetricsSource {
 
     private final DashboardRepository dashboardRepository;
+    private final PlatformTransactionManager transactionManager;
 
+    @Value("${dashboard.cache.ttl-ms:10000}")
+    private long cacheTtlMillis;
+
+    @Value("${dashboard.cache.background-refresh:false}")
+    private boolean backgroundRefresh;
+
+    // 조회 실행 방식: SEQUENTIAL(순차) | PARALLEL(동시 실행)
+    @Value("${dashboard.execution.mode:PARALLEL}")
+    private String executionMode;
+
+    // PARALLEL: true 면 가상 스레드, false 면 고정 크기 스레드풀
+    @Value("${dashboard.execution.virtual-threads:true}")
+    private boolean virtualThreads;
+
+    @Value("${dashboard.execution.pool-size:7}")
+    private int poolSize;
+
+    @Value("${dashboard.execution.query-timeout-ms:3000}")
+    private long queryTimeoutMillis;
+
+    private SnapshotCache<DashboardLoad> snapshotCache;
+    private ExecutorService queryExecutor;
+
+    private final LongAdder partialLoads = new LongAdder();
+    private final LongAdder queryTimeouts = new LongAdder();
+    private final LongAdder queryFailures = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        // 일부 조회가 실패한 스냅샷은 캐시에 오래 두지 않음 (다음 요청에서 재조회)
+        snapshotCache = new SnapshotCache<>(this::loadDashboard, cacheTtlMillis, load -> !load.partial());
+
+        if ("PARALLEL".equalsIgnoreCase(executionMode)) {
+            queryExecutor = virtualThreads
+                    ? Executors.newVirtualThreadPerTaskExecutor()
+                    : Executors.newFixedThreadPool(poolSize);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (queryExecutor != null) {
+            queryExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 대시보드 조회 (TTL 동안 같은 스냅샷 공유, 만료 시 한 번만 재조회)
+     */
     public DashboardRes getDashboard() {
+        return snapshotCache.get().dashboard();
+    }
 
-        // 1) 오늘/어제 매출 (정산 테이블 'settlements' 기준)
-        long today = safeLong(dashboardRepository.todaySettlementSales());
-        long yesterday = safeLong(dashboardRepository.yesterdaySettlementSales());
+    /**
+     * 백그라운드 스냅샷 갱신 (dashboard.cache.background-refresh=true 일 때만)
+     * - 요청 스레드가 만료된 스냅샷 재조회를 기다리지 않도록 미리 갱신
+     */
+    @Scheduled(fixedDelayString = "${dashboard.cache.refresh-interval-ms:5000}")
+    public void refreshSnapshot() {
+        if (!backgroundRefresh) return;
+        try {
+            snapshotCache.refresh();
+        } catch (RuntimeException e) {
+            log.warn("대시보드 스냅샷 갱신 실패", e);
+        }
+    }
+
+    /**
+     * 원본 데이터 변경 후 스냅샷 갱신 (아웃박스 디스패처에서 호출)
+     * - 백그라운드 갱신 중이면 바로 재조회, 아니면 다음 요청에서 재조회하도록 무효화
+     */
+    public void refreshAfterChange() {
+        if (backgroundRefresh) {
+            snapshotCache.refresh();
+        } else {
+            snapshotCache.invalidate();
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "dashboard";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("backgroundRefresh", backgroundRefresh);
+        metrics.put("executionMode", queryExecutor == null ? "SEQUENTIAL" : (virtualThreads ? "PARALLEL_VIRTUAL" : "PARALLEL_POOL"));
+        metrics.put("queryTimeoutMillis", queryTimeoutMillis);
+        metrics.put("partialLoads", partialLoads.sum());
+        metrics.put("queryTimeouts", queryTimeouts.sum());
+        metrics.put("queryFailures", queryFailures.sum());
+        metrics.putAll(snapshotCache.getMetrics());
+        return metrics;
+    }
+
+    // 집계 테이블에서 대시보드 전체 조회 (서로 독립적인 조회 7개를 동시에 실행)
+    private DashboardLoad loadDashboard() {
+
+        // 집계 테이블(daily_*_rollups)은 일자 단위이므로 기준일만 계산해서 조회
+        LocalDate todayDate = LocalDate.now();
+        LocalDate monthStart = todayDate.withDayOfMonth(1);
+        LocalDate nextMonthStart = monthStart.plusMonths(1);
+
+        // 0) 조회 시작 (PARALLEL 모드면 모두 동시에 실행, 실패/시간 초과 시 기본값, 남은 시간은 DB 문장 타임아웃으로도 걸림)
+        QueryFanOut fanOut = new QueryFanOut(queryExecutor, transactionManager, queryTimeoutMillis);
+        QueryFanOut.Result<Long> todayQuery = fanOut.submit("todaySales",
+                () -> dashboardRepository.salesBetween(todayDate, todayDate.plusDays(1)), 0L);
+        QueryFanOut.Result<Long> yesterdayQuery = fanOut.submit("yesterdaySales",
+                () -> dashboardRepository.salesBetween(todayDate.minusDays(1), todayDate), 0L);
+        QueryFanOut.Result<Long> monthQuery = fanOut.submit("monthSales",
+                () -> dashboardRepository.salesBetween(monthStart, nextMonthStart), 0L);
+        QueryFanOut.Result<List<Object[]>> dailyQuery = fanOut.submit("dailySales",
+                () -> dashboardRepository.dailySalesRaw(todayDate.minusDays(6)), List.of());
+        QueryFanOut.Result<Object> statusQuery = fanOut.submit("orderStatusCounts",
+                dashboardRepository::orderStatusCountsRaw, null);
+        QueryFanOut.Result<List<Object[]>> clientQuery = fanOut.submit("clientSales",
+                () -> dashboardRepository.clientSalesRaw(monthStart, nextMonthStart), List.of());
+        QueryFanOut.Result<List<Object[]>> preparingQuery = fanOut.submit("preparingOrderSummary",
+                dashboardRepository::findPreparingOrderSummary, List.of());
+
+        // 1) 오늘/어제 매출 (정산 기준)
+        long today = safeLong(todayQuery.get());
+        long yesterday = safeLong(yesterdayQuery.get());
         double rate = calcRate(today, yesterday);
-        System.out.println("🔥 todaySettlementSales = " + today);
-        System.out.println("🔥 yesterdaySettlementSales = " + yesterday);
         TodaySalesRes todayRes = new TodaySalesRes(today, yesterday, rate);
 
-        // 2) 이번달 매출 (정산 테이블 기준)
-        long monthSales = safeLong(dashboardRepository.monthSales());
+        // 2) 이번달 매출 (정산 기준)
+        long monthSales = safeLong(monthQuery.get());
 
-        // 3) 일별 매출 현황 (최근 5일치, 데이터 없는 날은 0원 처리)
-        List<Object[]> dailyRaw = dashboardRepository.dailySalesRaw();
+        // 3) 일별 매출 현황 (최근 7일치, 데이터 없는 날은 0원 처리)
+        List<Object[]> dailyRaw = dailyQuery.get();
 
         // 최근 5일치 날짜 맵 생성 (오늘 포함 역순 4일전까지)
         Map<String, Long> dailyMap = new LinkedHashMap<>();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd");
 
         for (int i = 6; i >= 0; i--) {
-            String dateKey = LocalDate.now().minusDays(i).format(formatter);
+            String dateKey = todayDate.minusDays(i).format(formatter);
             dailyMap.put(dateKey, 0L);
         }
 
@@ -47,7 +179,7 @@ public class DashboardService {
         if (dailyRaw != null) {
             for (Object[] row : dailyRaw) {
                 if (row == null || row.length < 2) continue;
-                String label = row[0].toString(); // "12/23"
+                String label = toLocalDate(row[0]).format(formatter); // "12/23"
                 if (dailyMap.containsKey(label)) {
                     dailyMap.put(label, toLong(row[1]));
                 }
@@ -58,7 +190,7 @@ public class DashboardService {
         dailyMap.forEach((date, sales) -> dailySales.add(new WeeklySalesRes(date, sales)));
 
         // 4) 상단 발주 현황 카운트 (발주, 출고, 배송중, 배송완료)
-        Object rawStatus = dashboardRepository.orderStatusCountsRaw();
+        Object rawStatus = statusQuery.get();
         long r1 = 0, r2 = 0, r3 = 0, r4 = 0;
 
         if (rawStatus != null) {
@@ -79,7 +211,7 @@ public class DashboardService {
         OrderStatusCountRes orderStatus = new OrderStatusCountRes(r1, r2, r3, r4);
 
         // 5) 고객사 매출 점유율 (도넛 차트)
-        List<Object[]> clientRaw = dashboardRepository.clientSalesRaw();
+        List<Object[]> clientRaw = clientQuery.get();
         long totalClientSales = 0;
         List<ClientShareRes> clientShare = new ArrayList<>();
 
@@ -97,7 +229,7 @@ public class DashboardService {
         }
 
         // 6) 발주 내역 리스트 (이미지 하단 리스트 영역)
-        List<Object[]> preparingRaw = dashboardRepository.findPreparingOrderSummary();
+        List<Object[]> preparingRaw = preparingQuery.get();
         List<OrderSummaryRes> orderSummaries = new ArrayList<>();
 
         if (preparingRaw != null) {
@@ -109,8 +241,21 @@ public class DashboardService {
             }
         }
 
+        // 부분 결과 기록
+        if (fanOut.isPartial()) {
+            partialLoads.increment();
+            queryTimeouts.add(fanOut.getTimedOut().size());
+            queryFailures.add(fanOut.getFailed().size());
+            log.warn("대시보드 부분 결과 반환 - 시간 초과: {}, 실패: {}", fanOut.getTimedOut(), fanOut.getFailed());
+        }
+
         // 최종 DTO 조립 반환 (orderSummaries 필드가 DashboardRes에 추가되어 있어야 합니다)
-        return new DashboardRes(todayRes, monthSales, dailySales, orderStatus, orderSummaries, clientShare);
+        DashboardRes dashboard = new DashboardRes(todayRes, monthSales, dailySales, orderStatus, orderSummaries, clientShare);
+        return new DashboardLoad(dashboard, fanOut.isPartial());
+    }
+
+    // 캐시에 보관하는 조회 결과 (일부 조회가 기본값으로 대체되었는지 여부 포함)
+    private record DashboardLoad(DashboardRes dashboard, boolean partial) {
     }
 
     /* 유틸리티 메서드 */
@@ -123,6 +268,12 @@ public class DashboardService {
 
     private double round1(double v) { return Math.round(v * 10.0) / 10.0; }
 
+    private LocalDate toLocalDate(Object o) {
+        if (o instanceof java.sql.Date d) return d.toLocalDate();
+        if (o instanceof LocalDate d) return d;
+        return LocalDate.parse(String.valueOf(o));
+    }
+
     private long toLong(Object o) {
         if (o == null) return 0L;
         if (o instanceof Number n) return n.longValue();
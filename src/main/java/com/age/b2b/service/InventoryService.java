@@ -1,8 +1,8 @@
 package com.age.b2b.service;
 
-import com.age.b2b.domain.InventoryLog;
 import com.age.b2b.domain.Product;
 import com.age.b2b.domain.ProductLot;
+import com.age.b2b.domain.SearchToken;
 import com.age.b2b.domain.common.AdjustmentReason;
 import com.age.b2b.domain.common.StockQuality;
 import com.age.b2b.dto.InboundRequestDto;
@@ -10,6 +10,14 @@ import com.age.b2b.dto.StockAdjustmentDto;
 import com.age.b2b.repository.InventoryLogRepository;
 import com.age.b2b.repository.ProductLotRepository;
 import com.age.b2b.repository.ProductRepository;
+import com.age.b2b.service.search.SearchIndexer;
+import com.age.b2b.service.search.SearchTokenizer;
+import com.age.b2b.service.stock.BulkStockDeduction;
+import com.age.b2b.service.stock.InventoryLogWriter;
+import com.age.b2b.service.stock.LotAllocation;
+import com.age.b2b.service.stock.ProductLotArchiver;
+import com.age.b2b.service.stock.StockDeductor;
+import com.age.b2b.service.stock.StockLedger;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -18,7 +26,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -28,6 +38,11 @@ public class InventoryService {
     private final ProductRepository productRepository;
     private final ProductLotRepository productLotRepository;
     private final InventoryLogRepository inventoryLogRepository;
+    private final StockLedger stockLedger;
+    private final StockDeductor stockDeductor;
+    private final InventoryLogWriter inventoryLogWriter;
+    private final ProductLotArchiver productLotArchiver;
+    private final SearchIndexer searchIndexer;
 
     /**
      * [본사] 상품 입고 처리 (새로운 Lot 생성)
@@ -53,6 +68,8 @@ public class InventoryService {
         // 3. 이력(Log) 저장
         saveInventoryLog(savedLot, dto.getQuantity(), AdjustmentReason.INBOUND, "최초 입고");
 
+        stockLedger.invalidateAfterCommit(product.getId());
+
         return savedLot.getId();
     }
 
@@ -74,12 +91,25 @@ public class InventoryService {
         return productLotRepository.findByProductId(productId);
     }
 
+    /**
+     * [본사] 상품별 가용 재고 수량 (메모리 원장 기준)
+     */
+    @Transactional(readOnly = true)
+    public int getAvailableQuantity(Long productId) {
+        return stockLedger.available(productId);
+    }
+
     /**
      * [본사] 재고 목록 조회 (검색 + 페이징)
      */
     @Transactional(readOnly = true)
     public Page<ProductLot> getStockList(Pageable pageable, String keyword) {
-        return productLotRepository.searchStock(keyword, pageable);
+        if (keyword == null || keyword.isBlank()) {
+            return productLotRepository.searchStock(keyword, pageable);
+        }
+        // 상품명/코드/Lot번호 색인 검색
+        Set<String> tokens = SearchTokenizer.queryTokens(keyword);
+        return productLotRepository.searchStockByTokens(tokens, tokens.size(), pageable);
     }
 
     /**
@@ -133,19 +163,26 @@ public class InventoryService {
             }
             saveInventoryLog(lot, dto.getChangeQuantity(), dto.getReason(), note);
         }
+
+        stockLedger.invalidateAfterCommit(lot.getProduct().getId());
     }
 
     /**
      * [본사] 재고 삭제 (다중 삭제)
      */
     public void deleteStocks(List<Long> lotIds) {
-        for (Long lotId : lotIds) {
-            // 1. 해당 재고의 이력(로그) 모두 삭제 (FK 제약조건 해결)
-            inventoryLogRepository.deleteByProductLotId(lotId);
+        productLotRepository.findProductIdsByLotIds(lotIds)
+                .forEach(stockLedger::invalidateAfterCommit);
 
-            // 2. 재고(Lot) 삭제
-            productLotRepository.deleteById(lotId);
-        }
+        // 버퍼에 남은 이력이 삭제 이후에 INSERT 되지 않도록 먼저 저장
+        inventoryLogWriter.flush();
+
+        // 1. 해당 재고들의 이력(로그) 한 번에 삭제 (Lot 마다 DELETE 하지 않음)
+        inventoryLogRepository.deleteByProductLotIds(lotIds);
+
+        // 2. 재고(Lot) 한 번에 삭제 -> 일괄 삭제는 엔티티 리스너를 거치지 않으므로 검색 색인도 직접 삭제
+        productLotRepository.deleteAllByIdInBatch(lotIds);
+        lotIds.forEach(lotId -> searchIndexer.remove(SearchToken.LOT, lotId));
     }
 
     // --- 내부 헬퍼 메서드 ---
@@ -172,36 +209,36 @@ public class InventoryService {
 
     /**
      * [출고] 선입선출(FIFO)로 재고 차감
+     * - 차감 방식은 inventory.concurrency.mode 설정을 따름 (기본: 메모리 원장)
      */
-    public void deductStock(Long productId, int quantity) {
-        // 1. 유통기한 임박한 순서대로 Lot 조회
-        List<ProductLot> lots = productLotRepository.findByProductIdOrderByExpiryDateAsc(productId);
-
-        if (lots.isEmpty()) {
-            throw new IllegalStateException("재고가 존재하지 않는 상품입니다. (Product ID: " + productId + ")");
+    public List<LotAllocation> deductStock(Long productId, int quantity) {
+        // 1. 유통기한 임박한 순서대로 차감 (부족 시 예외)
+        List<LotAllocation> allocations = stockDeductor.deduct(productId, quantity);
+
+        // 2. 이력 저장 (출고) - Lot ID만 사용 (추가 조회 없음)
+        for (LotAllocation allocation : allocations) {
+            inventoryLogWriter.append(allocation.getLotId(), -allocation.getQuantity(),
+                    allocation.getRemainingQuantity(), AdjustmentReason.OUTBOUND, "주문 출고 차감");
         }
+        return allocations;
+    }
 
-        int remainingQty = quantity; // 차감해야 할 남은 수량
-
-        for (ProductLot lot : lots) {
-            if (remainingQty <= 0) break;
-
-            int currentQty = lot.getQuantity();
-            if (currentQty <= 0) continue; // 이미 소진된 Lot은 패스
-
-            int deductAmount = Math.min(currentQty, remainingQty); // 이번 Lot에서 뺄 수량
-
-            // 수량 차감
-            lot.setQuantity(currentQty - deductAmount);
-            remainingQty -= deductAmount;
+    /**
+     * [일괄 출고] 대상 상품들의 Lot을 한 번에 잠그고 적재 (주문별 할당은 반환된 객체에서 수행)
+     */
+    public BulkStockDeduction beginBulkDeduction(Collection<Long> productIds) {
+        return stockDeductor.beginBulk(productIds);
+    }
 
-            // 이력 저장 (출고)
-            saveInventoryLog(lot, -deductAmount, AdjustmentReason.OUTBOUND, "주문 출고 차감");
-        }
+    /**
+     * [일괄 출고] 확정된 할당을 Lot 수량에 일괄 반영하고 출고 이력 저장
+     */
+    public void applyBulkDeduction(BulkStockDeduction deduction) {
+        stockDeductor.applyBulk(deduction);
 
-        // 모든 Lot를 돌았는데도 뺄 수량이 남았다면 -> 재고 부족 예외
-        if (remainingQty > 0) {
-            throw new IllegalStateException("재고가 부족합니다. (부족 수량: " + remainingQty + ")");
+        for (LotAllocation allocation : deduction.getAccepted()) {
+            inventoryLogWriter.append(allocation.getLotId(), -allocation.getQuantity(),
+                    allocation.getRemainingQuantity(), AdjustmentReason.OUTBOUND, "일괄 출고 차감");
         }
     }
 
@@ -209,31 +246,41 @@ public class InventoryService {
      * [반품/취소] 재고 복구
      */
     public void restoreStock(Long productId, int quantity) {
-        List<ProductLot> lots = productLotRepository.findByProductIdOrderByExpiryDateAsc(productId);
+        // 가장 유통기한이 늦은(최신) Lot 선택 (1건만 조회, 없으면 보관된 Lot 에서 되돌림)
+        Long targetLotId = productLotRepository.findFirstByProductIdOrderByExpiryDateDescIdDesc(productId)
+                .map(ProductLot::getId)
+                .orElseGet(() -> productLotArchiver.unarchiveLatest(productId));
 
-        if (lots.isEmpty()) {
+        if (targetLotId == null) {
             throw new IllegalStateException("복구할 재고 Lot이 존재하지 않습니다. 입고 처리를 먼저 해주세요.");
         }
 
-        // 가장 유통기한이 늦은(최신) Lot 선택 -> 가장 뒤에 있는 요소
-        ProductLot targetLot = lots.get(lots.size() - 1);
-
-        // 수량 복구
-        targetLot.setQuantity(targetLot.getQuantity() + quantity);
+        // 수량 복구 (동시 차감과 충돌하지 않도록 원자적 증가)
+        int currentQty = stockDeductor.increase(productId, targetLotId, quantity);
 
         // 이력 저장 (반품)
-        // AdjustmentReason.RETURN 이 Enum에 있다고 가정
-        saveInventoryLog(targetLot, quantity, AdjustmentReason.RETURN, "반품/취소로 인한 복구");
+        inventoryLogWriter.append(targetLotId, quantity, currentQty, AdjustmentReason.RETURN, "반품/취소로 인한 복구");
     }
 
-    // 이력 저장 공통화
+    /**
+     * [출고 삭제] 출고 시 차감했던 Lot 으로 재고 복구 (보관된 Lot 이면 되돌린 뒤 복구, 삭제된 경우 최신 Lot 으로 복구)
+     */
+    public void restoreStockToLot(Long productId, Long lotId, int quantity) {
+        if (!productLotRepository.existsById(lotId) && !productLotArchiver.unarchive(lotId)) {
+            restoreStock(productId, quantity);
+            return;
+        }
+
+        int currentQty = stockDeductor.increase(productId, lotId, quantity);
+        inventoryLogWriter.append(lotId, quantity, currentQty, AdjustmentReason.RETURN, "출고 삭제로 인한 복구");
+    }
+
+    // 이력 저장 공통화 (트랜잭션 단위로 모아서 배치 저장)
     private void saveInventoryLog(ProductLot lot, int changeQty, AdjustmentReason reason, String note) {
-        InventoryLog log = new InventoryLog();
-        log.setProductLot(lot);
-        log.setChangeQuantity(changeQty);
-        log.setCurrentQuantity(lot.getQuantity());
-        log.setReason(reason);
-        log.setNote(note);
-        inventoryLogRepository.save(log);
+        saveInventoryLog(lot, changeQty, lot.getQuantity(), reason, note);
+    }
+
+    private void saveInventoryLog(ProductLot lot, int changeQty, int currentQty, AdjustmentReason reason, String note) {
+        inventoryLogWriter.append(lot.getId(), changeQty, currentQty, reason, note);
     }
 }
\ No newline at end of file
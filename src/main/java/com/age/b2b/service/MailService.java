@@ -123,4 +123,28 @@ public class MailService {
             throw new RuntimeException("메일 발송 실패");
         }
     }
+
+    // 결제 완료 안내 메일 발송 (아웃박스 디스패처 스레드에서 호출 - 실패 시 예외로 재시도)
+    public void sendOrderPaidMail(String email, String businessName, String orderNumber, int totalAmount) {
+        try {
+            MimeMessage message = javaMailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, StandardCharsets.UTF_8.name());
+
+            String html = "<div>"
+                    + "<h2>[올곧은] 결제 완료 안내</h2>"
+                    + "<p>" + businessName + " 님의 발주 <strong>" + orderNumber + "</strong> 결제가 완료되었습니다.</p>"
+                    + "<p>결제 금액: <strong>" + String.format("%,d", totalAmount) + "원</strong></p>"
+                    + "<p>상품 준비가 끝나면 출고해드리겠습니다.</p>"
+                    + "</div>";
+
+            helper.setFrom(sender, "올곧은");
+            helper.setTo(email);
+            helper.setSubject("[올곧은] 결제 완료 안내 (" + orderNumber + ")");
+            helper.setText(html, true);
+
+            javaMailSender.send(message);
+        } catch (Exception e) {
+            throw new RuntimeException("메일 발송 실패: " + e.getMessage(), e);
+        }
+    }
 }
\ No newline at end of file
@@ -2,24 +2,34 @@ package com.age.b2b.service;
 
 import com.age.b2b.domain.*;
 import com.age.b2b.domain.common.OrderStatus;
+import com.age.b2b.dto.CursorPageDto;
 import com.age.b2b.dto.OrderDto;
+import com.age.b2b.dto.OrderListSummaryDto;
 import com.age.b2b.repository.*;
+import com.age.b2b.service.payment.PaymentService;
+import com.age.b2b.service.search.SearchTokenizer;
+import com.age.b2b.service.sequence.BusinessNumberService;
+import com.age.b2b.service.stock.AtpLedger;
+import com.age.b2b.service.stock.StockReservationService;
+import com.age.b2b.support.SeekCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Base64;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,11 +39,19 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final CartItemRepository cartItemRepository;
-    private final CartRepository cartRepository;
     private final ProductRepository productRepository;
     private final InventoryService inventoryService;
+    private final PaymentService paymentService;
+    private final BusinessNumberService businessNumberService;
+    private final AtpLedger atpLedger;
+    private final StockReservationService stockReservationService;
 
-    private final String TOSS_SECRET_KEY = "test_sk_XZYkKL4MrjBYmdBMpbB1r0zJwlEW";
+    // 주문 생성 시 주문 가능 수량(ATP) 확인 여부 (재고 예약을 쓰지 않을 때만)
+    @Value("${atp.check-on-order:true}")
+    private boolean checkAvailabilityOnOrder;
+
+    // 키셋 조회 한 페이지 최대 건수
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
 
     // 1. 주문 페이지 정보 조회
     @Transactional(readOnly = true)
@@ -51,7 +69,7 @@ public class OrderService {
     public OrderDto.OrderResponse createOrder(Client client, OrderDto.OrderRequest request) {
         Order order = new Order();
         order.setClient(client);
-        order.setOrderNumber(generateOrderNumber());
+        order.setOrderNumber(businessNumberService.nextOrderNumber());
         order.setStatus(OrderStatus.PENDING);
 
         order.setDeliveryInfo(new DeliveryInfo(
@@ -66,25 +84,32 @@ public class OrderService {
         int totalAmount = 0;
         String firstProductName = "";
         int itemsCount = 0;
+        Map<Long, Integer> quantities = new HashMap<>();
+        Map<Long, String> productNames = new HashMap<>();
 
-        // [Case A] 장바구니 주문
+        // [Case A] 장바구니 주문 (장바구니 항목과 현재 상품 가격을 IN 쿼리 한 번으로 다시 읽음, 가격 스냅샷 캐시는 화면 조회용)
         if (request.getCartItemIds() != null && !request.getCartItemIds().isEmpty()) {
-            List<CartItem> cartItems = cartItemRepository.findAllById(request.getCartItemIds());
+            Set<Long> cartItemIds = new HashSet<>(request.getCartItemIds());
+            List<CartItem> cartItems = cartItemRepository.findAllWithProductByIdIn(cartItemIds, client.getClientId());
             if (cartItems.isEmpty()) {
                 throw new IllegalArgumentException("주문할 장바구니 상품을 찾을 수 없습니다.");
             }
+            if (cartItems.size() < cartItemIds.size()) {
+                // 삭제된 상품(장바구니 항목도 함께 삭제) / 다른 거래처 항목 -> 화면과 다른 주문이 되지 않도록 거절
+                throw new IllegalArgumentException("장바구니에 없는 상품이 포함되어 있습니다. 장바구니를 새로고침 해주세요.");
+            }
 
-            for (int i = 0; i < cartItems.size(); i++) {
-                CartItem cartItem = cartItems.get(i);
+            for (CartItem cartItem : cartItems) {
                 Product product = cartItem.getProduct();
-
                 OrderItem orderItem = createOrderItem(order, product, cartItem.getCount());
                 order.addOrderItem(orderItem);
 
                 totalAmount += (product.getSupplyPrice() * cartItem.getCount());
-                if (i == 0) firstProductName = product.getName();
+                if (itemsCount == 0) firstProductName = product.getName();
+                quantities.merge(product.getId(), cartItem.getCount(), Integer::sum);
+                productNames.put(product.getId(), product.getName());
+                itemsCount++;
             }
-            itemsCount = cartItems.size();
         }
         // [Case B] 바로 주문
         else if (request.getOrderItems() != null && !request.getOrderItems().isEmpty()) {
@@ -100,6 +125,8 @@ public class OrderService {
 
                 totalAmount += (product.getSupplyPrice() * itemReq.getCount());
                 if (i == 0) firstProductName = product.getName();
+                quantities.merge(product.getId(), itemReq.getCount(), Integer::sum);
+                productNames.put(product.getId(), product.getName());
             }
             itemsCount = directItems.size();
         }
@@ -107,9 +134,24 @@ public class OrderService {
             throw new IllegalArgumentException("주문할 상품이 없습니다.");
         }
 
+        // 주문 가능 수량 확인 (재고 예약을 쓰지 않을 때, 메모리 원장 조회만 하고 잡아두지는 않음)
+        if (!stockReservationService.isEnabled() && checkAvailabilityOnOrder) {
+            quantities.forEach((productId, quantity) -> {
+                int available = atpLedger.available(productId);
+                if (available < quantity) {
+                    throw new IllegalStateException("재고가 부족합니다. (" + productNames.get(productId) + ", 주문 가능 수량: " + available + ")");
+                }
+            });
+        }
+
         order.setTotalAmount(totalAmount);
         orderRepository.save(order);
 
+        // 재고 예약 (부족하면 예외 -> 주문 생성 롤백, 결제되지 않으면 reservation.ttl-ms 후 해제)
+        if (stockReservationService.isEnabled()) {
+            stockReservationService.hold(order.getId(), quantities, productNames);
+        }
+
         String orderName = firstProductName;
         //if (itemsCount > 1) orderName += " 외 " + (itemsCount - 1) + "건";
 
@@ -132,66 +174,10 @@ public class OrderService {
         return orderItem;
     }
 
-    // 3. 토스페이먼츠 결제 승인
+    // 3. 토스페이먼츠 결제 승인 (결제사 호출은 트랜잭션 밖에서, 같은 paymentKey 재요청은 한 번만 승인)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void verifyAndCompleteTossPayment(String paymentKey, String orderId, int amount) {
-        Order order = orderRepository.findByOrderNumber(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("주문이 존재하지 않습니다."));
-
-        if (order.getTotalAmount() != amount) {
-            throw new IllegalArgumentException("결제 금액 불일치");
-        }
-
-        RestTemplate restTemplate = new RestTemplate();
-        HttpHeaders headers = new HttpHeaders();
-        String encodedKey = Base64.getEncoder().encodeToString((TOSS_SECRET_KEY + ":").getBytes(StandardCharsets.UTF_8));
-        headers.set("Authorization", "Basic " + encodedKey);
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        Map<String, Object> body = Map.of(
-                "paymentKey", paymentKey,
-                "orderId", orderId,
-                "amount", amount
-        );
-
-        HttpEntity<Map<String, Object>> requestEntity = new HttpEntity<>(body, headers);
-
-        try {
-            ResponseEntity<String> response = restTemplate.postForEntity(
-                    "https://api.tosspayments.com/v1/payments/confirm",
-                    requestEntity,
-                    String.class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK) {
-                order.setStatus(OrderStatus.PREPARING);
-                deleteCartItemsAfterOrder(order);
-            }
-        } catch (Exception e) {
-            throw new IllegalArgumentException("결제 승인 실패: " + e.getMessage());
-        }
-    }
-
-    // 장바구니 비우기
-    private void deleteCartItemsAfterOrder(Order order) {
-        Client client = order.getClient();
-        Cart cart = cartRepository.findByClient(client).orElse(null);
-        if (cart == null) return;
-
-        List<Long> orderedProductIds = order.getOrderItems().stream()
-                .map(oi -> oi.getProduct().getId())
-                .collect(Collectors.toList());
-
-        List<CartItem> itemsToDelete = cart.getCartItems().stream()
-                .filter(ci -> orderedProductIds.contains(ci.getProduct().getId()))
-                .collect(Collectors.toList());
-
-        cartItemRepository.deleteAll(itemsToDelete);
-    }
-
-    private String generateOrderNumber() {
-        String date = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        int random = ThreadLocalRandom.current().nextInt(1000, 9999);
-        return date + "-" + random;
+        paymentService.confirmTossPayment(paymentKey, orderId, amount);
     }
 
     /**
@@ -205,56 +191,70 @@ public class OrderService {
         LocalDateTime end = (endDateStr != null && !endDateStr.isEmpty()) ? LocalDateTime.parse(endDateStr + "T23:59:59") : null;
 
         Page<Order> orders = orderRepository.searchClientOrders(client.getClientId(), start, end, keyword, pageable);
+        return toListPage(orders, this::toPartnerOrderListResponse);
+    }
 
-        // 날짜 포맷터
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
-        return orders.map(order -> {
-            OrderItem firstItem = order.getOrderItems().isEmpty() ? null : order.getOrderItems().get(0);
+    /**
+     * [파트너용] 주문 목록 키셋 조회 (커서 이후 size 건, 페이지 깊이와 관계없이 같은 비용)
+     * @param cursor 이전 응답의 nextCursor (첫 페이지는 null)
+     * @param withCount true 일 때만 전체 건수 COUNT 쿼리 실행
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderDto.PartnerOrderListResponse> getPartnerOrderListByCursor(
+            Client client, String cursor, int size, String startDateStr, String endDateStr, String keyword, boolean withCount) {
 
-            // 대표 상품 정보 조회 (상품코드, 상품명, 가격)
-            String displayName = "상품 정보 없음";
-            String productCode = "-";
-            int productPrice = 0;
+        LocalDateTime start = (startDateStr != null && !startDateStr.isEmpty()) ? LocalDateTime.parse(startDateStr + "T00:00:00") : null;
+        LocalDateTime end = (endDateStr != null && !endDateStr.isEmpty()) ? LocalDateTime.parse(endDateStr + "T23:59:59") : null;
+        SeekCursor after = SeekCursor.decode(cursor);
+        int pageSize = cursorPageSize(size);
+
+        // 다음 페이지 존재 여부 확인을 위해 1건 더 조회
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Order> orders = after == null
+                ? orderRepository.seekClientOrders(client.getClientId(), start, end, keyword, limit)
+                : orderRepository.seekClientOrdersAfter(client.getClientId(), start, end, keyword,
+                        after.createdAt(), after.id(), limit);
+        Long total = withCount ? orderRepository.countClientOrders(client.getClientId(), start, end, keyword) : null;
+
+        return toCursorPage(orders, pageSize, total, this::toPartnerOrderListResponse);
+    }
 
-            if (firstItem != null) {
-                displayName = firstItem.getProduct().getName();
-                productCode = firstItem.getProduct().getProductCode(); // ★ 상품코드 가져오기
-                productPrice = firstItem.getProduct().getSupplyPrice(); // ★ 단가 가져오기
-            }
+    private OrderDto.PartnerOrderListResponse toPartnerOrderListResponse(Order order, OrderListSummaryDto summary) {
+        // 날짜 포맷터
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
-            // "상품명 외 N건" 처리
-           // if (order.getOrderItems().size() > 1) {
-           //     displayName += " 외 " + (order.getOrderItems().size() - 1) + "건";
-          //  }
+        // 대표 상품 정보 (상품코드, 상품명, 가격)
+        String displayName = "상품 정보 없음";
+        String productCode = "-";
+        int productPrice = 0;
 
-            // 총 수량 계산 (모든 아이템의 count 합계)
-            int totalQty = order.getOrderItems().stream()
-                    .mapToInt(OrderItem::getCount)
-                    .sum();
+        if (summary.hasRepItem()) {
+            displayName = summary.getRepProductName();
+            productCode = summary.getRepProductCode();
+            productPrice = summary.getRepSupplyPrice();
+        }
 
-            // 배송완료일자 처리
-            String deliveryDateStr = "-";
-            if (order.getStatus() == OrderStatus.DELIVERED && order.getDeliveryCompletedAt() != null) {
-                deliveryDateStr = order.getDeliveryCompletedAt().format(formatter);
-            }
+        // 배송완료일자 처리
+        String deliveryDateStr = "-";
+        if (order.getStatus() == OrderStatus.DELIVERED && order.getDeliveryCompletedAt() != null) {
+            deliveryDateStr = order.getDeliveryCompletedAt().format(formatter);
+        }
 
-            return OrderDto.PartnerOrderListResponse.builder()
-                    .orderId(order.getId())
-                    .orderNumber(order.getOrderNumber())
-                    .createdAt(order.getCreatedAt().toString().replace("T", " ").substring(0, 16))
+        return OrderDto.PartnerOrderListResponse.builder()
+                .orderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .createdAt(order.getCreatedAt().toString().replace("T", " ").substring(0, 16))
 
-                    .repProductCode(productCode)
-                    .repProductName(displayName)
-                    .repProductPrice(productPrice)
-                    .totalQuantity(totalQty)
-                    .deliveryDate(deliveryDateStr)
+                .repProductCode(productCode)
+                .repProductName(displayName)
+                .repProductPrice(productPrice)
+                .totalQuantity((int) summary.getTotalQuantity())
+                .deliveryDate(deliveryDateStr)
 
-                    .itemCount(order.getOrderItems().size())
-                    .totalAmount(order.getTotalAmount())
-                    .status(convertStatusToKorean(order.getStatus()))
-                    .build();
-        });
+                .itemCount((int) summary.getItemCount())
+                .totalAmount(order.getTotalAmount())
+                .status(convertStatusToKorean(order.getStatus()))
+                .build();
     }
 
     // 주문 상세 품목 조회
@@ -305,26 +305,95 @@ public class OrderService {
                 ? LocalDateTime.parse(endDateStr + "T23:59:59") : null;
 
         Page<Order> orders = orderRepository.searchAdminOrders(start, end, keyword, pageable);
+        return toListPage(orders, this::toAdminOrderListResponse);
+    }
 
-        return orders.map(order -> {
-            OrderItem firstItem = order.getOrderItems().isEmpty() ? null : order.getOrderItems().get(0);
-            String displayName = (firstItem != null) ? firstItem.getProduct().getName() : "상품 정보 없음";
-            if (order.getOrderItems().size() > 1) {
-               // displayName += " 외 " + (order.getOrderItems().size() - 1) + "건";
-            }
+    /**
+     * [본사] 전체 발주 목록 키셋 조회 (커서 이후 size 건, withCount=false 면 COUNT 생략)
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderDto.AdminOrderListResponse> getAdminOrderListByCursor(
+            String cursor, int size, String startDateStr, String endDateStr, String keyword, boolean withCount) {
 
-            return OrderDto.AdminOrderListResponse.builder()
-                    .orderId(order.getId())
-                    .orderNumber(order.getOrderNumber())
-                    .clientName(order.getClient().getBusinessName())
-                    .createdAt(order.getCreatedAt().toString().replace("T", " ").substring(0, 16))
-                    .repProductCode(firstItem != null ? firstItem.getProduct().getProductCode() : "-")
-                    .repProductName(displayName) // orderName 대신 사용
-                    .itemCount(order.getOrderItems().size())
-                    .totalAmount(order.getTotalAmount())
-                    .status(convertStatusToKorean(order.getStatus()))
-                    .build();
+        LocalDateTime start = (startDateStr != null && !startDateStr.isEmpty())
+                ? LocalDateTime.parse(startDateStr + "T00:00:00") : null;
+        LocalDateTime end = (endDateStr != null && !endDateStr.isEmpty())
+                ? LocalDateTime.parse(endDateStr + "T23:59:59") : null;
+        SeekCursor after = SeekCursor.decode(cursor);
+        int pageSize = cursorPageSize(size);
+
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Order> orders = after == null
+                ? orderRepository.seekAdminOrders(start, end, keyword, limit)
+                : orderRepository.seekAdminOrdersAfter(start, end, keyword, after.createdAt(), after.id(), limit);
+        Long total = withCount ? orderRepository.countAdminOrders(start, end, keyword) : null;
+
+        return toCursorPage(orders, pageSize, total, this::toAdminOrderListResponse);
+    }
+
+    private OrderDto.AdminOrderListResponse toAdminOrderListResponse(Order order, OrderListSummaryDto summary) {
+        return OrderDto.AdminOrderListResponse.builder()
+                .orderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .clientName(summary.getClientName())
+                .createdAt(order.getCreatedAt().toString().replace("T", " ").substring(0, 16))
+                .repProductCode(summary.hasRepItem() ? summary.getRepProductCode() : "-")
+                .repProductName(summary.hasRepItem() ? summary.getRepProductName() : "상품 정보 없음") // orderName 대신 사용
+                .itemCount((int) summary.getItemCount())
+                .totalAmount(order.getTotalAmount())
+                .status(convertStatusToKorean(order.getStatus()))
+                .build();
+    }
+
+    private int cursorPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+    }
+
+    // size+1 건 조회 결과를 현재 페이지 + 다음 커서로 변환
+    private <T> CursorPageDto<T> toCursorPage(List<Order> orders, int pageSize, Long total, ListRowMapper<T> mapper) {
+        boolean hasNext = orders.size() > pageSize;
+        List<Order> page = hasNext ? orders.subList(0, pageSize) : orders;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Order last = page.get(page.size() - 1);
+            nextCursor = new SeekCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return CursorPageDto.<T>builder()
+                .content(mapListRows(page, mapper))
+                .size(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .totalElements(total)
+                .build();
+    }
+
+    private <T> Page<T> toListPage(Page<Order> orders, ListRowMapper<T> mapper) {
+        return new PageImpl<>(mapListRows(orders.getContent(), mapper), orders.getPageable(), orders.getTotalElements());
+    }
+
+    // 목록 행 변환 - 품목 수/총 수량/고객사명/대표 상품을 주문 ID 목록으로 한 번에 조회 (페이지당 쿼리 수 고정)
+    private <T> List<T> mapListRows(List<Order> orders, ListRowMapper<T> mapper) {
+        if (orders.isEmpty()) return new ArrayList<>();
+
+        List<Long> orderIds = orders.stream().map(Order::getId).toList();
+        Map<Long, OrderListSummaryDto> summaries = new HashMap<>();
+        orderRepository.findListSummaries(orderIds).forEach(summary -> summaries.put(summary.getOrderId(), summary));
+        orderRepository.findListRepItems(orderIds).forEach(repItem -> {
+            OrderListSummaryDto summary = summaries.get(repItem.getOrderId());
+            if (summary != null) summary.withRepItem(repItem);
         });
+
+        return orders.stream()
+                .map(order -> mapper.map(order, summaries.getOrDefault(order.getId(),
+                        new OrderListSummaryDto(order.getId(), null, 0L, 0L))))
+                .collect(Collectors.toList());
+    }
+
+    @FunctionalInterface
+    private interface ListRowMapper<T> {
+        T map(Order order, OrderListSummaryDto summary);
     }
 
     // [본사] 취소 승인 (기존 cancelOrdersByAdmin 대신 이것 사용 권장)
@@ -410,29 +479,21 @@ public class OrderService {
         );
 
         // 변경된 리포지토리 메서드 호출
-        Page<Order> orders = orderRepository.findByStatusInAndKeyword(
-                statuses,
-                keyword,
-                pageable
-        );
+        Page<Order> orders = searchByStatus(statuses, keyword, pageable);
 
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
-        return orders.map(order -> {
-            OrderItem firstItem = order.getOrderItems().isEmpty() ? null : order.getOrderItems().get(0);
+        return toListPage(orders, (order, summary) -> {
             String productName = "상품 없음";
             String productCode = "-";
             int itemPrice = 0;
 
-            if (firstItem != null) {
-                productCode = firstItem.getProduct().getProductCode();
-                productName = firstItem.getProduct().getName();
-                itemPrice = firstItem.getPrice();
-                if (order.getOrderItems().size() > 1) {
-                   // productName += " 외 " + (order.getOrderItems().size() - 1) + "건";
-                }
+            if (summary.hasRepItem()) {
+                productCode = summary.getRepProductCode();
+                productName = summary.getRepProductName();
+                itemPrice = summary.getRepItemPrice();
             }
-            int totalQty = order.getOrderItems().stream().mapToInt(OrderItem::getCount).sum();
+            int totalQty = (int) summary.getTotalQuantity();
 
             String reqDate = order.getUpdatedAt() != null ? order.getUpdatedAt().format(formatter) : "-";
 
@@ -464,6 +525,15 @@ public class OrderService {
         });
     }
 
+    // 상태 + 검색어(발주번호, 상품명, 상품코드) 조회 - 검색어가 있으면 색인 검색
+    private Page<Order> searchByStatus(List<OrderStatus> statuses, String keyword, Pageable pageable) {
+        if (keyword == null || keyword.isBlank()) {
+            return orderRepository.findByStatusInAndKeyword(statuses, keyword, pageable);
+        }
+        Set<String> tokens = SearchTokenizer.queryTokens(keyword);
+        return orderRepository.findByStatusInAndTokens(statuses, tokens, tokens.size(), pageable);
+    }
+
     // [본사] 반품 승인
     public void approveReturns(List<Long> orderIds) {
         List<Order> orders = orderRepository.findAllById(orderIds);
@@ -509,22 +579,15 @@ public class OrderService {
                 OrderStatus.CANCEL_REJECTED
         );
 
-        Page<Order> orders = orderRepository.findByStatusInAndKeyword(statuses, keyword, pageable);
+        Page<Order> orders = searchByStatus(statuses, keyword, pageable);
 
         // 날짜 포맷터 (yyyy-MM-dd HH:mm)
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
-        return orders.map(order -> {
-            OrderItem item = order.getOrderItems().get(0);
-
-            // 상품명 처리 (외 N건)
-            String displayName = item.getProduct().getName();
-            if (order.getOrderItems().size() > 1) {
-               // displayName += " 외 " + (order.getOrderItems().size() - 1) + "건";
-            }
-
-            // 총 수량 계산
-            int totalQty = order.getOrderItems().stream().mapToInt(OrderItem::getCount).sum();
+        return toListPage(orders, (order, summary) -> {
+            // 대표 상품 / 총 수량 (목록 페이지 단위로 한 번에 조회된 요약)
+            String displayName = summary.getRepProductName();
+            int totalQty = (int) summary.getTotalQuantity();
 
             // ★ 날짜 로직
             // 1. 취소 요청일: 상태가 변경된 마지막 시간(updatedAt)을 사용 (요청 시점이므로)
@@ -547,9 +610,9 @@ public class OrderService {
                     .orderNumber(order.getOrderNumber())
                     .orderDate(order.getCreatedAt().toLocalDate().toString()) // 발주일자는 날짜만
 
-                    .productCode(item.getProduct().getProductCode())
+                    .productCode(summary.getRepProductCode())
                     .productName(displayName)
-                    .supplyPrice(item.getPrice()) // 공급가
+                    .supplyPrice(summary.getRepItemPrice()) // 공급가
                     .quantity(totalQty)
                     .totalAmount(order.getTotalAmount())
 
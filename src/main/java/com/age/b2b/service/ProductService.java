@@ -1,24 +1,32 @@
 package com.age.b2b.service;
 
 import com.age.b2b.domain.Product;
+import com.age.b2b.domain.SearchToken;
 import com.age.b2b.domain.common.ProductStatus;
 import com.age.b2b.dto.ProductRequestDto;
 import com.age.b2b.dto.ProductResponseDto;
 import com.age.b2b.repository.CartItemRepository;
 import com.age.b2b.repository.OrderItemRepository;
 import com.age.b2b.repository.ProductRepository;
+import com.age.b2b.repository.SearchTokenRepository;
+import com.age.b2b.service.cart.CartViewCache;
+import com.age.b2b.service.search.SearchTokenizer;
+import com.age.b2b.service.sequence.BusinessNumberService;
+import com.age.b2b.service.stock.AtpLedger;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +37,10 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final CartItemRepository cartItemRepository;
     private final OrderItemRepository orderItemRepository;
+    private final SearchTokenRepository searchTokenRepository;
+    private final BusinessNumberService businessNumberService;
+    private final CartViewCache cartViewCache;
+    private final AtpLedger atpLedger;
 
     @Transactional(readOnly = true)
     public String getProductNameByCode(String code) {
@@ -46,17 +58,39 @@ public class ProductService {
 
     @Transactional(readOnly = true)
     public Page<ProductResponseDto> getProductList(String keyword, ProductStatus status, int page) {
+        return findProducts(keyword, status, page).map(ProductResponseDto::from);
+    }
+
+    // 파트너 상품 목록 (상품별 주문 가능 수량 포함, 메모리 원장에서 조회)
+    @Transactional(readOnly = true)
+    public Page<ProductResponseDto> getPartnerProductList(String keyword, int page) {
+        return findProducts(keyword, null, page)
+                .map(product -> ProductResponseDto.from(product, atpLedger.available(product.getId())));
+    }
+
+    private Page<Product> findProducts(String keyword, ProductStatus status, int page) {
         Pageable pageable = PageRequest.of(page, 10, Sort.by(Sort.Direction.DESC, "id"));
-        Page<Product> productPage;
         if (keyword != null && !keyword.isBlank()) {
-            productPage = productRepository.findByNameContainingOrProductCodeContaining(keyword, keyword, pageable);
+            return searchRanked(keyword, page);
         } else if (status != null) {
-            productPage = productRepository.findByStatus(status, pageable);
-        } else {
-            productPage = productRepository.findAll(pageable);
+            return productRepository.findByStatus(status, pageable);
         }
-        return productPage.map(ProductResponseDto::from);
+        return productRepository.findAll(pageable);
     }
+    // 검색 색인으로 상품명/상품코드 검색 (가중치 순위 -> 최신순), 상품 본문은 2차 캐시/PK 조회
+    private Page<Product> searchRanked(String keyword, int page) {
+        Set<String> tokens = SearchTokenizer.queryTokens(keyword);
+        Page<Long> ids = searchTokenRepository.searchRanked(SearchToken.PRODUCT, tokens, tokens.size(), PageRequest.of(page, 10));
+
+        Map<Long, Product> products = productRepository.findAllById(ids.getContent()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> ranked = ids.getContent().stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(ranked, ids.getPageable(), ids.getTotalElements());
+    }
+
     // 신상품 반환 로직
     @Transactional(readOnly = true)
     public ProductResponseDto getLatestProduct() {
@@ -66,11 +100,11 @@ public class ProductService {
     }
     // 1. 상품 등록
     public Long saveProduct(ProductRequestDto dto) {
-        // 1. 상품코드 자동 생성 로직 (P + 년월일시분초 + 3자리난수)
-        // 예: P20231217103000123
-        String generatedCode = generateProductCode();
+        // 1. 상품코드 자동 생성 (P + 년월일 + 일자별 6자리 일련번호)
+        // 예: P20231217000123
+        String generatedCode = businessNumberService.nextProductCode();
 
-        // 혹시 모를 중복 체크 (거의 희박함)
+        // 혹시 모를 중복 체크 (이전 방식으로 생성된 코드와의 충돌)
         if (productRepository.existsByProductCode(generatedCode)) {
             throw new IllegalStateException("상품코드 생성 중 충돌이 발생했습니다. 다시 시도해주세요.");
         }
@@ -110,6 +144,9 @@ public class ProductService {
         if (dto.getExpiryDate() != null) {
             product.setExpiryDate(dto.getExpiryDate());
         }
+
+        // 장바구니 가격 스냅샷 무효화 (상품명/공급가 변경 반영)
+        cartViewCache.productsChanged();
     }
 
     public void deleteProduct(Long id) {
@@ -120,14 +157,10 @@ public class ProductService {
 
         // (2) 장바구니 내역 삭제
         cartItemRepository.deleteByProductId(id);
+        cartViewCache.productsChanged();
 
         // (3) 상품 삭제
         productRepository.deleteById(id);
     }
 
-    private String generateProductCode() {
-        String dateTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        int randomNum = ThreadLocalRandom.current().nextInt(100, 1000); // 100~999
-        return "P" + dateTime + randomNum;
-    }
 }
\ No newline at end of file
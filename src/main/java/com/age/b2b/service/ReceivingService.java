@@ -1,6 +1,5 @@
 package com.age.b2b.service;
 
-import com.age.b2b.domain.InventoryLog;
 import com.age.b2b.domain.Product;
 import com.age.b2b.domain.ProductLot;
 import com.age.b2b.domain.common.AdjustmentReason;
@@ -8,9 +7,12 @@ import com.age.b2b.domain.common.StockQuality;
 import com.age.b2b.dto.ReceivingRequestDto;
 import com.age.b2b.dto.ReceivingResponseDto;
 import com.age.b2b.dto.ReceivingUpdateDto;
-import com.age.b2b.repository.InventoryLogRepository;
 import com.age.b2b.repository.ProductLotRepository;
 import com.age.b2b.repository.ProductRepository;
+import com.age.b2b.service.search.SearchTokenizer;
+import com.age.b2b.service.sequence.BusinessNumberService;
+import com.age.b2b.service.stock.InventoryLogWriter;
+import com.age.b2b.service.stock.StockLedger;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -19,10 +21,8 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -31,8 +31,10 @@ public class ReceivingService {
 
     private final ProductLotRepository productLotRepository;
     private final ProductRepository productRepository;
-    private final InventoryLogRepository inventoryLogRepository;
+    private final InventoryLogWriter inventoryLogWriter;
     private final InventoryService inventoryService;
+    private final StockLedger stockLedger;
+    private final BusinessNumberService businessNumberService;
 
     // 입고 목록 조회
     public Page<ReceivingResponseDto> getReceivingList(String keyword, int page) {
@@ -40,7 +42,9 @@ public class ReceivingService {
 
         Page<ProductLot> lots;
         if (keyword != null && !keyword.isBlank()) {
-            lots = productLotRepository.searchByKeyword(keyword, pageable);
+            // 상품명/코드/Lot번호 색인 검색
+            Set<String> tokens = SearchTokenizer.queryTokens(keyword);
+            lots = productLotRepository.searchStockByTokens(tokens, tokens.size(), pageable);
         } else {
             lots = productLotRepository.findAllWithProduct(pageable);
         }
@@ -57,7 +61,7 @@ public class ReceivingService {
                 .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 상품코드입니다."));
 
         // 2. Lot 번호 생성
-        String lotNumber = generateLotNumber();
+        String lotNumber = businessNumberService.nextLotNumber();
 
         // 3. Lot 엔티티 생성 및 저장
         ProductLot lot = new ProductLot();
@@ -71,14 +75,10 @@ public class ReceivingService {
         ProductLot savedLot = productLotRepository.save(lot);
 
         // 4. 재고 이력(Log) 저장
-        InventoryLog log = new InventoryLog();
-        log.setProductLot(savedLot);
-        log.setChangeQuantity(dto.getQty());
-        log.setCurrentQuantity(dto.getQty()); // 초기 수량이므로 현재 수량과 동일
-        log.setReason(AdjustmentReason.INBOUND);
-        log.setNote("신규 입고 등록");
-
-        inventoryLogRepository.save(log);
+        // 초기 수량이므로 현재 수량과 동일
+        inventoryLogWriter.append(savedLot.getId(), dto.getQty(), dto.getQty(), AdjustmentReason.INBOUND, "신규 입고 등록");
+
+        stockLedger.invalidateAfterCommit(product.getId());
     }
 
     // 입고 삭제
@@ -87,12 +87,6 @@ public class ReceivingService {
         inventoryService.deleteStocks(ids);
     }
 
-    private String generateLotNumber() {
-        String date = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        int random = ThreadLocalRandom.current().nextInt(100, 999);
-        return "LOT-" + date + "-" + random;
-    }
-
     // 입고 수정 메서드
     @Transactional
     public void updateReceiving(ReceivingUpdateDto dto) {
@@ -114,14 +108,10 @@ public class ReceivingService {
             lot.setQuantity(newQty);
 
             // 재고 이력(Log) 저장
-            InventoryLog log = new InventoryLog();
-            log.setProductLot(lot);
-            log.setChangeQuantity(diff);
-            log.setCurrentQuantity(newQty);
-            log.setReason(AdjustmentReason.ADJUSTMENT); // '수정' 또는 '조정' 사유
-            log.setNote(dto.getNote());
-
-            inventoryLogRepository.save(log);
+            // '수정' 또는 '조정' 사유
+            inventoryLogWriter.append(lot.getId(), diff, newQty, AdjustmentReason.ADJUSTMENT, dto.getNote());
+
+            stockLedger.invalidateAfterCommit(lot.getProduct().getId());
         }
     }
 }
\ No newline at end of file
@@ -1,20 +1,17 @@
 package com.age.b2b.service;
 
-import com.age.b2b.domain.Client;
-import com.age.b2b.domain.Order;
-import com.age.b2b.domain.Settlement;
-import com.age.b2b.domain.common.OrderStatus;
-import com.age.b2b.repository.ClientRepository;
-import com.age.b2b.repository.OrderRepository;
-import com.age.b2b.repository.SettlementRepository;
+import com.age.b2b.domain.SettlementPartition;
+import com.age.b2b.domain.SettlementRun;
+import com.age.b2b.dto.SettlementRunStatusDto;
+import com.age.b2b.repository.SettlementPartitionRepository;
+import com.age.b2b.repository.SettlementRunRepository;
+import com.age.b2b.service.settlement.SettlementEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.YearMonth;
 import java.util.List;
 
@@ -24,57 +21,99 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SettlementService {
 
-    private final SettlementRepository settlementRepository;
-    private final OrderRepository orderRepository;
-    private final ClientRepository clientRepository;
+    private final SettlementEngine settlementEngine;
+    private final SettlementRunRepository settlementRunRepository;
+    private final SettlementPartitionRepository settlementPartitionRepository;
 
     /**
-     * [본사] 월별 정산 일괄 생성
+     * [본사] 월별 정산 일괄 생성 (끝날 때까지 대기)
+     * - 고객사 ID 구간별 파티션을 병렬로 처리, 파티션 안에서는 청크 단위로 저장 (청크마다 커밋, 중단 시 이어서 실행)
+     * - 이미 정산된 (고객사, 정산월) 은 건너뛰므로 여러 번 실행해도 중복 생성되지 않음
      * @param year 정산 연도 (ex. 2025)
      * @param month 정산 월 (ex. 12)
      */
-    public void createMonthlySettlement(int year, int month) {
-        // 1. 날짜 범위 설정 (해당 월 1일 00:00:00 ~ 말일 23:59:59)
-        YearMonth yearMonth = YearMonth.of(year, month);
-        LocalDateTime startDateTime = yearMonth.atDay(1).atStartOfDay();
-        LocalDateTime endDateTime = yearMonth.atEndOfMonth().atTime(LocalTime.MAX);
-
-        String settlementMonthStr = year + "-" + String.format("%02d", month); // "2025-12"
-
-        // 2. 모든 고객사 조회
-        List<Client> clients = clientRepository.findAll();
-
-        for (Client client : clients) {
-            // 2-1. 이미 정산되었는지 확인
-            if (settlementRepository.existsByClientAndSettlementMonth(client, settlementMonthStr)) {
-                log.info("이미 정산 완료된 건입니다. Client: {}, Month: {}", client.getBusinessName(), settlementMonthStr);
-                continue;
-            }
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public SettlementRunStatusDto createMonthlySettlement(int year, int month) {
+        SettlementRun run = settlementEngine.run(YearMonth.of(year, month));
+        SettlementRunStatusDto status = getRunStatus(run.getId());
+        log.info("월별 정산 종료 - Month: {}, 상태: {}, 생성: {}건, 합계: {}원",
+                status.getSettlementMonth(), status.getStatus(), status.getCreatedCount(), status.getTotalAmount());
+        return status;
+    }
 
-            // 2-2. 해당 월의 '배송완료' 주문 조회
-            List<Order> orders = orderRepository.findByClientAndStatusAndCreatedAtBetween(
-                    client, OrderStatus.DELIVERED, startDateTime, endDateTime
-            );
+    /**
+     * [본사] 월별 정산 백그라운드 시작 (run ID 즉시 반환, 진행 상황은 getRunStatus 로 조회)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SettlementRunStatusDto startMonthlySettlement(int year, int month) {
+        Long runId = settlementEngine.prepare(YearMonth.of(year, month));
+        if (!settlementEngine.isActive(runId)) {
+            settlementEngine.executeInBackground(runId);
+        }
+        return getRunStatus(runId);
+    }
 
-            // 주문이 없으면 정산 데이터 생성 안 함 (0원 정산 필요 시 로직 변경 가능)
-            if (orders.isEmpty()) {
-                continue;
-            }
+    /**
+     * [본사] 정산 실행 진행 상황 조회 (파티션별 체크포인트/건수 포함)
+     */
+    @Transactional(readOnly = true)
+    public SettlementRunStatusDto getRunStatus(Long runId) {
+        SettlementRun run = settlementRunRepository.findById(runId)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 정산 실행입니다."));
+        return toStatusDto(run);
+    }
 
-            // 2-3. 금액 합산
-            long totalAmount = orders.stream()
-                    .mapToLong(Order::getTotalAmount)
-                    .sum();
+    /**
+     * [본사] 정산월별 실행 이력 조회 (최신순)
+     */
+    @Transactional(readOnly = true)
+    public List<SettlementRunStatusDto> getRuns(String settlementMonth) {
+        return settlementRunRepository.findBySettlementMonthOrderByIdDesc(settlementMonth).stream()
+                .map(this::toStatusDto)
+                .toList();
+    }
 
-            // 2-4. 정산 엔티티 생성 및 저장
-            Settlement settlement = new Settlement();
-            settlement.setClient(client);
-            settlement.setSettlementNumber("SET-" + settlementMonthStr + "-" + client.getClientId());
-            settlement.setSettlementMonth(settlementMonthStr);
-            settlement.setTotalAmount(totalAmount);
-            settlement.setStatus("COMPLETED"); // 기본 완료 처리 (추후 '입금대기' 등으로 확장 가능)
+    private SettlementRunStatusDto toStatusDto(SettlementRun run) {
+        List<SettlementPartition> partitions = settlementPartitionRepository.findByRun_IdOrderByPartitionNoAsc(run.getId());
 
-            settlementRepository.save(settlement);
+        int completed = 0;
+        int failed = 0;
+        int createdCount = 0;
+        long totalAmount = 0;
+        for (SettlementPartition partition : partitions) {
+            if (SettlementRun.COMPLETED.equals(partition.getStatus())) completed++;
+            if (SettlementRun.FAILED.equals(partition.getStatus())) failed++;
+            createdCount += partition.getCreatedCount();
+            totalAmount += partition.getTotalAmount();
         }
+
+        return SettlementRunStatusDto.builder()
+                .runId(run.getId())
+                .settlementMonth(run.getSettlementMonth())
+                .status(run.getStatus())
+                .active(settlementEngine.isActive(run.getId()))
+                .partitionCount(run.getPartitionCount())
+                .completedPartitions(completed)
+                .failedPartitions(failed)
+                .createdCount(createdCount)
+                .totalAmount(totalAmount)
+                .errorMessage(run.getErrorMessage())
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .partitions(partitions.stream()
+                        .map(partition -> SettlementRunStatusDto.Partition.builder()
+                                .partitionNo(partition.getPartitionNo())
+                                .fromClientId(partition.getFromClientId())
+                                .toClientId(partition.getToClientId())
+                                .lastClientId(partition.getLastClientId())
+                                .status(partition.getStatus())
+                                .completedChunks(partition.getCompletedChunks())
+                                .createdCount(partition.getCreatedCount())
+                                .totalAmount(partition.getTotalAmount())
+                                .errorMessage(partition.getErrorMessage())
+                                .updatedAt(partition.getUpdatedAt())
+                                .build())
+                        .toList())
+                .build();
     }
 }
@@ -2,25 +2,46 @@ package com.age.b2b.service;
 
 import com.age.b2b.domain.Order;
 import com.age.b2b.domain.OrderItem;
-import com.age.b2b.domain.ProductLot;
 import com.age.b2b.domain.Shipment;
+import com.age.b2b.domain.ShipmentLot;
 import com.age.b2b.domain.common.OrderStatus;
+import com.age.b2b.dto.BulkShipmentResultDto;
 import com.age.b2b.dto.OrderDetailForShipmentDto;
 import com.age.b2b.dto.ShipmentCreateDto;
 import com.age.b2b.dto.ShipmentItemDto;
 import com.age.b2b.dto.ShipmentListResponseDto;
+import com.age.b2b.dto.ShipmentListRowDto;
 import com.age.b2b.repository.OrderRepository;
-import com.age.b2b.repository.ProductLotRepository;
+import com.age.b2b.repository.ShipmentLotRepository;
 import com.age.b2b.repository.ShipmentRepository;
+import com.age.b2b.domain.SearchToken;
+import com.age.b2b.service.search.SearchIndexListener;
+import com.age.b2b.service.search.SearchIndexer;
+import com.age.b2b.service.search.SearchTokenizer;
+import com.age.b2b.service.sequence.BusinessNumberService;
+import com.age.b2b.service.stock.BulkStockDeduction;
+import com.age.b2b.service.stock.LotAllocation;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,7 +52,11 @@ public class ShipmentService {
     private final OrderRepository orderRepository;
     private final ShipmentRepository shipmentRepository;
     private final InventoryService inventoryService;
-    private final ProductLotRepository productLotRepository;
+    private final ShipmentLotRepository shipmentLotRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final SearchIndexer searchIndexer;
+    private final BusinessNumberService businessNumberService;
 
     // 1. 화면 진입 시 데이터 조회
     @Transactional(readOnly = true)
@@ -66,26 +91,30 @@ public class ShipmentService {
     }
 
     // 2. 출고 등록 실행
+    // 재고 차감 재시도가 최신 Lot 수량을 읽도록 READ COMMITTED 로 실행
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public Long createShipment(ShipmentCreateDto dto) {
-        Order order = orderRepository.findById(dto.getOrderId())
+        // 주문 행을 잠근 뒤 상태 확인 (동시 출고 요청은 여기서 직렬화)
+        Order order = orderRepository.findAllByIdInForUpdate(List.of(dto.getOrderId())).stream()
+                .findFirst()
                 .orElseThrow(() -> new IllegalArgumentException("주문이 없습니다."));
 
-        // 이미 출고된 주문인지 확인 로직 추가 권장
-        if (order.getStatus() == OrderStatus.SHIPPED || order.getStatus() == OrderStatus.DELIVERED) {
-            throw new IllegalStateException("이미 출고된 주문입니다.");
-        }
+        checkShippable(order);
 
         // 재고 차감 로직 (FIFO)
+        List<LotAllocation> allocations = new ArrayList<>();
         order.getOrderItems().forEach(item -> {
-            inventoryService.deductStock(item.getProduct().getId(), item.getCount());
+            allocations.addAll(inventoryService.deductStock(item.getProduct().getId(), item.getCount()));
         });
 
         // 출고 생성
         Shipment shipment = new Shipment();
         shipment.setOrder(order);
-        shipment.setShipmentNumber("SHP-" + System.currentTimeMillis()); // 실무에선 별도 채번 로직 필요
+        shipment.setShipmentNumber(businessNumberService.nextShipmentNumber());
 
-        shipmentRepository.save(shipment);
+        // Lot 할당 내역이 출고 행을 참조하므로 먼저 반영
+        shipmentRepository.saveAndFlush(shipment);
+        insertShipmentLots(Map.of(shipment.getId(), allocations));
 
         // 주문 상태 변경 (상품준비중 -> 출고완료)
         order.setStatus(OrderStatus.SHIPPED);
@@ -93,21 +122,125 @@ public class ShipmentService {
         return shipment.getId();
     }
 
+    /**
+     * [본사] 일괄 출고 등록 (마감 시점 대량 출고)
+     * - 주문 행을 ID 순으로 먼저 잠가 선점 (겹치는 주문을 동시에 일괄 출고해도 한쪽만 출고, 다른 쪽은 "이미 출고" 실패)
+     * - 주문/주문상품/상품을 한 번에 조회하고, 관련 Lot 전체를 한 번의 쿼리로 잠가서 적재
+     * - 주문 순서대로 메모리에서 FIFO 할당 -> 상품준비중이 아니거나 재고가 부족한 주문만 실패 처리
+     * - Lot 차감, 재고 이력, 출고 등록을 각각 배치로 저장
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public BulkShipmentResultDto createShipments(List<Long> orderIds) {
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new IllegalArgumentException("출고할 주문을 선택해주세요.");
+        }
+
+        // 1. 주문 선점 (행 잠금) 후 주문상품/상품과 함께 일괄 조회 (요청 순서 유지, 중복 제거)
+        Set<Long> requestedIds = new LinkedHashSet<>(orderIds);
+        orderRepository.findAllByIdInForUpdate(requestedIds);
+        Map<Long, Order> orders = orderRepository.findAllWithItemsByIdIn(new ArrayList<>(requestedIds)).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        // 2. 관련 상품의 Lot 전체를 한 번에 잠그고 적재
+        Set<Long> productIds = orders.values().stream()
+                .flatMap(order -> order.getOrderItems().stream())
+                .map(item -> item.getProduct().getId())
+                .collect(Collectors.toSet());
+        BulkStockDeduction deduction = inventoryService.beginBulkDeduction(productIds);
+
+        // 3. 주문별 FIFO 할당
+        Map<Long, BulkShipmentResultDto.Item> results = new LinkedHashMap<>();
+        List<Order> shippable = new ArrayList<>();
+        Map<Long, List<LotAllocation>> allocationsByOrder = new HashMap<>();
+        for (Long orderId : requestedIds) {
+            Order order = orders.get(orderId);
+            try {
+                if (order == null) {
+                    throw new IllegalArgumentException("주문이 없습니다.");
+                }
+                checkShippable(order);
+
+                Map<Long, Integer> demand = new LinkedHashMap<>();
+                for (OrderItem item : order.getOrderItems()) {
+                    demand.merge(item.getProduct().getId(), item.getCount(), Integer::sum);
+                }
+                allocationsByOrder.put(orderId, deduction.allocate(demand));
+                shippable.add(order);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                results.put(orderId, BulkShipmentResultDto.Item.builder()
+                        .orderId(orderId)
+                        .success(false)
+                        .message(e.getMessage())
+                        .build());
+            }
+        }
+
+        // 4. Lot 차감 + 재고 이력 배치 저장
+        inventoryService.applyBulkDeduction(deduction);
+
+        // 5. 출고 등록 (배치 INSERT) + 주문 상태 변경
+        Map<Long, String> shipmentNumbers = insertShipments(shippable);
+        Map<Long, Long> shipmentIds = findShipmentIds(shipmentNumbers.values());
+
+        // 6. 출고별 Lot 할당 내역 배치 저장
+        Map<Long, List<LotAllocation>> allocationsByShipment = new LinkedHashMap<>();
+        for (Order order : shippable) {
+            allocationsByShipment.put(shipmentIds.get(order.getId()), allocationsByOrder.get(order.getId()));
+        }
+        insertShipmentLots(allocationsByShipment);
+
+        for (Order order : shippable) {
+            order.setStatus(OrderStatus.SHIPPED);
+
+            // JDBC 로 저장한 출고는 엔티티 리스너를 거치지 않으므로 직접 색인
+            String shipmentNumber = shipmentNumbers.get(order.getId());
+            searchIndexer.index(SearchToken.SHIPMENT, shipmentIds.get(order.getId()),
+                    SearchTokenizer.tokens(shipmentNumber, SearchIndexListener.CODE_WEIGHT));
+            results.put(order.getId(), BulkShipmentResultDto.Item.builder()
+                    .orderId(order.getId())
+                    .success(true)
+                    .shipmentId(shipmentIds.get(order.getId()))
+                    .shipmentNumber(shipmentNumber)
+                    .build());
+        }
+
+        // 요청 순서대로 결과 정렬
+        List<BulkShipmentResultDto.Item> ordered = requestedIds.stream()
+                .map(results::get)
+                .collect(Collectors.toList());
+
+        return BulkShipmentResultDto.builder()
+                .requestedCount(ordered.size())
+                .successCount(shippable.size())
+                .failureCount(ordered.size() - shippable.size())
+                .results(ordered)
+                .build();
+    }
+
     /**
      * [본사] 출고 목록 조회 (검색 + 페이징)
+     * - 출고/주문/대표 상품/출고 Lot 을 한 번의 조인 쿼리로 조회 (행마다 추가 조회 없음)
      */
     @Transactional(readOnly = true)
     public Page<ShipmentListResponseDto> getShipmentList(String keyword, int page) {
-        Pageable pageable = PageRequest.of(page, 10, Sort.by(Sort.Direction.DESC, "id"));
+        Pageable pageable = PageRequest.of(page, 10);
 
-        Page<Shipment> shipments = shipmentRepository.searchShipments(keyword, pageable);
+        Page<ShipmentListRowDto> rows;
+        if (keyword == null || keyword.isBlank()) {
+            rows = shipmentRepository.findListRows(pageable);
+        } else {
+            // 출고번호/주문번호/상품명/상품코드 색인 검색
+            Set<String> tokens = SearchTokenizer.queryTokens(keyword);
+            rows = shipmentRepository.findListRowsByTokens(tokens, tokens.size(), pageable);
+        }
 
-        return shipments.map(this::convertToDto);
+        return rows.map(this::convertToDto);
     }
 
     /**
      * [본사] 출고 삭제
      */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public void deleteShipments(List<Long> shipmentIds) {
         for (Long id : shipmentIds) {
             Shipment shipment = shipmentRepository.findById(id)
@@ -115,69 +248,109 @@ public class ShipmentService {
 
             Order order = shipment.getOrder();
 
-            // 1. 재고 복구
-            for (OrderItem item : order.getOrderItems()) {
-                inventoryService.restoreStock(item.getProduct().getId(), item.getCount());
+            // 1. 재고 복구 (출고 시 차감한 Lot 으로 되돌림, 할당 내역이 없는 과거 출고는 최신 Lot 으로 복구)
+            List<ShipmentLot> shipmentLots = shipmentLotRepository.findByShipment_IdOrderByIdAsc(id);
+            if (shipmentLots.isEmpty()) {
+                for (OrderItem item : order.getOrderItems()) {
+                    inventoryService.restoreStock(item.getProduct().getId(), item.getCount());
+                }
+            } else {
+                for (ShipmentLot shipmentLot : shipmentLots) {
+                    inventoryService.restoreStockToLot(shipmentLot.getProductId(), shipmentLot.getLotId(), shipmentLot.getQuantity());
+                }
             }
 
             // 2. 주문 상태 되돌리기
             order.setStatus(OrderStatus.PREPARING);
 
-            // 3. 출고 내역 삭제
+            // 3. Lot 할당 내역 + 출고 내역 삭제
+            shipmentLotRepository.deleteByShipmentId(id);
             shipmentRepository.delete(shipment);
         }
     }
 
-    // Entity -> DTO 변환 헬퍼
-    private ShipmentListResponseDto convertToDto(Shipment shipment) {
-        Order order = shipment.getOrder();
-        OrderItem firstItem = order.getOrderItems().isEmpty() ? null : order.getOrderItems().get(0);
-
-        String productCode = "-";
-        String productName = "상품 없음";
-        String origin = "-";
-        String lotNumber = "-";
-        String expiryDate = "-";
-        int totalQty = 0;
-
-        if (firstItem != null) {
-            productCode = firstItem.getProduct().getProductCode();
-            productName = firstItem.getProduct().getName();
-            if (order.getOrderItems().size() > 1) {
-                productName += " 외 " + (order.getOrderItems().size() - 1) + "건";
-            }
-            origin = firstItem.getProduct().getOrigin();
-            totalQty = order.getOrderItems().stream().mapToInt(OrderItem::getCount).sum();
-
-            // 선입선출
-            List<ProductLot> lots = productLotRepository.findByProductIdOrderByExpiryDateAsc(firstItem.getProduct().getId());
-            if (!lots.isEmpty()) {
-                ProductLot repLot = lots.get(0);
-                lotNumber = repLot.getLotNumber();
-                expiryDate = repLot.getExpiryDate().toString();
-            }
+    // 결제 완료 후 상품준비중인 주문만 출고 (결제대기 / 취소 / 반품 주문은 재고를 차감하지 않음)
+    private void checkShippable(Order order) {
+        if (order.getStatus() == OrderStatus.SHIPPED || order.getStatus() == OrderStatus.DELIVERED) {
+            throw new IllegalStateException("이미 출고된 주문입니다.");
         }
+        if (order.getStatus() != OrderStatus.PREPARING) {
+            throw new IllegalStateException("상품준비중인 주문만 출고할 수 있습니다. (주문 상태: " + order.getStatus() + ")");
+        }
+    }
+
+    // 출고 배치 INSERT 후 주문 ID -> 출고번호 반환
+    private Map<Long, String> insertShipments(List<Order> orders) {
+        Map<Long, String> shipmentNumbers = new LinkedHashMap<>();
+        if (orders.isEmpty()) return shipmentNumbers;
 
-        String shipmentDateStr = "-";
-        if (shipment.getShippedDate() != null) {
-            shipmentDateStr = shipment.getShippedDate().toLocalDate().toString();
+        for (Order order : orders) {
+            shipmentNumbers.put(order.getId(), businessNumberService.nextShipmentNumber());
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO shipments (shipment_number, order_id, shipped_date) VALUES (?, ?, ?)",
+                new ArrayList<>(shipmentNumbers.entrySet()), orders.size(), (ps, entry) -> {
+                    ps.setString(1, entry.getValue());
+                    ps.setLong(2, entry.getKey());
+                    ps.setTimestamp(3, now);
+                });
+        return shipmentNumbers;
+    }
+
+    // 출고별 Lot 할당 내역 배치 INSERT (Lot 번호/유통기한은 출고 시점 값으로 복사)
+    private void insertShipmentLots(Map<Long, List<LotAllocation>> allocationsByShipment) {
+        List<Object[]> rows = new ArrayList<>();
+        allocationsByShipment.forEach((shipmentId, allocations) -> {
+            for (LotAllocation allocation : allocations) {
+                rows.add(new Object[]{shipmentId, allocation.getProductId(), allocation.getQuantity(), allocation.getLotId()});
+            }
+        });
+        if (rows.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO shipment_lots (shipment_id, product_id, lot_id, lot_number, expiry_date, quantity) " +
+                        "SELECT ?, ?, lot_id, lot_number, expiry_date, ? FROM product_lots WHERE lot_id = ?",
+                rows);
+    }
+
+    // 출고번호로 생성된 출고 PK 조회 (주문 ID -> 출고 ID)
+    private Map<Long, Long> findShipmentIds(Collection<String> shipmentNumbers) {
+        Map<Long, Long> ids = new HashMap<>();
+        if (shipmentNumbers.isEmpty()) return ids;
+
+        namedParameterJdbcTemplate.query(
+                "SELECT shipment_id, order_id FROM shipments WHERE shipment_number IN (:numbers)",
+                Map.of("numbers", shipmentNumbers),
+                rs -> {
+                    ids.put(rs.getLong("order_id"), rs.getLong("shipment_id"));
+                });
+        return ids;
+    }
+
+    // 목록 행 -> DTO 변환 헬퍼
+    private ShipmentListResponseDto convertToDto(ShipmentListRowDto row) {
+        String productName = row.getProductName() == null ? "상품 없음" : row.getProductName();
+        if (row.getItemCount() > 1) {
+            productName += " 외 " + (row.getItemCount() - 1) + "건";
         }
 
         return ShipmentListResponseDto.builder()
-                .shipmentId(shipment.getId())
-                .shipmentNumber(shipment.getShipmentNumber())
-                .orderNumber(order.getOrderNumber())
-                .orderDate(order.getCreatedAt().toLocalDate().toString())
-                .shipmentDate(shipmentDateStr)
-                .productCode(productCode)
+                .shipmentId(row.getShipmentId())
+                .shipmentNumber(row.getShipmentNumber())
+                .orderNumber(row.getOrderNumber())
+                .orderDate(row.getOrderDate().toLocalDate().toString())
+                .shipmentDate(row.getShippedDate() == null ? "-" : row.getShippedDate().toLocalDate().toString())
+                .productCode(row.getProductCode() == null ? "-" : row.getProductCode())
                 .productName(productName)
-                .quantity(totalQty)
-                .lotNumber(lotNumber)
-                .expiryDate(expiryDate)
+                .quantity((int) row.getTotalQuantity())
+                .lotNumber(row.getLotNumber() == null ? "-" : row.getLotNumber())
+                .expiryDate(row.getExpiryDate() == null ? "-" : row.getExpiryDate().toString())
                 .stockStatus("출고완료")
-                .origin(origin)
-                .address(order.getDeliveryInfo().getAddress())
+                .origin(row.getOrigin() == null ? "-" : row.getOrigin())
+                .address(row.getAddress())
                 .payment("카드결제")
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package com.age.b2b.service.cart;
+
+import com.age.b2b.dto.CartItemRowDto;
+
+import java.util.List;
+
+/**
+ * 고객사 장바구니의 가격 스냅샷 (항목별 상품코드 / 상품명 / 공급가 / 수량)
+ * - 항목 수만큼의 배열에 나눠 담아 캐시에 오래 두어도 엔티티/DTO 객체를 붙잡지 않음
+ * - 불변 객체이므로 여러 요청이 같은 스냅샷을 함께 읽어도 안전
+ */
+public final class CartView {
+
+    private final Long cartId; // 장바구니가 없으면 null
+    private final long[] itemIds;
+    private final long[] productIds;
+    private final String[] productCodes;
+    private final String[] productNames;
+    private final int[] supplyPrices;
+    private final int[] counts;
+
+    private CartView(Long cartId, int size) {
+        this.cartId = cartId;
+        this.itemIds = new long[size];
+        this.productIds = new long[size];
+        this.productCodes = new String[size];
+        this.productNames = new String[size];
+        this.supplyPrices = new int[size];
+        this.counts = new int[size];
+    }
+
+    static CartView of(List<CartItemRowDto> rows) {
+        if (rows.isEmpty()) {
+            return new CartView(null, 0);
+        }
+
+        int size = 0;
+        for (CartItemRowDto row : rows) {
+            if (row.getItemId() != null) size++;
+        }
+
+        CartView view = new CartView(rows.get(0).getCartId(), size);
+        int i = 0;
+        for (CartItemRowDto row : rows) {
+            if (row.getItemId() == null) continue;
+            view.itemIds[i] = row.getItemId();
+            view.productIds[i] = row.getProductId();
+            view.productCodes[i] = row.getProductCode();
+            view.productNames[i] = row.getProductName();
+            view.supplyPrices[i] = row.getSupplyPrice();
+            view.counts[i] = row.getCount();
+            i++;
+        }
+        return view;
+    }
+
+    public Long getCartId() {
+        return cartId;
+    }
+
+    public int size() {
+        return itemIds.length;
+    }
+
+    public long itemId(int index) {
+        return itemIds[index];
+    }
+
+    public long productId(int index) {
+        return productIds[index];
+    }
+
+    public String productCode(int index) {
+        return productCodes[index];
+    }
+
+    public String productName(int index) {
+        return productNames[index];
+    }
+
+    public int supplyPrice(int index) {
+        return supplyPrices[index];
+    }
+
+    public int count(int index) {
+        return counts[index];
+    }
+}
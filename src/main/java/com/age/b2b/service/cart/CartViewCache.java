@@ -0,0 +1,196 @@
+package com.age.b2b.service.cart;
+
+import com.age.b2b.repository.CartRepository;
+import com.age.b2b.support.MetricsSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 고객사별 장바구니 가격 스냅샷 캐시
+ * - 장바구니 조회가 상품을 항목마다 다시 읽지 않고 스냅샷을 그대로 사용 (서버별 캐시라 화면 표시용, 주문은 DB 에서 다시 읽음)
+ * - 장바구니 변경: 해당 고객사 스냅샷 폐기 (즉시 + 트랜잭션 종료 후 한 번 더)
+ * - 상품 수정/삭제: 세대 번호를 올려 모든 스냅샷을 한 번에 무효화
+ * - 스냅샷을 만드는 동안 무효화가 일어나면 그 결과는 저장하지 않음 (오래된 값이 다시 들어가지 않도록)
+ */
+@Component
+@RequiredArgsConstructor
+public class CartViewCache implements MetricsSource {
+
+    private final CartRepository cartRepository;
+
+    @Value("${cart.view-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cart.view-cache.ttl-ms:300000}")
+    private long ttlMillis;
+
+    @Value("${cart.view-cache.max-clients:10000}")
+    private int maxClients;
+
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final AtomicLong productGeneration = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * 고객사 장바구니 스냅샷 (없거나 무효화됐으면 DB 에서 한 번의 쿼리로 다시 만듦)
+     */
+    public CartView get(Long clientId) {
+        if (!enabled || isDirtyInCurrentTransaction(clientId)) {
+            // 이 트랜잭션에서 바꾼 장바구니는 커밋 전이므로 캐시에 넣지 않음
+            bypasses.increment();
+            return load(clientId);
+        }
+
+        long generation = productGeneration.get();
+        Slot slot = slots.get(clientId);
+        if (slot != null && slot.isValid(generation, ttlNanos())) {
+            hits.increment();
+            return slot.view;
+        }
+
+        misses.increment();
+        CartView view = load(clientId);
+        Slot loaded = new Slot(view, generation, System.nanoTime());
+        if (slot != null) {
+            // 조회 중 다른 스레드가 무효화했다면 슬롯이 바뀌었으므로 저장되지 않음
+            slots.replace(clientId, slot, loaded);
+        } else if (slots.size() < maxClients || evictStale()) {
+            slots.putIfAbsent(clientId, loaded);
+        }
+        return view;
+    }
+
+    /**
+     * 장바구니 변경 시 호출 (즉시 폐기하고, 트랜잭션이 끝나면 한 번 더 폐기)
+     */
+    public void invalidate(Long clientId) {
+        evict(clientId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingInvalidations().clientIds.add(clientId);
+        }
+    }
+
+    /**
+     * 상품 가격/이름 변경 또는 삭제 시 호출 (모든 스냅샷 무효화)
+     */
+    public void productsChanged() {
+        productGeneration.incrementAndGet();
+        invalidations.increment();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingInvalidations().products = true;
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "cartView";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        long total = hits.sum() + misses.sum();
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("enabled", enabled);
+        map.put("ttlMillis", ttlMillis);
+        map.put("size", slots.size());
+        map.put("maxClients", maxClients);
+        map.put("hits", hits.sum());
+        map.put("misses", misses.sum());
+        map.put("hitRatio", total == 0 ? 0.0 : (double) hits.sum() / total);
+        map.put("bypasses", bypasses.sum());
+        map.put("invalidations", invalidations.sum());
+        map.put("productGeneration", productGeneration.get());
+        return map;
+    }
+
+    // --- 내부 헬퍼 메서드 ---
+
+    private CartView load(Long clientId) {
+        return CartView.of(cartRepository.findItemRows(clientId));
+    }
+
+    // 빈 슬롯을 새로 넣어 두어, 조회 중이던 스레드의 replace/putIfAbsent 가 실패하도록 함
+    private void evict(Long clientId) {
+        slots.put(clientId, new Slot(null, 0, System.nanoTime()));
+        invalidations.increment();
+    }
+
+    // 가득 찼을 때 만료/무효화된 슬롯 정리 (정리 후에도 가득 차 있으면 캐시하지 않음)
+    private boolean evictStale() {
+        long generation = productGeneration.get();
+        long ttlNanos = ttlNanos();
+        slots.values().removeIf(slot -> slot.isExpired(ttlNanos) || (slot.view != null && slot.generation != generation));
+        return slots.size() < maxClients;
+    }
+
+    private long ttlNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    private boolean isDirtyInCurrentTransaction(Long clientId) {
+        PendingInvalidations pending = (PendingInvalidations) TransactionSynchronizationManager.getResource(this);
+        return pending != null && (pending.products || pending.clientIds.contains(clientId));
+    }
+
+    private PendingInvalidations pendingInvalidations() {
+        PendingInvalidations pending = (PendingInvalidations) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingInvalidations();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    // 트랜잭션 안에서 무효화한 대상 (커밋/롤백 후 다시 무효화해, 그 사이 다른 요청이 채운 이전 값을 지움)
+    private class PendingInvalidations implements TransactionSynchronization {
+        private final Set<Long> clientIds = new HashSet<>();
+        private boolean products;
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CartViewCache.this);
+            clientIds.forEach(CartViewCache.this::evict);
+            if (products) {
+                productGeneration.incrementAndGet();
+            }
+        }
+    }
+
+    private static class Slot {
+        private final CartView view;     // null 이면 무효화된 슬롯
+        private final long generation;   // 만들 당시의 상품 세대 번호
+        private final long loadedAt;
+
+        Slot(CartView view, long generation, long loadedAt) {
+            this.view = view;
+            this.generation = generation;
+            this.loadedAt = loadedAt;
+        }
+
+        boolean isValid(long currentGeneration, long ttlNanos) {
+            return view != null && generation == currentGeneration && !isExpired(ttlNanos);
+        }
+
+        boolean isExpired(long ttlNanos) {
+            return System.nanoTime() - loadedAt >= ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.age.b2b.service.outbox;
+
+import com.age.b2b.domain.OutboxEvent;
+import com.age.b2b.service.cart.CartViewCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// 결제된 주문의 장바구니 항목 삭제 (결제 승인 시점에 payload 에 담은 항목 ID 만, 묶음 전체를 DELETE 1번으로 처리)
+// 승인 후 같은 상품을 다시 담았으면 새 항목이므로 남음
+@Component
+@RequiredArgsConstructor
+public class CartCleanupHandler implements OutboxHandler {
+
+    private static final int IDS_PER_EVENT = 40;    // payload 1000자 안 (ID 최대 19자리 + 구분자)
+    private static final String SEPARATOR = ",";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM cart_items WHERE cart_item_id IN (:cartItemIds)";
+
+    private static final String CLIENT_IDS_SQL =
+            "SELECT DISTINCT client_id FROM orders WHERE order_id IN (:orderIds)";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final CartViewCache cartViewCache;
+
+    /**
+     * 장바구니 항목 ID -> 이벤트 payload (payload 길이 제한에 맞춰 나눔, 항목이 없으면 빈 목록)
+     */
+    public static List<String> payloads(List<Long> cartItemIds) {
+        List<String> payloads = new ArrayList<>();
+        for (int from = 0; from < cartItemIds.size(); from += IDS_PER_EVENT) {
+            payloads.add(cartItemIds.subList(from, Math.min(from + IDS_PER_EVENT, cartItemIds.size())).stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(SEPARATOR)));
+        }
+        return payloads;
+    }
+
+    @Override
+    public String getEventType() {
+        return OutboxEvent.CART_CLEANUP;
+    }
+
+    @Override
+    public Set<Long> handle(List<OutboxEvent> events) {
+        List<Long> cartItemIds = events.stream()
+                .filter(event -> event.getPayload() != null && !event.getPayload().isBlank())
+                .flatMap(event -> Arrays.stream(event.getPayload().split(SEPARATOR)))
+                .map(id -> Long.valueOf(id.trim()))
+                .distinct()
+                .toList();
+        if (!cartItemIds.isEmpty()) {
+            namedParameterJdbcTemplate.update(DELETE_SQL, Map.of("cartItemIds", cartItemIds));
+        }
+
+        // 장바구니가 바뀐 고객사의 가격 스냅샷 폐기
+        List<Long> orderIds = events.stream().map(OutboxEvent::getAggregateId).distinct().toList();
+        namedParameterJdbcTemplate.queryForList(CLIENT_IDS_SQL, Map.of("orderIds", orderIds), Long.class)
+                .forEach(cartViewCache::invalidate);
+        return Set.of();
+    }
+}
@@ -0,0 +1,28 @@
+package com.age.b2b.service.outbox;
+
+import com.age.b2b.domain.OutboxEvent;
+import com.age.b2b.service.DashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+// 주문 상태가 바뀐 뒤 대시보드 스냅샷 갱신 (묶음에 이벤트가 여러 건이어도 한 번만 갱신)
+@Component
+@RequiredArgsConstructor
+public class DashboardRefreshHandler implements OutboxHandler {
+
+    private final DashboardService dashboardService;
+
+    @Override
+    public String getEventType() {
+        return OutboxEvent.DASHBOARD_REFRESH;
+    }
+
+    @Override
+    public Set<Long> handle(List<OutboxEvent> events) {
+        dashboardService.refreshAfterChange();
+        return Set.of();
+    }
+}
@@ -0,0 +1,63 @@
+package com.age.b2b.service.outbox;
+
+import com.age.b2b.domain.OutboxEvent;
+import com.age.b2b.service.MailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// 결제 완료 안내 메일 (수신 정보는 묶음 단위로 한 번에 조회, 발송 실패한 건만 재시도)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderPaidMailHandler implements OutboxHandler {
+
+    private static final String RECIPIENTS_SQL =
+            "SELECT o.order_id, o.order_number, o.total_amount, c.email, c.business_name " +
+            "FROM orders o JOIN clients c ON c.client_id = o.client_id " +
+            "WHERE o.order_id IN (:orderIds)";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final MailService mailService;
+
+    @Override
+    public String getEventType() {
+        return OutboxEvent.ORDER_PAID_MAIL;
+    }
+
+    @Override
+    public Set<Long> handle(List<OutboxEvent> events) {
+        Map<Long, Recipient> recipients = new HashMap<>();
+        namedParameterJdbcTemplate.query(RECIPIENTS_SQL,
+                Map.of("orderIds", events.stream().map(OutboxEvent::getAggregateId).distinct().toList()),
+                rs -> {
+                    recipients.put(rs.getLong("order_id"), new Recipient(rs.getString("email"),
+                            rs.getString("business_name"), rs.getString("order_number"), rs.getInt("total_amount")));
+                });
+
+        Set<Long> failed = new HashSet<>();
+        for (OutboxEvent event : events) {
+            Recipient recipient = recipients.get(event.getAggregateId());
+            if (recipient == null) continue; // 삭제된 주문은 보내지 않음
+
+            try {
+                mailService.sendOrderPaidMail(recipient.email(), recipient.businessName(),
+                        recipient.orderNumber(), recipient.totalAmount());
+            } catch (RuntimeException e) {
+                log.warn("결제 완료 메일 발송 실패 - Order: {}", recipient.orderNumber(), e);
+                failed.add(event.getId());
+            }
+        }
+        return failed;
+    }
+
+    private record Recipient(String email, String businessName, String orderNumber, int totalAmount) {
+    }
+}
@@ -0,0 +1,297 @@
+package com.age.b2b.service.outbox;
+
+import com.age.b2b.domain.OutboxEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 아웃박스 디스패처
+ * - 백그라운드 스레드 1개가 커밋된 이벤트를 batch-size 만큼 가져와서 종류별로 묶어 처리기에 넘긴다.
+ * - 가져올 때 FOR UPDATE SKIP LOCKED 로 잠그고 임대 시간(lease-ms)만큼 다음 시도 시각을 미뤄 두므로,
+ *   여러 서버가 같은 이벤트를 동시에 처리하지 않고, 처리 중 서버가 죽으면 임대 만료 후 다시 처리된다.
+ * - 처리기는 트랜잭션 밖에서 실행 (메일 발송 등 느린 작업이 DB 커넥션을 잡지 않음)
+ * - 실패한 이벤트는 지수 백오프로 재시도하고, max-attempts 를 넘기면 FAILED 로 남긴다. (최소 1회 이상 처리)
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private static final String CLAIM_SQL =
+            "SELECT outbox_event_id, event_type, aggregate_id, payload, attempts, created_at FROM outbox_events " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= ? " +
+            "ORDER BY outbox_event_id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String LEASE_SQL =
+            "UPDATE outbox_events SET attempts = attempts + 1, next_attempt_at = :leaseUntil " +
+            "WHERE outbox_event_id IN (:ids)";
+
+    private static final String DONE_SQL =
+            "UPDATE outbox_events SET status = 'DONE', processed_at = :now, last_error = NULL " +
+            "WHERE outbox_event_id IN (:ids)";
+
+    private static final String RETRY_SQL =
+            "UPDATE outbox_events SET status = ?, next_attempt_at = ?, last_error = ? WHERE outbox_event_id = ?";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM outbox_events WHERE status = 'DONE' AND processed_at < ? LIMIT 1000";
+
+    private static final RowMapper<OutboxEvent> EVENT_MAPPER = (rs, rowNum) -> {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(rs.getLong("outbox_event_id"));
+        event.setEventType(rs.getString("event_type"));
+        event.setAggregateId(rs.getObject("aggregate_id", Long.class));
+        event.setPayload(rs.getString("payload"));
+        event.setAttempts(rs.getInt("attempts") + 1); // 이번 시도 포함
+        event.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        return event;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final OutboxMetrics metrics;
+    private final Map<String, OutboxHandler> handlers;
+
+    @Value("${outbox.dispatcher.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.dispatcher.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.dispatcher.poll-interval-ms:1000}")
+    private long pollIntervalMillis;
+
+    @Value("${outbox.dispatcher.lease-ms:60000}")
+    private long leaseMillis;
+
+    @Value("${outbox.retry.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.retry.backoff-ms:1000}")
+    private long backoffMillis;
+
+    @Value("${outbox.retry.max-backoff-ms:600000}")
+    private long maxBackoffMillis;
+
+    @Value("${outbox.retention-days:7}")
+    private int retentionDays;
+
+    private final Object signal = new Object();
+    private boolean signaled;
+    private volatile boolean running;
+    private Thread dispatchThread;
+
+    public OutboxDispatcher(JdbcTemplate jdbcTemplate,
+                            NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            OutboxMetrics metrics,
+                            List<OutboxHandler> handlers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionManager = transactionManager;
+        this.metrics = metrics;
+        this.handlers = handlers.stream().collect(Collectors.toMap(OutboxHandler::getEventType, Function.identity()));
+    }
+
+    @PostConstruct
+    void init() {
+        metrics.setPendingCount(() -> {
+            Long count = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM outbox_events WHERE status = 'PENDING'", Long.class);
+            return count == null ? 0 : count;
+        });
+        if (!enabled) return;
+
+        running = true;
+        dispatchThread = new Thread(this::dispatchLoop, "outbox-dispatcher");
+        dispatchThread.setDaemon(true);
+        dispatchThread.start();
+        log.info("아웃박스 디스패처 시작 - 처리기: {}", handlers.keySet());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (dispatchThread == null) return;
+        running = false;
+        wakeUp();
+        dispatchThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * 새 이벤트가 커밋됨 -> 대기 중인 디스패처를 바로 깨움
+     */
+    public void wakeUp() {
+        synchronized (signal) {
+            signaled = true;
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * 처리 대상 이벤트를 한 묶음 처리하고 처리한 건수 반환
+     */
+    public int dispatchOnce() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<OutboxEvent> batch = tx.execute(status -> claim());
+        if (batch == null || batch.isEmpty()) return 0;
+
+        long start = System.nanoTime();
+        Map<String, List<OutboxEvent>> byType = batch.stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getEventType, LinkedHashMap::new, Collectors.toList()));
+
+        // 1. 종류별 처리 (트랜잭션 밖)
+        List<Long> done = new ArrayList<>();
+        Map<OutboxEvent, String> failed = new LinkedHashMap<>();
+        byType.forEach((type, events) -> {
+            Set<Long> failedIds;
+            String error;
+            try {
+                OutboxHandler handler = handlers.get(type);
+                if (handler == null) {
+                    throw new IllegalStateException("처리기가 없는 이벤트입니다: " + type);
+                }
+                failedIds = handler.handle(events);
+                error = "처리 실패";
+            } catch (RuntimeException e) {
+                log.warn("아웃박스 처리 실패 - 종류: {}, 건수: {}", type, events.size(), e);
+                failedIds = events.stream().map(OutboxEvent::getId).collect(Collectors.toSet());
+                error = e.getMessage();
+            }
+
+            for (OutboxEvent event : events) {
+                if (failedIds.contains(event.getId())) {
+                    failed.put(event, error);
+                } else {
+                    done.add(event.getId());
+                }
+            }
+        });
+
+        // 2. 결과 반영
+        tx.executeWithoutResult(status -> complete(batch, done, failed));
+        metrics.dispatched(System.nanoTime() - start);
+        return batch.size();
+    }
+
+    /**
+     * 처리 완료 이벤트 정리 (retention-days 지난 DONE 만 삭제, FAILED 는 확인용으로 유지)
+     */
+    @Scheduled(cron = "${outbox.purge-cron:0 30 3 * * *}")
+    public void purge() {
+        Timestamp before = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        int deleted;
+        int total = 0;
+        do {
+            deleted = jdbcTemplate.update(PURGE_SQL, before);
+            total += deleted;
+        } while (deleted > 0);
+        if (total > 0) {
+            log.info("처리 완료된 아웃박스 이벤트 {}건 삭제", total);
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            int count = 0;
+            try {
+                count = dispatchOnce();
+            } catch (RuntimeException e) {
+                log.warn("아웃박스 디스패치 실패", e);
+            }
+            // 한 묶음을 가득 채웠으면 바로 다음 묶음 처리
+            if (count < batchSize) {
+                await();
+            }
+        }
+    }
+
+    private void await() {
+        synchronized (signal) {
+            try {
+                if (!signaled) {
+                    signal.wait(pollIntervalMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            signaled = false;
+        }
+    }
+
+    // 처리 대상 잠금 + 임대 (다른 서버/스레드는 SKIP LOCKED 로 건너뜀)
+    private List<OutboxEvent> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = jdbcTemplate.query(CLAIM_SQL, EVENT_MAPPER, Timestamp.valueOf(now), batchSize);
+        if (batch.isEmpty()) return Collections.emptyList();
+
+        namedParameterJdbcTemplate.update(LEASE_SQL, Map.of(
+                "leaseUntil", Timestamp.valueOf(now.plus(Duration.ofMillis(leaseMillis))),
+                "ids", batch.stream().map(OutboxEvent::getId).toList()));
+        return batch;
+    }
+
+    private void complete(List<OutboxEvent> batch, List<Long> done, Map<OutboxEvent, String> failed) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!done.isEmpty()) {
+            namedParameterJdbcTemplate.update(DONE_SQL, Map.of("now", Timestamp.valueOf(now), "ids", done));
+            Set<Long> doneIds = new HashSet<>(done);
+            batch.stream()
+                    .filter(event -> doneIds.contains(event.getId()))
+                    .forEach(event -> metrics.processed(Duration.between(event.getCreatedAt(), now).toMillis()));
+        }
+        if (failed.isEmpty()) return;
+
+        List<Object[]> rows = new ArrayList<>();
+        failed.forEach((event, error) -> {
+            boolean exhausted = event.getAttempts() >= maxAttempts;
+            if (exhausted) {
+                metrics.deadLettered();
+                log.error("아웃박스 이벤트 최대 시도 초과 - ID: {}, 종류: {}, 사유: {}", event.getId(), event.getEventType(), error);
+            } else {
+                metrics.retried();
+            }
+            rows.add(new Object[]{
+                    exhausted ? OutboxEvent.FAILED : OutboxEvent.PENDING,
+                    Timestamp.valueOf(now.plus(Duration.ofMillis(backoff(event.getAttempts())))),
+                    truncate(error),
+                    event.getId()
+            });
+        });
+        jdbcTemplate.batchUpdate(RETRY_SQL, rows);
+    }
+
+    // 시도 횟수별 재시도 대기 (backoff-ms * 2^(시도-1), 최대 max-backoff-ms)
+    private long backoff(int attempts) {
+        long delay = backoffMillis << Math.min(attempts - 1, 20);
+        return Math.min(delay, maxBackoffMillis);
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= 255) return message;
+        return message.substring(0, 255);
+    }
+}
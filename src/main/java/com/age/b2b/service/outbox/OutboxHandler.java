@@ -0,0 +1,16 @@
+package com.age.b2b.service.outbox;
+
+import com.age.b2b.domain.OutboxEvent;
+
+import java.util.List;
+import java.util.Set;
+
+// 이벤트 종류별 처리기 (OutboxDispatcher 가 같은 종류의 이벤트를 묶어서 전달)
+public interface OutboxHandler {
+
+    // 처리할 이벤트 종류 (OutboxEvent 상수)
+    String getEventType();
+
+    // 이벤트 묶음 처리 후 실패한 이벤트 ID 반환 (예외를 던지면 묶음 전체를 재시도)
+    Set<Long> handle(List<OutboxEvent> events);
+}
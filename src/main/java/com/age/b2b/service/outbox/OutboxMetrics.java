@@ -0,0 +1,75 @@
+package com.age.b2b.service.outbox;
+
+import com.age.b2b.support.MetricsSource;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// 아웃박스 처리 지표 (처리량 / 재시도 / 등록 후 처리까지 지연)
+@Component
+public class OutboxMetrics implements MetricsSource {
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder lagMillis = new LongAdder();
+    private final LongAccumulator maxLagMillis = new LongAccumulator(Long::max, 0);
+    private final LongAdder dispatchNanos = new LongAdder();
+
+    private volatile LongSupplier pendingCount = () -> 0;
+
+    void setPendingCount(LongSupplier pendingCount) {
+        this.pendingCount = pendingCount;
+    }
+
+    void dispatched(long elapsedNanos) {
+        batches.increment();
+        dispatchNanos.add(elapsedNanos);
+    }
+
+    void processed(long lag) {
+        processed.increment();
+        lagMillis.add(lag);
+        maxLagMillis.accumulate(lag);
+    }
+
+    void retried() {
+        retried.increment();
+    }
+
+    void deadLettered() {
+        deadLettered.increment();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "outbox";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        long count = processed.sum();
+        long batchCount = batches.sum();
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("pending", pendingCount.getAsLong());
+        map.put("batches", batchCount);
+        map.put("processed", count);
+        map.put("retried", retried.sum());
+        map.put("deadLettered", deadLettered.sum());
+        map.put("avgLagMillis", count == 0 ? 0.0 : (double) lagMillis.sum() / count);
+        map.put("maxLagMillis", maxLagMillis.get());
+        map.put("avgBatchMillis", batchCount == 0 ? 0.0 : toMillis(dispatchNanos.sum()) / batchCount);
+        return map;
+    }
+
+    private double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,59 @@
+package com.age.b2b.service.outbox;
+
+import com.age.b2b.domain.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * 아웃박스 이벤트 등록
+ * - 호출한 트랜잭션과 같은 커넥션에 INSERT 하므로 원본 변경과 함께 커밋/롤백된다.
+ * - 커밋되면 디스패처를 깨워서 폴링 주기를 기다리지 않고 바로 처리한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxPublisher {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_events (event_type, aggregate_id, payload, status, attempts, next_attempt_at, created_at) " +
+            "VALUES (?, ?, ?, ?, 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxDispatcher outboxDispatcher;
+
+    public void publish(String eventType, Long aggregateId) {
+        publish(eventType, aggregateId, null);
+    }
+
+    public void publish(String eventType, Long aggregateId, String payload) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(INSERT_SQL, eventType, aggregateId, payload, OutboxEvent.PENDING, now, now);
+        wakeUpAfterCommit();
+    }
+
+    private void wakeUpAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outboxDispatcher.wakeUp();
+            return;
+        }
+        // 트랜잭션당 한 번만 등록
+        if (TransactionSynchronizationManager.hasResource(this)) return;
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxDispatcher.wakeUp();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(OutboxPublisher.this);
+            }
+        });
+    }
+}
@@ -0,0 +1,80 @@
+package com.age.b2b.service.payment;
+
+import com.age.b2b.support.MetricsSource;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// 결제 승인 지표 (결제사 호출 지연 / 실패 / 중복 요청)
+@Component
+public class PaymentMetrics implements MetricsSource {
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder callNanos = new LongAdder();
+    private final LongAccumulator maxCallNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder approved = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder networkErrors = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder unknownOutcomes = new LongAdder();
+    private final LongAdder resolved = new LongAdder();
+
+    void called(TossConfirmResult result, long elapsedNanos) {
+        calls.increment();
+        callNanos.add(elapsedNanos);
+        maxCallNanos.accumulate(elapsedNanos);
+
+        if (result.isUnknown()) {
+            unknownOutcomes.increment();
+        }
+        if (result.isApproved()) {
+            approved.increment();
+        } else if (TossConfirmResult.TIMEOUT.equals(result.getCode())) {
+            timeouts.increment();
+        } else if (TossConfirmResult.NETWORK_ERROR.equals(result.getCode())) {
+            networkErrors.increment();
+        } else {
+            rejected.increment();
+        }
+    }
+
+    void duplicate() {
+        duplicates.increment();
+    }
+
+    void resolved() {
+        resolved.increment();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "payment";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        long count = calls.sum();
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("gatewayCalls", count);
+        map.put("avgCallMillis", count == 0 ? 0.0 : toMillis(callNanos.sum()) / count);
+        map.put("maxCallMillis", toMillis(maxCallNanos.get()));
+        map.put("approved", approved.sum());
+        map.put("rejected", rejected.sum());
+        map.put("timeouts", timeouts.sum());
+        map.put("networkErrors", networkErrors.sum());
+        map.put("duplicateRequests", duplicates.sum());
+        map.put("unknownOutcomes", unknownOutcomes.sum());
+        map.put("resolvedUnknown", resolved.sum());
+        return map;
+    }
+
+    private double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,260 @@
+package com.age.b2b.service.payment;
+
+import com.age.b2b.domain.Order;
+import com.age.b2b.domain.OutboxEvent;
+import com.age.b2b.domain.Payment;
+import com.age.b2b.domain.common.OrderStatus;
+import com.age.b2b.repository.CartItemRepository;
+import com.age.b2b.repository.OrderRepository;
+import com.age.b2b.repository.PaymentRepository;
+import com.age.b2b.service.outbox.CartCleanupHandler;
+import com.age.b2b.service.outbox.OutboxPublisher;
+import com.age.b2b.service.stock.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * 결제 승인 처리
+ * - 1단계 (짧은 트랜잭션): 주문/금액 검증 후 paymentKey 로 결제 행을 잡음 (이미 승인된 키면 바로 성공 반환)
+ *   주문 행을 잠그고 확인하므로, 같은 주문에 다른 paymentKey 로 동시에 들어온 요청은 하나만 결제사를 호출
+ * - 2단계 (트랜잭션 밖): 결제사 승인 API 호출 -> 느린 결제사가 DB 커넥션을 붙잡지 않음
+ * - 3단계 (짧은 트랜잭션): 결과 반영 (승인 시 주문 상품준비중 + 후속 작업 아웃박스 등록, 실패 시 사유 기록)
+ *   장바구니 정리 / 안내 메일 / 대시보드 갱신은 커밋 후 OutboxDispatcher 가 비동기로 처리
+ *   장바구니 정리는 승인 시점의 항목 ID 를 담아 두므로, 그 뒤에 다시 담은 상품은 지우지 않음
+ * - 1단계에서 주문의 재고 예약을 연장 (만료됐으면 다시 예약, 부족하면 결제사 호출 전에 실패)
+ * - 결제사 응답을 받지 못하면 (응답 시간 초과 등) 실패로 기록하지 않고 UNKNOWN 으로 두고 재고 예약도 유지
+ *   -> 같은 paymentKey 재요청 또는 주기적 재확인(resolveUnknownPayments)이 같은 Idempotency-Key 로 결제사의 원래 결과를 받아 반영
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentService {
+
+    private final PaymentRepository paymentRepository;
+    private final OrderRepository orderRepository;
+    private final CartItemRepository cartItemRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final TossPaymentClient tossPaymentClient;
+    private final PaymentMetrics metrics;
+    private final StockReservationService stockReservationService;
+    private final PlatformTransactionManager transactionManager;
+
+    // 승인 요청 중(REQUESTED) 상태가 이 시간보다 오래되면 중단된 요청으로 보고 재시도 허용
+    @Value("${payment.toss.in-flight-timeout-ms:30000}")
+    private long inFlightTimeoutMillis;
+
+    /**
+     * 토스페이먼츠 결제 승인 (같은 paymentKey 로 여러 번 호출해도 한 번만 승인)
+     * - 호출한 쪽에 트랜잭션이 없어야 결제사 호출 동안 커넥션을 잡지 않음
+     */
+    public void confirmTossPayment(String paymentKey, String orderNumber, int amount) {
+        if (paymentKey == null || paymentKey.isBlank()) {
+            throw new IllegalArgumentException("결제 키가 없습니다.");
+        }
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long paymentId;
+        try {
+            paymentId = tx.execute(status -> begin(paymentKey, orderNumber, amount));
+        } catch (DataIntegrityViolationException e) {
+            // 같은 paymentKey 의 첫 요청이 동시에 들어온 경우 (먼저 저장한 쪽이 처리)
+            metrics.duplicate();
+            throw new IllegalStateException("결제 승인이 처리 중입니다. 잠시 후 다시 확인해주세요.");
+        }
+        if (paymentId == null) {
+            metrics.duplicate();
+            return;
+        }
+
+        TossConfirmResult result = tossPaymentClient.confirm(paymentKey, orderNumber, amount);
+
+        tx.executeWithoutResult(status -> complete(paymentId, result));
+        if (result.isUnknown()) {
+            throw new IllegalStateException("결제 승인 결과를 확인하지 못했습니다. 확인되는 대로 주문에 반영되니 잠시 후 주문 상태를 확인해주세요.");
+        }
+        if (!result.isApproved()) {
+            throw new IllegalArgumentException("결제 승인 실패: " + result.getMessage());
+        }
+    }
+
+    /**
+     * 결과 불확실(UNKNOWN) 결제 재확인 - 같은 paymentKey(Idempotency-Key)로 다시 요청해 결제사의 원래 결과를 반영
+     * @return 승인 / 실패로 확정된 건수
+     */
+    @Scheduled(fixedDelayString = "${payment.toss.resolve-interval-ms:60000}")
+    public int resolveUnknownPayments() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<Recheck> targets = tx.execute(status -> paymentRepository.findTop100ByStatusOrderByIdAsc(Payment.UNKNOWN).stream()
+                .map(payment -> new Recheck(payment.getId(), payment.getPaymentKey(),
+                        payment.getOrder().getOrderNumber(), payment.getAmount()))
+                .toList());
+
+        int resolvedCount = 0;
+        for (Recheck target : targets) {
+            try {
+                // 그 사이 사용자가 같은 키로 다시 요청했으면 건너뜀
+                if (!Boolean.TRUE.equals(tx.execute(status -> claimUnknown(target)))) continue;
+
+                TossConfirmResult result = tossPaymentClient.confirm(target.paymentKey(), target.orderNumber(), target.amount());
+                tx.executeWithoutResult(status -> complete(target.paymentId(), result));
+                if (!result.isUnknown()) {
+                    metrics.resolved();
+                    resolvedCount++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("결제 승인 결과 재확인 실패 - Order: {} (다음 주기에 재시도)", target.orderNumber(), e);
+            }
+        }
+        return resolvedCount;
+    }
+
+    // 재확인할 UNKNOWN 결제를 승인 요청 중으로 전환 (주문 -> 결제 순서로 잠금)
+    private boolean claimUnknown(Recheck target) {
+        Order order = orderRepository.findByOrderNumberForUpdate(target.orderNumber()).orElse(null);
+        Payment payment = paymentRepository.findByPaymentKeyForUpdate(target.paymentKey()).orElse(null);
+        if (order == null || payment == null || !Payment.UNKNOWN.equals(payment.getStatus())) {
+            return false;
+        }
+        keepReservation(order);
+        markRequested(payment);
+        return true;
+    }
+
+    // 결제 행 확보 (승인 요청할 결제 ID 반환, 이미 승인된 키면 null)
+    // 주문 행 잠금 -> 결제 행 순서로 잡아, 같은 주문의 승인 요청은 키가 달라도 순서대로 확인
+    private Long begin(String paymentKey, String orderNumber, int amount) {
+        Order order = orderRepository.findByOrderNumberForUpdate(orderNumber)
+                .orElseThrow(() -> new IllegalArgumentException("주문이 존재하지 않습니다."));
+        Payment payment = paymentRepository.findByPaymentKeyForUpdate(paymentKey).orElse(null);
+
+        if (payment != null) {
+            if (!payment.getOrder().getId().equals(order.getId()) || payment.getAmount() != amount) {
+                throw new IllegalArgumentException("결제 정보가 일치하지 않습니다.");
+            }
+            if (Payment.APPROVED.equals(payment.getStatus())) {
+                return null;
+            }
+            if (Payment.REQUESTED.equals(payment.getStatus()) && !isStale(payment)) {
+                throw new IllegalStateException("결제 승인이 처리 중입니다. 잠시 후 다시 확인해주세요.");
+            }
+            checkNotPaidOrInFlight(order, paymentKey);
+            // 실패/중단/결과 불확실 요청 재시도 (결제사에는 같은 Idempotency-Key 로 전달)
+            if (order.getStatus() == OrderStatus.PENDING) {
+                stockReservationService.ensureHeld(order);
+            }
+            markRequested(payment);
+            return payment.getId();
+        }
+
+        if (order.getTotalAmount() != amount) {
+            throw new IllegalArgumentException("결제 금액 불일치");
+        }
+        if (order.getStatus() != OrderStatus.PENDING) {
+            throw new IllegalStateException("이미 결제가 완료된 주문입니다.");
+        }
+        checkNotPaidOrInFlight(order, paymentKey);
+        stockReservationService.ensureHeld(order);
+
+        payment = new Payment();
+        payment.setPaymentKey(paymentKey);
+        payment.setOrder(order);
+        payment.setAmount(amount);
+        markRequested(payment);
+        // 같은 키 동시 요청은 유니크 제약으로 여기서 실패
+        return paymentRepository.saveAndFlush(payment).getId();
+    }
+
+    // 결제사 응답 반영
+    private void complete(Long paymentId, TossConfirmResult result) {
+        Payment payment = paymentRepository.findById(paymentId).orElseThrow();
+
+        if (result.isUnknown()) {
+            // 결제사에서 승인됐을 수 있으므로 실패로 확정하지 않고 예약도 유지
+            payment.setStatus(Payment.UNKNOWN);
+            payment.setErrorCode(result.getCode());
+            payment.setErrorMessage(truncate(result.getMessage()));
+            keepReservation(payment.getOrder());
+            return;
+        }
+
+        if (!result.isApproved()) {
+            payment.setStatus(Payment.FAILED);
+            payment.setErrorCode(result.getCode());
+            payment.setErrorMessage(truncate(result.getMessage()));
+            return;
+        }
+
+        payment.setStatus(Payment.APPROVED);
+        payment.setMethod(result.getMethod());
+        payment.setErrorCode(null);
+        payment.setErrorMessage(null);
+        payment.setApprovedAt(LocalDateTime.now());
+
+        Order order = payment.getOrder();
+        if (order.getStatus() == OrderStatus.PENDING) {
+            order.setStatus(OrderStatus.PREPARING);
+        }
+        for (String payload : CartCleanupHandler.payloads(cartItemRepository.findIdsOrderedIn(order.getId()))) {
+            outboxPublisher.publish(OutboxEvent.CART_CLEANUP, order.getId(), payload);
+        }
+        outboxPublisher.publish(OutboxEvent.ORDER_PAID_MAIL, order.getId());
+        outboxPublisher.publish(OutboxEvent.DASHBOARD_REFRESH, order.getId());
+        log.info("결제 승인 완료 - Order: {}, 금액: {}원", order.getOrderNumber(), payment.getAmount());
+    }
+
+    // 다른 paymentKey 로 승인됐거나 승인 요청 중 / 결과 확인 중인 결제가 있으면 거절 (중단된 요청은 제외)
+    private void checkNotPaidOrInFlight(Order order, String paymentKey) {
+        if (paymentRepository.existsByOrder_IdAndStatus(order.getId(), Payment.APPROVED)) {
+            throw new IllegalStateException("이미 결제가 완료된 주문입니다.");
+        }
+        boolean unresolved = paymentRepository.findByOrder_IdAndStatus(order.getId(), Payment.UNKNOWN).stream()
+                .anyMatch(other -> !other.getPaymentKey().equals(paymentKey));
+        if (unresolved) {
+            throw new IllegalStateException("이전 결제의 승인 결과를 확인 중입니다. 잠시 후 다시 확인해주세요.");
+        }
+        boolean inFlight = paymentRepository.findByOrder_IdAndStatus(order.getId(), Payment.REQUESTED).stream()
+                .anyMatch(other -> !other.getPaymentKey().equals(paymentKey) && !isStale(other));
+        if (inFlight) {
+            throw new IllegalStateException("결제 승인이 처리 중입니다. 잠시 후 다시 확인해주세요.");
+        }
+    }
+
+    // 결과 확인 전까지 결제대기 주문의 재고 예약 유지 (다시 예약할 수 없어도 결제 결과 반영은 계속)
+    private void keepReservation(Order order) {
+        if (order.getStatus() != OrderStatus.PENDING) return;
+        try {
+            stockReservationService.ensureHeld(order);
+        } catch (IllegalStateException e) {
+            log.warn("결과 확인 중인 결제의 재고 예약 유지 실패 - Order: {}, 사유: {}", order.getOrderNumber(), e.getMessage());
+        }
+    }
+
+    private void markRequested(Payment payment) {
+        payment.setStatus(Payment.REQUESTED);
+        payment.setAttempts(payment.getAttempts() + 1);
+        payment.setRequestedAt(LocalDateTime.now());
+    }
+
+    private boolean isStale(Payment payment) {
+        return payment.getRequestedAt() == null
+                || payment.getRequestedAt().plus(inFlightTimeoutMillis, ChronoUnit.MILLIS).isBefore(LocalDateTime.now());
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= 255) return message;
+        return message.substring(0, 255);
+    }
+
+    private record Recheck(Long paymentId, String paymentKey, String orderNumber, int amount) {
+    }
+}
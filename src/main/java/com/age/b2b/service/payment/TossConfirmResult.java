@@ -0,0 +1,31 @@
+package com.age.b2b.service.payment;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// 토스페이먼츠 결제 승인 응답 요약 (승인 / 거절 / 응답을 받지 못해 결과 불확실)
+@Getter
+@RequiredArgsConstructor
+public class TossConfirmResult {
+
+    public static final String TIMEOUT = "TIMEOUT";              // 연결/응답 시간 초과 (승인 여부 불확실)
+    public static final String NETWORK_ERROR = "NETWORK_ERROR";  // 연결 실패 (요청 미전달) 또는 전송 후 연결 끊김 (결과 불확실)
+
+    private final boolean approved;
+    private final boolean unknown;  // 요청은 전달됐을 수 있으나 응답을 받지 못함 (결제사에서 승인됐을 수 있음)
+    private final String method;    // 결제수단 (승인 시)
+    private final String code;      // 실패 코드
+    private final String message;   // 실패 사유
+
+    static TossConfirmResult approved(String method) {
+        return new TossConfirmResult(true, false, method, null, null);
+    }
+
+    static TossConfirmResult failed(String code, String message) {
+        return new TossConfirmResult(false, false, null, code, message);
+    }
+
+    static TossConfirmResult unknown(String code, String message) {
+        return new TossConfirmResult(false, true, null, code, message);
+    }
+}
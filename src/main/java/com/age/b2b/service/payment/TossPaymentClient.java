@@ -0,0 +1,149 @@
+package com.age.b2b.service.payment;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * 토스페이먼츠 결제 승인 API 클라이언트
+ * - 애플리케이션 전체가 HTTP 클라이언트 1개를 공유 (keep-alive 연결 재사용)
+ * - 연결/응답 시간 제한으로 결제사가 느려도 요청 스레드가 무한정 묶이지 않음
+ * - paymentKey 를 Idempotency-Key 로 보내서 시간 초과 후 재시도해도 결제사에서 중복 승인되지 않음
+ * - 요청을 보낸 뒤 응답을 받지 못하면 (응답 시간 초과 / 연결 끊김) 실패가 아니라 결과 불확실로 돌려줌
+ *   (결제사에서는 승인됐을 수 있으므로 같은 키로 다시 확인해야 함), 연결 자체가 안 된 경우만 실패
+ * - 예외를 던지지 않고 승인/실패 결과로 돌려준다. (DB 상태 반영은 호출한 쪽에서)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TossPaymentClient {
+
+    private static final String CONFIRM_PATH = "/v1/payments/confirm";
+
+    private final ObjectMapper objectMapper;
+    private final PaymentMetrics metrics;
+
+    @Value("${payment.toss.base-url:https://api.tosspayments.com}")
+    private String baseUrl;
+
+    @Value("${payment.toss.secret-key:test_sk_XZYkKL4MrjBYmdBMpbB1r0zJwlEW}")
+    private String secretKey;
+
+    @Value("${payment.toss.connect-timeout-ms:3000}")
+    private long connectTimeoutMillis;
+
+    @Value("${payment.toss.read-timeout-ms:10000}")
+    private long readTimeoutMillis;
+
+    private RestTemplate restTemplate;
+    private String authorization;
+
+    @PostConstruct
+    void init() {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMillis));
+
+        restTemplate = new RestTemplate(requestFactory);
+        authorization = "Basic " + Base64.getEncoder().encodeToString((secretKey + ":").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 결제 승인 요청 (최대 connect-timeout + read-timeout 안에 반환)
+     */
+    public TossConfirmResult confirm(String paymentKey, String orderNumber, int amount) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+        headers.set("Idempotency-Key", paymentKey);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        Map<String, Object> body = Map.of(
+                "paymentKey", paymentKey,
+                "orderId", orderNumber,
+                "amount", amount
+        );
+
+        long start = System.nanoTime();
+        TossConfirmResult result = call(new HttpEntity<>(body, headers));
+        metrics.called(result, System.nanoTime() - start);
+
+        if (result.isUnknown()) {
+            log.warn("결제 승인 결과 불확실 - Order: {}, 코드: {}", orderNumber, result.getCode());
+        } else if (!result.isApproved()) {
+            log.warn("결제 승인 실패 - Order: {}, 코드: {}, 사유: {}", orderNumber, result.getCode(), result.getMessage());
+        }
+        return result;
+    }
+
+    private TossConfirmResult call(HttpEntity<Map<String, Object>> request) {
+        try {
+            JsonNode response = restTemplate.postForObject(baseUrl + CONFIRM_PATH, request, JsonNode.class);
+            return TossConfirmResult.approved(response == null ? null : response.path("method").asText(null));
+        } catch (HttpStatusCodeException e) {
+            // 결제사 거절 (응답 본문: {"code": "...", "message": "..."})
+            return TossConfirmResult.failed(errorField(e, "code", e.getStatusCode().toString()),
+                    errorField(e, "message", e.getStatusText()));
+        } catch (ResourceAccessException e) {
+            if (isNotConnected(e)) {
+                // 요청이 결제사에 전달되지 않음 -> 승인되지 않았으므로 실패
+                return TossConfirmResult.failed(TossConfirmResult.NETWORK_ERROR, "결제사에 연결할 수 없습니다. 다시 시도해주세요.");
+            }
+            if (isTimeout(e)) {
+                return TossConfirmResult.unknown(TossConfirmResult.TIMEOUT, "결제사 응답 시간이 초과되었습니다.");
+            }
+            return TossConfirmResult.unknown(TossConfirmResult.NETWORK_ERROR, "결제사 응답을 받지 못했습니다.");
+        }
+    }
+
+    private String errorField(HttpStatusCodeException e, String field, String defaultValue) {
+        try {
+            return objectMapper.readTree(e.getResponseBodyAsString()).path(field).asText(defaultValue);
+        } catch (Exception parseError) {
+            return defaultValue;
+        }
+    }
+
+    private boolean isNotConnected(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpConnectTimeoutException || cause instanceof ConnectException
+                    || cause instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpTimeoutException || cause instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
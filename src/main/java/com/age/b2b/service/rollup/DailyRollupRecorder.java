@@ -0,0 +1,202 @@
+package com.age.b2b.service.rollup;
+
+import com.age.b2b.domain.RollupFence;
+import com.age.b2b.domain.common.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 대시보드 일자별 집계(daily_sales_rollups, daily_order_rollups) 증분 반영기
+ * - 주문 상태 변경 / 정산 생성을 트랜잭션 단위로 모아두고,
+ *   Hibernate 가 마지막 flush 를 끝낸 뒤 커밋 직전에 같은 커넥션에서 배치 UPSERT 한다.
+ * - 롤백되면 모아둔 변경은 버려지므로 집계와 원본 데이터가 항상 함께 커밋된다.
+ * - 주문 금액은 변경 시점에 메모리의 주문상품으로 계산해서 함께 넘김 (삭제된 주문은 반영 시점에 주문상품이 이미 없음)
+ * - 반영 전에 rollup_fences 행을 공유 잠금 -> 재구성(배타 잠금)과 겹치면 재구성 커밋 후 그 결과 위에 반영
+ */
+@Component
+@RequiredArgsConstructor
+public class DailyRollupRecorder {
+
+    private static final String UPSERT_ORDER_SQL =
+            "INSERT INTO daily_order_rollups (order_date, client_id, status, order_count, order_amount) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+            "order_amount = order_amount + VALUES(order_amount)";
+
+    private static final String UPSERT_SALES_SQL =
+            "INSERT INTO daily_sales_rollups (sales_date, client_id, sales_amount, settlement_count) " +
+            "VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE sales_amount = sales_amount + VALUES(sales_amount), " +
+            "settlement_count = settlement_count + VALUES(settlement_count)";
+
+    private static final String FENCE_SQL =
+            "SELECT fence_name FROM rollup_fences WHERE fence_name = '" + RollupFence.DASHBOARD + "' FOR SHARE";
+
+    private static final String ORDER_AMOUNTS_SQL =
+            "SELECT order_id, COALESCE(SUM(count * price), 0) AS amount FROM order_items " +
+            "WHERE order_id IN (:orderIds) GROUP BY order_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * 주문 상태 변경 기록 (from 이 null 이면 신규, to 가 null 이면 삭제)
+     * @param amount 주문상품 금액 합계 (모르면 null -> 반영 시점에 order_items 에서 조회)
+     */
+    public void orderChanged(Long orderId, Long clientId, LocalDate orderDate, OrderStatus from, OrderStatus to, Long amount) {
+        if (orderDate == null || Objects.equals(from, to)) return;
+
+        Pending pending = pending();
+        pending.orderChanges.add(new OrderChange(orderId, clientIdOf(clientId), orderDate, from, to, amount));
+        if (pending.detached) apply();
+    }
+
+    /**
+     * 정산 생성 기록
+     */
+    public void settlementCreated(Long clientId, LocalDate salesDate, long amount) {
+        if (salesDate == null) return;
+
+        Pending pending = pending();
+        pending.sales.merge(new SalesKey(salesDate, clientIdOf(clientId)), new long[]{amount, 1}, (a, b) -> {
+            a[0] += b[0];
+            a[1] += b[1];
+            return a;
+        });
+        if (pending.detached) apply();
+    }
+
+    /**
+     * 모아둔 변경을 집계 테이블에 반영 (Hibernate 트랜잭션 완료 직전 훅에서 호출)
+     */
+    public void apply() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) return;
+        if (pending.orderChanges.isEmpty() && pending.sales.isEmpty()) return;
+
+        if (!pending.fenced) {
+            jdbcTemplate.queryForList(FENCE_SQL, String.class);
+            pending.fenced = !pending.detached;
+        }
+        applyOrderChanges(pending.orderChanges);
+        applySales(pending.sales);
+        pending.orderChanges.clear();
+        pending.sales.clear();
+
+        if (pending.detached) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(this);
+        }
+    }
+
+    // --- 내부 헬퍼 메서드 ---
+
+    private Pending pending() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+            pending = new Pending(!inTransaction);
+            TransactionSynchronizationManager.bindResource(this, pending);
+            if (inTransaction) {
+                TransactionSynchronizationManager.registerSynchronization(pending);
+            }
+        }
+        return pending;
+    }
+
+    private void applyOrderChanges(List<OrderChange> changes) {
+        if (changes.isEmpty()) return;
+
+        // 금액을 모르는 변경(상태만 바뀐 주문)만 주문상품에서 조회
+        List<Long> orderIds = changes.stream()
+                .filter(change -> change.amount == null && change.orderId != null)
+                .map(change -> change.orderId).distinct().toList();
+        Map<Long, Long> amounts = new HashMap<>();
+        if (!orderIds.isEmpty()) {
+            namedParameterJdbcTemplate.query(ORDER_AMOUNTS_SQL, Map.of("orderIds", orderIds), rs -> {
+                amounts.put(rs.getLong("order_id"), rs.getLong("amount"));
+            });
+        }
+
+        // (일자, 고객사, 상태) 단위로 증감 합산
+        Map<OrderKey, long[]> deltas = new LinkedHashMap<>();
+        for (OrderChange change : changes) {
+            long amount = change.amount != null ? change.amount : amounts.getOrDefault(change.orderId, 0L);
+            if (change.from != null) {
+                add(deltas, new OrderKey(change.orderDate, change.clientId, change.from), -1, -amount);
+            }
+            if (change.to != null) {
+                add(deltas, new OrderKey(change.orderDate, change.clientId, change.to), 1, amount);
+            }
+        }
+        deltas.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0);
+        if (deltas.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(UPSERT_ORDER_SQL, new ArrayList<>(deltas.entrySet()), deltas.size(), (ps, entry) -> {
+            ps.setDate(1, Date.valueOf(entry.getKey().date));
+            ps.setLong(2, entry.getKey().clientId);
+            ps.setString(3, entry.getKey().status.name());
+            ps.setLong(4, entry.getValue()[0]);
+            ps.setLong(5, entry.getValue()[1]);
+        });
+    }
+
+    private void applySales(Map<SalesKey, long[]> sales) {
+        if (sales.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(UPSERT_SALES_SQL, new ArrayList<>(sales.entrySet()), sales.size(), (ps, entry) -> {
+            ps.setDate(1, Date.valueOf(entry.getKey().date));
+            ps.setLong(2, entry.getKey().clientId);
+            ps.setLong(3, entry.getValue()[0]);
+            ps.setLong(4, entry.getValue()[1]);
+        });
+    }
+
+    private void add(Map<OrderKey, long[]> deltas, OrderKey key, long count, long amount) {
+        long[] delta = deltas.computeIfAbsent(key, k -> new long[2]);
+        delta[0] += count;
+        delta[1] += amount;
+    }
+
+    private long clientIdOf(Long clientId) {
+        return clientId == null ? 0L : clientId;
+    }
+
+    // 트랜잭션 단위로 모아둔 집계 변경 (트랜잭션 밖이면 detached -> 즉시 반영)
+    private class Pending implements TransactionSynchronization {
+        private final boolean detached;
+        private boolean fenced;
+        private final List<OrderChange> orderChanges = new ArrayList<>();
+        private final Map<SalesKey, long[]> sales = new LinkedHashMap<>();
+
+        Pending(boolean detached) {
+            this.detached = detached;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DailyRollupRecorder.this);
+        }
+    }
+
+    private record OrderChange(Long orderId, long clientId, LocalDate orderDate, OrderStatus from, OrderStatus to, Long amount) {
+    }
+
+    private record OrderKey(LocalDate date, long clientId, OrderStatus status) {
+    }
+
+    private record SalesKey(LocalDate date, long clientId) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.age.b2b.service.rollup;
+
+import com.age.b2b.domain.RollupFence;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * 대시보드 일자별 집계 재구성
+ * - 평소에는 DailyRollupRecorder 가 증분 반영하고, 최초 기동/데이터 보정 시에만 원본 테이블에서 다시 만든다.
+ * - 재구성은 rollup_fences 행을 배타 잠금 -> 진행 중인 증분 반영이 커밋될 때까지 기다린 뒤,
+ *   READ COMMITTED 로 커밋된 원본만 읽어 다시 만들고, 그 사이 들어온 증분은 재구성 커밋 후 반영됨 (두 번 반영되지 않음)
+ * - 기동 시 run 에서도 호출하므로 프록시(@Transactional) 대신 TransactionTemplate 으로 잠금 ~ 재구성을 한 트랜잭션에 묶음
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardRollupService implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * 기동 시 집계 테이블이 비어 있고 원본 데이터가 있으면 재구성 (기존 데이터 이관)
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        ensureFence();
+        if (isEmpty("daily_order_rollups") && isEmpty("daily_sales_rollups")
+                && !(isEmpty("orders") && isEmpty("settlements"))) {
+            log.info("대시보드 집계 테이블이 비어 있어 원본 데이터로 재구성합니다.");
+            rebuild();
+        }
+    }
+
+    /**
+     * [본사] 집계 테이블 전체 재구성 (정산/주문 원본 기준)
+     */
+    public void rebuild() {
+        ensureFence();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        tx.executeWithoutResult(status -> rebuildFenced());
+    }
+
+    // 펜스 잠금 후 삭제 / 재집계 (호출한 트랜잭션 안에서 실행)
+    private void rebuildFenced() {
+        jdbcTemplate.queryForList("SELECT fence_name FROM rollup_fences WHERE fence_name = ? FOR UPDATE",
+                String.class, RollupFence.DASHBOARD);
+
+        jdbcTemplate.update("DELETE FROM daily_sales_rollups");
+        int sales = jdbcTemplate.update("""
+                INSERT INTO daily_sales_rollups (sales_date, client_id, sales_amount, settlement_count)
+                SELECT DATE(s.created_at), COALESCE(s.client_id, 0), COALESCE(SUM(s.total_amount), 0), COUNT(*)
+                FROM settlements s
+                WHERE s.created_at IS NOT NULL
+                GROUP BY DATE(s.created_at), COALESCE(s.client_id, 0)
+                """);
+
+        jdbcTemplate.update("DELETE FROM daily_order_rollups");
+        int orders = jdbcTemplate.update("""
+                INSERT INTO daily_order_rollups (order_date, client_id, status, order_count, order_amount)
+                SELECT DATE(o.created_at), COALESCE(o.client_id, 0), o.status, COUNT(*), COALESCE(SUM(items.amount), 0)
+                FROM orders o
+                LEFT JOIN (
+                    SELECT oi.order_id, SUM(oi.count * oi.price) AS amount
+                    FROM order_items oi
+                    GROUP BY oi.order_id
+                ) items ON items.order_id = o.order_id
+                WHERE o.created_at IS NOT NULL AND o.status IS NOT NULL
+                GROUP BY DATE(o.created_at), COALESCE(o.client_id, 0), o.status
+                """);
+
+        jdbcTemplate.update("UPDATE rollup_fences SET rebuilt_at = ? WHERE fence_name = ?",
+                Timestamp.valueOf(LocalDateTime.now()), RollupFence.DASHBOARD);
+        log.info("대시보드 집계 재구성 완료 - 매출 {}건, 주문 {}건", sales, orders);
+    }
+
+    private void ensureFence() {
+        jdbcTemplate.update("INSERT IGNORE INTO rollup_fences (fence_name) VALUES (?)", RollupFence.DASHBOARD);
+    }
+
+    private boolean isEmpty(String table) {
+        Integer exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + table + ")", Integer.class);
+        return exists == null || exists == 0;
+    }
+}
@@ -0,0 +1,67 @@
+package com.age.b2b.service.rollup;
+
+import com.age.b2b.domain.Order;
+import com.age.b2b.domain.OrderItem;
+import com.age.b2b.domain.common.OrderStatus;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// 주문 상태 변경을 감지해서 일자별 주문 집계에 반영 (Order 엔티티 리스너)
+@Component
+public class OrderRollupListener {
+
+    // 엔티티 리스너는 EntityManagerFactory 생성 중에 만들어지므로 지연 조회
+    private final ObjectProvider<DailyRollupRecorder> recorder;
+
+    public OrderRollupListener(ObjectProvider<DailyRollupRecorder> recorder) {
+        this.recorder = recorder;
+    }
+
+    @PostLoad
+    public void onLoad(Order order) {
+        order.markStatusSnapshot();
+    }
+
+    @PostPersist
+    public void onPersist(Order order) {
+        changed(order, null, order.getStatus());
+    }
+
+    @PostUpdate
+    public void onUpdate(Order order) {
+        changed(order, order.getStatusSnapshot(), order.getStatus());
+    }
+
+    @PostRemove
+    public void onRemove(Order order) {
+        changed(order, order.getStatusSnapshot(), null);
+    }
+
+    private void changed(Order order, OrderStatus from, OrderStatus to) {
+        if (from == to) return;
+
+        Long clientId = order.getClient() == null ? null : order.getClient().getClientId();
+        LocalDate orderDate = order.getCreatedAt() == null ? null : order.getCreatedAt().toLocalDate();
+        recorder.getObject().orderChanged(order.getId(), clientId, orderDate, from, to, amountOf(order));
+
+        order.markStatusSnapshot();
+    }
+
+    // 메모리에 있는 주문상품으로 금액 계산 (신규/삭제 주문은 항상 로딩되어 있음, 아니면 null -> 반영 시점에 조회)
+    private Long amountOf(Order order) {
+        if (!Hibernate.isInitialized(order.getOrderItems())) return null;
+
+        long amount = 0;
+        for (OrderItem item : order.getOrderItems()) {
+            amount += (long) item.getCount() * item.getPrice();
+        }
+        return amount;
+    }
+}
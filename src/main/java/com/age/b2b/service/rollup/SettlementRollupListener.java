@@ -0,0 +1,25 @@
+package com.age.b2b.service.rollup;
+
+import com.age.b2b.domain.Settlement;
+import jakarta.persistence.PostPersist;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+// 정산 생성 시 일자별 매출 집계에 반영 (Settlement 엔티티 리스너)
+@Component
+public class SettlementRollupListener {
+
+    // 엔티티 리스너는 EntityManagerFactory 생성 중에 만들어지므로 지연 조회
+    private final ObjectProvider<DailyRollupRecorder> recorder;
+
+    public SettlementRollupListener(ObjectProvider<DailyRollupRecorder> recorder) {
+        this.recorder = recorder;
+    }
+
+    @PostPersist
+    public void onPersist(Settlement settlement) {
+        Long clientId = settlement.getClient() == null ? null : settlement.getClient().getClientId();
+        long amount = settlement.getTotalAmount() == null ? 0L : settlement.getTotalAmount();
+        recorder.getObject().settlementCreated(clientId, settlement.getCreatedAt().toLocalDate(), amount);
+    }
+}
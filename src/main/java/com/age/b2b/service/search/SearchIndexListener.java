@@ -0,0 +1,76 @@
+package com.age.b2b.service.search;
+
+import com.age.b2b.domain.Order;
+import com.age.b2b.domain.Product;
+import com.age.b2b.domain.ProductLot;
+import com.age.b2b.domain.SearchToken;
+import com.age.b2b.domain.Shipment;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 검색 대상 엔티티(상품, Lot, 주문, 출고) 변경을 역색인에 반영 (엔티티 리스너)
+@Component
+public class SearchIndexListener {
+
+    // 필드별 순위 가중치 (코드/번호 일치를 이름 일치보다 우선)
+    public static final int CODE_WEIGHT = 3;
+    public static final int NAME_WEIGHT = 2;
+
+    // 엔티티 리스너는 EntityManagerFactory 생성 중에 만들어지므로 지연 조회
+    private final ObjectProvider<SearchIndexer> indexer;
+
+    public SearchIndexListener(ObjectProvider<SearchIndexer> indexer) {
+        this.indexer = indexer;
+    }
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        index(entity);
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        // Lot/주문/출고 번호는 생성 후 바뀌지 않으므로 상품만 재색인 (수량/상태 변경마다 재색인하지 않음)
+        if (entity instanceof Product) {
+            index(entity);
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Product product) {
+            indexer.getObject().remove(SearchToken.PRODUCT, product.getId());
+        } else if (entity instanceof ProductLot lot) {
+            indexer.getObject().remove(SearchToken.LOT, lot.getId());
+        } else if (entity instanceof Order order) {
+            indexer.getObject().remove(SearchToken.ORDER, order.getId());
+        } else if (entity instanceof Shipment shipment) {
+            indexer.getObject().remove(SearchToken.SHIPMENT, shipment.getId());
+        }
+    }
+
+    private void index(Object entity) {
+        if (entity instanceof Product product) {
+            indexer.getObject().index(SearchToken.PRODUCT, product.getId(), productTokens(product.getName(), product.getProductCode()));
+        } else if (entity instanceof ProductLot lot) {
+            indexer.getObject().index(SearchToken.LOT, lot.getId(), SearchTokenizer.tokens(lot.getLotNumber(), CODE_WEIGHT));
+        } else if (entity instanceof Order order) {
+            indexer.getObject().index(SearchToken.ORDER, order.getId(), SearchTokenizer.tokens(order.getOrderNumber(), CODE_WEIGHT));
+        } else if (entity instanceof Shipment shipment) {
+            indexer.getObject().index(SearchToken.SHIPMENT, shipment.getId(), SearchTokenizer.tokens(shipment.getShipmentNumber(), CODE_WEIGHT));
+        }
+    }
+
+    static Map<String, Integer> productTokens(String name, String productCode) {
+        Map<String, Integer> tokens = new LinkedHashMap<>();
+        SearchTokenizer.addTokens(tokens, name, NAME_WEIGHT);
+        SearchTokenizer.addTokens(tokens, productCode, CODE_WEIGHT);
+        return tokens;
+    }
+}
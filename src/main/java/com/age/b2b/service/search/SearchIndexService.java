@@ -0,0 +1,81 @@
+package com.age.b2b.service.search;
+
+import com.age.b2b.domain.SearchToken;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+/**
+ * 검색 역색인 조회 / 재구성
+ * - 평소에는 SearchIndexListener 가 변경분만 반영하고, 최초 기동/데이터 보정 시에만 원본 테이블에서 다시 만든다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchIndexService implements ApplicationRunner {
+
+    // 재구성 시 한 번에 반영할 문서 수
+    private static final int REBUILD_CHUNK = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SearchIndexer searchIndexer;
+
+    /**
+     * 기동 시 색인이 비어 있고 원본 데이터가 있으면 재구성 (기존 데이터 이관)
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (isEmpty("search_tokens") && !(isEmpty("products") && isEmpty("orders"))) {
+            log.info("검색 색인이 비어 있어 원본 데이터로 재구성합니다.");
+            rebuild();
+        }
+    }
+
+    /**
+     * [본사] 검색 색인 전체 재구성 (상품 / Lot / 주문 / 출고)
+     */
+    @Transactional
+    public void rebuild() {
+        jdbcTemplate.update("DELETE FROM search_tokens");
+
+        int[] counter = new int[1];
+        jdbcTemplate.query("SELECT product_id, name, product_code FROM products", rs -> {
+            add(counter, SearchToken.PRODUCT, rs.getLong("product_id"),
+                    SearchIndexListener.productTokens(rs.getString("name"), rs.getString("product_code")));
+        });
+        jdbcTemplate.query("SELECT lot_id, lot_number FROM product_lots", rs -> {
+            add(counter, SearchToken.LOT, rs.getLong("lot_id"),
+                    SearchTokenizer.tokens(rs.getString("lot_number"), SearchIndexListener.CODE_WEIGHT));
+        });
+        jdbcTemplate.query("SELECT order_id, order_number FROM orders", rs -> {
+            add(counter, SearchToken.ORDER, rs.getLong("order_id"),
+                    SearchTokenizer.tokens(rs.getString("order_number"), SearchIndexListener.CODE_WEIGHT));
+        });
+        jdbcTemplate.query("SELECT shipment_id, shipment_number FROM shipments", rs -> {
+            add(counter, SearchToken.SHIPMENT, rs.getLong("shipment_id"),
+                    SearchTokenizer.tokens(rs.getString("shipment_number"), SearchIndexListener.CODE_WEIGHT));
+        });
+        searchIndexer.flush();
+
+        log.info("검색 색인 재구성 완료 - 문서 {}건", counter[0]);
+    }
+
+    private void add(int[] counter, String docType, Long docId, Map<String, Integer> tokens) {
+        searchIndexer.index(docType, docId, tokens);
+        if (++counter[0] % REBUILD_CHUNK == 0) {
+            searchIndexer.flush();
+        }
+    }
+
+    private boolean isEmpty(String table) {
+        Integer exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + table + ")", Integer.class);
+        return exists == null || exists == 0;
+    }
+}
@@ -0,0 +1,115 @@
+package com.age.b2b.service.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 검색 역색인(search_tokens) 갱신기
+ * - 원본 저장/수정/삭제를 트랜잭션 단위로 모아두고, Hibernate flush 직후 같은 커넥션에서 배치로 반영한다.
+ * - 문서 단위로 기존 토큰을 지우고 다시 넣으므로 여러 번 반영해도 결과가 같다.
+ * - 트랜잭션 밖에서 호출되면 즉시 반영
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchIndexer {
+
+    private static final String DELETE_SQL = "DELETE FROM search_tokens WHERE doc_type = ? AND doc_id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO search_tokens (doc_type, token, doc_id, weight) VALUES (?, ?, ?, ?)";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 문서 색인 (기존 토큰 교체)
+     * @param tokens 토큰별 가중치 (SearchTokenizer 로 생성)
+     */
+    public void index(String docType, Long docId, Map<String, Integer> tokens) {
+        if (docId == null) return;
+        submit(new DocKey(docType, docId), tokens);
+    }
+
+    /**
+     * 문서 색인 삭제
+     */
+    public void remove(String docType, Long docId) {
+        if (docId == null) return;
+        submit(new DocKey(docType, docId), Map.of());
+    }
+
+    /**
+     * 현재 트랜잭션에 쌓인 색인 변경 반영 (Hibernate flush 직후 훅에서 호출)
+     */
+    public void flush() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        PendingDocs pending = (PendingDocs) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            pending.writeAll();
+        }
+    }
+
+    // --- 내부 헬퍼 메서드 ---
+
+    private void submit(DocKey key, Map<String, Integer> tokens) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(Map.of(key, tokens));
+            return;
+        }
+        PendingDocs pending = (PendingDocs) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingDocs();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        // 같은 문서가 여러 번 바뀌면 마지막 상태만 반영
+        pending.docs.put(key, tokens);
+    }
+
+    private void write(Map<DocKey, Map<String, Integer>> docs) {
+        List<DocKey> keys = new ArrayList<>(docs.keySet());
+        jdbcTemplate.batchUpdate(DELETE_SQL, keys, BATCH_SIZE, (ps, key) -> {
+            ps.setString(1, key.docType);
+            ps.setLong(2, key.docId);
+        });
+
+        List<Object[]> rows = new ArrayList<>();
+        docs.forEach((key, tokens) -> tokens.forEach((token, weight) ->
+                rows.add(new Object[]{key.docType, token, key.docId, weight})));
+        if (rows.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setString(1, (String) row[0]);
+            ps.setString(2, (String) row[1]);
+            ps.setLong(3, (Long) row[2]);
+            ps.setInt(4, (Integer) row[3]);
+        });
+    }
+
+    // 트랜잭션 단위로 모아둔 색인 변경 (문서 -> 토큰, 빈 맵이면 삭제)
+    private class PendingDocs implements TransactionSynchronization {
+        private final Map<DocKey, Map<String, Integer>> docs = new LinkedHashMap<>();
+
+        void writeAll() {
+            if (docs.isEmpty()) return;
+            write(docs);
+            docs.clear();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(SearchIndexer.this);
+        }
+    }
+
+    private record DocKey(String docType, Long docId) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.age.b2b.service.search;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 검색 색인용 n-gram 토크나이저
+ * - 소문자 변환 + 공백 제거 후 1글자(unigram) / 2글자(bigram) 토큰으로 분해
+ * - 색인: 두 종류를 모두 저장, 검색: 1글자 검색어는 unigram, 2글자 이상은 bigram 만 사용
+ * - 검색어의 모든 토큰을 포함하는 문서가 후보 (LIKE '%검색어%' 를 색인 조회로 대체)
+ */
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null) return "";
+        StringBuilder sb = new StringBuilder(text.length());
+        text.toLowerCase(Locale.ROOT).codePoints()
+                .filter(cp -> !Character.isWhitespace(cp))
+                .forEach(sb::appendCodePoint);
+        return sb.toString();
+    }
+
+    /**
+     * 문서 필드 -> 토큰별 가중치 (필드 가중치 x 등장 횟수)
+     */
+    public static void addTokens(Map<String, Integer> weights, String text, int fieldWeight) {
+        int[] cps = normalize(text).codePoints().toArray();
+        for (int i = 0; i < cps.length; i++) {
+            weights.merge(new String(cps, i, 1), fieldWeight, Integer::sum);
+            if (i + 1 < cps.length) {
+                weights.merge(new String(cps, i, 2), fieldWeight, Integer::sum);
+            }
+        }
+    }
+
+    public static Map<String, Integer> tokens(String text, int fieldWeight) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        addTokens(weights, text, fieldWeight);
+        return weights;
+    }
+
+    /**
+     * 검색어 -> 조회 토큰 (비어 있으면 빈 집합)
+     */
+    public static Set<String> queryTokens(String keyword) {
+        int[] cps = normalize(keyword).codePoints().toArray();
+        Set<String> tokens = new LinkedHashSet<>();
+        if (cps.length == 1) {
+            tokens.add(new String(cps, 0, 1));
+        }
+        for (int i = 0; i + 1 < cps.length; i++) {
+            tokens.add(new String(cps, i, 2));
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,9 @@
+package com.age.b2b.service.sequence;
+
+// 번호 구간 할당 (name 시퀀스에서 blockSize 개를 예약하고 첫 번호 반환 -> [first, first + blockSize))
+// minFirst: 첫 번호의 하한 (시퀀스 시작값, 이전 방식으로 발급된 번호 다음부터 시작하도록)
+@FunctionalInterface
+public interface BlockAllocator {
+
+    long allocate(String name, int blockSize, long minFirst);
+}
@@ -0,0 +1,108 @@
+package com.age.b2b.service.sequence;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * hi/lo 방식 번호 발급기
+ * - 시퀀스별로 할당받은 구간 안에서는 CAS(getAndIncrement) 한 번으로 발급 (락 없음)
+ * - 구간을 다 쓰면 그 시퀀스에 대해서만 한 스레드가 다음 구간을 받아 오고, 나머지는 잠깐 기다림
+ * - 구간은 BlockAllocator 가 서버 간에 겹치지 않게 나눠 주므로 여러 서버에서도 중복되지 않음
+ *   (서버 재시작 시 쓰지 않은 구간은 버려지므로 번호에 빈 곳이 생길 수 있음)
+ * - 시퀀스마다 처음 구간을 받을 때 minFirst 로 첫 번호의 하한을 한 번 구해 할당기에 넘김
+ * - 일자별 시퀀스처럼 더 쓰지 않는 시퀀스는 retain 으로 정리 (다시 쓰면 새 구간을 받음)
+ */
+public class BlockSequence {
+
+    private final BlockAllocator allocator;
+    private final int blockSize;
+    private final ToLongFunction<String> minFirst;
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    private final LongAdder issued = new LongAdder();
+    private final LongAdder allocations = new LongAdder();
+
+    public BlockSequence(BlockAllocator allocator, int blockSize) {
+        this(allocator, blockSize, name -> 1L);
+    }
+
+    public BlockSequence(BlockAllocator allocator, int blockSize, ToLongFunction<String> minFirst) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("번호 구간 크기는 1 이상이어야 합니다.");
+        }
+        this.allocator = allocator;
+        this.blockSize = blockSize;
+        this.minFirst = minFirst;
+    }
+
+    /**
+     * 시퀀스의 다음 번호
+     */
+    public long next(String name) {
+        Slot slot = slots.computeIfAbsent(name, key -> new Slot());
+        while (true) {
+            Block block = slot.block.get();
+            long value = block.cursor.getAndIncrement();
+            if (value < block.limit) {
+                issued.increment();
+                return value;
+            }
+            refill(name, slot, block);
+        }
+    }
+
+    /**
+     * keep 을 만족하지 않는 시퀀스의 남은 구간 정리
+     */
+    public void retain(Predicate<String> keep) {
+        slots.keySet().removeIf(name -> !keep.test(name));
+    }
+
+    public int getSequenceCount() {
+        return slots.size();
+    }
+
+    public long getIssued() {
+        return issued.sum();
+    }
+
+    public long getAllocations() {
+        return allocations.sum();
+    }
+
+    // 다 쓴 구간 교체 (먼저 들어온 스레드만 할당, 나머지는 교체된 구간으로 재시도)
+    private void refill(String name, Slot slot, Block exhausted) {
+        synchronized (slot) {
+            if (slot.block.get() != exhausted) return;
+            if (slot.minFirst < 0) {
+                slot.minFirst = Math.max(minFirst.applyAsLong(name), 1L);
+            }
+            long first = allocator.allocate(name, blockSize, slot.minFirst);
+            allocations.increment();
+            slot.block.set(new Block(first, first + blockSize));
+        }
+    }
+
+    // 시퀀스 1개의 현재 구간 + 첫 번호 하한 (처음 할당할 때 한 번 구함)
+    private static final class Slot {
+        private final AtomicReference<Block> block = new AtomicReference<>(Block.EMPTY);
+        private long minFirst = -1;     // refill 에서 slot 잠금을 잡고만 읽고 씀
+    }
+
+    private static final class Block {
+        private static final Block EMPTY = new Block(0, 0);
+
+        private final AtomicLong cursor;
+        private final long limit;   // 미포함
+
+        private Block(long first, long limit) {
+            this.cursor = new AtomicLong(first);
+            this.limit = limit;
+        }
+    }
+}
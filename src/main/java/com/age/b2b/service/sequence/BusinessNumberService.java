@@ -0,0 +1,112 @@
+package com.age.b2b.service.sequence;
+
+import com.age.b2b.support.MetricsSource;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 업무 번호 발급 (기존 화면 표기 형식 유지, 일자별 일련번호)
+ * - 발주번호: yyyyMMdd-0001
+ * - Lot번호: LOT-yyyyMMdd-001
+ * - 출고번호: SHP-yyyyMMdd-001
+ * - 상품코드: PyyyyMMdd000001
+ * 자릿수를 넘으면 길어질 뿐 중복되지 않음
+ * - 발주번호 / Lot번호는 이전 방식(일자 + 난수)과 형식이 같으므로 그날 이미 쓰인 가장 큰 번호 다음부터 발급
+ * - 상품코드(이전 PyyyyMMddHHmmss000, 18자리)와 출고번호(이전 SHP-밀리초)는 형식이 달라 겹치지 않음
+ * - 날짜가 바뀌면 지난 일자 시퀀스의 남은 구간은 정리
+ */
+@Service
+@RequiredArgsConstructor
+public class BusinessNumberService implements MetricsSource {
+
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final String MAX_SUFFIX_SQL =
+            "SELECT MAX(CAST(SUBSTRING(%s, %d) AS UNSIGNED)) FROM %s WHERE %s LIKE ?";
+
+    private final JdbcBlockAllocator blockAllocator;
+    private final JdbcTemplate jdbcTemplate;
+
+    // 서버가 한 번에 받아 오는 번호 개수 (클수록 DB 왕복이 줄고, 재시작 시 버려지는 번호가 늘어남)
+    @Value("${sequence.block-size:100}")
+    private int blockSize;
+
+    private BlockSequence sequence;
+    private volatile String currentDay;
+
+    @PostConstruct
+    void init() {
+        sequence = new BlockSequence(blockAllocator, blockSize, this::minFirst);
+    }
+
+    public String nextOrderNumber() {
+        String day = today();
+        return day + "-" + String.format("%04d", sequence.next("order:" + day));
+    }
+
+    public String nextLotNumber() {
+        String day = today();
+        return "LOT-" + day + "-" + String.format("%03d", sequence.next("lot:" + day));
+    }
+
+    public String nextShipmentNumber() {
+        String day = today();
+        return "SHP-" + day + "-" + String.format("%03d", sequence.next("shipment:" + day));
+    }
+
+    public String nextProductCode() {
+        String day = today();
+        return "P" + day + String.format("%06d", sequence.next("product:" + day));
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "sequence";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("blockSize", blockSize);
+        map.put("sequences", sequence.getSequenceCount());
+        map.put("issued", sequence.getIssued());
+        map.put("blockAllocations", sequence.getAllocations());
+        return map;
+    }
+
+    // 날짜가 바뀌면 오늘 시퀀스만 남김
+    private String today() {
+        String day = LocalDate.now().format(DAY);
+        if (!day.equals(currentDay)) {
+            currentDay = day;
+            sequence.retain(name -> name.endsWith(":" + day));
+        }
+        return day;
+    }
+
+    // 시퀀스 첫 번호 하한 (이전 방식으로 그날 발급된 번호 다음)
+    private long minFirst(String name) {
+        String[] parts = name.split(":");
+        String day = parts[1];
+        return switch (parts[0]) {
+            case "order" -> maxSuffix("orders", "order_number", day + "-") + 1;
+            case "lot" -> maxSuffix("product_lots", "lot_number", "LOT-" + day + "-") + 1;
+            default -> 1;
+        };
+    }
+
+    // prefix 로 시작하는 번호 중 뒷부분 숫자의 최댓값 (숫자가 아닌 번호는 0)
+    private long maxSuffix(String table, String column, String prefix) {
+        String sql = String.format(MAX_SUFFIX_SQL, column, prefix.length() + 1, table, column);
+        Long max = jdbcTemplate.queryForObject(sql, Long.class, prefix + "%");
+        return max == null ? 0 : max;
+    }
+}
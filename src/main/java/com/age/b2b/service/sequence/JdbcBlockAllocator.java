@@ -0,0 +1,42 @@
+package com.age.b2b.service.sequence;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * business_sequences 테이블에서 번호 구간 할당
+ * - 호출한 쪽 트랜잭션과 별도로 바로 커밋 (롤백되어도 구간이 재사용되지 않고, 행 잠금도 즉시 해제)
+ * - UPSERT 로 행을 잠그고 증가시키므로 여러 서버가 동시에 받아 가도 구간이 겹치지 않음
+ * - 현재 값이 minFirst 보다 작으면 minFirst 부터 할당 (이전 방식 번호와 겹치지 않도록)
+ */
+@Component
+@RequiredArgsConstructor
+public class JdbcBlockAllocator implements BlockAllocator {
+
+    private static final String RESERVE_SQL =
+            "INSERT INTO business_sequences (sequence_name, next_value) VALUES (?, ?) " +
+            "ON DUPLICATE KEY UPDATE next_value = GREATEST(next_value, ?) + ?";
+
+    private static final String NEXT_VALUE_SQL =
+            "SELECT next_value FROM business_sequences WHERE sequence_name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public long allocate(String name, int blockSize, long minFirst) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Long nextValue = tx.execute(status -> {
+            // 신규 시퀀스는 minFirst 부터 시작
+            jdbcTemplate.update(RESERVE_SQL, name, minFirst + blockSize, minFirst, blockSize);
+            return jdbcTemplate.queryForObject(NEXT_VALUE_SQL, Long.class, name);
+        });
+        return nextValue - blockSize;
+    }
+}
@@ -0,0 +1,332 @@
+package com.age.b2b.service.settlement;
+
+import com.age.b2b.domain.SettlementPartition;
+import com.age.b2b.domain.SettlementRun;
+import com.age.b2b.repository.SettlementPartitionRepository;
+import com.age.b2b.repository.SettlementRunRepository;
+import com.age.b2b.service.rollup.DailyRollupRecorder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * 월별 정산 엔진 (고객사 구간 파티션 병렬 + 청크 단위 스트리밍)
+ * - 고객사 ID 를 parallelism 개의 구간으로 나누고, 구간마다 별도 스레드/트랜잭션으로 처리한다.
+ * - 구간 안에서는 고객사별 배송완료 주문 금액을 GROUP BY 한 번으로 집계해 chunk-size 만큼씩 처리한다.
+ * - 청크마다 정산 INSERT(배치) + 파티션 체크포인트 갱신을 별도 트랜잭션(REQUIRES_NEW)으로 커밋 -> 실패한 파티션만 이어서 재실행
+ *   (호출한 쪽에 트랜잭션이 있으면 그 트랜잭션 안에서 순서대로 처리하고, 실패하면 예외를 그대로 던져 전체 롤백)
+ * - 파티션은 공유 실행기(settlementExecutor, 크기 parallelism)에서 실행
+ * - (고객사, 정산월) 유니크 키 + 기존 정산 제외 조건으로 같은 월을 여러 번 실행해도 중복 생성되지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SettlementEngine {
+
+    private static final String AGGREGATE_SQL = """
+            SELECT o.client_id, SUM(o.total_amount) AS total_amount
+            FROM orders o
+            WHERE o.client_id > ?
+              AND o.client_id <= ?
+              AND o.status = 'DELIVERED'
+              AND o.created_at >= ?
+              AND o.created_at < ?
+              AND NOT EXISTS (
+                  SELECT 1 FROM settlements s
+                  WHERE s.client_id = o.client_id AND s.settlement_month = ?
+              )
+            GROUP BY o.client_id
+            ORDER BY o.client_id ASC
+            LIMIT ?
+            """;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO settlements (settlement_number, client_id, settlement_month, total_amount, status, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final RowMapper<ClientTotal> CLIENT_TOTAL_MAPPER = (rs, rowNum) ->
+            new ClientTotal(rs.getLong("client_id"), rs.getLong("total_amount"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SettlementRunRepository settlementRunRepository;
+    private final SettlementPartitionRepository settlementPartitionRepository;
+    private final DailyRollupRecorder dailyRollupRecorder;
+    private final PlatformTransactionManager transactionManager;
+    private final AsyncTaskExecutor settlementExecutor;
+
+    @Value("${settlement.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${settlement.parallelism:4}")
+    private int parallelism;
+
+    // 이 노드에서 실행 중인 run ID (중복 실행 방지)
+    private final Set<Long> activeRuns = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 정산월 실행 준비 (미완료 실행이 있으면 이어서, 없으면 새 실행 + 파티션 생성) 후 run ID 반환
+     */
+    public Long prepare(YearMonth yearMonth) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        return tx.execute(status -> startOrResume(yearMonth.toString()).getId());
+    }
+
+    /**
+     * 정산월 실행 (준비 + 실행, 끝날 때까지 대기)
+     */
+    public SettlementRun run(YearMonth yearMonth) {
+        return execute(prepare(yearMonth));
+    }
+
+    /**
+     * 백그라운드 실행 (진행 상황은 파티션 체크포인트로 조회)
+     */
+    @Async
+    public void executeInBackground(Long runId) {
+        execute(runId);
+    }
+
+    public boolean isActive(Long runId) {
+        return activeRuns.contains(runId);
+    }
+
+    /**
+     * 미완료 파티션 실행 후 실행 상태 확정
+     * - 호출한 쪽에 트랜잭션이 있으면(테스트 등) 파티션을 그 트랜잭션 안에서 순서대로 처리 (전부 성공 또는 전부 롤백)
+     * - 없으면 파티션을 공유 실행기에서 동시에 처리 (청크마다 커밋, 실패한 파티션만 FAILED 로 남음)
+     */
+    public SettlementRun execute(Long runId) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        if (!activeRuns.add(runId)) {
+            log.info("이미 실행 중인 정산입니다. Run: {}", runId);
+            return tx.execute(status -> settlementRunRepository.findById(runId).orElseThrow());
+        }
+
+        try {
+            SettlementRun run = tx.execute(status -> settlementRunRepository.findById(runId).orElseThrow());
+            YearMonth yearMonth = YearMonth.parse(run.getSettlementMonth());
+
+            List<Long> pending = tx.execute(status -> settlementPartitionRepository.findByRun_IdOrderByPartitionNoAsc(runId)
+                    .stream()
+                    .filter(partition -> !SettlementRun.COMPLETED.equals(partition.getStatus()))
+                    .map(SettlementPartition::getId)
+                    .collect(Collectors.toList()));
+
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                pending.forEach(partitionId -> executeJoined(partitionId, yearMonth));
+            } else if (pending.size() <= 1) {
+                pending.forEach(partitionId -> executePartition(partitionId, yearMonth));
+            } else {
+                runParallel(pending, yearMonth);
+            }
+
+            return tx.execute(status -> finish(runId));
+        } finally {
+            activeRuns.remove(runId);
+        }
+    }
+
+    // --- 내부 헬퍼 메서드 ---
+
+    private void runParallel(List<Long> partitionIds, YearMonth yearMonth) {
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long partitionId : partitionIds) {
+            futures.add(settlementExecutor.submit(() -> executePartition(partitionId, yearMonth)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                // 파티션 실패는 executePartition 에서 기록됨
+                log.warn("정산 파티션 대기 중 오류", e);
+            }
+        }
+    }
+
+    private SettlementRun startOrResume(String settlementMonth) {
+        return settlementRunRepository
+                .findFirstBySettlementMonthAndStatusInOrderByIdDesc(settlementMonth,
+                        List.of(SettlementRun.RUNNING, SettlementRun.FAILED))
+                .map(run -> {
+                    log.info("정산 재시작 - Month: {}, Run: {}", settlementMonth, run.getId());
+                    run.setStatus(SettlementRun.RUNNING);
+                    run.setErrorMessage(null);
+                    run.setFinishedAt(null);
+                    return run;
+                })
+                .orElseGet(() -> createRun(settlementMonth));
+    }
+
+    // 새 실행 생성 + 고객사 ID 를 고객사 수 기준으로 균등하게 나눠 파티션 생성
+    private SettlementRun createRun(String settlementMonth) {
+        SettlementRun run = new SettlementRun();
+        run.setSettlementMonth(settlementMonth);
+        run.setStatus(SettlementRun.RUNNING);
+        run.setStartedAt(LocalDateTime.now());
+        settlementRunRepository.save(run);
+
+        List<Long> upperBounds = partitionUpperBounds();
+        long from = 0;
+        for (int i = 0; i < upperBounds.size(); i++) {
+            SettlementPartition partition = new SettlementPartition();
+            partition.setRun(run);
+            partition.setPartitionNo(i + 1);
+            partition.setFromClientId(from);
+            partition.setToClientId(upperBounds.get(i));
+            partition.setLastClientId(from);
+            partition.setStatus(SettlementRun.PENDING);
+            partition.setUpdatedAt(LocalDateTime.now());
+            settlementPartitionRepository.save(partition);
+            from = upperBounds.get(i);
+        }
+        run.setPartitionCount(upperBounds.size());
+        return run;
+    }
+
+    // 각 파티션의 마지막 고객사 ID (마지막 파티션은 상한 없음)
+    private List<Long> partitionUpperBounds() {
+        Long clientCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM clients", Long.class);
+        int partitions = (int) Math.max(1, Math.min(parallelism, clientCount == null ? 1 : clientCount));
+        long step = clientCount == null ? 0 : (clientCount + partitions - 1) / partitions;
+
+        List<Long> bounds = new ArrayList<>();
+        for (int i = 1; i < partitions; i++) {
+            Long bound = jdbcTemplate.queryForObject(
+                    "SELECT client_id FROM clients ORDER BY client_id ASC LIMIT 1 OFFSET ?", Long.class, i * step - 1);
+            if (bound != null && (bounds.isEmpty() || bound > bounds.get(bounds.size() - 1))) {
+                bounds.add(bound);
+            }
+        }
+        bounds.add(Long.MAX_VALUE);
+        return bounds;
+    }
+
+    // 파티션 1개 처리 (청크마다 새 트랜잭션으로 커밋, 실패 시 파티션만 FAILED 로 기록)
+    private void executePartition(Long partitionId, YearMonth yearMonth) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        tx.executeWithoutResult(status -> updatePartition(partitionId, SettlementRun.RUNNING, null));
+
+        try {
+            int processed;
+            do {
+                processed = tx.execute(status -> processChunk(partitionId, yearMonth));
+            } while (processed == chunkSize);
+
+            tx.executeWithoutResult(status -> updatePartition(partitionId, SettlementRun.COMPLETED, null));
+        } catch (RuntimeException e) {
+            log.error("정산 파티션 실패 - Partition: {}", partitionId, e);
+            tx.executeWithoutResult(status -> updatePartition(partitionId, SettlementRun.FAILED, e.getMessage()));
+        }
+    }
+
+    // 호출한 쪽 트랜잭션 안에서 파티션 1개 처리 (실패를 FAILED 로 남기지 않고 예외로 던져 전체 롤백)
+    private void executeJoined(Long partitionId, YearMonth yearMonth) {
+        updatePartition(partitionId, SettlementRun.RUNNING, null);
+        int processed;
+        do {
+            processed = processChunk(partitionId, yearMonth);
+        } while (processed == chunkSize);
+        updatePartition(partitionId, SettlementRun.COMPLETED, null);
+    }
+
+    // 청크 1개 처리 (정산 배치 INSERT + 체크포인트 갱신), 처리 건수 반환
+    private int processChunk(Long partitionId, YearMonth yearMonth) {
+        SettlementPartition partition = settlementPartitionRepository.findById(partitionId).orElseThrow();
+        String settlementMonth = yearMonth.toString();
+
+        List<ClientTotal> totals = jdbcTemplate.query(AGGREGATE_SQL, CLIENT_TOTAL_MAPPER,
+                partition.getLastClientId(),
+                partition.getToClientId(),
+                Timestamp.valueOf(yearMonth.atDay(1).atStartOfDay()),
+                Timestamp.valueOf(yearMonth.plusMonths(1).atDay(1).atStartOfDay()),
+                settlementMonth,
+                chunkSize);
+        if (totals.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_SQL, totals, totals.size(), (ps, total) -> {
+            ps.setString(1, "SET-" + settlementMonth + "-" + total.clientId);
+            ps.setLong(2, total.clientId);
+            ps.setString(3, settlementMonth);
+            ps.setLong(4, total.amount);
+            ps.setString(5, "COMPLETED"); // 기본 완료 처리 (추후 '입금대기' 등으로 확장 가능)
+            ps.setTimestamp(6, Timestamp.valueOf(now));
+        });
+
+        long chunkAmount = 0;
+        for (ClientTotal total : totals) {
+            dailyRollupRecorder.settlementCreated(total.clientId, now.toLocalDate(), total.amount);
+            chunkAmount += total.amount;
+        }
+
+        // 체크포인트 (정산 INSERT 와 같은 트랜잭션으로 커밋)
+        partition.setLastClientId(totals.get(totals.size() - 1).clientId);
+        partition.setCompletedChunks(partition.getCompletedChunks() + 1);
+        partition.setCreatedCount(partition.getCreatedCount() + totals.size());
+        partition.setTotalAmount(partition.getTotalAmount() + chunkAmount);
+        partition.setUpdatedAt(now);
+
+        log.info("정산 청크 완료 - Month: {}, Partition: {}, 건수: {}, 체크포인트 Client ID: {}",
+                settlementMonth, partition.getPartitionNo(), totals.size(), partition.getLastClientId());
+        return totals.size();
+    }
+
+    private void updatePartition(Long partitionId, String status, String errorMessage) {
+        SettlementPartition partition = settlementPartitionRepository.findById(partitionId).orElseThrow();
+        partition.setStatus(status);
+        partition.setErrorMessage(errorMessage);
+        partition.setUpdatedAt(LocalDateTime.now());
+    }
+
+    // 파티션 결과로 실행 상태 확정 (하나라도 실패하면 FAILED -> 재실행 시 실패 파티션만 이어서 처리)
+    private SettlementRun finish(Long runId) {
+        SettlementRun run = settlementRunRepository.findById(runId).orElseThrow();
+        List<SettlementPartition> failed = settlementPartitionRepository.findByRun_IdOrderByPartitionNoAsc(runId).stream()
+                .filter(partition -> !SettlementRun.COMPLETED.equals(partition.getStatus()))
+                .toList();
+
+        if (failed.isEmpty()) {
+            run.setStatus(SettlementRun.COMPLETED);
+            run.setErrorMessage(null);
+        } else {
+            run.setStatus(SettlementRun.FAILED);
+            run.setErrorMessage("실패한 파티션: " + failed.stream()
+                    .map(partition -> String.valueOf(partition.getPartitionNo()))
+                    .collect(Collectors.joining(", ")));
+        }
+        run.setFinishedAt(LocalDateTime.now());
+        return run;
+    }
+
+    private static class ClientTotal {
+        private final long clientId;
+        private final long amount;
+
+        ClientTotal(long clientId, long amount) {
+            this.clientId = clientId;
+            this.amount = amount;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.age.b2b.service.stock;
+
+import com.age.b2b.domain.common.OrderStatus;
+import com.age.b2b.support.MetricsSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 상품별 주문 가능 수량(ATP, available-to-promise) 원장 (메모리)
+ * - ATP = 현재고(StockLedger, Lot 수량 합) - 출고 대기(PREPARING) 주문 수량 - 결제 대기 주문의 재고 예약(HELD)
+ * - 출고 대기 수량은 처음 조회할 때 한 번 집계한 뒤, 주문 상태가 PREPARING 으로 들어가거나 나올 때마다 증감
+ *   (결제 승인 / 출고 / 취소 / 반품 모두 Order 상태 변경으로 감지)
+ * - 상태 변경은 트랜잭션 단위로 모아 커밋 직전에 수량을 확정하고, 커밋된 경우에만 원장에 반영
+ * - 재고 예약은 이 서버가 잡은 것(주문별로 보관)과 DB 에만 있는 것(다른 서버, 재시작 전)을 나눠 관리
+ *   (조회용 캐시일 뿐, 예약 가능 여부는 StockReservationService 가 공유 행(product_stock_holds)에서 판정)
+ * - 다른 서버의 변경 / 주문 삭제 등 놓친 증감은 주기적 재집계로 바로잡음
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AtpLedger implements MetricsSource {
+
+    private static final String DEMAND_SQL =
+            "SELECT oi.product_id, SUM(oi.count) AS quantity FROM order_items oi " +
+            "JOIN orders o ON o.order_id = oi.order_id " +
+            "WHERE o.status = 'PREPARING' GROUP BY oi.product_id";
+
+    private static final String HELD_SQL =
+            "SELECT order_id, product_id, SUM(quantity) AS quantity FROM stock_reservations " +
+            "WHERE status = 'HELD' GROUP BY order_id, product_id";
+
+    private static final String ORDER_QUANTITIES_SQL =
+            "SELECT order_id, product_id, SUM(count) AS quantity FROM order_items " +
+            "WHERE order_id IN (:orderIds) GROUP BY order_id, product_id";
+
+    private final StockLedger stockLedger;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    // 상품별 출고 대기 / 예약 수량 (loaded 가 false 면 다음 조회 시 집계)
+    private final Map<Long, ProductDemand> demands = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    // 이 서버가 잡은 재고 예약 (주문 ID -> 상품별 수량)
+    private final Map<Long, Map<Long, Integer>> localHolds = new ConcurrentHashMap<>();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder demandChanges = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder holds = new LongAdder();
+
+    /**
+     * 상품의 주문 가능 수량 (0 미만이면 0)
+     */
+    public int available(Long productId) {
+        lookups.increment();
+        return Math.max(stockLedger.available(productId) - demandOf(productId).total(), 0);
+    }
+
+    /**
+     * 여러 상품의 주문 가능 수량
+     */
+    public Map<Long, Integer> available(Collection<Long> productIds) {
+        Map<Long, Integer> result = new LinkedHashMap<>();
+        for (Long productId : productIds) {
+            result.put(productId, available(productId));
+        }
+        return result;
+    }
+
+    /**
+     * 이 서버가 잡은 재고 예약 기록 (DB 에서 예약이 확정된 뒤 호출, 조회 캐시 반영만 하고 수량 확인은 하지 않음)
+     */
+    public void recordHold(Long orderId, Long productId, int quantity) {
+        demandOf(productId).localHeld.addAndGet(quantity);
+        localHolds.computeIfAbsent(orderId, id -> new ConcurrentHashMap<>()).merge(productId, quantity, Integer::sum);
+        holds.increment();
+    }
+
+    /**
+     * 주문의 재고 예약 해제 (이 서버가 잡은 예약만, 여러 번 호출해도 한 번만 해제)
+     */
+    public void releaseHolds(Long orderId) {
+        Map<Long, Integer> held = localHolds.remove(orderId);
+        if (held == null) return;
+        held.forEach((productId, quantity) -> demandOf(productId).localHeld.addAndGet(-quantity));
+    }
+
+    /**
+     * 주문 상태 변경 기록 (Order 엔티티 리스너에서 호출, from 이 null 이면 신규, to 가 null 이면 삭제)
+     */
+    public void orderChanged(Long orderId, OrderStatus from, OrderStatus to) {
+        int sign = (to == OrderStatus.PREPARING ? 1 : 0) - (from == OrderStatus.PREPARING ? 1 : 0);
+        if (sign == 0) return;
+
+        if (to == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 삭제된 주문은 품목도 함께 지워져 수량을 알 수 없음 -> 커밋 후 재집계
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                pending().reload = true;
+            } else {
+                loaded = false;
+            }
+            return;
+        }
+        pending().signs.merge(orderId, sign, Integer::sum);
+    }
+
+    /**
+     * 모아둔 주문의 품목 수량 확정 (Hibernate 가 마지막 flush 를 끝낸 뒤, 커밋 직전 같은 커넥션에서 호출)
+     */
+    public void collect() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) return;
+
+        pending.signs.values().removeIf(sign -> sign == 0);
+        if (pending.signs.isEmpty()) return;
+
+        namedParameterJdbcTemplate.query(ORDER_QUANTITIES_SQL, Map.of("orderIds", pending.signs.keySet()), rs -> {
+            int sign = pending.signs.get(rs.getLong("order_id"));
+            pending.deltas.merge(rs.getLong("product_id"), sign * rs.getInt("quantity"), Integer::sum);
+        });
+        pending.signs.clear();
+    }
+
+    /**
+     * 출고 대기 / 다른 서버 예약 수량 전체 재집계 (놓친 증감 보정)
+     */
+    @Scheduled(fixedDelayString = "${atp.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (!loaded) return; // 아직 한 번도 조회되지 않음
+        reload();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "atp";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("loaded", loaded);
+        map.put("products", demands.size());
+        map.put("localHeldOrders", localHolds.size());
+        map.put("lookups", lookups.sum());
+        map.put("holds", holds.sum());
+        map.put("demandChanges", demandChanges.sum());
+        map.put("reloads", reloads.sum());
+        return map;
+    }
+
+    // --- 내부 헬퍼 메서드 ---
+
+    private ProductDemand demandOf(Long productId) {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) reload();
+            }
+        }
+        return demands.computeIfAbsent(productId, id -> new ProductDemand());
+    }
+
+    // 출고 대기 / 다른 서버 예약 수량만 DB 값으로 교체 (이 서버의 예약 수량은 메모리 값 유지)
+    private synchronized void reload() {
+        Map<Long, Integer> preparing = new HashMap<>();
+        jdbcTemplate.query(DEMAND_SQL, rs -> {
+            preparing.put(rs.getLong("product_id"), rs.getInt("quantity"));
+        });
+        Map<Long, Integer> external = new HashMap<>();
+        jdbcTemplate.query(HELD_SQL, rs -> {
+            if (!localHolds.containsKey(rs.getLong("order_id"))) {
+                external.merge(rs.getLong("product_id"), rs.getInt("quantity"), Integer::sum);
+            }
+        });
+
+        demands.forEach((productId, demand) -> {
+            demand.preparing.set(preparing.getOrDefault(productId, 0));
+            demand.externalHeld = external.getOrDefault(productId, 0);
+        });
+        preparing.forEach((productId, quantity) ->
+                demands.computeIfAbsent(productId, id -> new ProductDemand()).preparing.set(quantity));
+        external.forEach((productId, quantity) ->
+                demands.computeIfAbsent(productId, id -> new ProductDemand()).externalHeld = quantity);
+
+        loaded = true;
+        reloads.increment();
+        log.debug("주문 가능 수량 재집계 - 출고 대기 상품 {}개, 다른 서버 예약 상품 {}개", preparing.size(), external.size());
+    }
+
+    private void apply(Map<Long, Integer> deltas) {
+        if (!loaded) return; // 다음 조회 시 집계하면서 반영됨
+
+        deltas.forEach((productId, delta) -> {
+            if (delta != 0) {
+                demands.computeIfAbsent(productId, id -> new ProductDemand()).preparing.addAndGet(delta);
+                demandChanges.increment();
+            }
+        });
+    }
+
+    private Pending pending() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    // 트랜잭션 단위로 모아둔 상태 변경 (주문별 +1/-1 -> 커밋 직전 상품별 수량으로 확정 -> 커밋 후 반영)
+    private class Pending implements TransactionSynchronization {
+        private final Map<Long, Integer> signs = new HashMap<>();
+        private final Map<Long, Integer> deltas = new HashMap<>();
+        private boolean reload;
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AtpLedger.this);
+            if (status != STATUS_COMMITTED) return;
+
+            if (reload || !signs.isEmpty()) {
+                // 삭제된 주문이 있거나 수량 확정 전에 끝난 경우 -> 다음 조회 시 재집계
+                loaded = false;
+            } else {
+                apply(deltas);
+            }
+        }
+    }
+
+    // 상품 1개의 주문 가능 수량 차감 요소
+    private static class ProductDemand {
+        private final AtomicInteger preparing = new AtomicInteger();  // 출고 대기 주문 수량
+        private final AtomicInteger localHeld = new AtomicInteger();  // 이 서버가 잡은 예약 수량
+        private volatile int externalHeld;                            // DB 에만 있는 예약 수량 (재집계 시 갱신)
+
+        int total() {
+            return preparing.get() + localHeld.get() + externalHeld;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.age.b2b.service.stock;
+
+import com.age.b2b.domain.Order;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+// 주문 상태 변경을 감지해서 출고 대기 수량(ATP) / 재고 예약 확정·해제에 반영 (Order 엔티티 리스너)
+// 상태 스냅샷은 OrderRollupListener 가 갱신하므로, @EntityListeners 에서 그보다 앞에 등록해야 함
+@Component
+public class AtpOrderListener {
+
+    // 엔티티 리스너는 EntityManagerFactory 생성 중에 만들어지므로 지연 조회
+    private final ObjectProvider<AtpLedger> atpLedger;
+    private final ObjectProvider<StockReservationService> stockReservationService;
+
+    public AtpOrderListener(ObjectProvider<AtpLedger> atpLedger,
+                            ObjectProvider<StockReservationService> stockReservationService) {
+        this.atpLedger = atpLedger;
+        this.stockReservationService = stockReservationService;
+    }
+
+    @PostPersist
+    public void onPersist(Order order) {
+        atpLedger.getObject().orderChanged(order.getId(), null, order.getStatus());
+        stockReservationService.getObject().orderChanged(order.getId(), null, order.getStatus());
+    }
+
+    @PostUpdate
+    public void onUpdate(Order order) {
+        atpLedger.getObject().orderChanged(order.getId(), order.getStatusSnapshot(), order.getStatus());
+        stockReservationService.getObject().orderChanged(order.getId(), order.getStatusSnapshot(), order.getStatus());
+    }
+
+    @PostRemove
+    public void onRemove(Order order) {
+        atpLedger.getObject().orderChanged(order.getId(), order.getStatusSnapshot(), null);
+        stockReservationService.getObject().orderChanged(order.getId(), order.getStatusSnapshot(), null);
+    }
+}
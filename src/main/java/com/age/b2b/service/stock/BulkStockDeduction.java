@@ -0,0 +1,95 @@
+package com.age.b2b.service.stock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 여러 주문을 한 번에 출고할 때 사용하는 Lot 차감 작업 단위
+ * - 대상 상품의 Lot을 한 번에 잠가서 적재한 뒤, 주문 단위로 메모리에서 FIFO 할당한다.
+ * - 한 주문이라도 부족하면 그 주문의 할당만 되돌리고 다음 주문을 계속 처리한다.
+ * - 확정된 할당은 StockDeductor#applyBulk 로 Lot별 1건씩 배치 반영한다.
+ */
+public class BulkStockDeduction {
+
+    private final Map<Long, List<LotCounter>> lotsByProduct;
+    private final List<LotAllocation> accepted = new ArrayList<>();
+
+    BulkStockDeduction(Map<Long, List<LotCounter>> lotsByProduct) {
+        this.lotsByProduct = lotsByProduct;
+    }
+
+    /**
+     * 주문 1건의 상품별 수요를 할당 (부족 시 이 주문분은 되돌리고 IllegalStateException)
+     */
+    public List<LotAllocation> allocate(Map<Long, Integer> demandByProduct) {
+        List<LotAllocation> taken = new ArrayList<>();
+
+        for (Map.Entry<Long, Integer> demand : demandByProduct.entrySet()) {
+            Long productId = demand.getKey();
+            List<LotCounter> lots = lotsByProduct.getOrDefault(productId, Collections.emptyList());
+            if (lots.isEmpty()) {
+                giveBack(taken);
+                throw new IllegalStateException("재고가 존재하지 않는 상품입니다. (Product ID: " + productId + ")");
+            }
+
+            int remaining = demand.getValue();
+            for (LotCounter lot : lots) {
+                if (remaining <= 0) break;
+                if (lot.quantity <= 0) continue;
+
+                int amount = Math.min(lot.quantity, remaining);
+                lot.quantity -= amount;
+                taken.add(new LotAllocation(productId, lot.lotId, amount, lot.quantity));
+                remaining -= amount;
+            }
+
+            if (remaining > 0) {
+                giveBack(taken);
+                throw new IllegalStateException("재고가 부족합니다. (Product ID: " + productId + ", 부족 수량: " + remaining + ")");
+            }
+        }
+
+        accepted.addAll(taken);
+        return taken;
+    }
+
+    // 확정된 할당을 Lot별 차감 수량으로 합산
+    Map<Long, Integer> deductionsByLot() {
+        Map<Long, Integer> byLot = new LinkedHashMap<>();
+        for (LotAllocation allocation : accepted) {
+            byLot.merge(allocation.getLotId(), allocation.getQuantity(), Integer::sum);
+        }
+        return byLot;
+    }
+
+    /**
+     * 확정된(성공한 주문의) 할당 내역
+     */
+    public List<LotAllocation> getAccepted() {
+        return accepted;
+    }
+
+    private void giveBack(List<LotAllocation> taken) {
+        for (LotAllocation allocation : taken) {
+            for (LotCounter lot : lotsByProduct.get(allocation.getProductId())) {
+                if (lot.lotId.equals(allocation.getLotId())) {
+                    lot.quantity += allocation.getQuantity();
+                    break;
+                }
+            }
+        }
+    }
+
+    static class LotCounter {
+        private final Long lotId;
+        private int quantity;
+
+        LotCounter(Long lotId, int quantity) {
+            this.lotId = lotId;
+            this.quantity = quantity;
+        }
+    }
+}
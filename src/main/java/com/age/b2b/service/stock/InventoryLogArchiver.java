@@ -0,0 +1,268 @@
+package com.age.b2b.service.stock;
+
+import com.age.b2b.domain.InventoryLogArchive;
+import com.age.b2b.dto.InventoryLogRecordDto;
+import com.age.b2b.repository.InventoryLogArchiveRepository;
+import com.age.b2b.support.MetricsSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 오래된 재고 이력을 월 단위 gzip NDJSON 파일로 옮김 (운영 테이블 크기를 retention-months 개월치로 유지)
+ * - 월 이력을 log_id 순 청크로 읽어 임시 파일에 쓰고, 다 쓴 뒤 파일 이름을 바꿔 확정 -> inventory_log_archives 에 기록
+ * - 이미 보관한 월에 이력이 다시 생기면 기존 파일 내용을 새 임시 파일에 먼저 옮겨 쓰고 이어서 기록 (기존 보관분 유지)
+ *   기존 파일의 마지막 log_id 이하 이력은 이미 보관된 것(이전 실행의 삭제가 중간에 끊긴 경우)이라 다시 쓰지 않고 삭제만 함
+ * - 파티션 모드: 파티션 행 수가 보관된 행 수와 같으면 DROP PARTITION, 아니면 (파티션 없음 포함) log_id 순 청크 DELETE
+ * - 보관 파일은 InventoryLogQueryService 가 운영 테이블과 합쳐서 조회
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryLogArchiver implements MetricsSource {
+
+    private static final String CHUNK_SQL =
+            "SELECT log_id, lot_id, change_quantity, current_quantity, reason, note, created_at FROM inventory_logs " +
+            "WHERE created_at >= ? AND created_at < ? AND log_id > ? ORDER BY log_id LIMIT ?";
+
+    private static final String ARCHIVED_ROWS_SQL =
+            "SELECT COUNT(*) FROM inventory_logs WHERE created_at >= ? AND created_at < ? AND log_id <= ?";
+
+    private static final String DELETE_CHUNK_SQL =
+            "DELETE FROM inventory_logs WHERE created_at >= ? AND created_at < ? AND log_id <= ? ORDER BY log_id LIMIT ?";
+
+    static final RowMapper<InventoryLogRecordDto> RECORD_MAPPER = (rs, rowNum) -> InventoryLogRecordDto.builder()
+            .logId(rs.getLong("log_id"))
+            .lotId(rs.getObject("lot_id", Long.class))
+            .changeQuantity(rs.getInt("change_quantity"))
+            .currentQuantity(rs.getInt("current_quantity"))
+            .reason(rs.getString("reason"))
+            .note(rs.getString("note"))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryLogArchiveRepository inventoryLogArchiveRepository;
+    private final InventoryLogPartitioner inventoryLogPartitioner;
+    private final ObjectMapper objectMapper;
+
+    @Value("${inventory.log.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.log.archive.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${inventory.log.archive.dir:./archive/inventory-logs}")
+    private String archiveDir;
+
+    @Value("${inventory.log.archive.chunk-size:5000}")
+    private int chunkSize;
+
+    private volatile YearMonth lastArchivedMonth;
+    private volatile long lastArchivedRows;
+
+    /**
+     * 보관 기간(retention-months)이 지난 월을 오래된 순으로 보관
+     */
+    @Scheduled(cron = "${inventory.log.archive.cron:0 40 3 * * *}")
+    public void archiveExpired() {
+        if (!enabled) return;
+
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM inventory_logs", Timestamp.class);
+        if (oldest == null) return;
+
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+        for (YearMonth month = YearMonth.from(oldest.toLocalDateTime()); month.isBefore(cutoff); month = month.plusMonths(1)) {
+            archiveMonth(month);
+        }
+    }
+
+    /**
+     * 한 달치 이력을 파일로 옮기고 운영 테이블에서 제거 (이미 보관한 월이면 기존 파일에 이어서 기록)
+     * @return 보관 기록 (옮길 이력이 없으면 기존 기록, 기록도 없으면 null)
+     */
+    public InventoryLogArchive archiveMonth(YearMonth month) {
+        if (!month.isBefore(YearMonth.now())) {
+            throw new IllegalArgumentException("지난 달 이전의 이력만 보관할 수 있습니다.");
+        }
+
+        Path file = archivePath(month);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        InventoryLogArchive existing = inventoryLogArchiveRepository.findByArchiveMonth(month.toString()).orElse(null);
+        Export export = export(month, Files.exists(file) ? file : null, temp);
+
+        InventoryLogArchive archive = existing;
+        if (export.newRows() == 0 && (existing != null || export.totalRows() == 0)) {
+            deleteQuietly(temp); // 새로 쓸 이력 없음 (파일만 있고 기록이 없으면 아래에서 기록 생성)
+        } else {
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                archive = existing != null ? existing : new InventoryLogArchive();
+                archive.setArchiveMonth(month.toString());
+                archive.setFilePath(file.toAbsolutePath().toString());
+                archive.setRowCount(export.totalRows());
+                archive.setFileSize(Files.size(file));
+                archive.setArchivedAt(LocalDateTime.now());
+                inventoryLogArchiveRepository.save(archive);
+            } catch (IOException e) {
+                throw new UncheckedIOException("재고 이력 보관 파일 저장 실패: " + file, e);
+            }
+        }
+        if (export.lastLogId() == 0) {
+            return archive; // 파일도 운영 이력도 없음
+        }
+
+        // 파일에 들어간 이력(log_id <= lastLogId)만 삭제
+        // 파티션 행 수가 그 건수와 같을 때만 파티션째 삭제 (첫 파티션에 더 오래된 이력이 섞여 있을 수 있음)
+        long archivedLiveRows = jdbcTemplate.queryForObject(ARCHIVED_ROWS_SQL, Long.class,
+                start(month), end(month), export.lastLogId());
+        if (archivedLiveRows == 0) {
+            return archive;
+        }
+        Long partitionRows = inventoryLogPartitioner.isEnabled() ? inventoryLogPartitioner.countRows(month) : null;
+        if (partitionRows != null && partitionRows == archivedLiveRows) {
+            inventoryLogPartitioner.dropPartition(month);
+        } else {
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(DELETE_CHUNK_SQL, start(month), end(month), export.lastLogId(), chunkSize);
+            } while (deleted == chunkSize);
+        }
+
+        lastArchivedMonth = month;
+        lastArchivedRows = export.newRows();
+        log.info("재고 이력 보관 완료 - {}: 신규 {}건 (파일 전체 {}건), 운영 테이블 삭제 {}건, 파일: {}",
+                month, export.newRows(), export.totalRows(), archivedLiveRows, file);
+        return archive;
+    }
+
+    /**
+     * 보관 파일에서 조건에 맞는 이력 읽기 (파일 순서 = log_id 순)
+     * @param limit 최대 건수 (채우면 읽기 중단)
+     */
+    public void read(InventoryLogArchive archive, Predicate<InventoryLogRecordDto> filter, List<InventoryLogRecordDto> result, int limit) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(Paths.get(archive.getFilePath()))), StandardCharsets.UTF_8))) {
+            String line;
+            while (result.size() < limit && (line = reader.readLine()) != null) {
+                InventoryLogRecordDto record = objectMapper.readValue(line, InventoryLogRecordDto.class);
+                if (filter.test(record)) {
+                    record.setArchived(true);
+                    result.add(record);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("재고 이력 보관 파일 읽기 실패: " + archive.getFilePath(), e);
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "inventoryLogArchive";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("enabled", enabled);
+        map.put("partitioned", inventoryLogPartitioner.isEnabled());
+        map.put("retentionMonths", retentionMonths);
+        map.put("archivedMonths", inventoryLogArchiveRepository.count());
+        map.put("lastArchivedMonth", lastArchivedMonth == null ? null : lastArchivedMonth.toString());
+        map.put("lastArchivedRows", lastArchivedRows);
+        return map;
+    }
+
+    // --- 내부 헬퍼 메서드 ---
+
+    // 기존 파일 내용 + 그 마지막 log_id 이후 월 이력(log_id 순 청크)을 gzip NDJSON 임시 파일로 기록
+    private Export export(YearMonth month, Path existingFile, Path temp) {
+        try {
+            Files.createDirectories(temp.getParent());
+            long totalRows = 0;
+            long lastLogId = 0;
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+                if (existingFile != null) {
+                    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                            new GZIPInputStream(Files.newInputStream(existingFile)), StandardCharsets.UTF_8))) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            writer.write(line);
+                            writer.newLine();
+                            lastLogId = Math.max(lastLogId, objectMapper.readValue(line, InventoryLogRecordDto.class).getLogId());
+                            totalRows++;
+                        }
+                    }
+                }
+
+                long archivedRows = totalRows;
+                long fromLogId = lastLogId;
+                List<InventoryLogRecordDto> chunk;
+                do {
+                    chunk = jdbcTemplate.query(CHUNK_SQL, RECORD_MAPPER, start(month), end(month), fromLogId, chunkSize);
+                    for (InventoryLogRecordDto record : chunk) {
+                        writer.write(objectMapper.writeValueAsString(record));
+                        writer.newLine();
+                        fromLogId = record.getLogId();
+                    }
+                    totalRows += chunk.size();
+                } while (chunk.size() == chunkSize);
+                return new Export(totalRows, totalRows - archivedRows, fromLogId);
+            }
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new UncheckedIOException("재고 이력 보관 파일 쓰기 실패: " + temp, e);
+        }
+    }
+
+    private Path archivePath(YearMonth month) {
+        return Paths.get(archiveDir).resolve("inventory_logs-" + month + ".ndjson.gz");
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("임시 파일 삭제 실패: {}", path, e);
+        }
+    }
+
+    // 보관 결과 (파일 전체 건수, 이번에 새로 쓴 건수, 파일의 마지막 log_id)
+    private record Export(long totalRows, long newRows, long lastLogId) {
+    }
+
+    private static Timestamp start(YearMonth month) {
+        return Timestamp.valueOf(month.atDay(1).atStartOfDay());
+    }
+
+    private static Timestamp end(YearMonth month) {
+        return Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+    }
+}
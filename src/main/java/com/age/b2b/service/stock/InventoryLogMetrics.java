@@ -0,0 +1,93 @@
+package com.age.b2b.service.stock;
+
+import com.age.b2b.support.MetricsSource;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+// 재고 이력 배치 저장 지표 (배치 크기, flush 지연)
+@Component
+public class InventoryLogMetrics implements MetricsSource {
+
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder entries = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final LongAccumulator maxBatchSize = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator maxFlushNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder failedFlushes = new LongAdder();
+    private final LongAdder droppedEntries = new LongAdder();
+    private final LongAdder spilledEntries = new LongAdder();
+    private final LongAdder replayedEntries = new LongAdder();
+    private final LongAdder quarantinedFiles = new LongAdder();
+
+    private volatile InventoryLogWriteMode mode;
+    private volatile IntSupplier queueDepth = () -> 0;
+
+    void setMode(InventoryLogWriteMode mode, IntSupplier queueDepth) {
+        this.mode = mode;
+        this.queueDepth = queueDepth;
+    }
+
+    void flushed(int batchSize, long elapsedNanos) {
+        flushes.increment();
+        entries.add(batchSize);
+        flushNanos.add(elapsedNanos);
+        maxBatchSize.accumulate(batchSize);
+        maxFlushNanos.accumulate(elapsedNanos);
+    }
+
+    void flushFailed() {
+        failedFlushes.increment();
+    }
+
+    void dropped(int count) {
+        droppedEntries.add(count);
+    }
+
+    void spilled(int count) {
+        spilledEntries.add(count);
+    }
+
+    void replayed(int count) {
+        replayedEntries.add(count);
+    }
+
+    void quarantined() {
+        quarantinedFiles.increment();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "inventoryLog";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        long count = flushes.sum();
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("mode", mode);
+        map.put("flushes", count);
+        map.put("entries", entries.sum());
+        map.put("avgBatchSize", count == 0 ? 0.0 : (double) entries.sum() / count);
+        map.put("maxBatchSize", maxBatchSize.get());
+        map.put("avgFlushMillis", count == 0 ? 0.0 : toMillis(flushNanos.sum()) / count);
+        map.put("maxFlushMillis", toMillis(maxFlushNanos.get()));
+        map.put("failedFlushes", failedFlushes.sum());
+        map.put("droppedEntries", droppedEntries.sum());
+        map.put("spilledEntries", spilledEntries.sum());
+        map.put("replayedEntries", replayedEntries.sum());
+        map.put("quarantinedFiles", quarantinedFiles.sum());
+        map.put("queueDepth", queueDepth.getAsInt());
+        return map;
+    }
+
+    private double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
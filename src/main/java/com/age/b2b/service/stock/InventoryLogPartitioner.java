@@ -0,0 +1,159 @@
+package com.age.b2b.service.stock;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * 재고 이력(inventory_logs) 월별 파티션 관리 (MySQL RANGE 파티션)
+ * - 기동 시 파티션이 없으면 변환: PK 를 (log_id, created_at) 으로 바꾸고 created_at 월별 파티션 + pmax 로 재구성
+ *   (테이블을 다시 만드는 ALTER 이므로 이력이 많은 DB 는 점검 시간에 켜야 함, FK 가 남아 있으면 변환하지 않음)
+ * - 매일 months-ahead 개월 뒤까지 빈 파티션을 미리 만들어, INSERT 가 항상 작은 현재 월 파티션에 들어가도록 유지
+ * - 보관이 끝난 월은 DROP PARTITION 으로 즉시 제거 (행 단위 DELETE 없음)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryLogPartitioner {
+
+    private static final String TABLE = "inventory_logs";
+    private static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'uuuuMM");
+
+    private static final String PARTITIONS_SQL =
+            "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '" + TABLE + "' AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION";
+
+    private static final String FOREIGN_KEYS_SQL =
+            "SELECT COUNT(*) FROM information_schema.REFERENTIAL_CONSTRAINTS " +
+            "WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = '" + TABLE + "'";
+
+    // 스키마 생성(ddl-auto) 이 끝난 뒤 실행되도록 EntityManagerFactory 에 의존
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${inventory.log.partitioning.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.log.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) return;
+
+        try {
+            if (!isPartitioned()) {
+                convert();
+            }
+            ensureFuturePartitions();
+        } catch (RuntimeException e) {
+            enabled = false;
+            log.warn("재고 이력 파티션을 사용하지 않습니다. ({})", e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 월별 파티션 적용 여부
+     */
+    public boolean isPartitioned() {
+        return !partitionNames().isEmpty();
+    }
+
+    /**
+     * months-ahead 개월 뒤까지 월 파티션 생성 (pmax 를 나눔, 이미 있으면 아무것도 하지 않음)
+     */
+    @Scheduled(cron = "${inventory.log.partitioning.maintenance-cron:0 30 3 * * *}")
+    public void ensureFuturePartitions() {
+        if (!enabled) return;
+
+        List<String> names = partitionNames();
+        YearMonth last = null;
+        for (String name : names) {
+            if (!MAX_PARTITION.equals(name)) {
+                last = YearMonth.parse(name, PARTITION_NAME);
+            }
+        }
+        YearMonth target = YearMonth.now().plusMonths(monthsAhead);
+        YearMonth next = last == null ? YearMonth.now() : last.plusMonths(1);
+        if (next.isAfter(target)) return;
+
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION +
+                " INTO (" + definitions(next, target) + ")");
+        log.info("재고 이력 파티션 추가 - {} ~ {}", next, target);
+    }
+
+    /**
+     * 월 파티션의 행 수 (파티션이 없으면 null)
+     */
+    public Long countRows(YearMonth month) {
+        if (!partitionNames().contains(partitionName(month))) return null;
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + TABLE + " PARTITION (" + partitionName(month) + ")", Long.class);
+    }
+
+    /**
+     * 월 파티션 삭제 (보관 완료 후 호출, 파티션이 없으면 false)
+     */
+    public boolean dropPartition(YearMonth month) {
+        if (!partitionNames().contains(partitionName(month))) return false;
+
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + partitionName(month));
+        log.info("재고 이력 파티션 삭제 - {}", month);
+        return true;
+    }
+
+    // --- 내부 헬퍼 메서드 ---
+
+    private List<String> partitionNames() {
+        return jdbcTemplate.queryForList(PARTITIONS_SQL, String.class);
+    }
+
+    // 파티션이 없는 테이블을 가장 오래된 이력 월부터 months-ahead 개월 뒤까지 월별 파티션으로 변환
+    private void convert() {
+        Long foreignKeys = jdbcTemplate.queryForObject(FOREIGN_KEYS_SQL, Long.class);
+        if (foreignKeys != null && foreignKeys > 0) {
+            throw new IllegalStateException("inventory_logs 외래키를 먼저 삭제해야 파티션으로 변환할 수 있습니다.");
+        }
+
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM " + TABLE, Timestamp.class);
+        YearMonth first = oldest == null ? YearMonth.now() : YearMonth.from(oldest.toLocalDateTime());
+        YearMonth last = YearMonth.now().plusMonths(monthsAhead);
+
+        // 파티션 키는 PK 에 포함되어야 하고 NULL 일 수 없음
+        jdbcTemplate.update("UPDATE " + TABLE + " SET created_at = NOW() WHERE created_at IS NULL");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " MODIFY created_at DATETIME(6) NOT NULL, " +
+                "DROP PRIMARY KEY, ADD PRIMARY KEY (log_id, created_at) " +
+                "PARTITION BY RANGE (TO_DAYS(created_at)) (" + definitions(first, last) + ")");
+        log.info("재고 이력 테이블 월별 파티션 변환 완료 - {} ~ {}", first, last);
+    }
+
+    // from ~ to 월 파티션 정의 + 마지막 pmax
+    private String definitions(YearMonth from, YearMonth to) {
+        StringBuilder sql = new StringBuilder();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            sql.append("PARTITION ").append(partitionName(month))
+                    .append(" VALUES LESS THAN (TO_DAYS('").append(month.plusMonths(1).atDay(1)).append("')), ");
+        }
+        return sql.append("PARTITION ").append(MAX_PARTITION).append(" VALUES LESS THAN MAXVALUE").toString();
+    }
+
+    private String partitionName(YearMonth month) {
+        return month.format(PARTITION_NAME);
+    }
+}
@@ -0,0 +1,85 @@
+package com.age.b2b.service.stock;
+
+import com.age.b2b.domain.InventoryLogArchive;
+import com.age.b2b.dto.InventoryLogRecordDto;
+import com.age.b2b.repository.InventoryLogArchiveRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 재고 이력 기간 조회 (보관 파일 + 운영 테이블)
+ * - 보관된 월은 InventoryLogArchiver 의 gzip NDJSON 파일에서, 나머지는 inventory_logs 에서 읽어 시간 순으로 이어 붙임
+ * - 운영 테이블 조회는 (lot_id, created_at) / created_at 인덱스 범위로만 읽음 (월별 파티션이면 해당 파티션만 읽음)
+ */
+@Service
+@RequiredArgsConstructor
+public class InventoryLogQueryService {
+
+    private static final String LIVE_SQL =
+            "SELECT log_id, lot_id, change_quantity, current_quantity, reason, note, created_at FROM inventory_logs " +
+            "WHERE created_at >= :from AND created_at < :to";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final InventoryLogArchiveRepository inventoryLogArchiveRepository;
+    private final InventoryLogArchiver inventoryLogArchiver;
+
+    @Value("${inventory.log.query.max-rows:1000}")
+    private int maxRows;
+
+    /**
+     * 기간 내 재고 이력 조회 (오래된 순)
+     * @param lotId null 이면 전체 Lot
+     * @param from  시작 일시 (포함)
+     * @param to    종료 일시 (미포함)
+     * @param limit 최대 건수 (max-rows 를 넘을 수 없음)
+     */
+    public List<InventoryLogRecordDto> findLogs(Long lotId, LocalDateTime from, LocalDateTime to, int limit) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("조회 기간이 올바르지 않습니다.");
+        }
+        int rows = Math.max(1, Math.min(limit, maxRows));
+        List<InventoryLogRecordDto> result = new ArrayList<>();
+
+        // 1. 보관된 월 (파일)
+        LocalDateTime liveFrom = from;
+        List<InventoryLogArchive> archives = inventoryLogArchiveRepository.findByArchiveMonthBetweenOrderByArchiveMonthAsc(
+                YearMonth.from(from).toString(), YearMonth.from(to.minusNanos(1)).toString());
+        for (InventoryLogArchive archive : archives) {
+            if (result.size() >= rows) return result;
+
+            inventoryLogArchiver.read(archive, record ->
+                    (lotId == null || lotId.equals(record.getLotId()))
+                            && !record.getCreatedAt().isBefore(from) && record.getCreatedAt().isBefore(to), result, rows);
+
+            LocalDateTime archivedUntil = YearMonth.parse(archive.getArchiveMonth()).plusMonths(1).atDay(1).atStartOfDay();
+            if (archivedUntil.isAfter(liveFrom)) {
+                liveFrom = archivedUntil;
+            }
+        }
+        if (result.size() >= rows || !liveFrom.isBefore(to)) return result;
+
+        // 2. 운영 테이블
+        StringBuilder sql = new StringBuilder(LIVE_SQL);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", Timestamp.valueOf(liveFrom))
+                .addValue("to", Timestamp.valueOf(to))
+                .addValue("limit", rows - result.size());
+        if (lotId != null) {
+            sql.append(" AND lot_id = :lotId");
+            params.addValue("lotId", lotId);
+        }
+        sql.append(" ORDER BY created_at, log_id LIMIT :limit");
+
+        result.addAll(namedParameterJdbcTemplate.query(sql.toString(), params, InventoryLogArchiver.RECORD_MAPPER));
+        return result;
+    }
+}
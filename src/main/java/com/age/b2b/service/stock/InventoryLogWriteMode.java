@@ -0,0 +1,7 @@
+package com.age.b2b.service.stock;
+
+// 재고 이력 저장 방식 (inventory.log.write-mode)
+public enum InventoryLogWriteMode {
+    SYNC_BATCH, // 트랜잭션 내 버퍼 -> flush/커밋 직전 JDBC 배치 INSERT (기본값)
+    ASYNC       // 커밋 후 큐에 적재 -> 백그라운드 스레드가 모아서 한 번에 INSERT (그룹 커밋, 비정상 종료 시 큐의 이력 유실)
+}
@@ -0,0 +1,418 @@
+package com.age.b2b.service.stock;
+
+import com.age.b2b.domain.common.AdjustmentReason;
+import com.age.b2b.dto.InventoryLogRecordDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 재고 이력(inventory_logs) 배치 저장기
+ * - 이력은 트랜잭션 단위로 모았다가 JDBC 배치 INSERT 로 저장한다. (IDENTITY 로 인한 건별 INSERT 왕복 제거)
+ * - SYNC_BATCH: Hibernate flush 직후 / 커밋 직전에 같은 트랜잭션에서 저장 -> 재고 변경과 함께 커밋/롤백
+ * - ASYNC: 커밋이 확정된 이력만 큐에 넣고, 백그라운드 스레드가 여러 트랜잭션분을 모아 한 번에 저장
+ *          큐는 메모리에만 있으므로 커밋 후 그룹 저장 전에 프로세스가 죽으면 그 사이 이력은 유실됨
+ *          -> 이력 유실을 허용할 수 있는 경우에만 사용 (기본값은 SYNC_BATCH, 기동 시 경고 로그)
+ * - ASYNC 저장이 재시도(backoff)까지 실패한 배치는 spill-dir 에 파일로 남기고, spill-retry-ms 마다 / 기동 시 다시 저장
+ *   - 파일 이름을 이력과 같은 트랜잭션에 기록하므로, 저장 후 파일 삭제가 실패해도 다시 저장하지 않음 (중복 없음)
+ *   - 읽을 수 없거나 DB 가 정상인데도 저장이 실패하는 파일은 quarantine 폴더로 옮기고 다음 파일을 계속 저장
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryLogWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO inventory_logs (lot_id, change_quantity, current_quantity, reason, note, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String MARK_REPLAYED_SQL =
+            "INSERT IGNORE INTO inventory_log_spill_replays (file_name, entry_count, replayed_at) VALUES (?, ?, ?)";
+
+    private static final String UNMARK_REPLAYED_SQL =
+            "DELETE FROM inventory_log_spill_replays WHERE file_name = ?";
+
+    static final String QUARANTINE_DIR = "quarantine";
+
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final InventoryLogMetrics metrics;
+    private final ObjectMapper objectMapper;
+
+    @Value("${inventory.log.write-mode:SYNC_BATCH}")
+    private InventoryLogWriteMode mode;
+
+    @Value("${inventory.log.batch-size:500}")
+    private int batchSize;
+
+    @Value("${inventory.log.linger-ms:20}")
+    private long lingerMillis;
+
+    @Value("${inventory.log.retry-backoff-ms:200}")
+    private long retryBackoffMillis;
+
+    @Value("${inventory.log.spill-dir:./spill/inventory-logs}")
+    private String spillDir;
+
+    @Value("${inventory.log.spill-retry-ms:30000}")
+    private long spillRetryMillis;
+
+    private final AtomicLong spillSequence = new AtomicLong();
+
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private volatile boolean running;
+    private Thread groupCommitThread;
+
+    @PostConstruct
+    void init() {
+        metrics.setMode(mode, queue::size);
+        if (mode != InventoryLogWriteMode.ASYNC) {
+            // ASYNC 로 운영하다 남은 spill 파일은 모드를 바꿔도 저장
+            replaySpilled(new TransactionTemplate(transactionManager));
+        } else {
+            log.warn("재고 이력 ASYNC 모드: 커밋 후 그룹 저장 전에 프로세스가 비정상 종료되면 그 사이 이력은 유실됩니다.");
+            running = true;
+            groupCommitThread = new Thread(this::groupCommitLoop, "inventory-log-writer");
+            groupCommitThread.setDaemon(true);
+            groupCommitThread.start();
+        }
+        log.info("재고 이력 저장 모드: {}", mode);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (groupCommitThread == null) return;
+        running = false;
+        groupCommitThread.interrupt();
+        groupCommitThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * 재고 이력 1건 추가 (현재 트랜잭션에 묶임, 트랜잭션이 없으면 즉시 저장)
+     */
+    public void append(Long lotId, int changeQty, int currentQty, AdjustmentReason reason, String note) {
+        Entry entry = new Entry(lotId, changeQty, currentQty, reason, note, LocalDateTime.now());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (mode == InventoryLogWriteMode.ASYNC) {
+                queue.add(entry);
+            } else {
+                write(List.of(entry));
+            }
+            return;
+        }
+        pending().entries.add(entry);
+    }
+
+    /**
+     * 현재 트랜잭션에 쌓인 이력을 즉시 저장 (SYNC_BATCH 전용)
+     * - Lot 삭제처럼 이력 행이 먼저 존재해야 하는 벌크 쿼리 직전에 호출
+     */
+    public void flush() {
+        if (mode != InventoryLogWriteMode.SYNC_BATCH || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        PendingLogs logs = (PendingLogs) TransactionSynchronizationManager.getResource(this);
+        if (logs != null) {
+            logs.writeAll();
+        }
+    }
+
+    // --- 내부 헬퍼 메서드 ---
+
+    private PendingLogs pending() {
+        PendingLogs logs = (PendingLogs) TransactionSynchronizationManager.getResource(this);
+        if (logs == null) {
+            logs = new PendingLogs();
+            TransactionSynchronizationManager.bindResource(this, logs);
+            TransactionSynchronizationManager.registerSynchronization(logs);
+        }
+        return logs;
+    }
+
+    private void write(List<Entry> entries) {
+        long start = System.nanoTime();
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, batchSize, (ps, entry) -> {
+            ps.setLong(1, entry.lotId);
+            ps.setInt(2, entry.changeQuantity);
+            ps.setInt(3, entry.currentQuantity);
+            if (entry.reason == null) {
+                ps.setNull(4, Types.VARCHAR);
+            } else {
+                ps.setString(4, entry.reason.name());
+            }
+            ps.setString(5, entry.note);
+            ps.setTimestamp(6, Timestamp.valueOf(entry.createdAt));
+        });
+        metrics.flushed(entries.size(), System.nanoTime() - start);
+    }
+
+    // ASYNC: 큐에 쌓인 이력을 linger 동안 모아서 하나의 트랜잭션으로 저장
+    private void groupCommitLoop() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<Entry> batch = new ArrayList<>(batchSize);
+        long nextReplay = 0;
+
+        while (running || !queue.isEmpty()) {
+            if (running && System.currentTimeMillis() >= nextReplay) {
+                replaySpilled(tx);
+                nextReplay = System.currentTimeMillis() + spillRetryMillis;
+            }
+            try {
+                Entry first = queue.poll(lingerMillis, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                // 첫 이력 이후 linger 마감까지만 더 모아서 다른 트랜잭션의 이력과 묶음
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (running && batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) break;
+                    Entry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // 종료 요청 -> 남은 큐를 비우고 종료
+            }
+            queue.drainTo(batch, batchSize - batch.size());
+            if (batch.isEmpty()) continue;
+
+            writeWithRetry(tx, batch);
+            batch.clear();
+        }
+    }
+
+    // 재시도 사이에 backoff (retry-backoff-ms 부터 2배씩), 끝까지 실패하면 spill 파일로 보관
+    private void writeWithRetry(TransactionTemplate tx, List<Entry> batch) {
+        for (int attempt = 1; attempt <= MAX_FLUSH_ATTEMPTS; attempt++) {
+            try {
+                tx.executeWithoutResult(status -> write(batch));
+                return;
+            } catch (RuntimeException e) {
+                metrics.flushFailed();
+                log.warn("재고 이력 그룹 저장 실패 ({}/{}), 건수: {}", attempt, MAX_FLUSH_ATTEMPTS, batch.size(), e);
+            }
+            if (attempt < MAX_FLUSH_ATTEMPTS && running) {
+                try {
+                    Thread.sleep(retryBackoffMillis << (attempt - 1));
+                } catch (InterruptedException e) {
+                    // 종료 요청 -> 바로 다음 시도
+                }
+            }
+        }
+        spill(batch);
+    }
+
+    // 저장 실패 배치를 spill-dir 에 NDJSON 파일로 보관 (임시 파일에 다 쓴 뒤 이름 변경)
+    private void spill(List<Entry> batch) {
+        Path dir = Paths.get(spillDir);
+        Path file = dir.resolve("inventory-logs-" + System.currentTimeMillis() + "-" + spillSequence.incrementAndGet() + ".ndjson");
+        Path temp = dir.resolve(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(dir);
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Entry entry : batch) {
+                    writer.write(objectMapper.writeValueAsString(entry.toRecord()));
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            metrics.spilled(batch.size());
+            log.error("재고 이력 저장 실패 배치를 파일로 보관, 건수: {}, 파일: {}", batch.size(), file);
+        } catch (IOException e) {
+            // 파일도 남길 수 없으면 마지막으로 로그에 내역을 남김
+            metrics.dropped(batch.size());
+            log.error("재고 이력 보관 파일 저장 실패, 건수: {}, 내역: {}", batch.size(), batch, e);
+        }
+    }
+
+    // spill 파일을 오래된 순으로 다시 저장 (파일 1개 = 트랜잭션 1개, 저장된 파일만 삭제)
+    // DB 에 연결할 수 없으면 다음 주기에 재시도, 파일 자체가 문제면 격리하고 다음 파일 진행
+    private void replaySpilled(TransactionTemplate tx) {
+        Path dir = Paths.get(spillDir);
+        if (!Files.isDirectory(dir)) return;
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "inventory-logs-*.ndjson")) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            log.warn("재고 이력 보관 파일 목록 조회 실패: {}", dir, e);
+            return;
+        }
+        files.sort(null);
+
+        for (Path file : files) {
+            String fileName = file.getFileName().toString();
+            List<Entry> entries;
+            try {
+                entries = readSpilled(file);
+            } catch (IOException | RuntimeException e) {
+                quarantine(file, e);
+                continue;
+            }
+
+            try {
+                Boolean written = tx.execute(status -> {
+                    // 이미 저장한 파일이면 (이전 주기에 삭제만 실패) 건너뜀
+                    if (jdbcTemplate.update(MARK_REPLAYED_SQL, fileName, entries.size(),
+                            Timestamp.valueOf(LocalDateTime.now())) == 0) {
+                        return false;
+                    }
+                    write(entries);
+                    return true;
+                });
+                if (Boolean.TRUE.equals(written)) {
+                    metrics.replayed(entries.size());
+                    log.info("보관 파일의 재고 이력 저장 완료, 건수: {}, 파일: {}", entries.size(), file);
+                }
+            } catch (RuntimeException e) {
+                if (!isDatabaseAvailable()) {
+                    log.warn("보관 파일의 재고 이력 저장 실패 (다음 주기에 재시도): {}", file, e);
+                    return;
+                }
+                quarantine(file, e);
+                continue;
+            }
+
+            try {
+                Files.delete(file);
+                jdbcTemplate.update(UNMARK_REPLAYED_SQL, fileName);
+            } catch (IOException | RuntimeException e) {
+                log.warn("저장한 보관 파일 삭제 실패 (다음 주기에 삭제): {}", file, e);
+            }
+        }
+    }
+
+    private List<Entry> readSpilled(Path file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) {
+                entries.add(Entry.of(objectMapper.readValue(line, InventoryLogRecordDto.class)));
+            }
+        }
+        return entries;
+    }
+
+    // 저장할 수 없는 보관 파일을 quarantine 폴더로 이동 (이후 주기에서 제외, 원인 확인 후 수동 처리)
+    private void quarantine(Path file, Exception cause) {
+        Path target = file.resolveSibling(QUARANTINE_DIR).resolve(file.getFileName());
+        try {
+            Files.createDirectories(target.getParent());
+            Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+            metrics.quarantined();
+            log.error("저장할 수 없는 재고 이력 보관 파일을 격리: {}", target, cause);
+        } catch (IOException e) {
+            log.error("재고 이력 보관 파일 격리 실패: {}", file, e);
+        }
+    }
+
+    private boolean isDatabaseAvailable() {
+        try {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // 트랜잭션 단위로 모아둔 이력
+    private class PendingLogs implements TransactionSynchronization {
+        private final List<Entry> entries = new ArrayList<>();
+
+        void writeAll() {
+            if (entries.isEmpty()) return;
+            write(entries);
+            entries.clear();
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (mode != InventoryLogWriteMode.SYNC_BATCH) return;
+            // 커밋 시점에 INSERT 될 Lot이 먼저 반영되도록 flush (flush 직후 훅에서 이력도 저장됨)
+            entityManager.flush();
+            writeAll();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(InventoryLogWriter.this);
+            if (mode == InventoryLogWriteMode.ASYNC && status == STATUS_COMMITTED) {
+                queue.addAll(entries);
+            }
+            entries.clear();
+        }
+    }
+
+    private static class Entry {
+        private final Long lotId;
+        private final int changeQuantity;
+        private final int currentQuantity;
+        private final AdjustmentReason reason;
+        private final String note;
+        private final LocalDateTime createdAt;
+
+        Entry(Long lotId, int changeQuantity, int currentQuantity, AdjustmentReason reason, String note,
+              LocalDateTime createdAt) {
+            this.lotId = lotId;
+            this.changeQuantity = changeQuantity;
+            this.currentQuantity = currentQuantity;
+            this.reason = reason;
+            this.note = note;
+            this.createdAt = createdAt;
+        }
+
+        static Entry of(InventoryLogRecordDto record) {
+            return new Entry(record.getLotId(), record.getChangeQuantity(), record.getCurrentQuantity(),
+                    record.getReason() == null ? null : AdjustmentReason.valueOf(record.getReason()),
+                    record.getNote(), record.getCreatedAt());
+        }
+
+        InventoryLogRecordDto toRecord() {
+            return InventoryLogRecordDto.builder()
+                    .lotId(lotId)
+                    .changeQuantity(changeQuantity)
+                    .currentQuantity(currentQuantity)
+                    .reason(reason == null ? null : reason.name())
+                    .note(note)
+                    .createdAt(createdAt)
+                    .build();
+        }
+
+        @Override
+        public String toString() {
+            return "lot=" + lotId + ", change=" + changeQuantity + ", reason=" + reason;
+        }
+    }
+}
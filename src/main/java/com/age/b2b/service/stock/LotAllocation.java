@@ -0,0 +1,14 @@
+package com.age.b2b.service.stock;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// FIFO 차감 결과: 어떤 Lot에서 몇 개를 가져왔는지
+@Getter
+@RequiredArgsConstructor
+public class LotAllocation {
+    private final Long productId;
+    private final Long lotId;
+    private final int quantity;          // 이번에 차감한 수량
+    private final int remainingQuantity; // 차감 후 Lot 잔여 수량
+}
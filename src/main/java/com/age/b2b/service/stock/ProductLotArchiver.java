@@ -0,0 +1,201 @@
+package com.age.b2b.service.stock;
+
+import com.age.b2b.domain.SearchToken;
+import com.age.b2b.service.search.SearchIndexListener;
+import com.age.b2b.service.search.SearchIndexer;
+import com.age.b2b.service.search.SearchTokenizer;
+import com.age.b2b.support.MetricsSource;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 소진된 Lot 보관 (archive 모드)
+ * - 수량이 0 이 된 지(depleted_at) idle-days 가 지난 Lot 을 product_lots_archive 로 옮겨, FIFO 차감 / 재고 현황이 읽는 테이블을 작게 유지
+ *   (updated_at 은 야간 재고 상태 갱신 등 수량과 무관한 변경에도 바뀌므로 기준으로 쓰지 않음)
+ * - batch-size 건씩 잠그고(SKIP LOCKED) 복사 -> 삭제를 한 트랜잭션으로 처리, 검색 색인(LOT)도 함께 삭제
+ * - 반품/출고 삭제로 보관된 Lot 에 재고를 되돌려야 하면 unarchive 로 원래 Lot ID 그대로 다시 옮김
+ * - inventory_logs.lot_id 에 FK 가 남아 있는 DB 에서는 삭제가 실패하므로 기동 시 확인 후 비활성화
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductLotArchiver implements MetricsSource {
+
+    private static final String COLUMNS =
+            "lot_id, product_id, lot_number, quantity, expiry_date, inbound_date, stock_quality, warehouse_location, " +
+            "version, created_at, updated_at, depleted_at";
+
+    private static final String CLAIM_SQL =
+            "SELECT lot_id, product_id FROM product_lots WHERE depleted_at < ? AND quantity = 0 " +
+            "ORDER BY lot_id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String ARCHIVE_SQL =
+            "INSERT INTO product_lots_archive (" + COLUMNS + ", archived_at) " +
+            "SELECT " + COLUMNS + ", :now FROM product_lots WHERE lot_id IN (:lotIds)";
+
+    private static final String DELETE_SQL = "DELETE FROM product_lots WHERE lot_id IN (:lotIds)";
+
+    private static final String DELETE_TOKENS_SQL =
+            "DELETE FROM search_tokens WHERE doc_type = '" + SearchToken.LOT + "' AND doc_id IN (:lotIds)";
+
+    private static final String RESTORE_SQL =
+            "INSERT INTO product_lots (" + COLUMNS + ") SELECT " + COLUMNS + " FROM product_lots_archive WHERE lot_id = ?";
+
+    private static final String DELETE_ARCHIVED_SQL = "DELETE FROM product_lots_archive WHERE lot_id = ?";
+
+    private static final String LATEST_ARCHIVED_SQL =
+            "SELECT lot_id FROM product_lots_archive WHERE product_id = ? ORDER BY expiry_date DESC, lot_id DESC LIMIT 1";
+
+    // depleted_at 추가 전에 소진된 Lot 은 마지막 변경 시각을 소진 시각으로 채움
+    private static final String BACKFILL_DEPLETED_SQL =
+            "UPDATE product_lots SET depleted_at = updated_at WHERE quantity = 0 AND depleted_at IS NULL";
+
+    private static final String LOG_FK_SQL =
+            "SELECT COUNT(*) FROM information_schema.REFERENTIAL_CONSTRAINTS " +
+            "WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'inventory_logs' AND REFERENCED_TABLE_NAME = 'product_lots'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final StockLedger stockLedger;
+    private final SearchIndexer searchIndexer;
+
+    @Value("${inventory.lot-archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.lot-archive.idle-days:30}")
+    private int idleDays;
+
+    @Value("${inventory.lot-archive.batch-size:500}")
+    private int batchSize;
+
+    private final LongAdder archived = new LongAdder();
+    private final LongAdder restored = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        if (!enabled) return;
+
+        Long foreignKeys = jdbcTemplate.queryForObject(LOG_FK_SQL, Long.class);
+        if (foreignKeys != null && foreignKeys > 0) {
+            enabled = false;
+            log.warn("inventory_logs.lot_id 외래키가 남아 있어 Lot 보관을 사용하지 않습니다. (외래키 삭제 후 다시 기동해주세요)");
+            return;
+        }
+
+        int backfilled = jdbcTemplate.update(BACKFILL_DEPLETED_SQL);
+        if (backfilled > 0) {
+            log.info("소진 시각이 없는 Lot {}건의 소진 시각을 마지막 변경 시각으로 채움", backfilled);
+        }
+    }
+
+    /**
+     * 야간 정기 보관 (idle-days 전에 소진된 Lot)
+     */
+    @Scheduled(cron = "${inventory.lot-archive.cron:0 20 3 * * *}")
+    public void archiveDaily() {
+        if (!enabled) return;
+        archive(LocalDateTime.now().minusDays(idleDays));
+    }
+
+    /**
+     * depletedBefore 이전에 소진된 Lot 보관
+     * @return 보관한 Lot 수
+     */
+    public int archive(LocalDateTime depletedBefore) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int total = 0;
+        int moved;
+        do {
+            Set<Long> productIds = new HashSet<>();
+            Integer count = tx.execute(status -> archiveBatch(depletedBefore, productIds));
+            moved = count == null ? 0 : count;
+            total += moved;
+            productIds.forEach(stockLedger::invalidate);
+        } while (moved == batchSize);
+
+        if (total > 0) {
+            archived.add(total);
+            log.info("소진된 Lot {}건 보관", total);
+        }
+        return total;
+    }
+
+    /**
+     * 보관된 Lot 을 product_lots 로 되돌림 (호출한 트랜잭션 안에서 처리)
+     * @return 보관 테이블에 있어서 되돌렸으면 true
+     */
+    public boolean unarchive(Long lotId) {
+        if (jdbcTemplate.update(RESTORE_SQL, lotId) == 0) {
+            return false;
+        }
+        jdbcTemplate.update(DELETE_ARCHIVED_SQL, lotId);
+
+        String lotNumber = jdbcTemplate.queryForObject("SELECT lot_number FROM product_lots WHERE lot_id = ?", String.class, lotId);
+        searchIndexer.index(SearchToken.LOT, lotId, SearchTokenizer.tokens(lotNumber, SearchIndexListener.CODE_WEIGHT));
+        restored.increment();
+        return true;
+    }
+
+    /**
+     * 상품의 보관된 Lot 중 유통기한이 가장 늦은 Lot 을 되돌림
+     * @return 되돌린 Lot ID (보관된 Lot 이 없으면 null)
+     */
+    public Long unarchiveLatest(Long productId) {
+        List<Long> lotIds = jdbcTemplate.queryForList(LATEST_ARCHIVED_SQL, Long.class, productId);
+        if (lotIds.isEmpty() || !unarchive(lotIds.get(0))) {
+            return null;
+        }
+        return lotIds.get(0);
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "lotArchive";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("enabled", enabled);
+        map.put("idleDays", idleDays);
+        map.put("archived", archived.sum());
+        map.put("restored", restored.sum());
+        return map;
+    }
+
+    // --- 내부 헬퍼 메서드 ---
+
+    private int archiveBatch(LocalDateTime depletedBefore, Set<Long> productIds) {
+        List<Long> lotIds = new ArrayList<>();
+        jdbcTemplate.query(CLAIM_SQL, rs -> {
+            lotIds.add(rs.getLong("lot_id"));
+            productIds.add(rs.getLong("product_id"));
+        }, Timestamp.valueOf(depletedBefore), batchSize);
+        if (lotIds.isEmpty()) return 0;
+
+        Map<String, Object> params = Map.of("lotIds", lotIds, "now", Timestamp.valueOf(LocalDateTime.now()));
+        namedParameterJdbcTemplate.update(ARCHIVE_SQL, params);
+        namedParameterJdbcTemplate.update(DELETE_SQL, params);
+        namedParameterJdbcTemplate.update(DELETE_TOKENS_SQL, params);
+        return lotIds.size();
+    }
+}
@@ -0,0 +1,9 @@
+package com.age.b2b.service.stock;
+
+// 재고 차감 동시성 제어 방식 (inventory.concurrency.mode)
+public enum StockConcurrencyMode {
+    LEDGER,      // 메모리 원장 CAS 예약 + 커밋 직전 일괄 반영 (기본값)
+    OPTIMISTIC,  // version 컬럼 기반 낙관적 갱신 + 제한 횟수 재시도
+    SKIP_LOCKED, // SELECT ... FOR UPDATE SKIP LOCKED 로 잠기지 않은 Lot 선점
+    STRIPED      // 상품 단위 스트라이프 락으로 직렬화 (단일 노드)
+}
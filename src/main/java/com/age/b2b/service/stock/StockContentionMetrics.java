@@ -0,0 +1,89 @@
+package com.age.b2b.service.stock;
+
+import com.age.b2b.support.MetricsSource;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// 재고 차감 경합 지표 (모드별 처리량 비교용)
+@Component
+public class StockContentionMetrics implements MetricsSource {
+
+    private final LongAdder deductions = new LongAdder();
+    private final LongAdder deductNanos = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder retryExhausted = new LongAdder();
+    private final LongAdder lockAcquisitions = new LongAdder();
+    private final LongAdder lockWaitNanos = new LongAdder();
+    private final LongAdder lockTimeouts = new LongAdder();
+    private final LongAdder skipLockedFallbacks = new LongAdder();
+
+    private volatile StockConcurrencyMode mode;
+
+    void setMode(StockConcurrencyMode mode) {
+        this.mode = mode;
+    }
+
+    void deducted(long elapsedNanos) {
+        deductions.increment();
+        deductNanos.add(elapsedNanos);
+    }
+
+    void conflict() {
+        conflicts.increment();
+    }
+
+    void retry() {
+        retries.increment();
+    }
+
+    void retryExhausted() {
+        retryExhausted.increment();
+    }
+
+    void lockAcquired(long waitNanos) {
+        lockAcquisitions.increment();
+        lockWaitNanos.add(waitNanos);
+    }
+
+    void lockTimeout() {
+        lockTimeouts.increment();
+    }
+
+    void skipLockedFallback() {
+        skipLockedFallbacks.increment();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "stock";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        long count = deductions.sum();
+        long locks = lockAcquisitions.sum();
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("mode", mode);
+        map.put("deductions", count);
+        map.put("avgDeductMillis", count == 0 ? 0.0 : toMillis(deductNanos.sum()) / count);
+        map.put("conflicts", conflicts.sum());
+        map.put("retries", retries.sum());
+        map.put("retryExhausted", retryExhausted.sum());
+        map.put("lockAcquisitions", locks);
+        map.put("lockWaitMillis", toMillis(lockWaitNanos.sum()));
+        map.put("avgLockWaitMillis", locks == 0 ? 0.0 : toMillis(lockWaitNanos.sum()) / locks);
+        map.put("lockTimeouts", lockTimeouts.sum());
+        map.put("skipLockedFallbacks", skipLockedFallbacks.sum());
+        return map;
+    }
+
+    private double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
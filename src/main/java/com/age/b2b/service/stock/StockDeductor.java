@@ -0,0 +1,332 @@
+package com.age.b2b.service.stock;
+
+import com.age.b2b.support.TransactionHooks;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * FIFO Lot 재고 차감/복구 실행기
+ * - inventory.concurrency.mode 설정에 따라 차감 방식을 선택한다. (StockConcurrencyMode 참고)
+ * - OPTIMISTIC / STRIPED 모드는 재시도 시 최신 값을 읽어야 하므로 READ COMMITTED 트랜잭션에서 호출한다.
+ * - 모든 갱신은 version 을 올려서, JPA 로 수정하는 다른 경로(재고 조정 등)와 충돌을 감지한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockDeductor {
+
+    // 수량 변경과 함께 소진 시각 갱신 (MySQL 은 SET 을 왼쪽부터 적용하므로 quantity / updated_at 은 바뀐 값)
+    static final String DEPLETED_AT = "depleted_at = IF(quantity = 0, COALESCE(depleted_at, updated_at), NULL)";
+
+    // 출고 가능 Lot (폐기대상 제외, 재고 예약의 현재고도 같은 조건으로 집계)
+    static final String SHIPPABLE = "(stock_quality IS NULL OR stock_quality <> 'DISPOSAL')";
+
+    private static final String SELECT_LOTS =
+            "SELECT lot_id, quantity, version FROM product_lots " +
+            "WHERE product_id = ? AND quantity > 0 AND " + SHIPPABLE + " ORDER BY expiry_date ASC, lot_id ASC";
+
+    private static final String VERSIONED_DEDUCT_SQL =
+            "UPDATE product_lots SET quantity = quantity - ?, version = version + 1, updated_at = ?, " + DEPLETED_AT +
+            " WHERE lot_id = ? AND version = ?";
+
+    private static final String GUARDED_DEDUCT_SQL =
+            "UPDATE product_lots SET quantity = quantity - ?, version = version + 1, updated_at = ?, " + DEPLETED_AT +
+            " WHERE lot_id = ? AND quantity >= ?";
+
+    private static final String INCREASE_SQL =
+            "UPDATE product_lots SET quantity = quantity + ?, version = version + 1, updated_at = ?, " + DEPLETED_AT +
+            " WHERE lot_id = ?";
+
+    private static final String LOCK_LOTS_OF_PRODUCTS =
+            "SELECT lot_id, product_id, quantity FROM product_lots " +
+            "WHERE product_id IN (:productIds) AND quantity > 0 AND " + SHIPPABLE + " " +
+            "ORDER BY product_id ASC, expiry_date ASC, lot_id ASC FOR UPDATE";
+
+    private static final RowMapper<LotRow> LOT_ROW_MAPPER = (rs, rowNum) ->
+            new LotRow(rs.getLong("lot_id"), rs.getInt("quantity"), rs.getLong("version"));
+
+    private final StockLedger stockLedger;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final StockContentionMetrics metrics;
+    private final ProductLotArchiver productLotArchiver;
+
+    @Value("${inventory.concurrency.mode:LEDGER}")
+    private StockConcurrencyMode mode;
+
+    @Value("${inventory.concurrency.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${inventory.concurrency.stripes:64}")
+    private int stripeCount;
+
+    @Value("${inventory.concurrency.lock-timeout-ms:3000}")
+    private long lockTimeoutMillis;
+
+    private ReentrantLock[] stripes;
+
+    @PostConstruct
+    void init() {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        metrics.setMode(mode);
+        log.info("재고 차감 동시성 모드: {}", mode);
+    }
+
+    /**
+     * 선입선출(FIFO)로 재고 차감 후 Lot별 차감 내역 반환 (부족 시 IllegalStateException)
+     */
+    public List<LotAllocation> deduct(Long productId, int quantity) {
+        long start = System.nanoTime();
+
+        List<LotAllocation> allocations = switch (mode) {
+            case LEDGER -> stockLedger.reserve(productId, quantity);
+            case OPTIMISTIC -> deductOptimistic(productId, quantity);
+            case SKIP_LOCKED -> deductSkipLocked(productId, quantity);
+            case STRIPED -> deductStriped(productId, quantity);
+        };
+
+        // 원장을 거치지 않은 모드는 커밋 후 원장을 다시 적재
+        if (mode != StockConcurrencyMode.LEDGER) {
+            stockLedger.invalidateAfterCommit(productId);
+        }
+
+        metrics.deducted(System.nanoTime() - start);
+        return allocations;
+    }
+
+    /**
+     * 특정 Lot 수량 증가 (반품/취소 복구) 후 증가된 현재 수량 반환
+     * - read-modify-write 대신 원자적 증가로 처리해서 동시 차감과 충돌하지 않음
+     * - 갱신된 행이 없으면 (호출 측 확인 뒤 보관 작업이 Lot 을 옮긴 경우) 보관 테이블에서 되돌린 뒤 다시 증가
+     */
+    public int increase(Long productId, Long lotId, int quantity) {
+        int updated = jdbcTemplate.update(INCREASE_SQL, quantity, now(), lotId);
+        if (updated == 0 && productLotArchiver.unarchive(lotId)) {
+            updated = jdbcTemplate.update(INCREASE_SQL, quantity, now(), lotId);
+        }
+        if (updated == 0) {
+            throw new IllegalStateException("복구할 재고 Lot이 존재하지 않습니다. (Lot ID: " + lotId + ")");
+        }
+        stockLedger.invalidateAfterCommit(productId);
+        // 방금 갱신한 행이므로 현재 트랜잭션에서 최신 값이 보임
+        Integer current = jdbcTemplate.queryForObject(
+                "SELECT quantity FROM product_lots WHERE lot_id = ?", Integer.class, lotId);
+        return current == null ? quantity : current;
+    }
+
+    /**
+     * [일괄 출고] 대상 상품들의 Lot을 한 번의 쿼리로 잠그고 적재 (트랜잭션 종료까지 잠금 유지)
+     * - 동시성 모드와 관계없이 행 잠금을 사용 (일괄 처리 중 다른 출고와 섞이지 않도록)
+     */
+    public BulkStockDeduction beginBulk(Collection<Long> productIds) {
+        Map<Long, List<BulkStockDeduction.LotCounter>> lotsByProduct = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return new BulkStockDeduction(lotsByProduct);
+        }
+
+        long start = System.nanoTime();
+        namedParameterJdbcTemplate.query(LOCK_LOTS_OF_PRODUCTS, Map.of("productIds", productIds), rs -> {
+            lotsByProduct.computeIfAbsent(rs.getLong("product_id"), id -> new ArrayList<>())
+                    .add(new BulkStockDeduction.LotCounter(rs.getLong("lot_id"), rs.getInt("quantity")));
+        });
+        metrics.lockAcquired(System.nanoTime() - start);
+        return new BulkStockDeduction(lotsByProduct);
+    }
+
+    /**
+     * [일괄 출고] 확정된 할당을 Lot별 1건씩 배치 UPDATE 로 반영
+     */
+    public void applyBulk(BulkStockDeduction deduction) {
+        Map<Long, Integer> byLot = deduction.deductionsByLot();
+        if (byLot.isEmpty()) return;
+
+        long start = System.nanoTime();
+        Timestamp now = now();
+        int[][] results = jdbcTemplate.batchUpdate(GUARDED_DEDUCT_SQL, byLot.entrySet(), byLot.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, entry.getKey());
+            ps.setInt(4, entry.getValue());
+        });
+
+        for (int[] batch : results) {
+            for (int updated : batch) {
+                if (updated == 0) {
+                    metrics.conflict();
+                    throw new IllegalStateException("재고가 부족합니다. (재고 정보가 변경되었습니다. 다시 시도해주세요.)");
+                }
+            }
+        }
+
+        deduction.getAccepted().stream()
+                .map(LotAllocation::getProductId)
+                .distinct()
+                .forEach(stockLedger::invalidateAfterCommit);
+        metrics.deducted(System.nanoTime() - start);
+    }
+
+    // --- 모드별 차감 ---
+
+    // version 조건부 갱신, 충돌 시 이번 시도에서 반영한 분을 되돌리고 재시도
+    private List<LotAllocation> deductOptimistic(Long productId, int quantity) {
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            if (attempt > 0) {
+                metrics.retry();
+            }
+
+            List<LotRow> lots = jdbcTemplate.query(SELECT_LOTS, LOT_ROW_MAPPER, productId);
+            List<LotAllocation> plan = plan(productId, lots, quantity);
+
+            List<LotAllocation> applied = new ArrayList<>();
+            boolean conflict = false;
+            for (LotAllocation allocation : plan) {
+                long version = versionOf(lots, allocation.getLotId());
+                int updated = jdbcTemplate.update(VERSIONED_DEDUCT_SQL,
+                        allocation.getQuantity(), now(), allocation.getLotId(), version);
+                if (updated == 0) {
+                    conflict = true;
+                    break;
+                }
+                applied.add(allocation);
+            }
+
+            if (!conflict) {
+                return plan;
+            }
+
+            metrics.conflict();
+            for (LotAllocation allocation : applied) {
+                jdbcTemplate.update(INCREASE_SQL, allocation.getQuantity(), now(), allocation.getLotId());
+            }
+        }
+
+        metrics.retryExhausted();
+        throw new IllegalStateException("재고 변경이 많아 차감에 실패했습니다. 잠시 후 다시 시도해주세요.");
+    }
+
+    // 잠기지 않은 Lot부터 선점, 부족하면 전체 Lot을 대기하며 잠금
+    private List<LotAllocation> deductSkipLocked(Long productId, int quantity) {
+        List<LotRow> lots = jdbcTemplate.query(SELECT_LOTS + " FOR UPDATE SKIP LOCKED", LOT_ROW_MAPPER, productId);
+
+        if (sum(lots) < quantity) {
+            metrics.skipLockedFallback();
+            long start = System.nanoTime();
+            lots = jdbcTemplate.query(SELECT_LOTS + " FOR UPDATE", LOT_ROW_MAPPER, productId);
+            metrics.lockAcquired(System.nanoTime() - start);
+        }
+
+        List<LotAllocation> plan = plan(productId, lots, quantity);
+        applyGuarded(plan);
+        return plan;
+    }
+
+    // 상품 단위 스트라이프 락을 트랜잭션 종료까지 보유
+    private List<LotAllocation> deductStriped(Long productId, int quantity) {
+        ReentrantLock lock = stripes[Math.floorMod(productId.hashCode(), stripes.length)];
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("재고 차감이 중단되었습니다.");
+        }
+        if (!acquired) {
+            metrics.lockTimeout();
+            throw new IllegalStateException("재고 처리 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+        metrics.lockAcquired(System.nanoTime() - start);
+        TransactionHooks.afterCompletion(lock::unlock);
+
+        List<LotRow> lots = jdbcTemplate.query(SELECT_LOTS, LOT_ROW_MAPPER, productId);
+        List<LotAllocation> plan = plan(productId, lots, quantity);
+        applyGuarded(plan);
+        return plan;
+    }
+
+    // --- 내부 헬퍼 메서드 ---
+
+    // 유통기한 임박순 Lot 목록에서 차감 계획 수립
+    private List<LotAllocation> plan(Long productId, List<LotRow> lots, int quantity) {
+        if (lots.isEmpty()) {
+            throw new IllegalStateException("재고가 존재하지 않는 상품입니다. (Product ID: " + productId + ")");
+        }
+
+        List<LotAllocation> plan = new ArrayList<>();
+        int remaining = quantity;
+        for (LotRow lot : lots) {
+            if (remaining <= 0) break;
+
+            int amount = Math.min(lot.quantity, remaining);
+            plan.add(new LotAllocation(productId, lot.lotId, amount, lot.quantity - amount));
+            remaining -= amount;
+        }
+
+        if (remaining > 0) {
+            throw new IllegalStateException("재고가 부족합니다. (부족 수량: " + remaining + ")");
+        }
+        return plan;
+    }
+
+    private void applyGuarded(List<LotAllocation> plan) {
+        for (LotAllocation allocation : plan) {
+            int updated = jdbcTemplate.update(GUARDED_DEDUCT_SQL,
+                    allocation.getQuantity(), now(), allocation.getLotId(), allocation.getQuantity());
+            if (updated == 0) {
+                metrics.conflict();
+                throw new IllegalStateException("재고가 부족합니다. (재고 정보가 변경되었습니다. 다시 시도해주세요.)");
+            }
+        }
+    }
+
+    private long versionOf(List<LotRow> lots, Long lotId) {
+        for (LotRow lot : lots) {
+            if (lot.lotId.equals(lotId)) return lot.version;
+        }
+        throw new IllegalStateException("Lot 정보를 찾을 수 없습니다. (Lot ID: " + lotId + ")");
+    }
+
+    private int sum(List<LotRow> lots) {
+        int total = 0;
+        for (LotRow lot : lots) {
+            total += lot.quantity;
+        }
+        return total;
+    }
+
+    private Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+
+    private static class LotRow {
+        private final Long lotId;
+        private final int quantity;
+        private final long version;
+
+        LotRow(Long lotId, int quantity, long version) {
+            this.lotId = lotId;
+            this.quantity = quantity;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.age.b2b.service.stock;
+
+import com.age.b2b.domain.ProductLot;
+import com.age.b2b.repository.ProductLotRepository;
+import com.age.b2b.support.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 상품별 FIFO Lot 재고 원장 (메모리)
+ * - product_lots 를 상품 단위로 한 번 적재해 두고, 재고 확인/예약을 DB 왕복 없이 처리한다.
+ * - Lot 수량은 AtomicInteger CAS 로 차감하므로 같은 상품의 동시 출고가 락 없이 진행된다.
+ * - DB 반영은 트랜잭션 커밋 직전에 한 번에 수행하고, 롤백되면 예약분을 원장에 되돌린다.
+ * - 적재는 맵 밖에서 DB 를 읽은 뒤 putIfAbsent (느린 조회가 다른 상품의 원장 접근을 막지 않음)
+ * - 아직 커밋되지 않은 예약분은 Lot 별로 따로 집계해, 무효화 후 다시 적재할 때 DB 수량에서 빼고 적재
+ *   (커밋 후 정리 전에 적재된 원장은 예약분을 두 번 뺐으므로 정리 시점에 한 번 더 무효화)
+ *   예약 직후 ~ 집계 반영 사이에 적재되어 원장이 많게 잡히더라도 차감 UPDATE 의 수량 조건이 초과 차감을 막음
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockLedger {
+
+    private static final String DEDUCT_SQL =
+            "UPDATE product_lots SET quantity = quantity - ?, version = version + 1, updated_at = ?, " +
+            StockDeductor.DEPLETED_AT + " WHERE lot_id = ? AND quantity >= ? AND " + StockDeductor.SHIPPABLE;
+
+    private final ProductLotRepository productLotRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, ProductStock> stocks = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> inFlightByLot = new ConcurrentHashMap<>();   // Lot ID -> 커밋 전 예약 수량
+
+    /**
+     * 상품의 현재 가용 수량 (원장 기준, DB 조회 없음)
+     */
+    public int available(Long productId) {
+        return stockOf(productId).available();
+    }
+
+    /**
+     * 선입선출(FIFO)로 수량을 예약하고 현재 트랜잭션에 묶는다.
+     * - 커밋 직전: 차감분을 product_lots 에 일괄 반영
+     * - 롤백 시: 예약분을 원장에 되돌림
+     */
+    public List<LotAllocation> reserve(Long productId, int quantity) {
+        ProductStock stock = stockOf(productId);
+        if (stock.isEmpty()) {
+            throw new IllegalStateException("재고가 존재하지 않는 상품입니다. (Product ID: " + productId + ")");
+        }
+
+        List<LotAllocation> allocations = stock.take(productId, quantity);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            allocations.forEach(allocation -> inFlightByLot.merge(allocation.getLotId(), allocation.getQuantity(), Integer::sum));
+            pendingWrites().add(stock, allocations);
+        } else {
+            // 트랜잭션 밖에서 호출된 경우 즉시 반영
+            writeThrough(allocations);
+        }
+        return allocations;
+    }
+
+    /**
+     * 원장에서 상품을 제거 (다음 조회 시 DB에서 다시 적재)
+     */
+    public void invalidate(Long productId) {
+        stocks.remove(productId);
+    }
+
+    /**
+     * 입고/조정/복구 등 DB에서 직접 수량이 바뀐 경우, 커밋 후 원장을 무효화
+     */
+    public void invalidateAfterCommit(Long productId) {
+        TransactionHooks.afterCommit(() -> invalidate(productId));
+    }
+
+    // --- 내부 헬퍼 메서드 ---
+
+    // 동시에 적재하면 먼저 넣은 쪽 사용 (DB 조회는 맵의 잠금 밖에서)
+    private ProductStock stockOf(Long productId) {
+        ProductStock stock = stocks.get(productId);
+        if (stock != null) return stock;
+
+        ProductStock loaded = load(productId);
+        ProductStock existing = stocks.putIfAbsent(productId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private ProductStock load(Long productId) {
+        // 소진된 Lot 은 적재하지 않음 (복구로 다시 채워지면 원장이 무효화되어 다시 적재됨)
+        List<ProductLot> lots = productLotRepository.findActiveLots(productId);
+        List<LotCounter> counters = new ArrayList<>(lots.size());
+        for (ProductLot lot : lots) {
+            // 진행 중인 트랜잭션이 이미 예약한 수량은 제외
+            int reserved = inFlightByLot.getOrDefault(lot.getId(), 0);
+            counters.add(new LotCounter(lot.getId(), Math.max(lot.getQuantity() - reserved, 0)));
+        }
+        return new ProductStock(counters);
+    }
+
+    private void releaseInFlight(List<LotAllocation> allocations) {
+        for (LotAllocation allocation : allocations) {
+            inFlightByLot.computeIfPresent(allocation.getLotId(), (lotId, reserved) -> {
+                int remaining = reserved - allocation.getQuantity();
+                return remaining > 0 ? remaining : null;
+            });
+        }
+    }
+
+    private PendingWrites pendingWrites() {
+        PendingWrites writes = (PendingWrites) TransactionSynchronizationManager.getResource(this);
+        if (writes == null) {
+            writes = new PendingWrites();
+            TransactionSynchronizationManager.bindResource(this, writes);
+            TransactionSynchronizationManager.registerSynchronization(writes);
+        }
+        return writes;
+    }
+
+    private void writeThrough(List<LotAllocation> allocations) {
+        Map<Long, Integer> byLot = new LinkedHashMap<>();
+        for (LotAllocation allocation : allocations) {
+            byLot.merge(allocation.getLotId(), allocation.getQuantity(), Integer::sum);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] results = jdbcTemplate.batchUpdate(DEDUCT_SQL, byLot.entrySet(), byLot.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, entry.getKey());
+            ps.setInt(4, entry.getValue());
+        });
+
+        for (int[] batch : results) {
+            for (int updated : batch) {
+                if (updated == 0) {
+                    // 원장과 DB가 어긋난 경우 (다른 노드/직접 수정 등) -> 롤백 유도
+                    throw new IllegalStateException("재고가 부족합니다. (재고 정보가 변경되었습니다. 다시 시도해주세요.)");
+                }
+            }
+        }
+    }
+
+    // 트랜잭션 단위로 모아둔 차감분 (커밋 직전 DB 반영, 롤백 시 원장 복구)
+    private class PendingWrites implements TransactionSynchronization {
+        private final List<LotAllocation> allocations = new ArrayList<>();
+        private final Map<ProductStock, List<LotAllocation>> byStock = new LinkedHashMap<>();
+
+        void add(ProductStock stock, List<LotAllocation> taken) {
+            allocations.addAll(taken);
+            byStock.computeIfAbsent(stock, s -> new ArrayList<>()).addAll(taken);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            writeThrough(allocations);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StockLedger.this);
+            releaseInFlight(allocations);
+            if (status == STATUS_COMMITTED) {
+                // 예약 후 다시 적재된 원장은 커밋된 차감분을 예약분으로 한 번 더 뺐을 수 있으므로 다시 적재
+                byStock.forEach((stock, taken) -> {
+                    if (taken.isEmpty()) return;
+                    Long productId = taken.get(0).getProductId();
+                    if (stocks.get(productId) != stock) invalidate(productId);
+                });
+                return;
+            }
+            byStock.forEach(ProductStock::giveBack);
+            // DB 반영 실패로 롤백된 경우를 대비해 해당 상품은 다시 적재
+            allocations.forEach(allocation -> invalidate(allocation.getProductId()));
+        }
+    }
+
+    // 상품 1개의 Lot 목록 (유통기한 임박순)
+    private static class ProductStock {
+        private final List<LotCounter> lots;
+
+        ProductStock(List<LotCounter> lots) {
+            this.lots = lots;
+        }
+
+        boolean isEmpty() {
+            return lots.isEmpty();
+        }
+
+        int available() {
+            int sum = 0;
+            for (LotCounter lot : lots) {
+                sum += Math.max(lot.quantity.get(), 0);
+            }
+            return sum;
+        }
+
+        List<LotAllocation> take(Long productId, int quantity) {
+            List<LotAllocation> taken = new ArrayList<>();
+            int remaining = quantity;
+
+            for (LotCounter lot : lots) {
+                if (remaining <= 0) break;
+
+                while (true) {
+                    int current = lot.quantity.get();
+                    if (current <= 0) break; // 이미 소진된 Lot은 패스
+
+                    int amount = Math.min(current, remaining);
+                    if (lot.quantity.compareAndSet(current, current - amount)) {
+                        taken.add(new LotAllocation(productId, lot.lotId, amount, current - amount));
+                        remaining -= amount;
+                        break;
+                    }
+                }
+            }
+
+            // 모든 Lot를 돌았는데도 뺄 수량이 남았다면 -> 예약 취소 후 재고 부족 예외
+            if (remaining > 0) {
+                giveBack(taken);
+                throw new IllegalStateException("재고가 부족합니다. (부족 수량: " + remaining + ")");
+            }
+            return taken;
+        }
+
+        void giveBack(List<LotAllocation> allocations) {
+            for (LotAllocation allocation : allocations) {
+                for (LotCounter lot : lots) {
+                    if (lot.lotId.equals(allocation.getLotId())) {
+                        lot.quantity.addAndGet(allocation.getQuantity());
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private static class LotCounter {
+        private final Long lotId;
+        private final AtomicInteger quantity;
+
+        LotCounter(Long lotId, int quantity) {
+            this.lotId = lotId;
+            this.quantity = new AtomicInteger(quantity);
+        }
+    }
+}
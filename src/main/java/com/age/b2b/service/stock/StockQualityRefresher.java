@@ -0,0 +1,145 @@
+package com.age.b2b.service.stock;
+
+import com.age.b2b.domain.common.StockQuality;
+import com.age.b2b.dto.StockQualityRefreshResultDto;
+import com.age.b2b.support.MetricsSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 유통기한 경과에 따른 Lot 재고 상태(StockQuality) 야간 갱신
+ * - 입고/유통기한 수정 때만 계산되던 상태를, 날짜가 바뀌며 경계(365 / 90 / 0일)를 넘은 Lot 만 골라 갱신
+ * - 상태별로 "그날 경계를 넘는 유통기한 구간"이 정해져 있으므로 (ex. 관리재고 전환 = 유통기한이 오늘+364일)
+ *   expiry_date 인덱스 범위 조회 + 상태별 UPDATE 1회로 처리 (전체 Lot 을 읽지 않음)
+ * - 이전 단계 상태인 Lot 만 바꾸므로 여러 번 실행해도 결과가 같고, catch-up-days 만큼 지난 날짜의 누락분도 함께 반영
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockQualityRefresher implements MetricsSource {
+
+    private static final String COUNT_SQL =
+            "SELECT stock_quality, COUNT(*) AS cnt FROM product_lots " +
+            "WHERE expiry_date BETWEEN :from AND :to AND (stock_quality IN (:sources) OR stock_quality IS NULL) " +
+            "GROUP BY stock_quality";
+
+    private static final String UPDATE_SQL =
+            "UPDATE product_lots SET stock_quality = :target, version = version + 1, updated_at = :now " +
+            "WHERE expiry_date BETWEEN :from AND :to AND (stock_quality IN (:sources) OR stock_quality IS NULL)";
+
+    // 상태 구간 (유통기한까지 남은 일수가 minDays 이상 maxDays 미만이면 target, 이전 단계 상태만 전환)
+    private static final List<Bucket> BUCKETS = List.of(
+            new Bucket(StockQuality.MANAGED, 90, 365, List.of(StockQuality.NORMAL)),
+            new Bucket(StockQuality.CAUTION, 0, 90, List.of(StockQuality.NORMAL, StockQuality.MANAGED)),
+            new Bucket(StockQuality.DISPOSAL, null, 0, List.of(StockQuality.NORMAL, StockQuality.MANAGED, StockQuality.CAUTION))
+    );
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    // 오늘 포함 며칠 전까지 경계를 넘은 Lot 을 반영할지 (야간 작업이 며칠 빠져도 다음 실행에서 보정)
+    @Value("${stock-quality.catch-up-days:7}")
+    private int catchUpDays;
+
+    private volatile StockQualityRefreshResultDto lastResult;
+
+    /**
+     * 야간 정기 실행 (날짜가 바뀐 직후)
+     */
+    @Scheduled(cron = "${stock-quality.refresh-cron:0 5 0 * * *}")
+    public void refreshDaily() {
+        refresh(LocalDate.now(), catchUpDays);
+    }
+
+    /**
+     * 기준일에 경계를 넘은 Lot 상태 갱신 (기준일 포함 catchUpDays 일 동안 넘은 Lot 까지)
+     * @return 전이별 변경 건수
+     */
+    public StockQualityRefreshResultDto refresh(LocalDate baseDate, int catchUpDays) {
+        if (catchUpDays < 1) {
+            throw new IllegalArgumentException("catchUpDays 는 1 이상이어야 합니다.");
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        Map<String, Integer> transitions = new LinkedHashMap<>();
+        Integer updated = new TransactionTemplate(transactionManager).execute(status -> {
+            int total = 0;
+            for (Bucket bucket : BUCKETS) {
+                total += apply(bucket, baseDate, catchUpDays, startedAt, transitions);
+            }
+            return total;
+        });
+
+        StockQualityRefreshResultDto result = StockQualityRefreshResultDto.builder()
+                .baseDate(baseDate)
+                .catchUpDays(catchUpDays)
+                .transitions(transitions)
+                .updatedCount(updated == null ? 0 : updated)
+                .startedAt(startedAt)
+                .finishedAt(LocalDateTime.now())
+                .build();
+        lastResult = result;
+        log.info("재고 상태 갱신 완료 - 기준일: {}, 변경: {}건 {}", baseDate, result.getUpdatedCount(), transitions);
+        return result;
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "stockQuality";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        StockQualityRefreshResultDto result = lastResult;
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("catchUpDays", catchUpDays);
+        map.put("lastBaseDate", result == null ? null : result.getBaseDate());
+        map.put("lastFinishedAt", result == null ? null : result.getFinishedAt());
+        map.put("lastUpdatedCount", result == null ? 0 : result.getUpdatedCount());
+        map.put("lastTransitions", result == null ? Map.of() : result.getTransitions());
+        return map;
+    }
+
+    // --- 내부 헬퍼 메서드 ---
+
+    // 구간 1개 갱신: 남은 일수가 maxDays 미만으로 막 들어온 유통기한 범위 (기준일 maxDays-1 일 후부터 catchUpDays 일치)
+    private int apply(Bucket bucket, LocalDate baseDate, int catchUpDays, LocalDateTime now, Map<String, Integer> transitions) {
+        LocalDate to = baseDate.plusDays(bucket.maxDays() - 1);
+        LocalDate from = to.minusDays(catchUpDays - 1);
+        if (bucket.minDays() != null && from.isBefore(baseDate.plusDays(bucket.minDays()))) {
+            from = baseDate.plusDays(bucket.minDays()); // 다음 구간까지 넘어간 Lot 은 다음 구간에서 처리
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("target", bucket.target().name())
+                .addValue("sources", bucket.sources().stream().map(Enum::name).toList())
+                .addValue("from", Date.valueOf(from))
+                .addValue("to", Date.valueOf(to))
+                .addValue("now", Timestamp.valueOf(now));
+
+        namedParameterJdbcTemplate.query(COUNT_SQL, params, rs -> {
+            String source = rs.getString("stock_quality");
+            transitions.merge((source == null ? "NONE" : source) + "->" + bucket.target().name(), rs.getInt("cnt"), Integer::sum);
+        });
+        return namedParameterJdbcTemplate.update(UPDATE_SQL, params);
+    }
+
+    private record Bucket(StockQuality target, Integer minDays, int maxDays, List<StockQuality> sources) {
+    }
+}
@@ -0,0 +1,537 @@
+package com.age.b2b.service.stock;
+
+import com.age.b2b.domain.Order;
+import com.age.b2b.domain.OrderItem;
+import com.age.b2b.domain.StockReservation;
+import com.age.b2b.domain.common.OrderStatus;
+import com.age.b2b.support.MetricsSource;
+import com.age.b2b.support.TransactionHooks;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 주문 생성 시 재고 예약 (결제 대기 주문이 출고할 수 없는 수량을 받지 않도록)
+ * - 예약: 상품별 공유 행(product_stock_holds, 예약 + 출고 대기 수량)을 조건부 UPDATE 로 늘림
+ *   (약속 수량 + 주문 수량 <= 현재고일 때만 성공) -> 서버가 여러 대여도 같은 행에서 판정하므로 초과 예약되지 않음
+ *   현재고는 출고 차감과 같은 Lot(폐기대상 제외)을 공유 잠금으로 읽음 (출고 차감과는 직렬화, 동시 주문끼리는 상품 행에서만 직렬화)
+ *   주문의 모든 상품을 잠금 읽기로 먼저 판정하고, 통과한 뒤에만 공유 행 증가 + 예약 행 일괄 저장 (실패 시 되돌릴 쓰기 없음)
+ *   Lot 배정은 지금처럼 출고 시점에 FEFO 로 처리
+ * - AtpLedger 는 주문 가능 수량 조회용 캐시로만 갱신 (예약 성공 후 기록)
+ * - 확정/해제: 주문이 PENDING 을 벗어나면 (결제 승인 -> CONFIRMED, 취소/삭제 -> RELEASED) 커밋 직전에 예약 행 갱신,
+ *   주문이 PREPARING 에 들어가거나 나오면 (결제 승인 / 출고 / 취소 / 출고 삭제) 같은 시점에 공유 행 수량 증감
+ *   (결제 승인은 예약 -q, 출고 대기 +q 로 상쇄) 커밋 후 메모리 예약 해제
+ * - 공유 행은 상품을 처음 예약할 때 DB 집계로 만들고, 놓친 증감 (PREPARING 주문 삭제 등)은 주기적 재집계로 바로잡음
+ * - 만료: 커밋된 예약을 DelayQueue 에 넣어 두고 전용 스레드가 만료 시각에 해제 (주문은 PENDING 그대로 남음)
+ *   다른 서버 / 재시작 전에 잡힌 예약은 주기적 스윕으로 해제
+ * - 결제 시작 시 ensureHeld 로 예약을 연장하고, 이미 만료됐으면 다시 예약 (부족하면 결제사 호출 전에 실패)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockReservationService implements MetricsSource {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO stock_reservations (order_id, product_id, quantity, status, expires_at, created_at, updated_at) " +
+            "VALUES (?, ?, ?, 'HELD', ?, ?, ?)";
+
+    // 출고 차감과 같은 Lot 만 집계 (폐기대상 제외)
+    private static final String ON_HAND_SQL =
+            "SELECT product_id, quantity FROM product_lots " +
+            "WHERE product_id IN (:productIds) AND quantity > 0 AND " + StockDeductor.SHIPPABLE + " FOR SHARE";
+
+    private static final String EXISTING_COUNTERS_SQL =
+            "SELECT product_id FROM product_stock_holds WHERE product_id IN (:productIds)";
+
+    // 공유 행 초기값 / 재집계 (잠금 읽기라 진행 중인 예약·상태 변경이 커밋될 때까지 기다림)
+    private static final String HELD_QUANTITY_SQL =
+            "SELECT COALESCE(SUM(quantity), 0) FROM stock_reservations WHERE product_id = ? AND status = 'HELD' FOR SHARE";
+
+    private static final String PREPARING_QUANTITY_SQL =
+            "SELECT COALESCE(SUM(oi.count), 0) FROM order_items oi JOIN orders o ON o.order_id = oi.order_id " +
+            "WHERE oi.product_id = ? AND o.status = 'PREPARING' FOR SHARE";
+
+    private static final String SEED_COUNTER_SQL =
+            "INSERT IGNORE INTO product_stock_holds (product_id, reserved_quantity, updated_at) VALUES (?, ?, ?)";
+
+    private static final String RESERVE_SQL =
+            "UPDATE product_stock_holds SET reserved_quantity = reserved_quantity + ?, updated_at = ? " +
+            "WHERE product_id = ? AND reserved_quantity + ? <= ?";
+
+    private static final String ADJUST_SQL =
+            "UPDATE product_stock_holds SET reserved_quantity = GREATEST(reserved_quantity + ?, 0), updated_at = ? " +
+            "WHERE product_id = ?";
+
+    private static final String RESET_COUNTER_SQL =
+            "UPDATE product_stock_holds SET reserved_quantity = ?, updated_at = ? WHERE product_id = ?";
+
+    private static final String LOCK_COUNTERS_SQL =
+            "SELECT product_id, reserved_quantity FROM product_stock_holds " +
+            "WHERE product_id IN (:productIds) ORDER BY product_id FOR UPDATE";
+
+    private static final String COUNTER_IDS_SQL =
+            "SELECT product_id FROM product_stock_holds ORDER BY product_id";
+
+    private static final String HELD_ROWS_SQL =
+            "SELECT product_id, quantity FROM stock_reservations WHERE order_id IN (:orderIds) AND status = 'HELD' FOR UPDATE";
+
+    private static final String ORDER_QUANTITIES_SQL =
+            "SELECT order_id, product_id, SUM(count) AS quantity FROM order_items " +
+            "WHERE order_id IN (:orderIds) GROUP BY order_id, product_id";
+
+    private static final String EXPIRED_ROWS_SQL =
+            "SELECT product_id, quantity FROM stock_reservations " +
+            "WHERE order_id = ? AND status = 'HELD' AND expires_at <= ? FOR UPDATE";
+
+    private static final String CHANGE_STATUS_SQL =
+            "UPDATE stock_reservations SET status = :status, updated_at = :now " +
+            "WHERE order_id IN (:orderIds) AND status = 'HELD'";
+
+    private static final String EXTEND_SQL =
+            "UPDATE stock_reservations SET expires_at = ?, updated_at = ? WHERE order_id = ? AND status = 'HELD'";
+
+    private static final String EXPIRE_SQL =
+            "UPDATE stock_reservations SET status = 'RELEASED', updated_at = ? " +
+            "WHERE order_id = ? AND status = 'HELD' AND expires_at <= ?";
+
+    private static final String NEXT_EXPIRY_SQL =
+            "SELECT MIN(expires_at) FROM stock_reservations WHERE order_id = ? AND status = 'HELD'";
+
+    private static final String OVERDUE_SQL =
+            "SELECT DISTINCT order_id FROM stock_reservations WHERE status = 'HELD' AND expires_at <= ? LIMIT ?";
+
+    private final AtpLedger atpLedger;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${reservation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${reservation.ttl-ms:900000}")
+    private long ttlMillis;
+
+    @Value("${reservation.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    private final DelayQueue<Expiry> expiries = new DelayQueue<>();
+    private volatile boolean running;
+    private Thread expiryThread;
+
+    private final LongAdder held = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder confirmed = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder extended = new LongAdder();
+    private final LongAdder reconciled = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        if (!enabled) return;
+
+        running = true;
+        expiryThread = new Thread(this::expiryLoop, "stock-reservation-expiry");
+        expiryThread.setDaemon(true);
+        expiryThread.start();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (expiryThread == null) return;
+        running = false;
+        expiryThread.interrupt();
+        expiryThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 주문 상품 수량 예약 (주문 생성 트랜잭션 안에서 호출, 부족하면 예외 -> 호출한 트랜잭션 롤백)
+     * @param quantities 상품 ID -> 수량
+     * @param productNames 상품 ID -> 상품명 (부족 안내용)
+     */
+    public void hold(Long orderId, Map<Long, Integer> quantities, Map<Long, String> productNames) {
+        // 잠금 순서: Lot -> 공유 행 (상품 ID 순) -> 예약 행
+        List<Long> productIds = new ArrayList<>(new TreeSet<>(quantities.keySet()));
+        Map<Long, Integer> onHand = onHand(productIds);
+        seedCounters(productIds);
+
+        // 모든 상품을 먼저 판정 (부족하면 아무것도 쓰지 않은 채 실패 -> 호출한 쪽이 예외를 잡고 커밋해도 남는 수량 없음)
+        Map<Long, Integer> promised = lockCounters(productIds);
+        for (Long productId : productIds) {
+            int stock = onHand.getOrDefault(productId, 0);
+            int reserved = promised.getOrDefault(productId, 0);
+            if (reserved + quantities.get(productId) > stock) {
+                rejected.increment();
+                throw new IllegalStateException("재고가 부족합니다. (" + productNames.get(productId)
+                        + ", 주문 가능 수량: " + Math.max(stock - reserved, 0) + ")");
+            }
+        }
+
+        // 판정을 통과한 뒤에만 공유 행 증가 + 예약 행 저장 (공유 행을 잠근 상태라 조건부 UPDATE 는 실패하지 않음)
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(Duration.ofMillis(ttlMillis));
+        List<Object[]> increments = new ArrayList<>();
+        for (Long productId : productIds) {
+            int quantity = quantities.get(productId);
+            increments.add(new Object[]{quantity, Timestamp.valueOf(now), productId, quantity, onHand.getOrDefault(productId, 0)});
+        }
+        for (int updated : jdbcTemplate.batchUpdate(RESERVE_SQL, increments)) {
+            if (updated == 0) {
+                throw new IllegalStateException("재고가 부족합니다. (재고 정보가 변경되었습니다. 다시 시도해주세요.)");
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> rows.add(new Object[]{
+                orderId, productId, quantity, Timestamp.valueOf(expiresAt), Timestamp.valueOf(now), Timestamp.valueOf(now)
+        }));
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+
+        // 조회 캐시 반영 (롤백되면 되돌림)
+        quantities.forEach((productId, quantity) -> atpLedger.recordHold(orderId, productId, quantity));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) atpLedger.releaseHolds(orderId);
+                }
+            });
+        }
+
+        held.increment();
+        TransactionHooks.afterCommit(() -> expiries.add(new Expiry(orderId, expiresAt)));
+    }
+
+    /**
+     * 결제 시작 전 예약 확인 (남아 있으면 만료 시각 연장, 이미 만료/해제됐으면 주문 품목으로 다시 예약)
+     */
+    public void ensureHeld(Order order) {
+        if (!enabled) return;
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(Duration.ofMillis(ttlMillis));
+        int updated = jdbcTemplate.update(EXTEND_SQL, Timestamp.valueOf(expiresAt), Timestamp.valueOf(now), order.getId());
+        if (updated > 0) {
+            // 이전 만료 항목이 꺼내질 때 새 만료 시각으로 다시 등록됨
+            extended.increment();
+            return;
+        }
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        Map<Long, String> productNames = new HashMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            quantities.merge(item.getProduct().getId(), item.getCount(), Integer::sum);
+            productNames.put(item.getProduct().getId(), item.getProduct().getName());
+        }
+        if (!quantities.isEmpty()) {
+            hold(order.getId(), quantities, productNames);
+        }
+    }
+
+    /**
+     * 주문 상태 변경 기록 (Order 엔티티 리스너에서 호출, from 이 null 이면 신규, to 가 null 이면 삭제)
+     * - PENDING 을 벗어나면 예약 확정/해제, PREPARING 에 들어가거나 나오면 공유 행 수량 증감
+     */
+    public void orderChanged(Long orderId, OrderStatus from, OrderStatus to) {
+        if (!enabled) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return; // 만료 처리 / 재집계에 맡김
+
+        if (from == OrderStatus.PENDING && to != OrderStatus.PENDING) {
+            pending().statuses.put(orderId, to == OrderStatus.PREPARING ? StockReservation.CONFIRMED : StockReservation.RELEASED);
+        }
+        int sign = (to == OrderStatus.PREPARING ? 1 : 0) - (from == OrderStatus.PREPARING ? 1 : 0);
+        if (sign != 0 && to != null) {
+            // 삭제된 주문은 품목도 함께 지워져 수량을 알 수 없음 -> 재집계에 맡김
+            Pending pending = pending();
+            pending.transitions.add(new Transition(orderId, sign, ++pending.sequence));
+        }
+    }
+
+    /**
+     * 모아둔 확정/해제를 예약 행과 공유 행에 반영 (커밋 직전 같은 커넥션에서 호출)
+     */
+    public void collect() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) return;
+
+        Map<Long, Integer> deltas = new TreeMap<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        // 1. 예약 확정/해제 -> 예약 수량만큼 감소
+        if (!pending.statuses.isEmpty()) {
+            namedParameterJdbcTemplate.query(HELD_ROWS_SQL, Map.of("orderIds", pending.statuses.keySet()), rs -> {
+                deltas.merge(rs.getLong("product_id"), -rs.getInt("quantity"), Integer::sum);
+            });
+            Map<String, List<Long>> byStatus = new HashMap<>();
+            pending.statuses.forEach((orderId, status) ->
+                    byStatus.computeIfAbsent(status, s -> new ArrayList<>()).add(orderId));
+            byStatus.forEach((status, orderIds) -> namedParameterJdbcTemplate.update(CHANGE_STATUS_SQL,
+                    Map.of("status", status, "now", now, "orderIds", orderIds)));
+            pending.collected.putAll(pending.statuses);
+            pending.statuses.clear();
+        }
+
+        // 2. 출고 대기 진입/이탈 -> 주문 품목 수량만큼 증감 (이 트랜잭션에서 공유 행을 만들 때 이미 집계된 변경은 제외)
+        if (!pending.transitions.isEmpty()) {
+            Map<Long, Map<Long, Integer>> orderQuantities = new HashMap<>();
+            Set<Long> orderIds = new HashSet<>();
+            pending.transitions.forEach(transition -> orderIds.add(transition.orderId));
+            namedParameterJdbcTemplate.query(ORDER_QUANTITIES_SQL, Map.of("orderIds", orderIds), rs -> {
+                orderQuantities.computeIfAbsent(rs.getLong("order_id"), id -> new HashMap<>())
+                        .put(rs.getLong("product_id"), rs.getInt("quantity"));
+            });
+            for (Transition transition : pending.transitions) {
+                orderQuantities.getOrDefault(transition.orderId, Map.of()).forEach((productId, quantity) -> {
+                    Integer seededAt = pending.seededAt.get(productId);
+                    if (seededAt == null || transition.sequence > seededAt) {
+                        deltas.merge(productId, transition.sign * quantity, Integer::sum);
+                    }
+                });
+            }
+            pending.transitions.clear();
+        }
+
+        adjust(deltas, now);
+    }
+
+    /**
+     * 만료 시각이 지난 예약 해제 (이 서버의 DelayQueue 에 없는 예약: 다른 서버 / 재시작 전 예약, 만료 처리 실패분)
+     */
+    @Scheduled(fixedDelayString = "${reservation.sweep-interval-ms:60000}")
+    public void sweep() {
+        if (!enabled) return;
+
+        List<Long> orderIds = jdbcTemplate.queryForList(OVERDUE_SQL, Long.class,
+                Timestamp.valueOf(LocalDateTime.now()), sweepBatchSize);
+        orderIds.forEach(this::expire);
+        if (!orderIds.isEmpty()) {
+            log.info("만료된 재고 예약 해제 - 주문 {}건", orderIds.size());
+            atpLedger.reconcile(); // 다른 서버 예약 수량 다시 집계
+        }
+    }
+
+    /**
+     * 공유 행 재집계 (상품별 짧은 트랜잭션, 놓친 증감 보정)
+     */
+    @Scheduled(fixedDelayString = "${reservation.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        if (!enabled) return;
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (Long productId : jdbcTemplate.queryForList(COUNTER_IDS_SQL, Long.class)) {
+            try {
+                tx.executeWithoutResult(status -> jdbcTemplate.update(RESET_COUNTER_SQL,
+                        promisedQuantity(productId), Timestamp.valueOf(LocalDateTime.now()), productId));
+            } catch (RuntimeException e) {
+                // 동시 예약과 교착 등으로 실패한 상품은 다음 재집계에서 처리
+                log.warn("재고 예약 수량 재집계 실패 - Product: {}", productId, e);
+            }
+        }
+        reconciled.increment();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "reservation";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("enabled", enabled);
+        map.put("ttlMillis", ttlMillis);
+        map.put("scheduledExpiries", expiries.size());
+        map.put("held", held.sum());
+        map.put("rejected", rejected.sum());
+        map.put("extended", extended.sum());
+        map.put("confirmed", confirmed.sum());
+        map.put("released", released.sum());
+        map.put("expired", expired.sum());
+        map.put("reconciled", reconciled.sum());
+        return map;
+    }
+
+    // --- 내부 헬퍼 메서드 ---
+
+    private void expiryLoop() {
+        while (running) {
+            try {
+                expire(expiries.take().orderId);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                // 해제되지 않은 예약은 스윕에서 다시 처리
+                log.warn("재고 예약 만료 처리 실패", e);
+            }
+        }
+    }
+
+    // 만료된 예약 해제 -> 남은 예약이 없으면 메모리 예약도 해제, 연장된 예약은 새 만료 시각으로 다시 등록
+    private void expire(Long orderId) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        LocalDateTime next = tx.execute(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            Map<Long, Integer> deltas = new TreeMap<>();
+            jdbcTemplate.query(EXPIRED_ROWS_SQL, rs -> {
+                deltas.merge(rs.getLong("product_id"), -rs.getInt("quantity"), Integer::sum);
+            }, orderId, now);
+            if (jdbcTemplate.update(EXPIRE_SQL, now, orderId, now) > 0) {
+                expired.increment();
+            }
+            adjust(deltas, now);
+            Timestamp nextExpiry = jdbcTemplate.queryForObject(NEXT_EXPIRY_SQL, Timestamp.class, orderId);
+            return nextExpiry == null ? null : nextExpiry.toLocalDateTime();
+        });
+
+        if (next == null) {
+            atpLedger.releaseHolds(orderId);
+        } else {
+            expiries.add(new Expiry(orderId, next));
+        }
+    }
+
+    // 상품별 출고 가능 재고 (Lot 공유 잠금 -> 진행 중인 출고 차감이 커밋될 때까지 기다림)
+    private Map<Long, Integer> onHand(List<Long> productIds) {
+        Map<Long, Integer> onHand = new HashMap<>();
+        namedParameterJdbcTemplate.query(ON_HAND_SQL, Map.of("productIds", productIds), rs -> {
+            onHand.merge(rs.getLong("product_id"), rs.getInt("quantity"), Integer::sum);
+        });
+        return onHand;
+    }
+
+    // 상품별 약속 수량 (공유 행 배타 잠금, 상품 ID 순)
+    private Map<Long, Integer> lockCounters(List<Long> productIds) {
+        Map<Long, Integer> promised = new HashMap<>();
+        namedParameterJdbcTemplate.query(LOCK_COUNTERS_SQL, Map.of("productIds", productIds), rs -> {
+            promised.put(rs.getLong("product_id"), rs.getInt("reserved_quantity"));
+        });
+        return promised;
+    }
+
+    // 공유 행이 없는 상품은 현재 예약 + 출고 대기 수량으로 생성 (동시에 만들면 먼저 넣은 쪽 유지)
+    private void seedCounters(List<Long> productIds) {
+        Set<Long> missing = new TreeSet<>(productIds);
+        missing.removeAll(namedParameterJdbcTemplate.queryForList(EXISTING_COUNTERS_SQL,
+                Map.of("productIds", productIds), Long.class));
+        if (missing.isEmpty()) return;
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Long productId : missing) {
+            jdbcTemplate.update(SEED_COUNTER_SQL, productId, promisedQuantity(productId), now);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                // 이 트랜잭션에서 이미 flush 된 상태 변경은 집계에 들어갔으므로 커밋 직전 반영에서 제외
+                Pending pending = pending();
+                pending.seededAt.put(productId, pending.sequence);
+            }
+        }
+    }
+
+    private int promisedQuantity(Long productId) {
+        Integer heldQuantity = jdbcTemplate.queryForObject(HELD_QUANTITY_SQL, Integer.class, productId);
+        Integer preparingQuantity = jdbcTemplate.queryForObject(PREPARING_QUANTITY_SQL, Integer.class, productId);
+        return (heldQuantity == null ? 0 : heldQuantity) + (preparingQuantity == null ? 0 : preparingQuantity);
+    }
+
+    // 공유 행 증감 (상품 ID 순, 없는 행은 다음 예약 때 DB 집계로 생성되므로 건너뜀)
+    private void adjust(Map<Long, Integer> deltas, Timestamp now) {
+        List<Object[]> rows = new ArrayList<>();
+        deltas.forEach((productId, delta) -> {
+            if (delta != 0) rows.add(new Object[]{delta, now, productId});
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADJUST_SQL, rows);
+        }
+    }
+
+    private Pending pending() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    // 트랜잭션 안에서 PENDING 을 벗어난 주문 (주문 ID -> CONFIRMED / RELEASED) / PREPARING 진입·이탈 / 공유 행 생성 시점
+    private class Pending implements TransactionSynchronization {
+        private final Map<Long, String> statuses = new HashMap<>();
+        private final Map<Long, String> collected = new HashMap<>();
+        private final List<Transition> transitions = new ArrayList<>();
+        private final Map<Long, Integer> seededAt = new HashMap<>();
+        private int sequence;
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StockReservationService.this);
+            if (status != STATUS_COMMITTED) return;
+
+            collected.putAll(statuses);
+            collected.forEach((orderId, reservationStatus) -> {
+                atpLedger.releaseHolds(orderId);
+                if (StockReservation.CONFIRMED.equals(reservationStatus)) {
+                    confirmed.increment();
+                } else {
+                    released.increment();
+                }
+            });
+        }
+    }
+
+    // PREPARING 진입(+1) / 이탈(-1) (sequence: 트랜잭션 안 기록 순서)
+    private record Transition(Long orderId, int sign, int sequence) {
+    }
+
+    // DelayQueue 항목 (만료 시각이 되면 꺼내짐, 연장된 예약의 이전 항목은 꺼낸 뒤 다시 등록됨)
+    private static class Expiry implements Delayed {
+        private final Long orderId;
+        private final long deadline; // System.nanoTime 기준
+
+        Expiry(Long orderId, LocalDateTime expiresAt) {
+            this.orderId = orderId;
+            this.deadline = System.nanoTime() + Duration.between(LocalDateTime.now(), expiresAt).toNanos();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadline, ((Expiry) other).deadline);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.age.b2b.support;
+
+import java.util.Map;
+
+// 운영 지표를 노출하는 컴포넌트 (/api/admin/metrics 에서 모아서 조회)
+public interface MetricsSource {
+
+    // 지표 그룹 이름 (예: stock)
+    String getMetricsName();
+
+    // 현재 시점의 지표 스냅샷
+    Map<String, Object> getMetrics();
+}
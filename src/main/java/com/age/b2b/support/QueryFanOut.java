@@ -0,0 +1,181 @@
+package com.age.b2b.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 서로 독립적인 조회 여러 개를 동시에 실행하고 결과를 모으는 헬퍼
+ * - executor 가 없으면 호출 스레드에서 순서대로 실행
+ * - 조회별 제한 시간을 넘기거나 실패하면 지정한 기본값으로 대체 (부분 결과)
+ * - transactionManager 가 있으면 조회마다 남은 시간을 타임아웃으로 둔 읽기 전용 트랜잭션에서 실행
+ *   -> JDBC 문장에 query timeout 이 걸려 제한 시간이 지나면 DB 에서도 조회가 중단됨 (future.cancel 은 소켓 대기를 끊지 못함)
+ *   JDBC 타임아웃은 초 단위라 남은 시간을 초로 올림 (최소 1초)
+ */
+@Slf4j
+public class QueryFanOut {
+
+    private final ExecutorService executor;
+    private final PlatformTransactionManager transactionManager;
+    private final long timeoutNanos;
+
+    private final List<String> timedOut = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> failed = Collections.synchronizedList(new ArrayList<>());
+
+    public QueryFanOut(ExecutorService executor, long timeoutMillis) {
+        this(executor, null, timeoutMillis);
+    }
+
+    public QueryFanOut(ExecutorService executor, PlatformTransactionManager transactionManager, long timeoutMillis) {
+        this.executor = executor;
+        this.transactionManager = transactionManager;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * 조회 등록 (병렬 모드면 즉시 실행 시작, 순차 모드면 조회마다 제한 시간 전체를 씀)
+     */
+    public <T> Result<T> submit(String name, Callable<T> query, T fallback) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        if (executor == null) {
+            return new Result<>(name, null, run(name, () -> withStatementTimeout(query, deadline), fallback), fallback, 0);
+        }
+        return new Result<>(name, executor.submit(() -> withStatementTimeout(query, deadline)), null, fallback, deadline);
+    }
+
+    public boolean isPartial() {
+        return !timedOut.isEmpty() || !failed.isEmpty();
+    }
+
+    public List<String> getTimedOut() {
+        return timedOut;
+    }
+
+    public List<String> getFailed() {
+        return failed;
+    }
+
+    private <T> T run(String name, Callable<T> query, T fallback) {
+        try {
+            return query.call();
+        } catch (Exception e) {
+            if (isTimeout(e)) {
+                timedOut.add(name);
+                log.warn("조회 제한 시간 초과, 기본값으로 대체: {}", name);
+            } else {
+                failed.add(name);
+                log.warn("조회 실패, 기본값으로 대체: {}", name, e);
+            }
+            return fallback;
+        }
+    }
+
+    // 남은 시간을 트랜잭션 타임아웃으로 걸고 실행 (Hibernate / JdbcTemplate 이 문장마다 query timeout 으로 적용)
+    private <T> T withStatementTimeout(Callable<T> query, long deadline) throws Exception {
+        if (transactionManager == null) {
+            return query.call();
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new TimeoutException("실행 전에 제한 시간 초과"); // 스레드풀 대기 중 시간을 다 쓴 경우
+        }
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.setTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining + TimeUnit.SECONDS.toNanos(1) - 1)));
+        try {
+            return tx.execute(status -> {
+                try {
+                    return query.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CheckedQueryException(e);
+                }
+            });
+        } catch (CheckedQueryException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    // DB 문장 타임아웃 / 트랜잭션 타임아웃 / 실행 전 시간 초과
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutException || t instanceof QueryTimeoutException
+                    || t instanceof TransactionTimedOutException || t instanceof jakarta.persistence.QueryTimeoutException
+                    || t instanceof java.sql.SQLTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 트랜잭션 콜백 밖으로 검사 예외를 꺼내기 위한 래퍼
+    private static class CheckedQueryException extends RuntimeException {
+        CheckedQueryException(Exception cause) {
+            super(cause);
+        }
+    }
+
+    public class Result<T> {
+        private final String name;
+        private final Future<T> future;
+        private final T fallback;
+        private final long deadline;
+        private T value;
+        private boolean done;
+
+        private Result(String name, Future<T> future, T value, T fallback, long deadline) {
+            this.name = name;
+            this.future = future;
+            this.value = value;
+            this.fallback = fallback;
+            this.deadline = deadline;
+            this.done = future == null;
+        }
+
+        /**
+         * 결과 대기 (제한 시간 초과/실패 시 기본값)
+         */
+        public T get() {
+            if (done) return value;
+            done = true;
+
+            try {
+                value = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                timedOut.add(name);
+                log.warn("조회 제한 시간 초과, 기본값으로 대체: {}", name);
+                value = fallback;
+            } catch (ExecutionException e) {
+                if (isTimeout(e.getCause())) {
+                    timedOut.add(name);
+                    log.warn("조회 제한 시간 초과(DB), 기본값으로 대체: {}", name);
+                } else {
+                    failed.add(name);
+                    log.warn("조회 실패, 기본값으로 대체: {}", name, e.getCause());
+                }
+                value = fallback;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                failed.add(name);
+                value = fallback;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.age.b2b.support;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * (createdAt, id) 기준 키셋 페이지네이션 커서
+ * - 마지막으로 내려준 행의 정렬 키를 불투명한 문자열(Base64 URL)로 감싸서 다음 페이지 요청에 사용
+ * - 정렬은 createdAt DESC, id DESC 고정 (같은 시각 주문은 id 로 구분)
+ */
+public record SeekCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 커서 해석 (비어 있으면 첫 페이지 -> null)
+     */
+    public static SeekCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            return new SeekCursor(LocalDateTime.parse(raw.substring(0, index)), Long.parseLong(raw.substring(index + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("잘못된 페이지 커서입니다.");
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.age.b2b.support;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * TTL 기반 단일 스냅샷 캐시
+ * - 만료된 스냅샷을 동시에 요청하면 한 스레드만 다시 만들고 나머지는 그 결과를 함께 기다린다. (single-flight)
+ * - 재생성이 실패하면 이전 스냅샷이 있을 때 그것을 대신 반환한다.
+ * - cacheable 조건을 만족하지 않는 값(부분 결과 등)은 반환만 하고 다음 요청에서 다시 만든다.
+ */
+public class SnapshotCache<T> {
+
+    private final Supplier<T> loader;
+    private final long ttlNanos;
+    private final Predicate<T> cacheable;
+
+    private volatile Snapshot<T> current;
+    private final AtomicReference<CompletableFuture<T>> inflight = new AtomicReference<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder sharedWaits = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder staleServed = new LongAdder();
+    private final LongAdder refreshNanos = new LongAdder();
+    private final LongAccumulator maxRefreshNanos = new LongAccumulator(Math::max, 0);
+
+    public SnapshotCache(Supplier<T> loader, long ttlMillis) {
+        this(loader, ttlMillis, value -> true);
+    }
+
+    public SnapshotCache(Supplier<T> loader, long ttlMillis, Predicate<T> cacheable) {
+        this.loader = loader;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.cacheable = cacheable;
+    }
+
+    /**
+     * 유효한 스냅샷 반환 (만료 시 재생성, 동시 요청은 한 번의 재생성을 공유)
+     */
+    public T get() {
+        Snapshot<T> snapshot = current;
+        if (snapshot != null && !snapshot.isExpired(ttlNanos)) {
+            hits.increment();
+            return snapshot.value;
+        }
+        misses.increment();
+        return await(load(false));
+    }
+
+    /**
+     * 만료 여부와 관계없이 스냅샷 재생성 (백그라운드 갱신용)
+     */
+    public T refresh() {
+        return await(load(true));
+    }
+
+    /**
+     * 스냅샷 폐기 (다음 요청 시 재생성)
+     */
+    public void invalidate() {
+        current = null;
+    }
+
+    public Map<String, Object> getMetrics() {
+        long total = hits.sum() + misses.sum();
+        long count = refreshes.sum();
+        Snapshot<T> snapshot = current;
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("ttlMillis", TimeUnit.NANOSECONDS.toMillis(ttlNanos));
+        map.put("hits", hits.sum());
+        map.put("misses", misses.sum());
+        map.put("hitRatio", total == 0 ? 0.0 : (double) hits.sum() / total);
+        map.put("sharedWaits", sharedWaits.sum());
+        map.put("refreshes", count);
+        map.put("refreshFailures", refreshFailures.sum());
+        map.put("staleServed", staleServed.sum());
+        map.put("avgRefreshMillis", count == 0 ? 0.0 : toMillis(refreshNanos.sum()) / count);
+        map.put("maxRefreshMillis", toMillis(maxRefreshNanos.get()));
+        map.put("snapshotAgeMillis", snapshot == null ? null : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - snapshot.loadedAt));
+        return map;
+    }
+
+    // --- 내부 헬퍼 메서드 ---
+
+    private CompletableFuture<T> load(boolean force) {
+        CompletableFuture<T> mine = new CompletableFuture<>();
+        CompletableFuture<T> running = inflight.compareAndExchange(null, mine);
+        if (running != null) {
+            // 이미 다른 스레드가 재생성 중 -> 그 결과를 기다림
+            sharedWaits.increment();
+            return running;
+        }
+
+        try {
+            // 확인 시점과 재생성 시작 사이에 다른 스레드가 갱신을 끝냈을 수 있음
+            Snapshot<T> snapshot = current;
+            if (!force && snapshot != null && !snapshot.isExpired(ttlNanos)) {
+                mine.complete(snapshot.value);
+                return mine;
+            }
+
+            long start = System.nanoTime();
+            T value = loader.get();
+            long elapsed = System.nanoTime() - start;
+
+            current = new Snapshot<>(value, System.nanoTime(), cacheable.test(value));
+            refreshes.increment();
+            refreshNanos.add(elapsed);
+            maxRefreshNanos.accumulate(elapsed);
+            mine.complete(value);
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            mine.completeExceptionally(e);
+        } finally {
+            inflight.set(null);
+        }
+        return mine;
+    }
+
+    private T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Snapshot<T> stale = current;
+            if (stale != null) {
+                staleServed.increment();
+                return stale.value;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static class Snapshot<T> {
+        private final T value;
+        private final long loadedAt;
+        private final boolean cacheable;
+
+        Snapshot(T value, long loadedAt, boolean cacheable) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.cacheable = cacheable;
+        }
+
+        // 캐시 불가 값은 즉시 만료 (실패 시 대체값으로만 사용)
+        boolean isExpired(long ttlNanos) {
+            return !cacheable || System.nanoTime() - loadedAt >= ttlNanos;
+        }
+    }
+}
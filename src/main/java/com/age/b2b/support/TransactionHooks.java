@@ -0,0 +1,43 @@
+package com.age.b2b.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// 트랜잭션 커밋/완료 시점에 실행할 작업 등록 헬퍼
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤 실행 (트랜잭션이 없으면 즉시 실행)
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * 현재 트랜잭션이 종료(커밋/롤백)된 뒤 실행 (트랜잭션이 없으면 즉시 실행)
+     */
+    public static void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+}
@@ -11,12 +11,14 @@ import com.age.b2b.dto.AdminOrderUpdateDto;
 import com.age.b2b.repository.ClientRepository;
 import com.age.b2b.repository.OrderRepository;
 import com.age.b2b.repository.ProductRepository;
+import com.age.b2b.service.rollup.DailyRollupRecorder;
 import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,6 +36,8 @@ class AdminOrderServiceTest {
     @Autowired OrderRepository orderRepository;
     @Autowired ClientRepository clientRepository;
     @Autowired ProductRepository productRepository;
+    @Autowired DailyRollupRecorder dailyRollupRecorder;
+    @Autowired JdbcTemplate jdbcTemplate;
     @Autowired EntityManager em;
 
     // 데이터 셋업 헬퍼
@@ -314,4 +318,33 @@ class AdminOrderServiceTest {
         assertThrows(Exception.class, () -> orderRepository.findById(orderId).orElseThrow());
         log.info("직권삭제 완료: 조회 시 예외 발생 확인됨");
     }
+
+    @Test
+    @DisplayName("직권 삭제 - 주문상품이 먼저 지워져도 일자별 주문 집계의 건수와 금액이 함께 빠짐")
+    void forceDeleteRollupTest() {
+        // given: 주문 생성 (5개 x 10,000원) -> 집계 반영 (테스트 트랜잭션은 커밋되지 않으므로 직접 반영)
+        Order order = createTestOrder("집계삭제약국", "아연");
+        Long orderId = order.getId();
+        Long clientId = order.getClient().getClientId();
+        em.flush();
+        dailyRollupRecorder.apply();
+        em.clear();
+
+        assertEquals(List.of(1L, 50000L), pendingRollup(clientId));
+
+        // when: 직권 삭제 (cascade 로 주문상품이 먼저 삭제됨)
+        adminOrderService.forceDeleteOrder(orderId);
+        em.flush();
+        dailyRollupRecorder.apply();
+
+        // then
+        assertEquals(List.of(0L, 0L), pendingRollup(clientId));
+    }
+
+    private List<Long> pendingRollup(Long clientId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT order_count, order_amount FROM daily_order_rollups WHERE client_id = ? AND status = ?",
+                (rs, rowNum) -> List.of(rs.getLong("order_count"), rs.getLong("order_amount")),
+                clientId, OrderStatus.PENDING.name());
+    }
 }
\ No newline at end of file
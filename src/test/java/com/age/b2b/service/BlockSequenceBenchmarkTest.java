@@ -0,0 +1,131 @@
+package com.age.b2b.service;
+
+import com.age.b2b.service.sequence.BlockAllocator;
+import com.age.b2b.service.sequence.BlockSequence;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 번호 발급기 처리량 / 중복 검사 (DB 없이 메모리 할당기로 측정)
+@Slf4j
+class BlockSequenceBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 500_000;
+
+    @Test
+    @DisplayName("hi/lo 번호 발급 - 서버 2대 x 스레드 8개가 동시에 발급해도 중복 없음")
+    void throughputWithoutCollisionTest() throws Exception {
+        // given: business_sequences 테이블 대신 공유 카운터 (서버 간 구간 할당 역할)
+        AtomicLong table = new AtomicLong(1);
+        AtomicLong allocatorCalls = new AtomicLong();
+        BlockAllocator allocator = (name, blockSize, minFirst) -> {
+            allocatorCalls.incrementAndGet();
+            return table.getAndAdd(blockSize);
+        };
+        BlockSequence nodeA = new BlockSequence(allocator, 1000);
+        BlockSequence nodeB = new BlockSequence(allocator, 1000);
+
+        // when
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            BlockSequence node = t % 2 == 0 ? nodeA : nodeB;
+            futures.add(executor.submit(() -> {
+                long[] ids = new long[IDS_PER_THREAD];
+                start.await();
+                for (int i = 0; i < IDS_PER_THREAD; i++) {
+                    ids[i] = node.next("order:20250101");
+                }
+                return ids;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        long[] all = new long[THREADS * IDS_PER_THREAD];
+        int offset = 0;
+        for (Future<long[]> future : futures) {
+            long[] ids = future.get();
+            System.arraycopy(ids, 0, all, offset, ids.length);
+            offset += ids.length;
+        }
+        long elapsedNanos = System.nanoTime() - begin;
+        executor.shutdown();
+
+        // then: 중복 없음
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals(all[i - 1], all[i], "중복 번호: " + all[i]);
+        }
+        assertEquals(THREADS * (long) IDS_PER_THREAD, nodeA.getIssued() + nodeB.getIssued());
+
+        double idsPerSecond = all.length / (elapsedNanos / 1_000_000_000.0);
+        log.info("발급 {}건, {}ms, 초당 {}건, 구간 할당 {}회",
+                all.length, elapsedNanos / 1_000_000, String.format("%,.0f", idsPerSecond), allocatorCalls.get());
+    }
+
+    @Test
+    @DisplayName("시작값 - 첫 구간은 하한(이전 방식 최대 번호 + 1)부터, 하한은 시퀀스마다 한 번만 조회")
+    void minFirstTest() {
+        // given: JdbcBlockAllocator 와 같은 규칙 (GREATEST(next_value, minFirst) + blockSize)
+        Map<String, Long> table = new HashMap<>();
+        BlockAllocator allocator = (name, blockSize, minFirst) -> {
+            long first = Math.max(table.getOrDefault(name, 1L), minFirst);
+            table.put(name, first + blockSize);
+            return first;
+        };
+        AtomicInteger lookups = new AtomicInteger();
+        BlockSequence sequence = new BlockSequence(allocator, 10, name -> {
+            lookups.incrementAndGet();
+            return name.startsWith("order:") ? 9000 : 1;
+        });
+
+        // when / then: 이전 번호(~8999) 다음부터, 구간을 넘어가도 이어서 발급
+        for (long expected = 9000; expected < 9025; expected++) {
+            assertEquals(expected, sequence.next("order:20250101"));
+        }
+        assertEquals(1, sequence.next("lot:20250101"));
+        assertEquals(2, lookups.get());
+        assertEquals(4, sequence.getAllocations());
+
+        // 다른 서버가 이미 하한보다 많이 발급했으면 그 뒤부터
+        BlockSequence other = new BlockSequence(allocator, 10, name -> 9000);
+        assertEquals(9030, other.next("order:20250101"));
+    }
+
+    @Test
+    @DisplayName("시퀀스 정리 - retain 으로 지난 일자 구간을 버리고, 다시 쓰면 새 구간을 받음")
+    void retainTest() {
+        // given
+        AtomicLong table = new AtomicLong(1);
+        BlockSequence sequence = new BlockSequence((name, blockSize, minFirst) -> table.getAndAdd(blockSize), 100);
+        sequence.next("order:20250101");
+        sequence.next("lot:20250101");
+        sequence.next("order:20250102");
+
+        // when
+        sequence.retain(name -> name.endsWith(":20250102"));
+
+        // then
+        assertEquals(1, sequence.getSequenceCount());
+        assertEquals(202, sequence.next("order:20250102"));
+        assertEquals(301, sequence.next("order:20250101"));
+        assertEquals(2, sequence.getSequenceCount());
+    }
+}
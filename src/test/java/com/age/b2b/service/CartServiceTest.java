@@ -0,0 +1,222 @@
+package com.age.b2b.service;
+
+import com.age.b2b.domain.Cart;
+import com.age.b2b.domain.CartItem;
+import com.age.b2b.domain.Client;
+import com.age.b2b.domain.Product;
+import com.age.b2b.domain.common.ClientStatus;
+import com.age.b2b.domain.common.ProductStatus;
+import com.age.b2b.dto.CartBulkAddRequestDto;
+import com.age.b2b.dto.CartBulkAddResultDto;
+import com.age.b2b.dto.CartDto;
+import com.age.b2b.dto.InboundRequestDto;
+import com.age.b2b.dto.OrderDto;
+import com.age.b2b.dto.ProductRequestDto;
+import com.age.b2b.repository.CartRepository;
+import com.age.b2b.repository.ClientRepository;
+import com.age.b2b.repository.ProductRepository;
+import com.age.b2b.service.cart.CartViewCache;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@TestPropertySource(locations = "classpath:application-test.properties")
+class CartServiceTest {
+
+    @Autowired CartService cartService;
+    @Autowired ProductService productService;
+    @Autowired OrderService orderService;
+    @Autowired InventoryService inventoryService;
+    @Autowired CartViewCache cartViewCache;
+    @Autowired CartRepository cartRepository;
+    @Autowired ClientRepository clientRepository;
+    @Autowired ProductRepository productRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired EntityManager em;
+
+    private Client createClient() {
+        Client client = new Client();
+        client.setUsername("user_cart_bulk");
+        client.setBusinessName("장바구니약국");
+        client.setPassword("1234");
+        client.setPhone("010-" + (int)(Math.random() * 9000 + 1000) + "-" + (int)(Math.random() * 9000 + 1000));
+        client.setEmail("cart@email.com");
+        client.setBusinessNumber("123-45-33333");
+        client.setOwnerName("홍길동");
+        client.setAddress("서울");
+        client.setDetailAddress("101호");
+        client.setBusinessLicensePath("license.png");
+        client.setClientCategory("ETC");
+        client.setApprovalStatus(ClientStatus.APPROVED);
+        return clientRepository.save(client);
+    }
+
+    private Product createProduct(String code) {
+        Product product = new Product();
+        product.setProductCode(code);
+        product.setName("상품_" + code);
+        product.setSupplyPrice(10000);
+        product.setConsumerPrice(15000);
+        product.setCostPrice(5000);
+        product.setOrigin("Korea");
+        product.setDescription("Desc");
+        product.setStatus(ProductStatus.ON_SALE);
+        return productRepository.save(product);
+    }
+
+    private CartBulkAddRequestDto.Line line(String code, Integer quantity) {
+        CartBulkAddRequestDto.Line line = new CartBulkAddRequestDto.Line();
+        line.setProductCode(code);
+        line.setQuantity(quantity);
+        return line;
+    }
+
+    @Test
+    @DisplayName("장바구니 일괄 담기 - 줄별 추가/수량 증가/없는 코드 결과와 지정 수량 반영")
+    void bulkAddTest() {
+        // given: 상품 A 는 이미 2개 담겨 있음
+        Client client = createClient();
+        createProduct("CART_A");
+        createProduct("CART_B");
+        cartService.addItemsToCart(client, List.of(line("CART_A", 2)));
+        em.flush();
+        em.clear();
+
+        // when: A +3, B 신규 5개, 없는 코드, B 한 번 더 (수량 생략 = 1)
+        CartBulkAddResultDto result = cartService.addItemsToCart(client, List.of(
+                line("CART_A", 3), line(" CART_B ", 5), line("NO_SUCH_CODE", 1), line("CART_B", null)));
+        em.flush();
+        em.clear();
+
+        // then
+        assertEquals(4, result.getRequestedCount());
+        assertEquals(1, result.getAddedCount());
+        assertEquals(2, result.getIncrementedCount());
+        assertEquals(1, result.getUnknownCount());
+        assertEquals(List.of(CartBulkAddResultDto.INCREMENTED, CartBulkAddResultDto.ADDED,
+                        CartBulkAddResultDto.UNKNOWN, CartBulkAddResultDto.INCREMENTED),
+                result.getResults().stream().map(CartBulkAddResultDto.Item::getResult).toList());
+        assertEquals(6, result.getResults().get(3).getCartCount());
+
+        Map<String, Integer> counts = cartService.getCartList(client).getItems().stream()
+                .collect(Collectors.toMap(CartDto.CartItemDto::getProdCode, CartDto.CartItemDto::getCount));
+        assertEquals(Map.of("CART_A", 5, "CART_B", 6), counts);
+
+        // 기존 API 는 없는 코드가 있으면 전체 실패
+        assertThrows(IllegalArgumentException.class,
+                () -> cartService.addProductsToCart(client, List.of("CART_A", "NO_SUCH_CODE")));
+    }
+
+    @Test
+    @DisplayName("장바구니 가격 스냅샷 - 재조회는 캐시, 상품 공급가 변경은 조회/주문에 바로 반영")
+    void cartViewCacheTest() {
+        // given: 장바구니에 상품 3개 (CartService 를 거치지 않고 저장), 재고 10개
+        Client client = createClient();
+        Product product = createProduct("CART_VIEW");
+        inventoryService.registerInbound(InboundRequestDto.builder()
+                .productId(product.getId())
+                .lotNumber("LOT-CART-VIEW")
+                .quantity(10)
+                .inboundDate(LocalDate.now())
+                .expiryDate(LocalDate.now().plusMonths(6))
+                .build());
+        Cart cart = new Cart();
+        cart.setClient(client);
+        CartItem item = new CartItem();
+        item.setCart(cart);
+        item.setProduct(product);
+        item.setCount(3);
+        cart.getCartItems().add(item);
+        cartRepository.save(cart);
+        em.flush();
+        em.clear();
+
+        // when: 두 번 조회
+        CartDto first = cartService.getCartList(client);
+        long hitsBefore = (long) cartViewCache.getMetrics().get("hits");
+        CartDto second = cartService.getCartList(client);
+
+        // then: 두 번째는 캐시
+        assertEquals(hitsBefore + 1, (long) cartViewCache.getMetrics().get("hits"));
+        assertEquals(30000, first.getItems().get(0).getTotalPrice());
+        assertEquals(first.getItems().get(0).getItemId(), second.getItems().get(0).getItemId());
+
+        // when: 공급가 변경
+        productService.updateProduct(product.getId(), ProductRequestDto.builder()
+                .name(product.getName())
+                .consumerPrice(15000)
+                .supplyPrice(12000)
+                .costPrice(5000)
+                .origin("Korea")
+                .description("Desc")
+                .build());
+        em.flush();
+
+        // then: 조회와 장바구니 주문 모두 새 공급가
+        assertEquals(36000, cartService.getCartList(client).getItems().get(0).getTotalPrice());
+
+        OrderDto.OrderRequest request = new OrderDto.OrderRequest();
+        request.setCartItemIds(List.of(first.getItems().get(0).getItemId()));
+        request.setReceiverName("홍길동");
+        OrderDto.OrderResponse response = orderService.createOrder(client, request);
+        assertEquals(36000, response.getTotalAmount());
+        assertEquals("상품_CART_VIEW", response.getOrderName());
+    }
+
+    @Test
+    @DisplayName("장바구니 주문 - 다른 서버에서 바뀐 공급가는 캐시와 무관하게 주문에 반영, 없는 항목이 섞이면 거절")
+    void cartOrderRereadsPricesTest() {
+        // given: 장바구니에 상품 2개, 화면 조회로 스냅샷 캐시
+        Client client = createClient();
+        Product product = createProduct("CART_REREAD");
+        inventoryService.registerInbound(InboundRequestDto.builder()
+                .productId(product.getId())
+                .lotNumber("LOT-CART-REREAD")
+                .quantity(10)
+                .inboundDate(LocalDate.now())
+                .expiryDate(LocalDate.now().plusMonths(6))
+                .build());
+        Cart cart = new Cart();
+        cart.setClient(client);
+        CartItem item = new CartItem();
+        item.setCart(cart);
+        item.setProduct(product);
+        item.setCount(2);
+        cart.getCartItems().add(item);
+        cartRepository.save(cart);
+        em.flush();
+        em.clear();
+        Long itemId = cartService.getCartList(client).getItems().get(0).getItemId();
+
+        // when: 다른 서버에서 공급가 변경 (이 서버의 스냅샷은 무효화되지 않음)
+        jdbcTemplate.update("UPDATE products SET supply_price = 13000 WHERE product_id = ?", product.getId());
+        em.clear();
+
+        // then: 화면은 이전 스냅샷이어도 주문은 현재 공급가
+        assertEquals(20000, cartService.getCartList(client).getItems().get(0).getTotalPrice());
+        OrderDto.OrderRequest request = new OrderDto.OrderRequest();
+        request.setCartItemIds(List.of(itemId));
+        request.setReceiverName("홍길동");
+        assertEquals(26000, orderService.createOrder(client, request).getTotalAmount());
+
+        // then: 장바구니에 없는 항목이 섞이면 거절
+        OrderDto.OrderRequest missing = new OrderDto.OrderRequest();
+        missing.setCartItemIds(List.of(itemId, -1L));
+        missing.setReceiverName("홍길동");
+        assertThrows(IllegalArgumentException.class, () -> orderService.createOrder(client, missing));
+    }
+}
@@ -0,0 +1,198 @@
+package com.age.b2b.service;
+
+import com.age.b2b.dto.dashboard.DashboardRes;
+import com.age.b2b.support.QueryFanOut;
+import com.age.b2b.support.SnapshotCache;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Slf4j
+@TestPropertySource(locations = "classpath:application-test.properties")
+class DashboardServiceTest {
+
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired DashboardService dashboardService;
+
+    @Test
+    @DisplayName("조회 동시 실행 - 제한 시간을 넘긴 조회는 기본값으로 대체되고 DB 문장도 타임아웃으로 중단")
+    void fanOutStatementTimeoutTest() throws Exception {
+        // given: 스레드 1개, 제한 시간 1초
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            QueryFanOut fanOut = new QueryFanOut(executor, transactionManager, 1000);
+
+            // when: 5초 걸리는 조회
+            long started = System.nanoTime();
+            QueryFanOut.Result<Integer> slow = fanOut.submit("slow",
+                    () -> jdbcTemplate.queryForObject("SELECT SLEEP(5)", Integer.class), -1);
+
+            // then: 제한 시간에 기본값 반환
+            assertEquals(-1, slow.get());
+            assertTrue(fanOut.isPartial());
+            assertEquals(List.of("slow"), fanOut.getTimedOut());
+
+            // then: 문장 타임아웃으로 스레드가 곧 풀려 다음 조회가 5초를 기다리지 않음 (interrupt 로는 소켓 대기가 끊기지 않음)
+            assertEquals(1, executor.submit(() -> jdbcTemplate.queryForObject("SELECT 1", Integer.class)).get(3, TimeUnit.SECONDS));
+            assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(4));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("조회 순차 실행 - 문장 타임아웃은 시간 초과로, 다른 예외는 실패로 구분")
+    void sequentialFanOutTest() {
+        // given: executor 없이 순차 실행, 제한 시간 1초
+        QueryFanOut fanOut = new QueryFanOut(null, transactionManager, 1000);
+
+        // when
+        QueryFanOut.Result<Integer> fast = fanOut.submit("fast",
+                () -> jdbcTemplate.queryForObject("SELECT 1", Integer.class), -1);
+        QueryFanOut.Result<Integer> slow = fanOut.submit("slow",
+                () -> jdbcTemplate.queryForObject("SELECT SLEEP(3)", Integer.class), -1);
+        QueryFanOut.Result<Integer> broken = fanOut.submit("broken",
+                () -> jdbcTemplate.queryForObject("SELECT no_such_column FROM dual", Integer.class), -1);
+
+        // then
+        assertEquals(1, fast.get());
+        assertEquals(-1, slow.get());
+        assertEquals(-1, broken.get());
+        assertEquals(List.of("slow"), fanOut.getTimedOut());
+        assertEquals(List.of("broken"), fanOut.getFailed());
+    }
+
+    @Test
+    @DisplayName("대시보드 스냅샷 - TTL 동안 같은 스냅샷을 공유하고, 무효화하면 다시 조회")
+    void dashboardSnapshotTest() {
+        // given
+        dashboardService.refreshAfterChange();
+        long hitsBefore = metric("hits");
+
+        // when
+        DashboardRes first = dashboardService.getDashboard();
+        DashboardRes second = dashboardService.getDashboard();
+
+        // then: 두 번째는 캐시 적중
+        assertSame(first, second);
+        assertEquals(hitsBefore + 1, metric("hits"));
+
+        // when: 원본 변경 후 무효화
+        dashboardService.refreshAfterChange();
+
+        // then: 새 스냅샷
+        assertNotSame(first, dashboardService.getDashboard());
+    }
+
+    @Test
+    @DisplayName("스냅샷 캐시 - 만료된 스냅샷을 동시에 요청하면 한 번만 다시 만들고 나머지는 그 결과를 기다림")
+    void snapshotSingleFlightTest() throws Exception {
+        // given: 0.3초 걸리는 로더
+        AtomicInteger loads = new AtomicInteger();
+        SnapshotCache<Integer> cache = new SnapshotCache<>(() -> {
+            sleep(300);
+            return loads.incrementAndGet();
+        }, 60_000);
+
+        // when: 8개 스레드가 동시에 요청
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get();
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> future : futures) {
+                assertEquals(1, future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // then: 로더는 한 번만 실행, 나머지는 공유 대기 또는 캐시 적중
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.getMetrics().get("refreshes"));
+        assertEquals(8L, (long) cache.getMetrics().get("hits") + (long) cache.getMetrics().get("misses"));
+    }
+
+    @Test
+    @DisplayName("스냅샷 캐시 - TTL 이 지나면 다시 만들고, 재생성이 실패하면 이전 스냅샷을 반환")
+    void snapshotExpiryAndFallbackTest() {
+        // given: 두 번째 로드부터 실패하는 로더, TTL 50ms
+        AtomicInteger loads = new AtomicInteger();
+        SnapshotCache<Integer> cache = new SnapshotCache<>(() -> {
+            if (loads.incrementAndGet() > 1) {
+                throw new IllegalStateException("조회 실패");
+            }
+            return 100;
+        }, 50);
+
+        // when / then: 첫 조회 후 TTL 안에서는 캐시 적중
+        assertEquals(100, cache.get());
+        assertEquals(100, cache.get());
+        assertEquals(1, loads.get());
+
+        // when / then: 만료 후 재생성 실패 -> 이전 스냅샷
+        sleep(80);
+        assertEquals(100, cache.get());
+        assertEquals(2, loads.get());
+        assertEquals(1L, cache.getMetrics().get("refreshFailures"));
+        assertEquals(1L, cache.getMetrics().get("staleServed"));
+
+        // 이전 스냅샷도 없으면 예외 그대로
+        SnapshotCache<Integer> empty = new SnapshotCache<>(() -> {
+            throw new IllegalStateException("조회 실패");
+        }, 50);
+        assertThrows(IllegalStateException.class, empty::get);
+    }
+
+    @Test
+    @DisplayName("스냅샷 캐시 - 캐시 불가 값(부분 결과)은 반환만 하고 다음 요청에서 다시 만듦")
+    void snapshotNotCacheableTest() {
+        // given: 음수는 캐시하지 않음
+        AtomicInteger loads = new AtomicInteger();
+        SnapshotCache<Integer> cache = new SnapshotCache<>(() -> loads.incrementAndGet() == 1 ? -1 : 2,
+                60_000, value -> value >= 0);
+
+        // when / then
+        assertEquals(-1, cache.get());
+        assertEquals(2, cache.get());
+        assertEquals(2, cache.get());
+        assertEquals(2, loads.get());
+    }
+
+    private long metric(String name) {
+        return ((Number) dashboardService.getMetrics().get(name)).longValue();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.age.b2b.service;
+
+import com.age.b2b.domain.common.AdjustmentReason;
+import com.age.b2b.service.stock.InventoryLogMetrics;
+import com.age.b2b.service.stock.InventoryLogWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 재고 이력 그룹 저장 (ASYNC) - 커밋 후 백그라운드 저장 / 저장 실패 배치 파일 보관 / 보관 파일 재저장
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "inventory.log.write-mode=ASYNC",
+        "inventory.log.retry-backoff-ms=10",
+        "inventory.log.spill-retry-ms=100",
+        "inventory.log.spill-dir=" + InventoryLogWriterAsyncTest.SPILL_DIR,
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+class InventoryLogWriterAsyncTest {
+
+    static final String SPILL_DIR = "build/test-spill/async-inventory-logs";
+
+    private static final long COMMITTED_LOT = -2001L;
+    private static final long ROLLED_BACK_LOT = -2002L;
+    private static final long SPILLED_LOT = -2003L;
+    private static final long REPLAYED_LOT = -2004L;
+    private static final long DUPLICATE_LOT = -2005L;
+
+    @Autowired InventoryLogWriter inventoryLogWriter;
+    @Autowired InventoryLogMetrics inventoryLogMetrics;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanup() throws IOException {
+        jdbcTemplate.update("DELETE FROM inventory_logs WHERE lot_id IN (?, ?, ?, ?, ?)",
+                COMMITTED_LOT, ROLLED_BACK_LOT, SPILLED_LOT, REPLAYED_LOT, DUPLICATE_LOT);
+        jdbcTemplate.update("DELETE FROM inventory_log_spill_replays");
+        for (Path file : spillFiles()) {
+            Files.delete(file);
+        }
+        for (Path file : quarantinedFiles()) {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("ASYNC - 커밋된 트랜잭션의 이력만 백그라운드에서 저장")
+    void groupCommitTest() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // when
+        tx.executeWithoutResult(status -> inventoryLogWriter.append(COMMITTED_LOT, 10, 10, AdjustmentReason.INBOUND, "커밋"));
+        tx.executeWithoutResult(status -> {
+            inventoryLogWriter.append(ROLLED_BACK_LOT, 5, 5, AdjustmentReason.INBOUND, "롤백");
+            status.setRollbackOnly();
+        });
+
+        // then
+        awaitTrue(() -> countLogs(COMMITTED_LOT) == 1);
+        assertEquals(0, countLogs(ROLLED_BACK_LOT));
+    }
+
+    @Test
+    @DisplayName("ASYNC - 재시도까지 실패한 배치는 버리지 않고 파일로 보관 (다시 저장해도 실패하면 격리 폴더로 이동)")
+    void spillFailedBatchTest() throws Exception {
+        // given: note 컬럼(255자)보다 긴 이력 -> INSERT 가 계속 실패
+        long spilledBefore = metric("spilledEntries");
+
+        // when
+        inventoryLogWriter.append(SPILLED_LOT, 1, 1, AdjustmentReason.ETC, "x".repeat(300));
+
+        // then: 버려지지 않고 파일에 남음
+        awaitTrue(() -> metric("spilledEntries") > spilledBefore);
+        List<Path> files = new ArrayList<>(spillFiles());
+        files.addAll(quarantinedFiles());
+        assertEquals(1, files.size());
+        assertTrue(Files.readString(files.get(0), StandardCharsets.UTF_8).contains("\"lotId\":" + SPILLED_LOT));
+        assertEquals(0, countLogs(SPILLED_LOT));
+    }
+
+    @Test
+    @DisplayName("ASYNC - 보관 파일의 이력은 다음 주기에 저장되고 파일은 삭제")
+    void replaySpilledTest() throws Exception {
+        // given: 이전 실행에서 남은 보관 파일
+        Path file = Paths.get(SPILL_DIR).resolve("inventory-logs-0-1.ndjson");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file,
+                "{\"lotId\":" + REPLAYED_LOT + ",\"changeQuantity\":4,\"currentQuantity\":4,\"reason\":\"RETURN\"," +
+                "\"note\":\"보관분\",\"createdAt\":\"2025-01-01T10:00:00\"}\n", StandardCharsets.UTF_8);
+
+        // then
+        awaitTrue(() -> countLogs(REPLAYED_LOT) == 1);
+        awaitTrue(() -> !Files.exists(file));
+        assertEquals("RETURN", jdbcTemplate.queryForObject(
+                "SELECT reason FROM inventory_logs WHERE lot_id = ?", String.class, REPLAYED_LOT));
+    }
+
+    @Test
+    @DisplayName("ASYNC - 읽을 수 없는 보관 파일은 격리하고 다음 파일을 계속 저장")
+    void quarantineCorruptSpillFileTest() throws Exception {
+        // given: 깨진 파일이 먼저, 정상 파일이 뒤에 있음
+        long quarantinedBefore = metric("quarantinedFiles");
+        Path corrupt = Paths.get(SPILL_DIR).resolve("inventory-logs-0-1.ndjson");
+        Path valid = Paths.get(SPILL_DIR).resolve("inventory-logs-0-2.ndjson");
+        Files.createDirectories(corrupt.getParent());
+        Files.writeString(corrupt, "{\"lotId\": 깨진 줄\n", StandardCharsets.UTF_8);
+        Files.writeString(valid, spillLine(REPLAYED_LOT), StandardCharsets.UTF_8);
+
+        // then: 정상 파일은 저장 후 삭제, 깨진 파일은 격리 폴더로 이동
+        awaitTrue(() -> countLogs(REPLAYED_LOT) == 1);
+        awaitTrue(() -> !Files.exists(valid) && !Files.exists(corrupt));
+        assertEquals(List.of("inventory-logs-0-1.ndjson"),
+                quarantinedFiles().stream().map(path -> path.getFileName().toString()).toList());
+        assertEquals(quarantinedBefore + 1, metric("quarantinedFiles"));
+    }
+
+    @Test
+    @DisplayName("ASYNC - 이미 저장한 보관 파일은 (파일 삭제만 실패한 경우) 다시 저장하지 않고 삭제만 함")
+    void replaySpilledOnceTest() throws Exception {
+        // given: 저장 표시가 남아 있는 보관 파일
+        String fileName = "inventory-logs-0-3.ndjson";
+        jdbcTemplate.update("INSERT INTO inventory_log_spill_replays (file_name, entry_count, replayed_at) VALUES (?, 1, NOW())",
+                fileName);
+        Path file = Paths.get(SPILL_DIR).resolve(fileName);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, spillLine(DUPLICATE_LOT), StandardCharsets.UTF_8);
+
+        // then: 이력은 다시 저장되지 않고 파일 / 표시만 정리
+        awaitTrue(() -> !Files.exists(file));
+        assertEquals(0, countLogs(DUPLICATE_LOT));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM inventory_log_spill_replays WHERE file_name = ?", Integer.class, fileName));
+    }
+
+    private String spillLine(long lotId) {
+        return "{\"lotId\":" + lotId + ",\"changeQuantity\":4,\"currentQuantity\":4,\"reason\":\"RETURN\"," +
+                "\"note\":\"보관분\",\"createdAt\":\"2025-01-01T10:00:00\"}\n";
+    }
+
+    private int countLogs(long lotId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM inventory_logs WHERE lot_id = ?", Integer.class, lotId);
+    }
+
+    private long metric(String name) {
+        return ((Number) inventoryLogMetrics.getMetrics().get(name)).longValue();
+    }
+
+    private List<Path> spillFiles() throws IOException {
+        Path dir = Paths.get(SPILL_DIR);
+        if (!Files.isDirectory(dir)) return List.of();
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".ndjson")).toList();
+        }
+    }
+
+    private List<Path> quarantinedFiles() throws IOException {
+        Path dir = Paths.get(SPILL_DIR).resolve("quarantine");
+        if (!Files.isDirectory(dir)) return List.of();
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.toList();
+        }
+    }
+
+    private void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "5초 안에 조건을 만족하지 않음");
+            Thread.sleep(50);
+        }
+    }
+}
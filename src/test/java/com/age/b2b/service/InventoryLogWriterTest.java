@@ -0,0 +1,63 @@
+package com.age.b2b.service;
+
+import com.age.b2b.domain.common.AdjustmentReason;
+import com.age.b2b.service.stock.InventoryLogWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 재고 이력 배치 저장 (SYNC_BATCH) - 커밋/롤백 결과를 보기 위해 테스트 트랜잭션 없이 직접 커밋
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+class InventoryLogWriterTest {
+
+    // 실제 Lot 과 겹치지 않는 Lot ID (inventory_logs.lot_id 에는 FK 가 없음)
+    private static final long COMMITTED_LOT = -1001L;
+    private static final long ROLLED_BACK_LOT = -1002L;
+
+    @Autowired InventoryLogWriter inventoryLogWriter;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.update("DELETE FROM inventory_logs WHERE lot_id IN (?, ?)", COMMITTED_LOT, ROLLED_BACK_LOT);
+    }
+
+    @Test
+    @DisplayName("SYNC_BATCH - 커밋된 트랜잭션의 이력만 저장되고, 롤백된 트랜잭션의 이력은 남지 않음")
+    void commitAndRollbackTest() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // when: 커밋
+        tx.executeWithoutResult(status -> {
+            inventoryLogWriter.append(COMMITTED_LOT, 10, 10, AdjustmentReason.INBOUND, "커밋");
+            inventoryLogWriter.append(COMMITTED_LOT, -3, 7, AdjustmentReason.OUTBOUND, "커밋");
+        });
+
+        // when: 롤백 (flush 로 이미 INSERT 된 뒤에 롤백되어도 함께 취소)
+        tx.executeWithoutResult(status -> {
+            inventoryLogWriter.append(ROLLED_BACK_LOT, 5, 5, AdjustmentReason.INBOUND, "롤백");
+            inventoryLogWriter.flush();
+            status.setRollbackOnly();
+        });
+
+        // then
+        assertEquals(2, countLogs(COMMITTED_LOT));
+        assertEquals(7, jdbcTemplate.queryForObject(
+                "SELECT current_quantity FROM inventory_logs WHERE lot_id = ? AND reason = 'OUTBOUND'", Integer.class, COMMITTED_LOT));
+        assertEquals(0, countLogs(ROLLED_BACK_LOT));
+    }
+
+    private int countLogs(long lotId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM inventory_logs WHERE lot_id = ?", Integer.class, lotId);
+    }
+}
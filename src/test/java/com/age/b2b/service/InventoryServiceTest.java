@@ -1,25 +1,43 @@
 package com.age.b2b.service;
 
+import com.age.b2b.domain.ArchivedProductLot;
 import com.age.b2b.domain.InventoryLog;
+import com.age.b2b.domain.InventoryLogArchive;
 import com.age.b2b.domain.Product;
 import com.age.b2b.domain.ProductLot;
 import com.age.b2b.domain.common.AdjustmentReason;
 import com.age.b2b.domain.common.ProductStatus;
+import com.age.b2b.domain.common.StockQuality;
 import com.age.b2b.dto.InboundRequestDto;
+import com.age.b2b.dto.InventoryLogRecordDto;
 import com.age.b2b.dto.StockAdjustmentDto;
+import com.age.b2b.dto.StockQualityRefreshResultDto;
+import com.age.b2b.repository.ArchivedProductLotRepository;
 import com.age.b2b.repository.InventoryLogRepository;
 import com.age.b2b.repository.ProductLotRepository;
 import com.age.b2b.repository.ProductRepository;
+import com.age.b2b.service.stock.InventoryLogArchiver;
+import com.age.b2b.service.stock.InventoryLogQueryService;
+import com.age.b2b.service.stock.ProductLotArchiver;
+import com.age.b2b.service.stock.StockDeductor;
+import com.age.b2b.service.stock.StockQualityRefresher;
 import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 
@@ -35,6 +53,16 @@ class InventoryServiceTest {
     @Autowired ProductRepository productRepository;
     @Autowired ProductLotRepository productLotRepository;
     @Autowired InventoryLogRepository inventoryLogRepository;
+    @Autowired StockQualityRefresher stockQualityRefresher;
+    @Autowired ProductLotArchiver productLotArchiver;
+    @Autowired ArchivedProductLotRepository archivedProductLotRepository;
+    @Autowired StockDeductor stockDeductor;
+
+    @Value("${inventory.log.archive.dir}")
+    String archiveDir;
+    @Autowired InventoryLogArchiver inventoryLogArchiver;
+    @Autowired InventoryLogQueryService inventoryLogQueryService;
+    @Autowired JdbcTemplate jdbcTemplate;
     @Autowired EntityManager em;
 
     // 테스트용 상품 생성 헬퍼
@@ -208,4 +236,201 @@ class InventoryServiceTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("재고 상태 야간 갱신 - 하루가 지나 경계를 넘은 Lot 만 다음 상태로 전환")
+    void stockQualityRefreshTest() {
+        // given: 오늘 기준 정상(365일) / 관리(90일) / 주의(0일) / 관리(200일) Lot
+        Product product = createProduct("유통기한 테스트", "QUALITY-001");
+        LocalDate today = LocalDate.now();
+        Long normalLot = inbound(product, "LOT-Q-365", today.plusDays(365));
+        Long managedLot = inbound(product, "LOT-Q-90", today.plusDays(90));
+        Long cautionLot = inbound(product, "LOT-Q-0", today);
+        Long untouchedLot = inbound(product, "LOT-Q-200", today.plusDays(200));
+        em.flush();
+        em.clear();
+        assertEquals(StockQuality.NORMAL, productLotRepository.findById(normalLot).orElseThrow().getStockQuality());
+
+        // when: 하루 뒤 기준으로 갱신
+        StockQualityRefreshResultDto result = stockQualityRefresher.refresh(today.plusDays(1), 1);
+        em.clear();
+
+        // then
+        assertEquals(StockQuality.MANAGED, productLotRepository.findById(normalLot).orElseThrow().getStockQuality());
+        assertEquals(StockQuality.CAUTION, productLotRepository.findById(managedLot).orElseThrow().getStockQuality());
+        assertEquals(StockQuality.DISPOSAL, productLotRepository.findById(cautionLot).orElseThrow().getStockQuality());
+        assertEquals(StockQuality.MANAGED, productLotRepository.findById(untouchedLot).orElseThrow().getStockQuality());
+        assertTrue(result.getTransitions().get("NORMAL->MANAGED") >= 1);
+        assertTrue(result.getTransitions().get("MANAGED->CAUTION") >= 1);
+        assertTrue(result.getTransitions().get("CAUTION->DISPOSAL") >= 1);
+
+        // 다시 실행해도 바뀌지 않음
+        assertEquals(0, stockQualityRefresher.refresh(today.plusDays(1), 1).getUpdatedCount());
+    }
+
+    @Test
+    @DisplayName("소진 Lot 보관 - FIFO 대상에서 빠지고, 출고 삭제 복구 시 같은 Lot ID 로 되돌아옴")
+    void lotArchiveTest() {
+        // given: 소진된 Lot 1개, 남은 Lot 1개
+        Product product = createProduct("보관 테이블 테스트", "ARCHIVE-001");
+        Long depletedLot = inbound(product, "LOT-ARC-1", LocalDate.now().plusDays(100));
+        Long activeLot = inbound(product, "LOT-ARC-2", LocalDate.now().plusDays(200));
+        em.flush();
+        productLotRepository.findById(depletedLot).orElseThrow().setQuantity(0);
+        em.flush();
+
+        // FIFO 조회는 남은 수량이 있는 Lot 만
+        assertEquals(List.of(activeLot), productLotRepository.findActiveLots(product.getId()).stream()
+                .map(ProductLot::getId).toList());
+
+        // when: 보관
+        int archived = productLotArchiver.archive(LocalDateTime.now().plusMinutes(1));
+        em.clear();
+
+        // then
+        assertEquals(1, archived);
+        assertFalse(productLotRepository.existsById(depletedLot));
+        ArchivedProductLot archivedLot = archivedProductLotRepository.findById(depletedLot).orElseThrow();
+        assertEquals("LOT-ARC-1", archivedLot.getLotNumber());
+        assertNotNull(archivedLot.getArchivedAt());
+
+        // when: 보관된 Lot 으로 출고 삭제 복구
+        inventoryService.restoreStockToLot(product.getId(), depletedLot, 3);
+        em.clear();
+
+        // then: 같은 Lot ID 로 되돌아와 수량 복구
+        assertEquals(3, productLotRepository.findById(depletedLot).orElseThrow().getQuantity());
+        assertFalse(archivedProductLotRepository.existsById(depletedLot));
+    }
+
+    @Test
+    @DisplayName("소진 Lot 보관 - 소진 후 상태 변경이 있어도 소진 시각 기준으로 보관, 보관된 Lot 에 직접 증가하면 되돌린 뒤 반영")
+    void lotArchiveDepletedAtTest() {
+        // given: 40일 전에 소진된 Lot
+        Product product = createProduct("소진 시각 테스트", "ARCHIVE-002");
+        Long lotId = inbound(product, "LOT-ARC-DEP-1", LocalDate.now().plusDays(100));
+        em.flush();
+        productLotRepository.findById(lotId).orElseThrow().setQuantity(0);
+        em.flush();
+        LocalDateTime depletedAt = LocalDateTime.now().minusDays(40).withNano(0);
+        jdbcTemplate.update("UPDATE product_lots SET depleted_at = ?, updated_at = ? WHERE lot_id = ?",
+                Timestamp.valueOf(depletedAt), Timestamp.valueOf(depletedAt), lotId);
+        em.clear();
+
+        // when: 수량과 무관한 변경 (재고 상태 갱신)
+        productLotRepository.findById(lotId).orElseThrow().setStockQuality(StockQuality.DISPOSAL);
+        em.flush();
+        em.clear();
+
+        // then: 변경 시각은 바뀌어도 소진 시각은 그대로라 30일 기준 보관 대상
+        ProductLot touched = productLotRepository.findById(lotId).orElseThrow();
+        assertTrue(touched.getUpdatedAt().isAfter(depletedAt.plusDays(30)));
+        assertEquals(depletedAt, touched.getDepletedAt());
+        assertEquals(1, productLotArchiver.archive(LocalDateTime.now().minusDays(30)));
+        em.clear();
+
+        // when: 보관된 Lot 에 직접 수량 증가 (호출 측 확인 뒤 보관된 경우)
+        int current = stockDeductor.increase(product.getId(), lotId, 2);
+        em.clear();
+
+        // then: 같은 Lot ID 로 되돌아와 증가, 소진 시각은 지워짐
+        assertEquals(2, current);
+        ProductLot restored = productLotRepository.findById(lotId).orElseThrow();
+        assertEquals(2, restored.getQuantity());
+        assertNull(restored.getDepletedAt());
+        assertFalse(archivedProductLotRepository.existsById(lotId));
+
+        // 어디에도 없는 Lot 은 예외
+        assertThrows(IllegalStateException.class, () -> stockDeductor.increase(product.getId(), -1L, 1));
+    }
+
+    @Test
+    @DisplayName("재고 이력 월 보관 - 보관된 월은 운영 테이블에서 빠지고, 기간 조회는 보관 파일과 운영 테이블을 이어서 반환")
+    void inventoryLogArchiveTest() throws Exception {
+        // given: 2년 전 이력 1건 + 오늘 입고 이력 1건
+        Product product = createProduct("이력 보관 테스트", "LOGARC-001");
+        Long lotId = inbound(product, "LOT-LOGARC-1", LocalDate.now().plusDays(200));
+        em.flush();
+
+        YearMonth oldMonth = YearMonth.now().minusMonths(24);
+        Files.deleteIfExists(Paths.get(archiveDir).resolve("inventory_logs-" + oldMonth + ".ndjson.gz")); // 이전 실행이 남긴 파일
+        LocalDateTime oldAt = oldMonth.atDay(15).atTime(10, 0);
+        jdbcTemplate.update("INSERT INTO inventory_logs (lot_id, change_quantity, current_quantity, reason, note, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", lotId, -2, 8, AdjustmentReason.LOST.name(), "보관 대상", Timestamp.valueOf(oldAt));
+
+        // when: 2년 전 월 보관
+        InventoryLogArchive archive = inventoryLogArchiver.archiveMonth(oldMonth);
+
+        // then: 파일 1건 기록, 운영 테이블에서는 삭제
+        assertEquals(1, archive.getRowCount());
+        assertTrue(archive.getFileSize() > 0);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM inventory_logs WHERE created_at < ?", Integer.class, Timestamp.valueOf(oldMonth.plusMonths(1).atDay(1).atStartOfDay())));
+
+        // 같은 월을 다시 보관해도 기존 기록 유지
+        assertEquals(1, inventoryLogArchiver.archiveMonth(oldMonth).getRowCount());
+
+        // when: 보관 월 ~ 현재 기간 조회
+        List<InventoryLogRecordDto> logs = inventoryLogQueryService.findLogs(
+                lotId, oldMonth.atDay(1).atStartOfDay(), LocalDateTime.now().plusMinutes(1), 10);
+
+        // then: 보관 이력 -> 운영 이력 순서
+        assertEquals(2, logs.size());
+        assertTrue(logs.get(0).isArchived());
+        assertEquals(-2, logs.get(0).getChangeQuantity());
+        assertEquals(oldAt, logs.get(0).getCreatedAt());
+        assertFalse(logs.get(1).isArchived());
+        assertEquals(AdjustmentReason.INBOUND.name(), logs.get(1).getReason());
+
+        // when: 보관한 월에 이력이 다시 생긴 뒤 재보관
+        LocalDateTime lateAt = oldAt.plusDays(1);
+        jdbcTemplate.update("INSERT INTO inventory_logs (lot_id, change_quantity, current_quantity, reason, note, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", lotId, -1, 7, AdjustmentReason.LOST.name(), "늦게 들어온 이력", Timestamp.valueOf(lateAt));
+        InventoryLogArchive merged = inventoryLogArchiver.archiveMonth(oldMonth);
+
+        // then: 기존 보관분을 덮어쓰지 않고 이어서 기록, 운영 테이블에서는 삭제
+        assertEquals(archive.getId(), merged.getId());
+        assertEquals(2, merged.getRowCount());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM inventory_logs WHERE created_at < ?", Integer.class, Timestamp.valueOf(oldMonth.plusMonths(1).atDay(1).atStartOfDay())));
+
+        List<InventoryLogRecordDto> archivedLogs = inventoryLogQueryService.findLogs(
+                lotId, oldMonth.atDay(1).atStartOfDay(), oldMonth.plusMonths(1).atDay(1).atStartOfDay(), 10);
+        assertEquals(2, archivedLogs.size());
+        assertTrue(archivedLogs.stream().allMatch(InventoryLogRecordDto::isArchived));
+        assertEquals(List.of(oldAt, lateAt), archivedLogs.stream().map(InventoryLogRecordDto::getCreatedAt).toList());
+    }
+
+    @Test
+    @DisplayName("재고 다중 삭제 - Lot, 이력, 검색 색인을 한 번에 삭제")
+    void deleteStocksTest() {
+        // given
+        Product product = createProduct("다중 삭제 테스트", "DELETE-001");
+        Long lot1 = inbound(product, "LOT-DEL-1", LocalDate.now().plusDays(100));
+        Long lot2 = inbound(product, "LOT-DEL-2", LocalDate.now().plusDays(200));
+        em.flush();
+        assertFalse(inventoryLogRepository.findByProductLotId(lot1).isEmpty());
+
+        // when
+        inventoryService.deleteStocks(List.of(lot1, lot2));
+        em.flush();
+        em.clear();
+
+        // then
+        assertFalse(productLotRepository.existsById(lot1));
+        assertFalse(productLotRepository.existsById(lot2));
+        assertTrue(inventoryLogRepository.findByProductLotId(lot1).isEmpty());
+        assertTrue(inventoryLogRepository.findByProductLotId(lot2).isEmpty());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM search_tokens WHERE doc_type = 'LOT' AND doc_id IN (?, ?)", Integer.class, lot1, lot2));
+    }
+
+    private Long inbound(Product product, String lotNumber, LocalDate expiryDate) {
+        return inventoryService.registerInbound(InboundRequestDto.builder()
+                .productId(product.getId())
+                .lotNumber(lotNumber)
+                .quantity(10)
+                .inboundDate(LocalDate.now())
+                .expiryDate(expiryDate)
+                .build());
+    }
+}
@@ -0,0 +1,434 @@
+package com.age.b2b.service;
+
+import com.age.b2b.domain.Client;
+import com.age.b2b.domain.Order;
+import com.age.b2b.domain.OrderItem;
+import com.age.b2b.domain.Product;
+import com.age.b2b.domain.StockReservation;
+import com.age.b2b.domain.common.ClientStatus;
+import com.age.b2b.domain.common.OrderStatus;
+import com.age.b2b.domain.common.ProductStatus;
+import com.age.b2b.dto.CursorPageDto;
+import com.age.b2b.dto.InboundRequestDto;
+import com.age.b2b.dto.OrderDto;
+import com.age.b2b.dto.ProductResponseDto;
+import com.age.b2b.repository.ClientRepository;
+import com.age.b2b.repository.OrderRepository;
+import com.age.b2b.repository.ProductRepository;
+import com.age.b2b.repository.StockReservationRepository;
+import com.age.b2b.service.stock.AtpLedger;
+import com.age.b2b.service.stock.StockReservationService;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@Slf4j
+@TestPropertySource(locations = "classpath:application-test.properties")
+class OrderServiceTest {
+
+    @Autowired OrderService orderService;
+    @Autowired OrderRepository orderRepository;
+    @Autowired ClientRepository clientRepository;
+    @Autowired ProductRepository productRepository;
+    @Autowired InventoryService inventoryService;
+    @Autowired ProductService productService;
+    @Autowired AtpLedger atpLedger;
+    @Autowired StockReservationService stockReservationService;
+    @Autowired StockReservationRepository stockReservationRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired EntityManager em;
+
+    // 데이터 셋업 헬퍼
+    private Client createClient() {
+        Client client = new Client();
+        client.setUsername("user_order_list");
+        client.setBusinessName("목록약국");
+        client.setPassword("1234");
+        client.setPhone("010-" + (int)(Math.random() * 9000 + 1000) + "-" + (int)(Math.random() * 9000 + 1000));
+        client.setEmail("list@email.com");
+        client.setBusinessNumber("123-45-11111");
+        client.setOwnerName("홍길동");
+        client.setAddress("서울");
+        client.setClientCategory("ETC");
+        client.setApprovalStatus(ClientStatus.APPROVED);
+        return clientRepository.save(client);
+    }
+
+    private Product createProduct(String code) {
+        Product product = new Product();
+        product.setProductCode(code);
+        product.setName("상품_" + code);
+        product.setSupplyPrice(10000);
+        product.setConsumerPrice(15000);
+        product.setCostPrice(5000);
+        product.setOrigin("Korea");
+        product.setDescription("Desc");
+        product.setStatus(ProductStatus.ON_SALE);
+        return productRepository.save(product);
+    }
+
+    private Order createOrder(Client client, Product product, int count) {
+        Order order = new Order();
+        order.setClient(client);
+        order.setOrderNumber("ORD-LIST-" + System.nanoTime());
+        order.setStatus(OrderStatus.PREPARING);
+        order.setTotalAmount(product.getSupplyPrice() * count);
+
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setCount(count);
+        item.setPrice(product.getSupplyPrice());
+        order.addOrderItem(item);
+
+        return orderRepository.save(order);
+    }
+
+    @Test
+    @DisplayName("발주 목록 커서 조회 - 페이지를 이어서 받아도 누락/중복 없이 최신순")
+    void partnerOrderListByCursorTest() {
+        // given
+        Client client = createClient();
+        Product product = createProduct("CODE_CURSOR");
+        List<Long> createdIds = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            createdIds.add(createOrder(client, product, i).getId());
+        }
+
+        em.flush();
+        em.clear();
+
+        // when - 2건씩 끝까지 조회
+        List<Long> fetchedIds = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageDto<OrderDto.PartnerOrderListResponse> page =
+                    orderService.getPartnerOrderListByCursor(client, cursor, 2, null, null, null, pages == 0);
+            if (pages == 0) {
+                assertEquals(5L, page.getTotalElements());
+            } else {
+                assertNull(page.getTotalElements()); // COUNT 생략
+            }
+            page.getContent().forEach(row -> fetchedIds.add(row.getOrderId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // then
+        assertEquals(3, pages);
+        assertEquals(5, fetchedIds.size());
+        assertEquals(createdIds.size(), fetchedIds.stream().distinct().count());
+        assertTrue(fetchedIds.containsAll(createdIds));
+        log.info("커서 조회 결과: {}", fetchedIds);
+    }
+
+    @Test
+    @DisplayName("발주 목록 커서 조회 - 잘못된 커서")
+    void invalidCursorTest() {
+        Client client = createClient();
+
+        assertThrows(IllegalArgumentException.class, () ->
+                orderService.getPartnerOrderListByCursor(client, "not-a-cursor", 10, null, null, null, false));
+    }
+
+    @Test
+    @DisplayName("발주 목록 조회 - 행 수와 관계없이 페이지당 쿼리 수 고정 (N+1 없음)")
+    void orderListStatementCountTest() {
+        // given - 주문 5건, 주문마다 상품 3개
+        Client client = createClient();
+        Product first = createProduct("CODE_N1_A");
+        Product second = createProduct("CODE_N1_B");
+        Product third = createProduct("CODE_N1_C");
+        for (int i = 0; i < 5; i++) {
+            Order order = createOrder(client, first, 1);
+            for (Product product : List.of(second, third)) {
+                OrderItem item = new OrderItem();
+                item.setProduct(product);
+                item.setCount(2);
+                item.setPrice(product.getSupplyPrice());
+                order.addOrderItem(item);
+            }
+        }
+
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // when
+        Page<OrderDto.PartnerOrderListResponse> page = orderService.getPartnerOrderList(
+                client, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")), null, null, null);
+        long partnerStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        Page<OrderDto.AdminOrderListResponse> adminPage = orderService.getAdminOrderList(
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")), null, null, "목록약국");
+        long adminStatements = statistics.getPrepareStatementCount();
+
+        // then - 목록 + (COUNT) + 주문별 요약 + 대표 상품
+        log.info("파트너 목록 쿼리 수: {}, 본사 목록 쿼리 수: {}", partnerStatements, adminStatements);
+        assertTrue(partnerStatements <= 4);
+        assertTrue(adminStatements <= 4);
+
+        assertEquals(5, page.getContent().size());
+        OrderDto.PartnerOrderListResponse row = page.getContent().get(0);
+        assertEquals(3, row.getItemCount());
+        assertEquals(5, row.getTotalQuantity());
+        assertEquals("CODE_N1_A", row.getRepProductCode());
+
+        assertFalse(adminPage.getContent().isEmpty());
+        assertEquals("목록약국", adminPage.getContent().get(0).getClientName());
+    }
+
+    @Test
+    @DisplayName("발주 저장 벤치마크 - 품목 100개 주문을 배치 INSERT (배치 미사용 대비 쿼리 수/시간)")
+    void orderInsertBatchBenchmarkTest() {
+        // given
+        Client client = createClient();
+        Product product = createProduct("CODE_BATCH");
+        em.flush();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        Session session = em.unwrap(Session.class);
+
+        // when - 배치 크기 1 (IDENTITY 와 같은 행당 1회 왕복) / 설정값 (50)
+        session.setJdbcBatchSize(1);
+        statistics.clear();
+        long unbatchedStart = System.nanoTime();
+        createOrderWithItems(client, product, 100);
+        em.flush();
+        long unbatchedNanos = System.nanoTime() - unbatchedStart;
+        long unbatchedStatements = statistics.getPrepareStatementCount();
+
+        session.setJdbcBatchSize(null);
+        statistics.clear();
+        long batchedStart = System.nanoTime();
+        createOrderWithItems(client, product, 100);
+        em.flush();
+        long batchedNanos = System.nanoTime() - batchedStart;
+        long batchedStatements = statistics.getPrepareStatementCount();
+
+        // then
+        log.info("주문 1건 + 품목 100개 저장 - 배치 미사용: {}쿼리 {}ms, 배치: {}쿼리 {}ms",
+                unbatchedStatements, unbatchedNanos / 1_000_000, batchedStatements, batchedNanos / 1_000_000);
+        assertEquals(101, statistics.getEntityInsertCount());
+        assertTrue(unbatchedStatements >= 101);
+        assertTrue(batchedStatements * 5 < unbatchedStatements);
+    }
+
+    @Test
+    @DisplayName("주문 가능 수량(ATP) - 현재고에서 출고 대기 주문 수량을 빼고, 넘게 주문하면 실패")
+    void availableToPromiseTest() {
+        // given: 재고 10개, 출고 대기 주문 4개, 결제 대기 주문 3개 (결제 대기는 차감하지 않음)
+        Client client = createClient();
+        Product product = createProduct("CODE_ATP");
+        inventoryService.registerInbound(InboundRequestDto.builder()
+                .productId(product.getId())
+                .lotNumber("LOT-ATP-1")
+                .quantity(10)
+                .inboundDate(LocalDate.now())
+                .expiryDate(LocalDate.now().plusMonths(6))
+                .build());
+        createOrder(client, product, 4);
+        createOrder(client, product, 3).setStatus(OrderStatus.PENDING);
+        em.flush();
+        atpLedger.reconcile(); // 다른 테스트에서 이미 집계했을 수 있으므로 다시 집계
+
+        // when
+        int available = atpLedger.available(product.getId());
+        ProductResponseDto row = productService.getPartnerProductList(null, 0).getContent().stream()
+                .filter(dto -> dto.getProductId().equals(product.getId()))
+                .findFirst().orElseThrow();
+
+        // then
+        assertEquals(6, available);
+        assertEquals(6, row.getAvailableQuantity());
+
+        OrderDto.OrderItemRequest item = new OrderDto.OrderItemRequest();
+        item.setProductId(product.getId());
+        item.setCount(7);
+        OrderDto.OrderRequest request = new OrderDto.OrderRequest();
+        request.setOrderItems(List.of(item));
+        assertThrows(IllegalStateException.class, () -> orderService.createOrder(client, request));
+    }
+
+    @Test
+    @DisplayName("주문 생성 시 재고 예약 - 예약 수량만큼 주문 가능 수량 차감, 초과 주문 거절, 취소 시 해제")
+    void stockReservationTest() {
+        // given: 재고 10개
+        Client client = createClient();
+        Product product = createProduct("CODE_RSV");
+        inventoryService.registerInbound(InboundRequestDto.builder()
+                .productId(product.getId())
+                .lotNumber("LOT-RSV-1")
+                .quantity(10)
+                .inboundDate(LocalDate.now())
+                .expiryDate(LocalDate.now().plusMonths(6))
+                .build());
+        em.flush();
+        atpLedger.reconcile();
+
+        // when: 6개 주문 (결제 전)
+        String orderNumber = orderService.createOrder(client, orderRequest(product, 6)).getOrderNumber();
+        Order order = orderRepository.findByOrderNumber(orderNumber).orElseThrow();
+
+        // then: 예약 6개 -> 주문 가능 4개
+        assertEquals(4, atpLedger.available(product.getId()));
+        List<StockReservation> reservations = stockReservationRepository.findByOrderIdOrderByIdAsc(order.getId());
+        assertEquals(1, reservations.size());
+        assertEquals(StockReservation.HELD, reservations.get(0).getStatus());
+        assertEquals(6, reservations.get(0).getQuantity());
+        assertTrue(reservations.get(0).getExpiresAt().isAfter(LocalDateTime.now()));
+
+        // when: 결제 전 취소 -> 커밋 직전 반영 단계에서 예약 해제
+        OrderDto.CancelRequest cancel = new OrderDto.CancelRequest();
+        cancel.setOrderIds(List.of(order.getId()));
+        orderService.requestCancel(client, cancel);
+        em.flush();
+        stockReservationService.collect();
+        em.refresh(reservations.get(0));
+
+        // then
+        assertEquals(StockReservation.RELEASED, reservations.get(0).getStatus());
+
+        // 공유 행은 같은 트랜잭션에서 해제되므로 5개 주문은 예약되고, 남은 5개를 넘는 주문은 거절됨
+        orderService.createOrder(client, orderRequest(product, 5));
+        assertThrows(IllegalStateException.class, () -> orderService.createOrder(client, orderRequest(product, 6)));
+    }
+
+    @Test
+    @DisplayName("재고 예약 - 다른 서버가 잡은 예약은 메모리 원장에 없어도 공유 행에서 판정해 초과 예약 거절")
+    void stockReservationAcrossNodesTest() {
+        // given: 재고 10개, 이 서버에서 2개 예약
+        Client client = createClient();
+        Product product = createProduct("CODE_RSV_NODE");
+        inventoryService.registerInbound(InboundRequestDto.builder()
+                .productId(product.getId())
+                .lotNumber("LOT-RSV-NODE-1")
+                .quantity(10)
+                .inboundDate(LocalDate.now())
+                .expiryDate(LocalDate.now().plusMonths(6))
+                .build());
+        em.flush();
+        atpLedger.reconcile();
+        orderService.createOrder(client, orderRequest(product, 2));
+
+        // when: 다른 서버가 7개 예약 (이 서버의 메모리 원장은 모름)
+        jdbcTemplate.update("INSERT INTO stock_reservations (order_id, product_id, quantity, status, expires_at, created_at, updated_at) " +
+                "VALUES (?, ?, 7, 'HELD', ?, ?, ?)", -1L, product.getId(),
+                LocalDateTime.now().plusMinutes(15), LocalDateTime.now(), LocalDateTime.now());
+        jdbcTemplate.update("UPDATE product_stock_holds SET reserved_quantity = reserved_quantity + 7 WHERE product_id = ?", product.getId());
+
+        // then: 메모리 원장은 8개로 보지만 공유 행 기준 남은 1개만 예약 가능
+        assertEquals(8, atpLedger.available(product.getId()));
+        assertThrows(IllegalStateException.class, () -> orderService.createOrder(client, orderRequest(product, 2)));
+        orderService.createOrder(client, orderRequest(product, 1));
+        assertEquals(10, jdbcTemplate.queryForObject(
+                "SELECT reserved_quantity FROM product_stock_holds WHERE product_id = ?", Integer.class, product.getId()));
+
+        // 재집계하면 DB 의 예약 합계(2 + 7 + 1)로 다시 맞춰짐
+        jdbcTemplate.update("UPDATE product_stock_holds SET reserved_quantity = 0 WHERE product_id = ?", product.getId());
+        stockReservationService.reconcile();
+        assertEquals(10, jdbcTemplate.queryForObject(
+                "SELECT reserved_quantity FROM product_stock_holds WHERE product_id = ?", Integer.class, product.getId()));
+    }
+
+    @Test
+    @DisplayName("재고 예약 - 폐기대상 Lot 은 현재고에서 빼고, 한 상품이라도 부족하면 아무 예약도 남기지 않음")
+    void stockReservationAllOrNothingTest() {
+        // given: 상품 A 재고 10개, 상품 B 정상 3개 + 유통기한이 지난(폐기대상) 5개
+        Product productA = createProduct("CODE_RSV_ALL_A");
+        Product productB = createProduct("CODE_RSV_ALL_B");
+        inventoryService.registerInbound(InboundRequestDto.builder()
+                .productId(productA.getId())
+                .lotNumber("LOT-RSV-ALL-A")
+                .quantity(10)
+                .inboundDate(LocalDate.now())
+                .expiryDate(LocalDate.now().plusMonths(6))
+                .build());
+        inventoryService.registerInbound(InboundRequestDto.builder()
+                .productId(productB.getId())
+                .lotNumber("LOT-RSV-ALL-B1")
+                .quantity(3)
+                .inboundDate(LocalDate.now())
+                .expiryDate(LocalDate.now().plusMonths(6))
+                .build());
+        inventoryService.registerInbound(InboundRequestDto.builder()
+                .productId(productB.getId())
+                .lotNumber("LOT-RSV-ALL-B2")
+                .quantity(5)
+                .inboundDate(LocalDate.now().minusMonths(12))
+                .expiryDate(LocalDate.now().minusDays(1))
+                .build());
+        em.flush();
+        Long orderId = -2L;
+        Map<Long, String> names = Map.of(productA.getId(), productA.getName(), productB.getId(), productB.getName());
+
+        // when: B 를 4개 예약 (폐기대상을 포함하면 8개라 통과하지만, 출고 가능한 것은 3개)
+        assertThrows(IllegalStateException.class, () -> stockReservationService.hold(orderId,
+                Map.of(productA.getId(), 4, productB.getId(), 4), names));
+
+        // then: 먼저 판정한 A 의 공유 행도, 예약 행도 남지 않음
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT reserved_quantity FROM product_stock_holds WHERE product_id = ?", Integer.class, productA.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_reservations WHERE order_id = ?", Integer.class, orderId));
+
+        // 출고 가능한 수량 안에서는 예약됨
+        stockReservationService.hold(orderId, Map.of(productA.getId(), 4, productB.getId(), 3), names);
+        assertEquals(4, jdbcTemplate.queryForObject(
+                "SELECT reserved_quantity FROM product_stock_holds WHERE product_id = ?", Integer.class, productA.getId()));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_reservations WHERE order_id = ?", Integer.class, orderId));
+    }
+
+    private OrderDto.OrderRequest orderRequest(Product product, int count) {
+        OrderDto.OrderItemRequest item = new OrderDto.OrderItemRequest();
+        item.setProductId(product.getId());
+        item.setCount(count);
+        OrderDto.OrderRequest request = new OrderDto.OrderRequest();
+        request.setOrderItems(List.of(item));
+        return request;
+    }
+
+    private void createOrderWithItems(Client client, Product product, int itemCount) {
+        Order order = new Order();
+        order.setClient(client);
+        order.setOrderNumber("ORD-BATCH-" + System.nanoTime());
+        order.setStatus(OrderStatus.PREPARING);
+        order.setTotalAmount(product.getSupplyPrice() * itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setCount(1);
+            item.setPrice(product.getSupplyPrice());
+            order.addOrderItem(item);
+        }
+        orderRepository.save(order);
+    }
+}
@@ -0,0 +1,381 @@
+package com.age.b2b.service;
+
+import com.age.b2b.domain.Cart;
+import com.age.b2b.domain.CartItem;
+import com.age.b2b.domain.Client;
+import com.age.b2b.domain.Order;
+import com.age.b2b.domain.OrderItem;
+import com.age.b2b.domain.OutboxEvent;
+import com.age.b2b.domain.Payment;
+import com.age.b2b.domain.Product;
+import com.age.b2b.domain.common.ClientStatus;
+import com.age.b2b.domain.common.OrderStatus;
+import com.age.b2b.domain.common.ProductStatus;
+import com.age.b2b.repository.CartRepository;
+import com.age.b2b.repository.ClientRepository;
+import com.age.b2b.repository.OrderRepository;
+import com.age.b2b.repository.OutboxEventRepository;
+import com.age.b2b.repository.PaymentRepository;
+import com.age.b2b.repository.ProductRepository;
+import com.age.b2b.service.outbox.OutboxDispatcher;
+import com.age.b2b.service.payment.PaymentService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@Transactional
+@TestPropertySource(locations = "classpath:application-test.properties")
+class PaymentServiceTest {
+
+    // 결제사 대신 응답하는 로컬 스텁 (paymentKey 로 응답 종류 결정)
+    private static final AtomicInteger CONFIRM_CALLS = new AtomicInteger();
+    private static final Set<String> LATE_CONFIRMED = ConcurrentHashMap.newKeySet();
+    private static final HttpServer STUB_GATEWAY = startStubGateway();
+
+    @Autowired PaymentService paymentService;
+    @Autowired PaymentRepository paymentRepository;
+    @Autowired OrderRepository orderRepository;
+    @Autowired ClientRepository clientRepository;
+    @Autowired ProductRepository productRepository;
+    @Autowired CartRepository cartRepository;
+    @Autowired OutboxEventRepository outboxEventRepository;
+    @Autowired OutboxDispatcher outboxDispatcher;
+    @Autowired EntityManager em;
+
+    // 실제 메일 발송 대신 호출 여부만 확인
+    @MockitoBean MailService mailService;
+
+    @DynamicPropertySource
+    static void gatewayProperties(DynamicPropertyRegistry registry) {
+        registry.add("payment.toss.base-url", () -> "http://localhost:" + STUB_GATEWAY.getAddress().getPort());
+        registry.add("payment.toss.read-timeout-ms", () -> 500);
+        // 아웃박스는 테스트에서 직접 처리 (같은 트랜잭션 안의 이벤트를 처리하도록)
+        registry.add("outbox.dispatcher.enabled", () -> false);
+    }
+
+    @AfterAll
+    static void stopStubGateway() {
+        STUB_GATEWAY.stop(0);
+    }
+
+    @BeforeEach
+    void resetCalls() {
+        CONFIRM_CALLS.set(0);
+    }
+
+    private static HttpServer startStubGateway() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/v1/payments/confirm", exchange -> {
+                CONFIRM_CALLS.incrementAndGet();
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+                if (body.contains("pk_late") && LATE_CONFIRMED.add("pk_late")) {
+                    // 첫 요청은 승인 처리 후 응답이 늦음, 같은 Idempotency-Key 재요청에는 원래 결과를 바로 응답
+                    try {
+                        Thread.sleep(1500);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    respond(exchange, 200, "{\"status\":\"DONE\",\"method\":\"카드\"}");
+                } else if (body.contains("pk_slow")) {
+                    // 읽기 시간 제한보다 늦게 응답
+                    try {
+                        Thread.sleep(1500);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    respond(exchange, 200, "{\"status\":\"DONE\",\"method\":\"카드\"}");
+                } else if (body.contains("pk_reject")) {
+                    respond(exchange, 400, "{\"code\":\"REJECT_CARD_COMPANY\",\"message\":\"카드사 거절\"}");
+                } else {
+                    respond(exchange, 200, "{\"status\":\"DONE\",\"method\":\"카드\"}");
+                }
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // 데이터 셋업 헬퍼
+    private Client createClient() {
+        Client client = new Client();
+        client.setUsername("user_payment");
+        client.setBusinessName("결제약국");
+        client.setPassword("1234");
+        client.setPhone("010-" + (int)(Math.random() * 9000 + 1000) + "-" + (int)(Math.random() * 9000 + 1000));
+        client.setEmail("pay@email.com");
+        client.setBusinessNumber("123-45-22222");
+        client.setOwnerName("홍길동");
+        client.setAddress("서울");
+        client.setDetailAddress("101호");
+        client.setBusinessLicensePath("license.png");
+        client.setClientCategory("ETC");
+        client.setApprovalStatus(ClientStatus.APPROVED);
+        return clientRepository.save(client);
+    }
+
+    private Order createPendingOrder(Client client, String orderNumber, int amount) {
+        Order order = new Order();
+        order.setClient(client);
+        order.setOrderNumber(orderNumber);
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotalAmount(amount);
+        return orderRepository.save(order);
+    }
+
+    @Test
+    @DisplayName("결제 승인 - 같은 paymentKey 재요청은 결제사를 다시 호출하지 않음")
+    void confirmIsIdempotentTest() {
+        Order order = createPendingOrder(createClient(), "PAY-ORD-1", 30000);
+
+        paymentService.confirmTossPayment("pk_ok_1", "PAY-ORD-1", 30000);
+        paymentService.confirmTossPayment("pk_ok_1", "PAY-ORD-1", 30000);
+
+        em.flush();
+        em.clear();
+
+        assertEquals(1, CONFIRM_CALLS.get());
+        Payment payment = paymentRepository.findByPaymentKey("pk_ok_1").orElseThrow();
+        assertEquals(Payment.APPROVED, payment.getStatus());
+        assertEquals("카드", payment.getMethod());
+        assertEquals(1, payment.getAttempts());
+        assertEquals(OrderStatus.PREPARING, orderRepository.findById(order.getId()).orElseThrow().getStatus());
+
+        // 승인된 주문에 다른 키로 결제 시도 -> 거절
+        assertThrows(IllegalStateException.class,
+                () -> paymentService.confirmTossPayment("pk_ok_2", "PAY-ORD-1", 30000));
+        assertEquals(1, CONFIRM_CALLS.get());
+    }
+
+    @Test
+    @DisplayName("결제 승인 - 같은 주문에 다른 paymentKey 로 승인 요청 중이면 결제사 호출 전에 거절, 중단된 요청이면 진행")
+    void inFlightPaymentOfOrderTest() {
+        // given: 다른 키로 방금 승인 요청을 보낸 결제
+        Order order = createPendingOrder(createClient(), "PAY-ORD-6", 30000);
+        Payment inFlight = new Payment();
+        inFlight.setPaymentKey("pk_ok_first");
+        inFlight.setOrder(order);
+        inFlight.setAmount(30000);
+        inFlight.setStatus(Payment.REQUESTED);
+        inFlight.setAttempts(1);
+        inFlight.setRequestedAt(LocalDateTime.now());
+        paymentRepository.saveAndFlush(inFlight);
+
+        // when / then: 두 번째 키는 거절 (결제사 호출 없음)
+        assertThrows(IllegalStateException.class,
+                () -> paymentService.confirmTossPayment("pk_ok_second", "PAY-ORD-6", 30000));
+        assertEquals(0, CONFIRM_CALLS.get());
+
+        // when: 앞 요청이 중단된 것으로 볼 만큼 오래됨
+        inFlight.setRequestedAt(LocalDateTime.now().minusHours(1));
+        paymentRepository.saveAndFlush(inFlight);
+        paymentService.confirmTossPayment("pk_ok_second", "PAY-ORD-6", 30000);
+
+        // then
+        em.flush();
+        em.clear();
+        assertEquals(1, CONFIRM_CALLS.get());
+        assertEquals(Payment.APPROVED, paymentRepository.findByPaymentKey("pk_ok_second").orElseThrow().getStatus());
+        assertEquals(OrderStatus.PREPARING, orderRepository.findById(order.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("결제 승인 - 금액 불일치는 결제사 호출 전에 거절")
+    void amountMismatchTest() {
+        createPendingOrder(createClient(), "PAY-ORD-2", 30000);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> paymentService.confirmTossPayment("pk_ok_3", "PAY-ORD-2", 1000));
+        assertEquals(0, CONFIRM_CALLS.get());
+    }
+
+    @Test
+    @DisplayName("결제 승인 - 결제사 거절은 실패, 응답 지연은 결과 불확실로 기록하고 주문은 결제대기 유지")
+    void gatewayFailureTest() {
+        Client client = createClient();
+        Order rejected = createPendingOrder(client, "PAY-ORD-3", 30000);
+        Order slow = createPendingOrder(client, "PAY-ORD-4", 30000);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> paymentService.confirmTossPayment("pk_reject_1", "PAY-ORD-3", 30000));
+
+        long start = System.nanoTime();
+        assertThrows(IllegalStateException.class,
+                () -> paymentService.confirmTossPayment("pk_slow_1", "PAY-ORD-4", 30000));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        em.flush();
+        em.clear();
+
+        Payment rejectedPayment = paymentRepository.findByPaymentKey("pk_reject_1").orElseThrow();
+        assertEquals(Payment.FAILED, rejectedPayment.getStatus());
+        assertEquals("REJECT_CARD_COMPANY", rejectedPayment.getErrorCode());
+
+        Payment slowPayment = paymentRepository.findByPaymentKey("pk_slow_1").orElseThrow();
+        assertEquals(Payment.UNKNOWN, slowPayment.getStatus());
+        assertEquals("TIMEOUT", slowPayment.getErrorCode());
+        assertTrue(elapsedMillis < 1500, "읽기 시간 제한에서 끊겨야 함: " + elapsedMillis + "ms");
+
+        assertEquals(OrderStatus.PENDING, orderRepository.findById(rejected.getId()).orElseThrow().getStatus());
+        assertEquals(OrderStatus.PENDING, orderRepository.findById(slow.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("결제 승인 - 응답을 받지 못한 결제는 다른 결제를 막고, 같은 paymentKey 로 다시 확인해 승인 반영")
+    void unknownOutcomeResolvedTest() {
+        // given
+        Order order = createPendingOrder(createClient(), "PAY-ORD-7", 30000);
+
+        // when: 결제사는 승인했지만 응답 시간 초과
+        assertThrows(IllegalStateException.class,
+                () -> paymentService.confirmTossPayment("pk_late_1", "PAY-ORD-7", 30000));
+        em.flush();
+        em.clear();
+
+        // then: 실패로 확정하지 않고, 결과 확인 전에는 다른 키의 결제를 결제사 호출 전에 거절
+        assertEquals(Payment.UNKNOWN, paymentRepository.findByPaymentKey("pk_late_1").orElseThrow().getStatus());
+        assertThrows(IllegalStateException.class,
+                () -> paymentService.confirmTossPayment("pk_ok_7", "PAY-ORD-7", 30000));
+        assertEquals(1, CONFIRM_CALLS.get());
+        assertEquals(OrderStatus.PENDING, orderRepository.findById(order.getId()).orElseThrow().getStatus());
+
+        // when: 재확인 (같은 Idempotency-Key 로 원래 승인 결과를 받음)
+        assertEquals(1, paymentService.resolveUnknownPayments());
+        em.flush();
+        em.clear();
+
+        // then
+        Payment payment = paymentRepository.findByPaymentKey("pk_late_1").orElseThrow();
+        assertEquals(Payment.APPROVED, payment.getStatus());
+        assertEquals(2, payment.getAttempts());
+        assertEquals(2, CONFIRM_CALLS.get());
+        assertEquals(OrderStatus.PREPARING, orderRepository.findById(order.getId()).orElseThrow().getStatus());
+        assertEquals(0, paymentService.resolveUnknownPayments());
+    }
+
+    @Test
+    @DisplayName("결제 승인 후속 작업 - 아웃박스로 장바구니 정리 / 결제 완료 메일을 처리")
+    void outboxSideEffectsTest() {
+        // given: 장바구니에 상품 2개, 그중 1개만 주문
+        Client client = createClient();
+        Product ordered = createProduct("PAY-P-1");
+        Product kept = createProduct("PAY-P-2");
+
+        Cart cart = new Cart();
+        cart.setClient(client);
+        cart.getCartItems().add(cartItem(cart, ordered));
+        cart.getCartItems().add(cartItem(cart, kept));
+        cartRepository.save(cart);
+
+        Order order = createPendingOrder(client, "PAY-ORD-5", 20000);
+        OrderItem item = new OrderItem();
+        item.setProduct(ordered);
+        item.setCount(2);
+        item.setPrice(10000);
+        order.addOrderItem(item);
+        em.flush();
+
+        // when: 승인 -> 커밋 후 작업은 아웃박스에만 등록됨
+        paymentService.confirmTossPayment("pk_ok_outbox", "PAY-ORD-5", 20000);
+        em.flush();
+        em.clear();
+
+        List<OutboxEvent> events = outboxEventRepository.findByAggregateIdOrderByIdAsc(order.getId());
+        assertEquals(3, events.size());
+        assertTrue(events.stream().allMatch(event -> OutboxEvent.PENDING.equals(event.getStatus())));
+        Cart paidCart = cartRepository.findByClient(client).orElseThrow();
+        assertEquals(2, paidCart.getCartItems().size());
+
+        // 장바구니 정리 이벤트에는 승인 시점의 주문 상품 항목 ID 만 담김
+        Long orderedItemId = paidCart.getCartItems().stream()
+                .filter(ci -> ci.getProduct().getId().equals(ordered.getId()))
+                .findFirst().orElseThrow().getId();
+        assertEquals(String.valueOf(orderedItemId), events.stream()
+                .filter(event -> OutboxEvent.CART_CLEANUP.equals(event.getEventType()))
+                .findFirst().orElseThrow().getPayload());
+
+        // when: 정리 전에 같은 상품을 다시 담음 (새 항목)
+        paidCart.getCartItems().removeIf(ci -> ci.getId().equals(orderedItemId));
+        em.flush();
+        CartItem readded = cartItem(paidCart, ordered);
+        paidCart.getCartItems().add(readded);
+        em.flush();
+        em.clear();
+
+        // when: 디스패처 실행
+        assertEquals(3, outboxDispatcher.dispatchOnce());
+        em.clear();
+
+        // then: 결제한 항목만 삭제, 다시 담은 항목과 주문하지 않은 항목은 남음
+        List<CartItem> remaining = cartRepository.findByClient(client).orElseThrow().getCartItems();
+        assertEquals(2, remaining.size());
+        assertTrue(remaining.stream().anyMatch(ci -> ci.getProduct().getId().equals(kept.getId())));
+        assertTrue(remaining.stream().anyMatch(ci -> ci.getId().equals(readded.getId())));
+        verify(mailService).sendOrderPaidMail(anyString(), anyString(), eq("PAY-ORD-5"), eq(20000));
+        assertTrue(outboxEventRepository.findByAggregateIdOrderByIdAsc(order.getId()).stream()
+                .allMatch(event -> OutboxEvent.DONE.equals(event.getStatus())));
+    }
+
+    private Product createProduct(String code) {
+        Product product = new Product();
+        product.setProductCode(code);
+        product.setName("상품_" + code);
+        product.setSupplyPrice(10000);
+        product.setConsumerPrice(15000);
+        product.setCostPrice(5000);
+        product.setOrigin("Korea");
+        product.setDescription("Desc");
+        product.setStatus(ProductStatus.ON_SALE);
+        return productRepository.save(product);
+    }
+
+    private CartItem cartItem(Cart cart, Product product) {
+        CartItem cartItem = new CartItem();
+        cartItem.setCart(cart);
+        cartItem.setProduct(product);
+        cartItem.setCount(1);
+        return cartItem;
+    }
+}
@@ -1,22 +1,35 @@
 package com.age.b2b.service;
 
+import com.age.b2b.domain.Client;
 import com.age.b2b.domain.Product;
+import com.age.b2b.domain.SearchToken;
+import com.age.b2b.domain.common.ClientStatus;
 import com.age.b2b.domain.common.ProductStatus;
 import com.age.b2b.dto.ProductRequestDto;
 import com.age.b2b.dto.ProductResponseDto;
+import com.age.b2b.repository.ClientRepository;
 import com.age.b2b.repository.ProductRepository;
+import com.age.b2b.service.search.SearchTokenizer;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,7 +40,10 @@ class ProductServiceTest {
 
     @Autowired ProductService productService;
     @Autowired ProductRepository productRepository;
+    @Autowired ClientRepository clientRepository;
     @Autowired EntityManager em;
+    @Autowired EntityManagerFactory entityManagerFactory;
+    @Autowired JdbcTemplate jdbcTemplate;
 
     // 테스트용 DTO 생성 헬퍼
     private ProductRequestDto createProductDto(String name, int price) {
@@ -186,4 +202,134 @@ class ProductServiceTest {
 
         System.out.println("\n================ [목록 조회 테스트 성공] ================\n");
     }
-}
\ No newline at end of file
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("2차 캐시 - 상품코드 / 아이디 재조회는 자연 키 캐시와 엔티티 캐시에서 SQL 없이 반환, 수정하면 캐시도 갱신")
+    void secondLevelCacheTest() {
+        // given: 커밋된 상품 / 고객사 (트랜잭션 없이 저장)
+        String suffix = String.valueOf(System.nanoTime() % 100000000);
+        Product product = new Product();
+        product.setName("캐시 테스트 상품");
+        product.setProductCode("CACHE-" + suffix);
+        product.setConsumerPrice(12000);
+        product.setSupplyPrice(8000);
+        product.setCostPrice(5000);
+        product.setStatus(ProductStatus.ON_SALE);
+        Long productId = productRepository.save(product).getId();
+
+        Client client = new Client();
+        client.setUsername("cache_" + suffix);
+        client.setPassword("1234");
+        client.setBusinessName("캐시약국");
+        client.setPhone("013-" + suffix);
+        client.setEmail("cache_" + suffix + "@test.com");
+        client.setBusinessNumber("CA-" + suffix);
+        client.setOwnerName("김캐시");
+        client.setAddress("서울");
+        client.setClientCategory("PHARMACY");
+        client.setApprovalStatus(ClientStatus.APPROVED);
+        Long clientId = clientRepository.save(client).getClientId();
+
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        try {
+            // when: 첫 조회 (캐시 적재)
+            assertEquals(productId, productRepository.findByProductCode("CACHE-" + suffix).orElseThrow().getId());
+            assertEquals(clientId, clientRepository.findByUsername("cache_" + suffix).orElseThrow().getClientId());
+
+            // when: 재조회
+            long naturalIdHits = statistics.getNaturalIdCacheHitCount();
+            long entityHits = statistics.getSecondLevelCacheHitCount();
+            long statements = statistics.getPrepareStatementCount();
+            assertEquals("캐시 테스트 상품", productRepository.findByProductCode("CACHE-" + suffix).orElseThrow().getName());
+            assertEquals("캐시약국", clientRepository.findByUsername("cache_" + suffix).orElseThrow().getBusinessName());
+
+            // then: 자연 키 -> 엔티티 모두 캐시 적중, SQL 없음
+            assertEquals(naturalIdHits + 2, statistics.getNaturalIdCacheHitCount());
+            assertEquals(entityHits + 2, statistics.getSecondLevelCacheHitCount());
+            assertEquals(statements, statistics.getPrepareStatementCount());
+
+            // when: 상품 수정 후 재조회
+            Product loaded = productRepository.findById(productId).orElseThrow();
+            loaded.setName("캐시 테스트 상품 (수정)");
+            productRepository.save(loaded);
+
+            // then: 캐시도 수정된 값
+            assertEquals("캐시 테스트 상품 (수정)", productRepository.findByProductCode("CACHE-" + suffix).orElseThrow().getName());
+        } finally {
+            jdbcTemplate.update("DELETE FROM search_tokens WHERE doc_type = ? AND doc_id = ?", SearchToken.PRODUCT, productId);
+            productRepository.deleteById(productId);
+            clientRepository.deleteById(clientId);
+        }
+    }
+
+    @Test
+    @DisplayName("검색 토크나이저 - 소문자 / 공백 제거 후 1·2글자 토큰, 검색어는 2글자 이상이면 bigram 만")
+    void searchTokenizerTest() {
+        assertEquals("vitac골드", SearchTokenizer.normalize(" Vita C 골드 "));
+        assertEquals("", SearchTokenizer.normalize(null));
+
+        // 색인: unigram + bigram, 같은 토큰은 가중치 합산
+        assertEquals(Map.of("홍", 2, "삼", 2, "홍삼", 2), SearchTokenizer.tokens("홍 삼", 2));
+        assertEquals(Map.of("a", 6, "aa", 3), SearchTokenizer.tokens("AA", 3));
+
+        // 검색어
+        assertEquals(Set.of("홍"), SearchTokenizer.queryTokens("홍"));
+        assertEquals(Set.of("홍삼", "삼정"), SearchTokenizer.queryTokens("홍삼 정"));
+        assertTrue(SearchTokenizer.queryTokens("  ").isEmpty());
+    }
+
+    @Test
+    @DisplayName("상품 검색 - 색인으로 부분 문자열 검색 (대소문자 / 공백 무시), 이름을 바꾸면 색인도 바뀜")
+    void productSearchTest() {
+        // given
+        Long stick = productService.saveProduct(createProductDto("고려 쌍화 스틱", 10000));
+        Long gold = productService.saveProduct(createProductDto("쌍화정 골드", 10000));
+        Long omega = productService.saveProduct(createProductDto("Omega Three", 10000));
+        em.flush();
+        em.clear();
+
+        // when / then
+        assertEquals(Set.of(stick, gold), searchIds("쌍화"));
+        assertEquals(Set.of(stick), searchIds("화스"));       // 공백을 넘는 부분 문자열 ("쌍화 스틱" -> "쌍화스틱")
+        assertEquals(Set.of(gold), searchIds("쌍화정"));
+        assertEquals(Set.of(omega), searchIds("OMEGA"));      // 대소문자 무시
+        assertEquals(Set.of(), searchIds("쌍화골드"));          // 이어지지 않는 문자열은 매칭되지 않음 (LIKE 와 동일)
+        assertEquals(Set.of(stick, gold), searchIds("쌍"));   // 1글자 검색
+
+        // when: 상품명 변경
+        productRepository.findById(gold).orElseThrow().setName("인삼정 골드");
+        em.flush();
+        em.clear();
+
+        // then
+        assertEquals(Set.of(stick), searchIds("쌍화"));
+        assertEquals(Set.of(gold), searchIds("인삼"));
+    }
+
+    @Test
+    @DisplayName("상품 검색 순위 - 검색어 토큰 가중치 합이 큰 상품이 먼저, 같으면 최신순")
+    void productSearchRankingTest() {
+        // given: 먼저 등록한 상품에 검색어가 두 번 등장
+        Long twice = productService.saveProduct(createProductDto("칼슘 칼슘 마그네슘", 10000));
+        Long once = productService.saveProduct(createProductDto("칼슘 정", 10000));
+        Long newest = productService.saveProduct(createProductDto("칼슘 츄어블", 10000));
+        em.flush();
+        em.clear();
+
+        // when
+        List<Long> ids = productService.getProductList("칼슘", null, 0).getContent().stream()
+                .map(ProductResponseDto::getId)
+                .toList();
+
+        // then: 가중치 순 -> 같은 가중치는 최신순
+        assertEquals(List.of(twice, newest, once), ids);
+    }
+
+    private Set<Long> searchIds(String keyword) {
+        return productService.getProductList(keyword, null, 0).getContent().stream()
+                .map(ProductResponseDto::getId)
+                .collect(Collectors.toSet());
+    }
+}
@@ -3,21 +3,28 @@ package com.age.b2b.service;
 import com.age.b2b.domain.Client;
 import com.age.b2b.domain.Order;
 import com.age.b2b.domain.Settlement;
+import com.age.b2b.domain.SettlementRun;
 import com.age.b2b.domain.common.ClientStatus;
 import com.age.b2b.domain.common.OrderStatus;
+import com.age.b2b.dto.SettlementRunStatusDto;
 import com.age.b2b.repository.ClientRepository;
 import com.age.b2b.repository.OrderRepository;
 import com.age.b2b.repository.SettlementRepository;
+import com.age.b2b.service.settlement.SettlementEngine;
 import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +39,8 @@ class SettlementServiceTest {
     @Autowired SettlementRepository settlementRepository;
     @Autowired ClientRepository clientRepository;
     @Autowired OrderRepository orderRepository;
+    @Autowired SettlementEngine settlementEngine;
+    @Autowired JdbcTemplate jdbcTemplate;
     @Autowired EntityManager em;
 
     // 테스트 헬퍼: 특정 날짜에 배송완료된 주문 생성
@@ -118,4 +127,151 @@ class SettlementServiceTest {
         // 10000 + 20000 = 30000원이어야 함 (11월 주문 제외, 배송중 제외)
         assertEquals(30000, settlement.getTotalAmount());
     }
+
+    @Test
+    @DisplayName("월별 정산 청크 처리 - 고객사별 합계를 청크 단위로 생성하고 체크포인트를 남기며, 다시 실행해도 중복 생성되지 않음")
+    void chunkedSettlementTest() {
+        // given: 고객사 5곳, 2002년 4월 배송완료 주문 각 2건 / 청크 크기 2
+        List<Long> clientIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String suffix = String.valueOf(System.nanoTime() % 100000000);
+            Client client = new Client();
+            client.setUsername("settle_chunk_" + suffix);
+            client.setPassword("1234");
+            client.setBusinessName("청크정산약국" + i);
+            client.setPhone("012-" + suffix);
+            client.setEmail("settle_chunk_" + suffix + "@test.com");
+            client.setBusinessNumber("SC-" + suffix);
+            client.setOwnerName("김정산");
+            client.setAddress("부산");
+            client.setClientCategory("PHARMACY");
+            client.setApprovalStatus(ClientStatus.APPROVED);
+            clientRepository.save(client);
+            clientIds.add(client.getClientId());
+
+            createDeliveredOrder(client, 1000 * (i + 1), LocalDateTime.of(2002, 4, 3, 10, 0));
+            createDeliveredOrder(client, 500, LocalDateTime.of(2002, 4, 28, 10, 0));
+        }
+
+        Object originalChunkSize = ReflectionTestUtils.getField(settlementEngine, "chunkSize");
+        ReflectionTestUtils.setField(settlementEngine, "chunkSize", 2);
+        try {
+            // when
+            SettlementRunStatusDto first = settlementService.createMonthlySettlement(2002, 4);
+
+            // then: 고객사마다 정산 1건, 금액은 월 주문 합계
+            assertEquals(SettlementRun.COMPLETED, first.getStatus());
+            assertEquals(5, first.getCreatedCount());
+            assertEquals(1000 + 2000 + 3000 + 4000 + 5000 + 5 * 500, first.getTotalAmount());
+            for (int i = 0; i < 5; i++) {
+                assertEquals(1000L * (i + 1) + 500, jdbcTemplate.queryForObject(
+                        "SELECT total_amount FROM settlements WHERE client_id = ? AND settlement_month = '2002-04'",
+                        Long.class, clientIds.get(i)));
+            }
+
+            // then: 파티션마다 2건씩 청크로 나눠 처리, 체크포인트는 마지막 처리 고객사
+            for (SettlementRunStatusDto.Partition partition : first.getPartitions()) {
+                assertEquals((partition.getCreatedCount() + 1) / 2, partition.getCompletedChunks());
+                assertEquals(SettlementRun.COMPLETED, partition.getStatus());
+                assertTrue(partition.getLastClientId() <= partition.getToClientId());
+            }
+
+            // when: 같은 월 다시 실행
+            SettlementRunStatusDto second = settlementService.createMonthlySettlement(2002, 4);
+
+            // then: 이미 정산된 고객사는 제외
+            assertEquals(SettlementRun.COMPLETED, second.getStatus());
+            assertEquals(0, second.getCreatedCount());
+            assertEquals(5, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM settlements WHERE settlement_month = '2002-04'", Integer.class));
+        } finally {
+            ReflectionTestUtils.setField(settlementEngine, "chunkSize", originalChunkSize);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("월별 정산 부분 실패 - 실패한 파티션만 FAILED 로 남고 나머지는 커밋, 재실행 시 실패 파티션만 이어서 처리")
+    void partialFailureTest() {
+        // given: 고객사 4곳 (파티션 4개), 2001년 3월 배송완료 주문 각 1건 - 트랜잭션 없이 커밋
+        List<Long> clientIds = new ArrayList<>();
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String suffix = String.valueOf(System.nanoTime() % 100000000);
+            Client client = new Client();
+            client.setUsername("settle_part_" + suffix);
+            client.setPassword("1234");
+            client.setBusinessName("부분정산약국" + i);
+            client.setPhone("011-" + suffix);
+            client.setEmail("settle_part_" + suffix + "@test.com");
+            client.setBusinessNumber("SP-" + suffix);
+            client.setOwnerName("김정산");
+            client.setAddress("부산");
+            client.setClientCategory("PHARMACY");
+            client.setApprovalStatus(ClientStatus.APPROVED);
+            clientIds.add(clientRepository.save(client).getClientId());
+
+            Order order = new Order();
+            order.setClient(client);
+            order.setTotalAmount(10000 * (i + 1));
+            order.setStatus(OrderStatus.DELIVERED);
+            order.setOrderNumber("ORD-PART-" + System.nanoTime());
+            orderIds.add(orderRepository.save(order).getId());
+        }
+        jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE order_id IN (?, ?, ?, ?)",
+                LocalDateTime.of(2001, 3, 10, 10, 0), orderIds.get(0), orderIds.get(1), orderIds.get(2), orderIds.get(3));
+
+        // 세 번째 고객사의 정산 INSERT 만 실패하도록 트리거 설치
+        Long failingClientId = clientIds.get(2);
+        jdbcTemplate.execute("CREATE TRIGGER trg_settlement_partial_failure BEFORE INSERT ON settlements FOR EACH ROW " +
+                "BEGIN IF NEW.client_id = " + failingClientId + " THEN " +
+                "SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'partial failure test'; END IF; END");
+        try {
+            // when
+            SettlementRunStatusDto first = settlementService.createMonthlySettlement(2001, 3);
+
+            // then: 실패 고객사가 속한 파티션만 FAILED, 다른 파티션의 정산은 커밋됨
+            assertEquals(SettlementRun.FAILED, first.getStatus());
+            assertEquals(1, first.getFailedPartitions());
+            List<Long> expected = new ArrayList<>(clientIds);
+            for (SettlementRunStatusDto.Partition partition : first.getPartitions()) {
+                boolean containsFailing = failingClientId > partition.getFromClientId() && failingClientId <= partition.getToClientId();
+                assertEquals(containsFailing ? SettlementRun.FAILED : SettlementRun.COMPLETED, partition.getStatus());
+                if (containsFailing) {
+                    expected.removeIf(id -> id > partition.getFromClientId() && id <= partition.getToClientId());
+                }
+            }
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, settledClients(clientIds));
+
+            // when: 원인 제거 후 재실행
+            jdbcTemplate.execute("DROP TRIGGER trg_settlement_partial_failure");
+            SettlementRunStatusDto second = settlementService.createMonthlySettlement(2001, 3);
+
+            // then: 같은 실행을 이어서 완료, 고객사마다 정산 1건
+            assertEquals(first.getRunId(), second.getRunId());
+            assertEquals(SettlementRun.COMPLETED, second.getStatus());
+            assertEquals(4, settledClients(clientIds).size());
+            assertEquals(100000, second.getTotalAmount());
+        } finally {
+            jdbcTemplate.execute("DROP TRIGGER IF EXISTS trg_settlement_partial_failure");
+            jdbcTemplate.update("DELETE FROM settlements WHERE settlement_month = '2001-03'");
+            jdbcTemplate.update("DELETE p FROM settlement_partitions p JOIN settlement_runs r ON r.run_id = p.run_id " +
+                    "WHERE r.settlement_month = '2001-03'");
+            jdbcTemplate.update("DELETE FROM settlement_runs WHERE settlement_month = '2001-03'");
+            orderRepository.deleteAllById(orderIds);
+            clientIds.forEach(clientId -> {
+                jdbcTemplate.update("DELETE FROM daily_order_rollups WHERE client_id = ?", clientId);
+                jdbcTemplate.update("DELETE FROM daily_sales_rollups WHERE client_id = ?", clientId);
+            });
+            clientRepository.deleteAllById(clientIds);
+        }
+    }
+
+    private List<Long> settledClients(List<Long> clientIds) {
+        return jdbcTemplate.queryForList("SELECT client_id FROM settlements WHERE settlement_month = '2001-03' ORDER BY client_id", Long.class)
+                .stream()
+                .filter(clientIds::contains)
+                .toList();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,234 @@
+package com.age.b2b.service;
+
+import com.age.b2b.domain.Client;
+import com.age.b2b.domain.Order;
+import com.age.b2b.domain.OrderItem;
+import com.age.b2b.domain.Product;
+import com.age.b2b.domain.ProductLot;
+import com.age.b2b.domain.ShipmentLot;
+import com.age.b2b.domain.common.ClientStatus;
+import com.age.b2b.domain.common.OrderStatus;
+import com.age.b2b.domain.common.ProductStatus;
+import com.age.b2b.dto.BulkShipmentResultDto;
+import com.age.b2b.dto.InboundRequestDto;
+import com.age.b2b.dto.ShipmentListResponseDto;
+import com.age.b2b.repository.ClientRepository;
+import com.age.b2b.repository.OrderRepository;
+import com.age.b2b.repository.ProductLotRepository;
+import com.age.b2b.repository.ProductRepository;
+import com.age.b2b.repository.ShipmentLotRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@Slf4j
+@TestPropertySource(locations = "classpath:application-test.properties")
+class ShipmentServiceTest {
+
+    @Autowired ShipmentService shipmentService;
+    @Autowired InventoryService inventoryService;
+    @Autowired OrderRepository orderRepository;
+    @Autowired ClientRepository clientRepository;
+    @Autowired ProductRepository productRepository;
+    @Autowired ProductLotRepository productLotRepository;
+    @Autowired ShipmentLotRepository shipmentLotRepository;
+    @Autowired EntityManager em;
+
+    // 데이터 셋업 헬퍼
+    private Client createClient() {
+        Client client = new Client();
+        client.setUsername("user_bulk");
+        client.setBusinessName("일괄출고약국");
+        client.setPassword("1234");
+        client.setPhone("010-1234-5678");
+        client.setEmail("bulk@email.com");
+        client.setBusinessNumber("123-45-67890");
+        client.setOwnerName("홍길동");
+        client.setAddress("서울");
+        client.setClientCategory("ETC");
+        client.setApprovalStatus(ClientStatus.APPROVED);
+        return clientRepository.save(client);
+    }
+
+    private Product createProduct(String code) {
+        Product product = new Product();
+        product.setProductCode(code);
+        product.setName("상품_" + code);
+        product.setSupplyPrice(10000);
+        product.setConsumerPrice(15000);
+        product.setCostPrice(5000);
+        product.setOrigin("Korea");
+        product.setDescription("Desc");
+        product.setStatus(ProductStatus.ON_SALE);
+        return productRepository.save(product);
+    }
+
+    private Long inbound(Product product, String lotNumber, int qty, LocalDate expiry) {
+        return inventoryService.registerInbound(InboundRequestDto.builder()
+                .productId(product.getId())
+                .lotNumber(lotNumber)
+                .quantity(qty)
+                .inboundDate(LocalDate.now())
+                .expiryDate(expiry)
+                .build());
+    }
+
+    private Order createOrder(Client client, String orderNumber, Product product, int count) {
+        Order order = new Order();
+        order.setClient(client);
+        order.setOrderNumber(orderNumber);
+        order.setStatus(OrderStatus.PREPARING);
+        order.setTotalAmount(count * 10000);
+
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setCount(count);
+        item.setPrice(10000);
+        order.addOrderItem(item);
+
+        return orderRepository.save(order);
+    }
+
+    @Test
+    @DisplayName("일괄 출고 - 유통기한 임박 Lot부터 할당하고 재고 부족 주문만 실패 처리")
+    void bulkShipmentTest() {
+        // given: 재고 10개 (임박 4 + 여유 6), 주문 6개 / 6개 / 존재하지 않는 주문
+        Client client = createClient();
+        Product product = createProduct("BULK-001");
+        Long nearLotId = inbound(product, "LOT-BULK-1", 4, LocalDate.now().plusMonths(2));
+        Long farLotId = inbound(product, "LOT-BULK-2", 6, LocalDate.now().plusYears(1));
+
+        Order first = createOrder(client, "ORD-BULK-1", product, 6);
+        Order second = createOrder(client, "ORD-BULK-2", product, 6);
+
+        em.flush();
+        em.clear();
+
+        // when
+        BulkShipmentResultDto result = shipmentService.createShipments(
+                List.of(first.getId(), second.getId(), -1L));
+
+        em.flush();
+        em.clear();
+
+        // then
+        assertEquals(3, result.getRequestedCount());
+        assertEquals(1, result.getSuccessCount());
+        assertEquals(2, result.getFailureCount());
+
+        BulkShipmentResultDto.Item firstResult = result.getResults().get(0);
+        assertTrue(firstResult.isSuccess());
+        assertNotNull(firstResult.getShipmentId());
+        assertFalse(result.getResults().get(1).isSuccess());
+        assertFalse(result.getResults().get(2).isSuccess());
+
+        ProductLot nearLot = productLotRepository.findById(nearLotId).orElseThrow();
+        ProductLot farLot = productLotRepository.findById(farLotId).orElseThrow();
+        assertEquals(0, nearLot.getQuantity());
+        assertEquals(4, farLot.getQuantity());
+
+        assertEquals(OrderStatus.SHIPPED, orderRepository.findById(first.getId()).orElseThrow().getStatus());
+        assertEquals(OrderStatus.PREPARING, orderRepository.findById(second.getId()).orElseThrow().getStatus());
+
+        result.getResults().forEach(item ->
+                log.info("주문 {}: 성공 {}, 출고번호 {}, 사유 {}",
+                        item.getOrderId(), item.isSuccess(), item.getShipmentNumber(), item.getMessage()));
+    }
+
+    @Test
+    @DisplayName("일괄 출고 - 상품준비중 주문만 출고하고 결제대기 / 취소 주문은 재고 차감 없이 실패 처리")
+    void bulkShipmentStatusTest() {
+        // given: 재고 10개, 상품준비중 / 결제대기 / 취소완료 주문 각 2개씩
+        Client client = createClient();
+        Product product = createProduct("BULK-STATUS");
+        Long lotId = inbound(product, "LOT-BULK-S", 10, LocalDate.now().plusYears(1));
+
+        Order preparing = createOrder(client, "ORD-BULK-S1", product, 2);
+        Order pending = createOrder(client, "ORD-BULK-S2", product, 2);
+        pending.setStatus(OrderStatus.PENDING);
+        Order cancelled = createOrder(client, "ORD-BULK-S3", product, 2);
+        cancelled.setStatus(OrderStatus.CANCELLED);
+
+        em.flush();
+        em.clear();
+
+        // when
+        BulkShipmentResultDto result = shipmentService.createShipments(
+                List.of(pending.getId(), preparing.getId(), cancelled.getId()));
+
+        em.flush();
+        em.clear();
+
+        // then: 상품준비중 주문만 성공, 재고는 그 주문만큼만 차감
+        assertEquals(1, result.getSuccessCount());
+        assertEquals(2, result.getFailureCount());
+        assertFalse(result.getResults().get(0).isSuccess());
+        assertTrue(result.getResults().get(1).isSuccess());
+        assertFalse(result.getResults().get(2).isSuccess());
+        assertNull(result.getResults().get(0).getShipmentId());
+
+        assertEquals(8, productLotRepository.findById(lotId).orElseThrow().getQuantity());
+        assertEquals(OrderStatus.PENDING, orderRepository.findById(pending.getId()).orElseThrow().getStatus());
+        assertEquals(OrderStatus.SHIPPED, orderRepository.findById(preparing.getId()).orElseThrow().getStatus());
+        assertEquals(OrderStatus.CANCELLED, orderRepository.findById(cancelled.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("출고 목록 - 출고 시 실제로 차감된 Lot 을 기록하고 목록에 표시")
+    void shipmentLotAllocationTest() {
+        // given: 임박 Lot 4개 + 여유 Lot 6개, 주문 6개 -> 두 Lot 에서 나눠 차감
+        Client client = createClient();
+        Product product = createProduct("SHIP-LOT-001");
+        Long nearLotId = inbound(product, "LOT-SHIP-1", 4, LocalDate.now().plusMonths(2));
+        Long farLotId = inbound(product, "LOT-SHIP-2", 6, LocalDate.now().plusYears(1));
+        Order order = createOrder(client, "ORD-SHIP-LOT-1", product, 6);
+
+        em.flush();
+        em.clear();
+
+        // when
+        Long shipmentId = shipmentService.createShipments(List.of(order.getId())).getResults().get(0).getShipmentId();
+
+        em.flush();
+        em.clear();
+
+        // then: Lot 별 할당 내역
+        List<ShipmentLot> shipmentLots = shipmentLotRepository.findByShipment_IdOrderByIdAsc(shipmentId);
+        assertEquals(2, shipmentLots.size());
+        assertEquals(nearLotId, shipmentLots.get(0).getLotId());
+        assertEquals(4, shipmentLots.get(0).getQuantity());
+        assertEquals("LOT-SHIP-1", shipmentLots.get(0).getLotNumber());
+        assertEquals(farLotId, shipmentLots.get(1).getLotId());
+        assertEquals(2, shipmentLots.get(1).getQuantity());
+
+        // then: 목록의 Lot 은 실제로 출고된 첫 번째 Lot
+        Page<ShipmentListResponseDto> list = shipmentService.getShipmentList("ORD-SHIP-LOT-1", 0);
+        assertEquals(1, list.getTotalElements());
+        ShipmentListResponseDto row = list.getContent().get(0);
+        assertEquals("LOT-SHIP-1", row.getLotNumber());
+        assertEquals(6, row.getQuantity());
+        assertEquals("SHIP-LOT-001", row.getProductCode());
+
+        // when: 출고 삭제 -> 차감했던 Lot 으로 복구
+        shipmentService.deleteShipments(List.of(shipmentId));
+        em.flush();
+        em.clear();
+
+        assertEquals(4, productLotRepository.findById(nearLotId).orElseThrow().getQuantity());
+        assertEquals(6, productLotRepository.findById(farLotId).orElseThrow().getQuantity());
+        assertTrue(shipmentLotRepository.findByShipment_IdOrderByIdAsc(shipmentId).isEmpty());
+    }
+}
@@ -0,0 +1,239 @@
+package com.age.b2b.service;
+
+import com.age.b2b.domain.Product;
+import com.age.b2b.domain.SearchToken;
+import com.age.b2b.domain.common.ProductStatus;
+import com.age.b2b.dto.InboundRequestDto;
+import com.age.b2b.repository.ProductRepository;
+import com.age.b2b.service.stock.StockConcurrencyMode;
+import com.age.b2b.service.stock.StockContentionMetrics;
+import com.age.b2b.service.stock.StockDeductor;
+import com.age.b2b.service.stock.StockLedger;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 재고 차감 동시성 - 커밋되는 트랜잭션 여러 개가 같은 상품을 동시에 차감 (테스트 트랜잭션 없이 실제 커밋)
+@SpringBootTest
+@Slf4j
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "inventory.concurrency.max-retries=20"
+})
+class StockDeductionConcurrencyTest {
+
+    private static final int THREADS = 10;
+    private static final int ORDER_QUANTITY = 7;
+    private static final int STOCK = 50; // Lot 30 + 20 -> 7개씩 최대 7건 (49개)
+
+    @Autowired InventoryService inventoryService;
+    @Autowired ProductRepository productRepository;
+    @Autowired StockDeductor stockDeductor;
+    @Autowired StockLedger stockLedger;
+    @Autowired StockContentionMetrics stockContentionMetrics;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    private StockConcurrencyMode originalMode;
+    private Long productId;
+    private Long firstLot;
+
+    @BeforeEach
+    void setUp() {
+        originalMode = (StockConcurrencyMode) ReflectionTestUtils.getField(stockDeductor, "mode");
+
+        Product product = new Product();
+        product.setName("동시 차감 테스트");
+        product.setProductCode("CONCURRENT-" + System.nanoTime());
+        product.setConsumerPrice(12000);
+        product.setSupplyPrice(8000);
+        product.setCostPrice(5000);
+        product.setStatus(ProductStatus.ON_SALE);
+        productId = productRepository.save(product).getId();
+
+        firstLot = inbound("LOT-CC-1", 30, LocalDate.now().plusDays(100));
+        inbound("LOT-CC-2", 20, LocalDate.now().plusDays(200));
+    }
+
+    @AfterEach
+    void cleanup() {
+        ReflectionTestUtils.setField(stockDeductor, "mode", originalMode);
+        stockLedger.invalidate(productId);
+
+        List<Long> lotIds = jdbcTemplate.queryForList("SELECT lot_id FROM product_lots WHERE product_id = ?", Long.class, productId);
+        for (Long lotId : lotIds) {
+            jdbcTemplate.update("DELETE FROM inventory_logs WHERE lot_id = ?", lotId);
+            jdbcTemplate.update("DELETE FROM search_tokens WHERE doc_type = ? AND doc_id = ?", SearchToken.LOT, lotId);
+        }
+        jdbcTemplate.update("DELETE FROM product_lots WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM search_tokens WHERE doc_type = ? AND doc_id = ?", SearchToken.PRODUCT, productId);
+        jdbcTemplate.update("DELETE FROM products WHERE product_id = ?", productId);
+    }
+
+    @Test
+    @DisplayName("메모리 원장 - 동시 차감은 재고를 넘지 않고, 커밋 후 원장과 DB 수량이 같으며 롤백분은 원장에 되돌아옴")
+    void ledgerConcurrentDeductTest() throws Exception {
+        // given
+        ReflectionTestUtils.setField(stockDeductor, "mode", StockConcurrencyMode.LEDGER);
+
+        // when
+        Outcome outcome = deductConcurrently();
+
+        // then: 7건만 성공, 유통기한 임박 Lot 부터 소진
+        assertEquals(List.of(), outcome.unexpected);
+        assertEquals(7, outcome.succeeded);
+        assertEquals(STOCK - 49, dbQuantity());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT quantity FROM product_lots WHERE lot_id = ?", Integer.class, firstLot));
+        assertEquals(dbQuantity(), stockLedger.available(productId));
+
+        // when: 차감 후 롤백
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            inventoryService.deductStock(productId, 1);
+            assertEquals(0, stockLedger.available(productId));
+            status.setRollbackOnly();
+        });
+
+        // then: 원장 / DB 모두 그대로
+        assertEquals(1, stockLedger.available(productId));
+        assertEquals(1, dbQuantity());
+    }
+
+    @Test
+    @DisplayName("메모리 원장 - 커밋 전 예약분은 원장을 무효화하고 다시 적재해도 빠진 채로 유지")
+    void ledgerInvalidateWithInFlightReservationTest() {
+        // given
+        ReflectionTestUtils.setField(stockDeductor, "mode", StockConcurrencyMode.LEDGER);
+
+        // when: 차감 후 커밋 전에 원장 무효화 -> DB 에는 아직 차감 전 수량
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            inventoryService.deductStock(productId, ORDER_QUANTITY);
+            stockLedger.invalidate(productId);
+
+            // then: 다시 적재해도 진행 중인 예약분은 제외
+            assertEquals(STOCK - ORDER_QUANTITY, stockLedger.available(productId));
+        });
+
+        // then: 커밋 후 (예약분이 DB 에 반영) 두 번 빠지지 않음
+        assertEquals(STOCK - ORDER_QUANTITY, dbQuantity());
+        assertEquals(STOCK - ORDER_QUANTITY, stockLedger.available(productId));
+    }
+
+    @ParameterizedTest
+    @EnumSource(StockConcurrencyMode.class)
+    @DisplayName("동시성 모드 비교 - 모든 모드에서 같은 부하에 초과 차감 없이 성공 건수만큼만 DB 에 반영")
+    void concurrencyModeTest(StockConcurrencyMode mode) throws Exception {
+        // given
+        ReflectionTestUtils.setField(stockDeductor, "mode", mode);
+        long deductionsBefore = metric("deductions");
+
+        // when
+        long started = System.nanoTime();
+        Outcome outcome = deductConcurrently();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        // then: 성공한 차감만 DB / 이력 / 지표에 반영
+        assertEquals(List.of(), outcome.unexpected);
+        assertEquals(STOCK - outcome.succeeded * ORDER_QUANTITY, dbQuantity());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM product_lots WHERE product_id = ? AND quantity < 0", Integer.class, productId));
+        assertEquals(outcome.succeeded, metric("deductions") - deductionsBefore);
+        assertEquals(dbQuantity(), stockLedger.available(productId));
+
+        // 낙관적 모드는 재시도 소진으로 실패할 수 있어 성공 건수만 확인, 나머지는 재고가 허용하는 7건 모두 성공
+        if (mode == StockConcurrencyMode.OPTIMISTIC) {
+            assertTrue(outcome.succeeded >= 1 && outcome.succeeded <= 7);
+        } else {
+            assertEquals(7, outcome.succeeded);
+        }
+
+        log.info("동시성 모드 {}: 성공 {}건 / 실패 {}건, {}ms, 지표 {}",
+                mode, outcome.succeeded, outcome.rejected, elapsedMillis, stockContentionMetrics.getMetrics());
+    }
+
+    // THREADS 개 트랜잭션이 동시에 ORDER_QUANTITY 개씩 차감 (재고 부족은 거절로 집계)
+    private Outcome deductConcurrently() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        Outcome outcome = new Outcome();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        tx.executeWithoutResult(status -> inventoryService.deductStock(productId, ORDER_QUANTITY));
+                        outcome.succeededCount.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        outcome.rejectedCount.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        outcome.unexpected.add(e.toString());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        outcome.succeeded = outcome.succeededCount.get();
+        outcome.rejected = outcome.rejectedCount.get();
+        return outcome;
+    }
+
+    private Long inbound(String lotNumber, int quantity, LocalDate expiryDate) {
+        return inventoryService.registerInbound(InboundRequestDto.builder()
+                .productId(productId)
+                .lotNumber(lotNumber)
+                .quantity(quantity)
+                .inboundDate(LocalDate.now())
+                .expiryDate(expiryDate)
+                .build());
+    }
+
+    private int dbQuantity() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM product_lots WHERE product_id = ?", Integer.class, productId);
+    }
+
+    private long metric(String name) {
+        return ((Number) stockContentionMetrics.getMetrics().get(name)).longValue();
+    }
+
+    private static class Outcome {
+        private final AtomicInteger succeededCount = new AtomicInteger();
+        private final AtomicInteger rejectedCount = new AtomicInteger();
+        private final List<String> unexpected = Collections.synchronizedList(new ArrayList<>());
+        private int succeeded;
+        private int rejected;
+    }
+}